@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRe
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class for starting the photo service application.
@@ -13,6 +14,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  * This is the entry point of the Spring Boot application. It sets up the Docker environment and
  * starts the application.
  * </p>
+ * <p>
+ * The scheduled background jobs share a pool of {@code spring.task.scheduling.pool.size}
+ * threads, so a long run of one job does not delay the others.
+ * </p>
  *
  * @since 1.0
  */
@@ -22,6 +27,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 })
 @EnableJpaRepositories(basePackages = {"org.gordeser.backend.repository"})
 @EnableElasticsearchRepositories(basePackages = {"org.gordeser.backend.elasticsearch"})
+@EnableScheduling
 public class DemoApplication {
     /**
      * The main method which serves as the entry point for the Spring Boot application.
@@ -0,0 +1,147 @@
+/**
+ * This package contains configuration classes for the photo service application.
+ * <p>
+ * These classes define beans and configurations that customize the behavior of
+ * the application components.
+ * </p>
+ */
+package org.gordeser.backend.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for background task execution.
+ * <p>
+ * Enables {@code @Async} methods and defines the bounded executors they run on, so that
+ * background work cannot starve request threads or grow without limit. A full executor rejects
+ * new tasks instead of running them on the submitting thread; its callers retry later.
+ * </p>
+ * <p>
+ * Defining executors makes Spring Boot skip its own {@code applicationTaskExecutor}, so it is
+ * defined here as well, configured by the {@code spring.task.execution} properties.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Number of threads generating image variants.
+     */
+    @Value("${image.variants.threads:2}")
+    private int imageVariantThreads;
+
+    /**
+     * Maximum number of images waiting for variant generation.
+     */
+    @Value("${image.variants.queue-capacity:100}")
+    private int imageVariantQueueCapacity;
+
+    /**
+     * Number of threads uploading the images of bulk ingestions.
+     */
+    @Value("${ingest.upload-threads:8}")
+    private int ingestUploadThreads;
+
+    /**
+     * Maximum number of bulk ingestion uploads waiting for a thread.
+     */
+    @Value("${ingest.queue-capacity:64}")
+    private int ingestQueueCapacity;
+
+    /**
+     * Number of threads writing streaming responses.
+     */
+    @Value("${streaming.threads:16}")
+    private int streamingThreads;
+
+    /**
+     * Maximum number of streaming responses waiting for a thread.
+     */
+    @Value("${streaming.queue-capacity:32}")
+    private int streamingQueueCapacity;
+
+    /**
+     * Creates the general purpose executor Spring Boot would define if no other executor existed.
+     *
+     * @param builder the builder configured by the {@code spring.task.execution} properties
+     * @return the application task executor
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(final ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Creates the executor generating image variants.
+     * <p>
+     * When the queue is full new images are rejected and picked up by the retry sweep of the
+     * variant service, so uploads never generate variants themselves.
+     * </p>
+     *
+     * @return the image variant executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageVariantThreads);
+        executor.setMaxPoolSize(imageVariantThreads);
+        executor.setQueueCapacity(imageVariantQueueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Creates the executor uploading the images of bulk ingestions.
+     * <p>
+     * When the queue is full new uploads are rejected, and the ingesting request waits for one of
+     * its own uploads before it submits again.
+     * </p>
+     *
+     * @return the bulk ingestion executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkIngestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ingestUploadThreads);
+        executor.setMaxPoolSize(ingestUploadThreads);
+        executor.setQueueCapacity(ingestQueueCapacity);
+        executor.setThreadNamePrefix("bulk-ingest-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Creates the executor writing the bodies of streaming responses.
+     * <p>
+     * When the queue is full new streaming requests are rejected with HTTP 503 instead of
+     * holding more database cursors open.
+     * </p>
+     *
+     * @return the streaming response executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingResponseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingThreads);
+        executor.setMaxPoolSize(streamingThreads);
+        executor.setQueueCapacity(streamingQueueCapacity);
+        executor.setThreadNamePrefix("mvc-stream-");
+        return executor;
+    }
+}
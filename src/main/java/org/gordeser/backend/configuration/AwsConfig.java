@@ -3,12 +3,19 @@ package org.gordeser.backend.configuration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AwsConfig {
@@ -26,13 +33,55 @@ public class AwsConfig {
     @Value("${cloud.aws.credentials.secretKey}")
     private String secretKey;
 
+    /**
+     * Custom S3 endpoint, e.g. a local MinIO; empty to use AWS.
+     */
+    @Getter
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
+    /**
+     * Size of one multipart upload part; smaller files are uploaded with a single PUT.
+     */
+    @Getter
+    @Value("${cloud.aws.s3.multipart.part-size:8MB}")
+    private DataSize partSize;
+
+    /**
+     * Number of parts uploaded in parallel across all uploads.
+     */
+    @Getter
+    @Value("${cloud.aws.s3.multipart.concurrency:4}")
+    private int uploadConcurrency;
+
+    /**
+     * Number of part buffers shared by all uploads, bounding the heap they use.
+     */
+    @Getter
+    @Value("${cloud.aws.s3.multipart.buffer-count:6}")
+    private int bufferCount;
+
     @Bean
     public AmazonS3 s3Client() {
         AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
 
-        return AmazonS3ClientBuilder.standard()
-                .withCredentials(new AWSStaticCredentialsProvider(credentials))
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(credentials));
+
+        if (StringUtils.hasText(endpoint)) {
+            return builder
+                    .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                    .withPathStyleAccessEnabled(true)
+                    .build();
+        }
+
+        return builder
                 .withRegion(region)
                 .build();
     }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3UploadExecutor() {
+        return Executors.newFixedThreadPool(uploadConcurrency, new CustomizableThreadFactory("s3-upload-"));
+    }
 }
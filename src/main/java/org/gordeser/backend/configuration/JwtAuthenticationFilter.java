@@ -7,31 +7,36 @@
  */
 package org.gordeser.backend.configuration;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.gordeser.backend.dto.AuthenticatedUser;
 import org.gordeser.backend.service.JwtService;
+import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Filter class for handling JWT authentication.
  * <p>
  * This filter intercepts every request to check for a valid JWT token in the
- * Authorization header. If a valid token is found, it extracts the username
- * and sets the authentication context.
+ * Authorization header. If a valid token is found, it sets the authentication context
+ * to an {@link AuthenticatedUser} built from the token claims. Reads need no database access;
+ * for requests that may change anything the token is checked against the current token version
+ * of the user and the account lock, so revoked tokens cannot write.
  * </p>
  */
 @Component
@@ -48,15 +53,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final JwtService jwtService;
 
-    /**
-     * Service for loading user details used for authentication.
-     */
-    private final UserDetailsService userDetailsService;
-
     /**
      * Filters incoming HTTP requests to check for valid JWT tokens in the Authorization header.
      * <p>
-     * If a valid JWT token is found, it extracts the username, loads user details, and sets the
+     * If a valid JWT token is found, it builds the principal from the token claims and sets the
      * authentication context for the request. If an error occurs, it is resolved using the
      * {@link HandlerExceptionResolver}.
      * </p>
@@ -82,22 +82,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract JWT from the header and retrieve the username
+            // Extract JWT from the header and verify it once; the principal is built from its claims
             final String jwt = authHeader.substring(7);
-            final String userName = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.verify(jwt);
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            // If the username is not null and the user is not already authenticated
-            if (userName != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
-
-                // If the JWT token is valid, set the authentication context
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            // If the user is not already authenticated, set the authentication context
+            if (authentication == null) {
+                Optional<AuthenticatedUser> principal = jwtService.toPrincipal(claims);
+                if (principal.isPresent()) {
+                    if (mayChangeState(request)) {
+                        jwtService.checkActive(principal.get());
+                    }
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal.get(),
                             null,
-                            userDetails.getAuthorities()
+                            List.of()
                     );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -110,4 +111,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    /**
+     * Checks whether a request may change anything, i.e. whether its method is not a safe one.
+     *
+     * @param request the {@link HttpServletRequest}
+     * @return true unless the method is GET, HEAD or OPTIONS
+     */
+    private static boolean mayChangeState(final HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
 }
@@ -7,16 +7,30 @@
  */
 package org.gordeser.backend.configuration;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class for creating and customizing {@link RestTemplate} instances.
  * <p>
  * This class defines a bean for {@link RestTemplate}, which can be used for making
- * HTTP requests to external services.
+ * HTTP requests to external services. Requests go through a pooled Apache HttpClient
+ * with bounded connect, pool and response timeouts, so a slow remote service cannot
+ * hold request threads indefinitely.
  * </p>
  *
  * @since 1.0
@@ -24,14 +38,74 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * Maximum number of pooled connections, per route and in total.
+     */
+    @Value("${http-client.max-connections:50}")
+    private int maxConnections;
+
+    /**
+     * Timeout for establishing a connection.
+     */
+    @Value("${http-client.connect-timeout:PT1S}")
+    private Duration connectTimeout;
+
+    /**
+     * Timeout for waiting on a response, and for the socket to stay silent.
+     */
+    @Value("${http-client.read-timeout:PT2S}")
+    private Duration readTimeout;
+
+    /**
+     * Timeout for leasing a connection from the pool.
+     */
+    @Value("${http-client.connection-request-timeout:PT0.5S}")
+    private Duration connectionRequestTimeout;
+
+    /**
+     * Time after which idle pooled connections are closed.
+     */
+    @Value("${http-client.idle-timeout:PT30S}")
+    private Duration idleTimeout;
+
+    /**
+     * Creates the pooled HTTP client shared by all {@link RestTemplate} requests.
+     *
+     * @return a configured {@link CloseableHttpClient}, closed with the application context
+     */
+    @Bean
+    public CloseableHttpClient httpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
     /**
      * Creates a {@link RestTemplate} bean using the provided {@link RestTemplateBuilder}.
      *
-     * @param builder the {@link RestTemplateBuilder} used to configure the {@link RestTemplate}
+     * @param builder    the {@link RestTemplateBuilder} used to configure the {@link RestTemplate}
+     * @param httpClient the pooled HTTP client executing the requests
      * @return a configured {@link RestTemplate} instance
      */
     @Bean
-    public RestTemplate restTemplate(final RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(final RestTemplateBuilder builder, final CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
     }
 }
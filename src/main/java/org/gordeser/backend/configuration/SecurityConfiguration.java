@@ -24,6 +24,8 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 
 import java.util.List;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 /**
  * Configuration class for security settings of the photo service.
  * <p>
@@ -65,10 +67,12 @@ public class SecurityConfiguration {
         // Add CORS filter
         http.addFilterBefore(new CorsFilter(corsConfigurationSource()), UsernamePasswordAuthenticationFilter.class);
 
+        // Path matchers, since the bulk ingest endpoint has a dispatcher servlet of its own.
         http.authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
-                .requestMatchers("/api/recommendations/guest").permitAll()
+                .requestMatchers(antMatcher("/api/auth/**")).permitAll()
+                .requestMatchers(antMatcher(HttpMethod.GET, "/api/posts/**")).permitAll()
+                .requestMatchers(antMatcher("/api/recommendations/guest"),
+                        antMatcher("/api/recommendations/guest/cursor")).permitAll()
                 .anyRequest().authenticated()
         );
 
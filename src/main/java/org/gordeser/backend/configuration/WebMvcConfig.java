@@ -0,0 +1,102 @@
+/**
+ * This package contains configuration classes for the photo service application.
+ * <p>
+ * These classes define beans and configurations that customize the behavior of
+ * the application components.
+ * </p>
+ */
+package org.gordeser.backend.configuration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for asynchronous request processing and multipart limits in Spring MVC.
+ * <p>
+ * Streaming responses are written on the bounded {@code streamingResponseExecutor} instead of
+ * a thread per response, so a burst of exports cannot create threads without limit. When the
+ * executor is full, new streaming requests are answered with HTTP 503.
+ * </p>
+ * <p>
+ * Multipart requests are limited by the {@code spring.servlet.multipart} settings, except the bulk
+ * ingest endpoint, which is served by its own dispatcher servlet with the larger {@code ingest}
+ * limits. The servlet container applies the limits per servlet, while the request is parsed.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Path of the bulk ingest endpoint.
+     */
+    public static final String BULK_INGEST_PATH = "/api/posts/bulk";
+
+    /**
+     * Executor writing the bodies of streaming responses.
+     */
+    private final AsyncTaskExecutor streamingResponseExecutor;
+
+    /**
+     * Constructor for WebMvcConfig.
+     *
+     * @param streamingResponseExecutor the executor writing the bodies of streaming responses
+     */
+    public WebMvcConfig(@Qualifier("streamingResponseExecutor") final AsyncTaskExecutor streamingResponseExecutor) {
+        this.streamingResponseExecutor = streamingResponseExecutor;
+    }
+
+    /**
+     * Runs asynchronous request handling, such as {@code StreamingResponseBody}, on the streaming executor.
+     *
+     * @param configurer the async support configurer
+     */
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingResponseExecutor);
+    }
+
+    /**
+     * Registers the dispatcher servlet of the bulk ingest endpoint.
+     * <p>
+     * It serves the handlers of the application context like the main dispatcher servlet, but only
+     * for {@value #BULK_INGEST_PATH}, and accepts request bodies up to the bulk ingest limits.
+     * </p>
+     *
+     * @param context             the web application context whose handlers are served
+     * @param multipartProperties the multipart settings, of which the location and threshold are used
+     * @param maxRequestSize      the maximum size of a bulk ingest request
+     * @param maxFileSize         the maximum size of one part of a bulk ingest request
+     * @return the servlet registration
+     */
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> bulkIngestServletRegistration(
+            final WebApplicationContext context, final MultipartProperties multipartProperties,
+            @Value("${ingest.max-request-size:1GB}") final DataSize maxRequestSize,
+            @Value("${ingest.max-file-size:1GB}") final DataSize maxFileSize) {
+        MultipartConfigFactory multipartConfig = new MultipartConfigFactory();
+        multipartConfig.setLocation(multipartProperties.getLocation());
+        multipartConfig.setFileSizeThreshold(multipartProperties.getFileSizeThreshold());
+        multipartConfig.setMaxRequestSize(maxRequestSize);
+        multipartConfig.setMaxFileSize(maxFileSize);
+
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), BULK_INGEST_PATH);
+        registration.setName("bulkIngestDispatcherServlet");
+        registration.setLoadOnStartup(1);
+        registration.setMultipartConfig(multipartConfig.createMultipartConfig());
+        return registration;
+    }
+}
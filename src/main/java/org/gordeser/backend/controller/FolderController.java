@@ -6,16 +6,24 @@
  */
 package org.gordeser.backend.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.CursorPage;
 import org.gordeser.backend.dto.FolderDTO;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.facade.FolderFacade;
 import org.gordeser.backend.service.FolderService;
+import org.gordeser.backend.util.NdjsonWriter;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,6 +39,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 @RequestMapping("/api/folders")
+@Validated
 public class FolderController {
 
     /**
@@ -43,6 +52,11 @@ public class FolderController {
      */
     private final FolderFacade folderFacade;
 
+    /**
+     * Writer for the streaming variant of the list endpoint.
+     */
+    private final NdjsonWriter ndjsonWriter;
+
     /**
      * Retrieves all folders.
      *
@@ -53,6 +67,19 @@ public class FolderController {
         return service.readAll();
     }
 
+    /**
+     * Streams all folders as newline-delimited JSON.
+     * <p>
+     * Selected with {@code Accept: application/x-ndjson}.
+     * </p>
+     *
+     * @return {@link ResponseEntity} writing one {@link Folder} per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFolders() {
+        return ndjsonWriter.stream(service::streamAll);
+    }
+
     /**
      * Retrieves a folder by its ID.
      *
@@ -66,6 +93,26 @@ public class FolderController {
         return ResponseEntity.ok(folder);
     }
 
+    /**
+     * Retrieves the posts of a folder using keyset pagination, newest first.
+     *
+     * @param folderId the ID of the folder
+     * @param after    the cursor returned with the previous page, absent for the first page
+     * @param size     the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the post cards and the cursor of the next page
+     * @throws NotFound      if the folder is not found
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @GetMapping("/{folderId}/posts")
+    public ResponseEntity<CursorPage<PostCard>> getFolderPostsAfter(
+            @PathVariable final Long folderId,
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws NotFound, InvalidCursor {
+        CursorPage<PostCard> posts = folderFacade.getPostsAfter(folderId, after, size);
+        return ResponseEntity.ok(posts);
+    }
+
     /**
      * Retrieves folders for the authenticated user.
      *
@@ -110,6 +157,38 @@ public class FolderController {
         return ResponseEntity.ok(updatedFolder);
     }
 
+    /**
+     * Adds posts to a folder; posts already in it are skipped.
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to add
+     * @return {@link ResponseEntity} containing the number of added posts
+     * @throws NotFound if the folder is not found
+     */
+    @PostMapping("/{folderId}/posts")
+    public ResponseEntity<Integer> addPostsToFolder(
+            @PathVariable final Long folderId,
+            @RequestBody final List<Long> postIds
+    ) throws NotFound {
+        return ResponseEntity.ok(folderFacade.addPosts(folderId, postIds));
+    }
+
+    /**
+     * Removes posts from a folder.
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to remove
+     * @return {@link ResponseEntity} containing the number of removed posts
+     * @throws NotFound if the folder is not found
+     */
+    @DeleteMapping("/{folderId}/posts")
+    public ResponseEntity<Integer> removePostsFromFolder(
+            @PathVariable final Long folderId,
+            @RequestBody final List<Long> postIds
+    ) throws NotFound {
+        return ResponseEntity.ok(folderFacade.removePosts(folderId, postIds));
+    }
+
     /**
      * Deletes a folder by its ID.
      *
@@ -6,30 +6,44 @@
  */
 package org.gordeser.backend.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.AuthenticatedUser;
+import org.gordeser.backend.dto.BulkIngestResult;
+import org.gordeser.backend.dto.BulkPostItem;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.dto.PostDTO;
 import org.gordeser.backend.entity.Comment;
 import org.gordeser.backend.entity.Post;
-import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.EmptyFile;
 import org.gordeser.backend.exception.Forbidden;
+import org.gordeser.backend.exception.InvalidCursor;
+import org.gordeser.backend.exception.InvalidManifest;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.exception.UnauthorizedActionException;
 import org.gordeser.backend.facade.PostFacade;
+import org.gordeser.backend.service.BulkIngestService;
 import org.gordeser.backend.service.CommentService;
+import org.gordeser.backend.service.JwtService;
 import org.gordeser.backend.service.PostService;
+import org.gordeser.backend.util.NdjsonWriter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -63,6 +77,21 @@ public class PostController {
      */
     private final PostFacade facade;
 
+    /**
+     * Service providing the principal of the current JWT token.
+     */
+    private final JwtService jwtService;
+
+    /**
+     * Service for creating many posts from one request.
+     */
+    private final BulkIngestService bulkIngestService;
+
+    /**
+     * Writer for the streaming variants of the list endpoints.
+     */
+    private final NdjsonWriter ndjsonWriter;
+
     /**
      * Retrieves all posts.
      *
@@ -73,6 +102,43 @@ public class PostController {
         return postService.readAll();
     }
 
+    /**
+     * Streams the cards of all posts as newline-delimited JSON.
+     * <p>
+     * Selected with {@code Accept: application/x-ndjson}.
+     * </p>
+     *
+     * @return {@link ResponseEntity} writing one {@link PostCard} per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPosts() {
+        return ndjsonWriter.stream(postService::streamCards);
+    }
+
+    /**
+     * Retrieves the newest posts using keyset pagination, optionally restricted to a tag and a creation time.
+     *
+     * @param tag   the tag name the posts must carry, absent for all posts
+     * @param since the earliest creation time to include, absent for no lower bound
+     * @param after the cursor returned with the previous page, absent for the first page
+     * @param size  the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the post cards, newest first, and the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @GetMapping("/newest")
+    public ResponseEntity<CursorPage<PostCard>> getNewestPosts(
+            @RequestParam(required = false) final String tag,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime since,
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws InvalidCursor {
+        CursorPage<PostCard> posts = tag == null
+                ? postService.readNewestCardsAfter(since, after, size)
+                : postService.readNewestCardsByTagAfter(tag, since, after, size);
+        return ResponseEntity.ok(posts);
+    }
+
     /**
      * Retrieves a post by its ID.
      *
@@ -90,14 +156,47 @@ public class PostController {
      * Retrieves posts by user ID (patron ID).
      *
      * @param userId the ID of the user (patron) to retrieve posts for
-     * @return {@link ResponseEntity} containing a list of {@link Post} entities belonging to the user
+     * @return {@link ResponseEntity} containing the {@link PostCard}s of the posts belonging to the user
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByPatronId(@PathVariable final Long userId) {
-        List<Post> posts = postService.getPostsByPatronId(userId);
+    public ResponseEntity<List<PostCard>> getPostsByPatronId(@PathVariable final Long userId) {
+        List<PostCard> posts = postService.getPostsByPatronId(userId);
+        return ResponseEntity.ok(posts);
+    }
+
+    /**
+     * Retrieves posts by user ID (patron ID) using keyset pagination, newest first.
+     *
+     * @param userId the ID of the user (patron) to retrieve posts for
+     * @param after  the cursor returned with the previous page, absent for the first page
+     * @param size   the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the post cards and the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<PostCard>> getPostsByPatronIdAfter(
+            @PathVariable final Long userId,
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws InvalidCursor {
+        CursorPage<PostCard> posts = postService.readCardsByPatronIdAfter(userId, after, size);
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Streams the cards of the posts of a user (patron) as newline-delimited JSON.
+     * <p>
+     * Selected with {@code Accept: application/x-ndjson}.
+     * </p>
+     *
+     * @param userId the ID of the user (patron) to stream posts for
+     * @return {@link ResponseEntity} writing one {@link PostCard} per line
+     */
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPostsByPatronId(@PathVariable final Long userId) {
+        return ndjsonWriter.<PostCard>stream(consumer -> postService.streamCardsByPatronId(userId, consumer));
+    }
+
     /**
      * Creates a new post.
      *
@@ -114,6 +213,39 @@ public class PostController {
         return ResponseEntity.ok(newPost);
     }
 
+    /**
+     * Creates many posts of the current user from one request.
+     * <p>
+     * The images are sent either as a zip {@code archive} whose entries are named by the manifest,
+     * or as {@code files} named by their original file names. Entries that cannot be created are
+     * reported as failed without failing the rest of the batch.
+     * </p>
+     *
+     * @param manifest the posts to create, as a JSON part
+     * @param archive  the zip archive holding the images, if the images are not sent as files
+     * @param files    the images, if they are not sent as an archive
+     * @return {@link ResponseEntity} containing the outcome of every manifest entry
+     * @throws InvalidManifest if the manifest is empty or too large, or no images are sent
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkIngestResult> createPosts(
+            @RequestPart("manifest") final List<BulkPostItem> manifest,
+            @RequestPart(value = "archive", required = false) final MultipartFile archive,
+            @RequestPart(value = "files", required = false) final List<MultipartFile> files
+    ) throws InvalidManifest, IOException {
+        Long userId = jwtService.getAuthenticatedUser().getId();
+
+        BulkIngestResult result;
+        if (archive != null && !archive.isEmpty()) {
+            result = bulkIngestService.ingestArchive(userId, manifest, archive);
+        } else if (files != null && !files.isEmpty()) {
+            result = bulkIngestService.ingestFiles(userId, manifest, files);
+        } else {
+            throw new InvalidManifest("Neither an archive nor files were sent");
+        }
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Updates an existing post.
      *
@@ -154,23 +286,49 @@ public class PostController {
      * @return ResponseEntity containing a page of posts that match the search prompt
      */
     @PostMapping("/search")
-    public ResponseEntity<Page<Post>> getSearchResults(
+    public ResponseEntity<Page<PostCard>> getSearchResults(
             @RequestParam final String keyword, final Pageable pageable
     ) {
-        Page<Post> posts = postService.search(keyword, pageable);
+        Page<PostCard> posts = postService.search(keyword, pageable);
+        return ResponseEntity.ok(posts);
+    }
+
+    /**
+     * Retrieves search results based on the given prompt using keyset pagination.
+     *
+     * @param keyword the search query prompt
+     * @param after   the cursor returned with the previous page, absent for the first page
+     * @param size    the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the matching post cards and the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @PostMapping("/search/cursor")
+    public ResponseEntity<CursorPage<PostCard>> getSearchResultsAfter(
+            @RequestParam final String keyword,
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws InvalidCursor {
+        CursorPage<PostCard> posts = postService.searchAfter(keyword, after, size);
         return ResponseEntity.ok(posts);
     }
 
     /**
-     * Retrieves all comments for a post by its ID.
+     * Retrieves one page of the comments of a post, oldest first, using keyset pagination.
      *
      * @param postId the ID of the post to retrieve comments for
-     * @return {@link ResponseEntity} containing a list of {@link Comment} entities for the given post
-     * @throws NotFound if the post with the given ID is not found
+     * @param after  the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of comments to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the comments of the page and the cursor of the next page
+     * @throws NotFound      if the post with the given ID is not found
+     * @throws InvalidCursor if the cursor is malformed
      */
     @GetMapping("/{postId}/comments")
-    public ResponseEntity<List<Comment>> getCommentsByPostId(@PathVariable final Long postId) throws NotFound {
-        List<Comment> result = commentService.getByPostId(postId);
+    public ResponseEntity<CursorPage<Comment>> getCommentsByPostId(
+            @PathVariable final Long postId,
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws NotFound, InvalidCursor {
+        CursorPage<Comment> result = commentService.getByPostId(postId, after, size);
         return ResponseEntity.ok(result);
     }
 
@@ -187,8 +345,7 @@ public class PostController {
             @PathVariable final Long postId,
             @RequestParam @NotBlank(message = "Comment text must not be empty") final String text
     ) throws NotFound {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = jwtService.getAuthenticatedUser();
 
         Comment newComment = commentService.create(postId, text, currentUser.getUsername());
 
@@ -209,11 +366,9 @@ public class PostController {
     public ResponseEntity<Void> deleteComment(@PathVariable final Long postId,
                                               @PathVariable final Long commentId
                                             ) throws NotFound, UnauthorizedActionException {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = jwtService.getAuthenticatedUser();
 
         postService.deleteCommentFromPost(commentId, postId, currentUser);
-        commentService.deleteById(commentId);
         return ResponseEntity.ok().build();
     }
 }
@@ -7,17 +7,22 @@
  */
 package org.gordeser.backend.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.InvalidCursor;
+import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.service.JwtService;
 import org.gordeser.backend.service.RecommendationService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.gordeser.backend.entity.Post;
 
 /**
  * Controller class for handling recommendation-related operations.
@@ -30,6 +35,7 @@ import org.gordeser.backend.entity.Post;
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/recommendations")
+@Validated
 @Slf4j
 public class RecommendationController {
 
@@ -38,17 +44,41 @@ public class RecommendationController {
      */
     private final RecommendationService recommendationService;
 
+    /**
+     * Service for loading the user of the current JWT token.
+     */
+    private final JwtService jwtService;
+
     /**
      * Retrieves recommended posts for the currently authenticated user.
      *
      * @param pageable the pagination information
      * @return {@link ResponseEntity} containing a page of recommended posts
+     * @throws NotFound if the current user no longer exists
      */
     @GetMapping("/posts")
-    public ResponseEntity<Page<Post>> recommendedPosts(final Pageable pageable) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        Page<Post> posts = recommendationService.recommendedPosts(currentUser, pageable);
+    public ResponseEntity<Page<PostCard>> recommendedPosts(final Pageable pageable) throws NotFound {
+        User currentUser = jwtService.getUserByToken();
+        Page<PostCard> posts = recommendationService.recommendedPosts(currentUser, pageable);
+        return ResponseEntity.ok(posts);
+    }
+
+    /**
+     * Retrieves recommended posts for the currently authenticated user using keyset pagination.
+     *
+     * @param after the cursor returned with the previous page, absent for the first page
+     * @param size  the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the posts and the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     * @throws NotFound      if the current user no longer exists
+     */
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<CursorPage<PostCard>> recommendedPostsAfter(
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws InvalidCursor, NotFound {
+        User currentUser = jwtService.getUserByToken();
+        CursorPage<PostCard> posts = recommendationService.recommendedPostsAfter(currentUser, after, size);
         return ResponseEntity.ok(posts);
     }
 
@@ -59,8 +89,25 @@ public class RecommendationController {
      * @return {@link ResponseEntity} containing a page of posts for guest users
      */
     @GetMapping("/guest")
-    public ResponseEntity<Page<Post>> getGuestPosts(final Pageable pageable) {
-        Page<Post> guestPosts = recommendationService.getGuestPosts(pageable);
+    public ResponseEntity<Page<PostCard>> getGuestPosts(final Pageable pageable) {
+        Page<PostCard> guestPosts = recommendationService.getGuestPosts(pageable);
+        return ResponseEntity.ok(guestPosts);
+    }
+
+    /**
+     * Retrieves posts for guest users using keyset pagination, newest first.
+     *
+     * @param after the cursor returned with the previous page, absent for the first page
+     * @param size  the maximum number of posts to return, between 1 and {@value CursorPage#MAX_SIZE}
+     * @return {@link ResponseEntity} containing the posts and the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @GetMapping("/guest/cursor")
+    public ResponseEntity<CursorPage<PostCard>> getGuestPostsAfter(
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(CursorPage.MAX_SIZE) final int size
+    ) throws InvalidCursor {
+        CursorPage<PostCard> guestPosts = recommendationService.getGuestPostsAfter(after, size);
         return ResponseEntity.ok(guestPosts);
     }
 }
@@ -7,16 +7,23 @@
  */
 package org.gordeser.backend.controller;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
 import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.facade.TagFacade;
+import org.gordeser.backend.service.TagJobService;
 import org.gordeser.backend.service.TagService;
+import org.gordeser.backend.util.NdjsonWriter;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,7 +31,11 @@ import java.util.List;
  * Controller class for managing tag-related operations.
  * <p>
  * Provides endpoints for retrieving all tags, retrieving a tag by ID,
- * creating new tags, and deleting a tag.
+ * creating new tags, and deleting, renaming and merging a tag.
+ * </p>
+ * <p>
+ * Deleting, renaming and merging run as background tag jobs; these endpoints return the
+ * submitted job, whose progress is available from {@code /api/tags/jobs/{jobId}}.
  * </p>
  *
  * @since 1.0
@@ -32,6 +43,7 @@ import java.util.List;
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/tags")
+@Validated
 public class TagController {
 
     /**
@@ -44,6 +56,16 @@ public class TagController {
      */
     private final TagFacade tagFacade;
 
+    /**
+     * Service for retrieving tag jobs.
+     */
+    private final TagJobService tagJobService;
+
+    /**
+     * Writer for the streaming variant of the list endpoint.
+     */
+    private final NdjsonWriter ndjsonWriter;
+
     /**
      * Retrieves all tags.
      *
@@ -54,6 +76,19 @@ public class TagController {
         return service.readAll();
     }
 
+    /**
+     * Streams all tags as newline-delimited JSON.
+     * <p>
+     * Selected with {@code Accept: application/x-ndjson}.
+     * </p>
+     *
+     * @return {@link ResponseEntity} writing one {@link Tag} per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTags() {
+        return ndjsonWriter.stream(service::streamAll);
+    }
+
     /**
      * Retrieves a tag by its ID.
      *
@@ -97,15 +132,63 @@ public class TagController {
 
 
     /**
-     * Deletes a tag by its ID.
+     * Submits the deletion of a tag by its ID.
      *
      * @param tagId the ID of the tag to delete
-     * @return {@link ResponseEntity} indicating the result of the deletion
-     * @throws NotFound if an error occurs during deletion
+     * @return {@link ResponseEntity} containing the submitted {@link TagJob}
+     * @throws NotFound if the tag is not found
      */
     @DeleteMapping("/{tagId}")
-    public ResponseEntity<Void> deleteTag(@PathVariable final Long tagId) throws NotFound {
-        tagFacade.deleteById(tagId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<TagJob> deleteTag(@PathVariable final Long tagId) throws NotFound {
+        TagJob job = tagFacade.deleteById(tagId);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Submits the renaming of a tag.
+     *
+     * @param tagId the ID of the tag to rename
+     * @param name  the new name of the tag
+     * @return {@link ResponseEntity} containing the submitted {@link TagJob}
+     * @throws NotFound      if the tag is not found
+     * @throws AlreadyExists if another tag already has the name
+     */
+    @PostMapping("/{tagId}/rename")
+    public ResponseEntity<TagJob> renameTag(
+            @PathVariable final Long tagId,
+            @RequestParam @NotBlank @Size(max = 30) final String name
+    ) throws NotFound, AlreadyExists {
+        TagJob job = tagFacade.rename(tagId, name);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Submits the merge of a tag into another one.
+     *
+     * @param tagId    the ID of the tag to merge and delete
+     * @param targetId the ID of the tag that takes over the posts and users
+     * @return {@link ResponseEntity} containing the submitted {@link TagJob}
+     * @throws NotFound      if either tag is not found
+     * @throws AlreadyExists if the tag is merged into itself
+     */
+    @PostMapping("/{tagId}/merge")
+    public ResponseEntity<TagJob> mergeTag(
+            @PathVariable final Long tagId,
+            @RequestParam final Long targetId
+    ) throws NotFound, AlreadyExists {
+        TagJob job = tagFacade.merge(tagId, targetId);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Retrieves the progress of a tag job.
+     *
+     * @param jobId the ID of the job
+     * @return {@link ResponseEntity} containing the {@link TagJob}
+     * @throws NotFound if the job is not found
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<TagJob> getTagJob(@PathVariable final Long jobId) throws NotFound {
+        return ResponseEntity.ok(tagJobService.getJobById(jobId));
     }
 }
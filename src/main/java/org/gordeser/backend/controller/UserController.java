@@ -11,6 +11,7 @@ package org.gordeser.backend.controller;
 import lombok.RequiredArgsConstructor;
 import org.gordeser.backend.dto.PasswordUpdateRequestDTO;
 import org.gordeser.backend.dto.UserProfileDTO;
+import org.gordeser.backend.entity.AccountDeletionJob;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.ConfirmPasswordIsNotEqual;
 import org.gordeser.backend.exception.InvalidPassword;
@@ -22,7 +23,6 @@ import org.gordeser.backend.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
 
 import java.util.HashMap;
 import java.util.List;
@@ -61,11 +61,11 @@ public class UserController {
      * Retrieves the currently authenticated user's account information.
      *
      * @return {@link ResponseEntity} containing the current {@link User}
+     * @throws NotFound if the current user no longer exists
      */
     @GetMapping("/account")
-    public ResponseEntity<User> getUserByUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+    public ResponseEntity<User> getUserByUsername() throws NotFound {
+        User currentUser = jwtService.getUserByToken();
         return ResponseEntity.ok(currentUser);
     }
 
@@ -74,11 +74,11 @@ public class UserController {
      *
      * @param tagIds the {@link List} of tag IDs to be added to the user
      * @return {@link ResponseEntity} containing the updated {@link User}
+     * @throws NotFound if the current user no longer exists
      */
     @PostMapping("/tags")
-    public ResponseEntity<User> addTags(@RequestBody final List<Long> tagIds) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+    public ResponseEntity<User> addTags(@RequestBody final List<Long> tagIds) throws NotFound {
+        User currentUser = jwtService.getUserByToken();
         facade.addTagsToUser(currentUser, tagIds);
         return ResponseEntity.ok(currentUser);
     }
@@ -89,11 +89,12 @@ public class UserController {
      * @param updateUser the {@link User} object containing the updated information
      * @return {@link ResponseEntity} containing a map with the new token and success message
      * @throws AlreadyExists if the user already exists
+     * @throws NotFound if the current user no longer exists
      */
     @PutMapping
-    public ResponseEntity<Map<String, String>> updateUser(@RequestBody final User updateUser) throws AlreadyExists {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+    public ResponseEntity<Map<String, String>> updateUser(@RequestBody final User updateUser)
+            throws AlreadyExists, NotFound {
+        User currentUser = jwtService.getUserByToken();
         User updatedUser = service.update(currentUser, updateUser);
         String newToken = jwtService.generateToken(updatedUser);
         Map<String, String> response = new HashMap<>();
@@ -111,14 +112,14 @@ public class UserController {
      * @return a {@link ResponseEntity} with a status message indicating the success of the operation.
      * @throws InvalidPassword if the current password provided does not match the user's actual password.
      * @throws ConfirmPasswordIsNotEqual if the new password and the confirmation password do not match.
+     * @throws NotFound if the current user no longer exists.
      */
     @PutMapping("/update-password")
     public ResponseEntity<String> updatePassword(
             @RequestBody final PasswordUpdateRequestDTO request
-    ) throws InvalidPassword, ConfirmPasswordIsNotEqual {
-        // Retrieve the currently authenticated user from the security context
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
+    ) throws InvalidPassword, ConfirmPasswordIsNotEqual, NotFound {
+        // Load the currently authenticated user
+        User currentUser = jwtService.getUserByToken();
 
         // Call the service to update the password
         service.updatePassword(
@@ -146,16 +147,34 @@ public class UserController {
 
     /**
      * Deletes the currently authenticated user.
+     * <p>
+     * The user is locked out immediately and their data is deleted in the background; the
+     * progress can be followed with {@link #getDeletionJob()}.
+     * </p>
      *
-     * @return {@link ResponseEntity} indicating the result of the deletion
-     * @throws NotFound if an error occurs during deletion
+     * @return {@link ResponseEntity} with status 202 containing the deletion job
+     * @throws NotFound if the current user no longer exists
      */
     @DeleteMapping
-    public ResponseEntity<Void> deleteUser() throws NotFound {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        facade.deleteUserById(currentUser);
+    public ResponseEntity<AccountDeletionJob> deleteUser() throws NotFound {
+        User currentUser = jwtService.getUserByToken();
+        AccountDeletionJob job = facade.deleteUserById(currentUser);
         SecurityContextHolder.clearContext();
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Retrieves the deletion job of the currently authenticated user.
+     * <p>
+     * The principal of the token is used rather than the user entity, so the job can still be
+     * polled while and after the account is deleted.
+     * </p>
+     *
+     * @return {@link ResponseEntity} containing the deletion job
+     * @throws NotFound if the user never requested the deletion of their account
+     */
+    @GetMapping("/deletion")
+    public ResponseEntity<AccountDeletionJob> getDeletionJob() throws NotFound {
+        return ResponseEntity.ok(facade.getDeletionJob(jwtService.getAuthenticatedUser().getId()));
     }
 }
@@ -0,0 +1,49 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.Value;
+
+import java.security.Principal;
+
+/**
+ * Principal of an authenticated request, built from the claims of its verified JWT token.
+ * <p>
+ * It holds only what the token asserts, so authenticating a request needs no database access.
+ * Code that needs the {@link org.gordeser.backend.entity.User} entity loads it on demand through
+ * {@link org.gordeser.backend.service.JwtService#getUserByToken()}.
+ * </p>
+ */
+@Value
+public class AuthenticatedUser implements Principal {
+
+    /**
+     * The ID of the user.
+     */
+    Long id;
+
+    /**
+     * The username of the user when the token was issued.
+     */
+    String username;
+
+    /**
+     * The token version of the user when the token was issued.
+     */
+    int tokenVersion;
+
+    /**
+     * Returns the username, which Spring Security reports as the name of the authentication.
+     *
+     * @return the username of the user
+     */
+    @Override
+    public String getName() {
+        return username;
+    }
+}
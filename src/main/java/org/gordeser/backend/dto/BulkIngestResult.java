@@ -0,0 +1,38 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a bulk ingestion.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkIngestResult {
+
+    /**
+     * The number of created posts.
+     */
+    private int created;
+
+    /**
+     * The number of manifest entries that failed.
+     */
+    private int failed;
+
+    /**
+     * The outcome of every manifest entry, in manifest order.
+     */
+    private List<BulkItemStatus> items;
+}
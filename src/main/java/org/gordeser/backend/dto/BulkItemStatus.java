@@ -0,0 +1,80 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the outcome of one manifest entry of a bulk ingestion.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemStatus {
+
+    /**
+     * Outcome of a manifest entry.
+     */
+    public enum Status {
+        /** The post was created. */
+        CREATED,
+        /** The post was not created; see the error. */
+        FAILED
+    }
+
+    /**
+     * The position of the entry in the manifest.
+     */
+    private int index;
+
+    /**
+     * The name of the image file of the entry.
+     */
+    private String file;
+
+    /**
+     * The outcome of the entry.
+     */
+    private Status status;
+
+    /**
+     * The ID of the created post, or {@code null} if the entry failed.
+     */
+    private Long postId;
+
+    /**
+     * The reason the entry failed, or {@code null} if the post was created.
+     */
+    private String error;
+
+    /**
+     * Creates the status of an entry whose post was created.
+     *
+     * @param index  the position of the entry in the manifest
+     * @param file   the name of the image file of the entry
+     * @param postId the ID of the created post
+     * @return the status of the entry
+     */
+    public static BulkItemStatus created(final int index, final String file, final Long postId) {
+        return new BulkItemStatus(index, file, Status.CREATED, postId, null);
+    }
+
+    /**
+     * Creates the status of an entry that failed.
+     *
+     * @param index the position of the entry in the manifest
+     * @param file  the name of the image file of the entry
+     * @param error the reason the entry failed
+     * @return the status of the entry
+     */
+    public static BulkItemStatus failed(final int index, final String file, final String error) {
+        return new BulkItemStatus(index, file, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one entry of a bulk ingestion manifest.
+ * <p>
+ * Each entry describes one post and names the image it is created from: a part name of the
+ * uploaded files or an entry path of the uploaded archive.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkPostItem {
+
+    /**
+     * The name of the image file of the post in the batch.
+     */
+    private String file;
+
+    /**
+     * The title of the post.
+     */
+    private String title;
+
+    /**
+     * A brief description of the post.
+     */
+    private String description;
+
+    /**
+     * A list of tag IDs associated with the post.
+     */
+    private List<Long> tagsId;
+}
@@ -0,0 +1,44 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a keyset-paginated result.
+ * <p>
+ * Unlike an offset page it carries no total count; the client requests the next page by
+ * sending back {@code nextCursor}, which is {@code null} on the last page.
+ * </p>
+ *
+ * @param <T> the type of the page items
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * The largest page size a client may request.
+     */
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * The items of the page, in result order.
+     */
+    private List<T> content;
+
+    /**
+     * The cursor of the next page, or {@code null} if there are no more items.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,97 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model of a post as shown in feed, search and profile lists.
+ * <p>
+ * Cards are built by a JPQL constructor query instead of from {@code Post} entities, so a list
+ * carries only what a card renders and never triggers lazy loading of comments or folders.
+ * The tag names are filled in by a second query over the same post IDs.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCard {
+
+    /**
+     * The ID of the post.
+     */
+    private Long id;
+
+    /**
+     * The title of the post.
+     */
+    private String title;
+
+    /**
+     * The URL of the feed-sized image, or of the original while no variants exist.
+     */
+    private String imageUrl;
+
+    /**
+     * The username of the author.
+     */
+    private String patronUsername;
+
+    /**
+     * The time the post was created.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * The number of comments on the post.
+     */
+    private int commentCount;
+
+    /**
+     * The names of the tags of the post.
+     */
+    private List<String> tags = new ArrayList<>();
+
+    /**
+     * Constructor used by JPQL constructor queries; the tags are added afterwards.
+     *
+     * @param id             the ID of the post
+     * @param title          the title of the post
+     * @param imageUrl       the URL of the image
+     * @param patronUsername the username of the author
+     * @param createdAt      the creation time of the post
+     * @param commentCount   the number of comments on the post
+     */
+    public PostCard(final Long id, final String title, final String imageUrl, final String patronUsername,
+                    final LocalDateTime createdAt, final Integer commentCount) {
+        this.id = id;
+        this.title = title;
+        this.imageUrl = imageUrl;
+        this.patronUsername = patronUsername;
+        this.createdAt = createdAt;
+        this.commentCount = commentCount;
+    }
+
+    /**
+     * Constructor for a card without a creation time or comments.
+     *
+     * @param id             the ID of the post
+     * @param title          the title of the post
+     * @param imageUrl       the URL of the image
+     * @param patronUsername the username of the author
+     */
+    public PostCard(final Long id, final String title, final String imageUrl, final String patronUsername) {
+        this(id, title, imageUrl, patronUsername, null, 0);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the post columns that are copied into the search index.
+ * <p>
+ * Loading this projection instead of the {@code Post} entity keeps bulk indexing
+ * independent of the entity's association fetch plan.
+ * </p>
+ */
+public interface PostIndexView {
+
+    /**
+     * Returns the identifier of the post.
+     *
+     * @return the post ID
+     */
+    Long getId();
+
+    /**
+     * Returns the title of the post.
+     *
+     * @return the post title
+     */
+    String getTitle();
+
+    /**
+     * Returns the description of the post.
+     *
+     * @return the post description
+     */
+    String getDescription();
+
+    /**
+     * Returns the creation time of the post.
+     *
+     * @return the creation time
+     */
+    LocalDateTime getCreatedAt();
+}
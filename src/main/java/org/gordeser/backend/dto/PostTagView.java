@@ -0,0 +1,28 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+/**
+ * Read-only projection of a single row of the post-to-tag association.
+ */
+public interface PostTagView {
+
+    /**
+     * Returns the identifier of the post.
+     *
+     * @return the post ID
+     */
+    Long getPostId();
+
+    /**
+     * Returns the name of a tag attached to the post.
+     *
+     * @return the tag name
+     */
+    String getTagName();
+}
@@ -0,0 +1,38 @@
+/**
+ * This package contains Data Transfer Object (DTO) classes for the photo service application.
+ * <p>
+ * These DTOs are used to transfer data between different layers of the application,
+ * such as between controllers and services.
+ * </p>
+ */
+package org.gordeser.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of post IDs ranked by Elasticsearch.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RankedPostIds {
+
+    /**
+     * The post IDs of the hits, in rank order.
+     */
+    private List<Long> postIds;
+
+    /**
+     * The total number of hits of the query.
+     */
+    private long totalHits;
+
+    /**
+     * The sort values of the last hit, used as {@code search_after} for the next page.
+     */
+    private List<Object> lastSortValues;
+}
@@ -3,7 +3,6 @@ package org.gordeser.backend.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.gordeser.backend.entity.Post;
 
 import java.util.List;
 
@@ -36,7 +35,7 @@ public class UserProfileDTO {
     private String email;
 
     /**
-     * The list of posts created by the user.
+     * The cards of the posts created by the user.
      */
-    private List<Post> posts;
+    private List<PostCard> posts;
 }
@@ -60,76 +60,17 @@ public interface PostElasticsearchRepository extends ElasticsearchRepository<Pos
     Optional<PostElasticsearch> findByPostId(Long postId);
 
     /**
-     * Finds posts that contain at least one of the specified tags.
+     * Finds the documents whose relational post ID lies in the given range.
      * <p>
-     * This method filters posts that match any of the provided tag names.
+     * The lower bound is exclusive and the upper bound inclusive, matching the keyset
+     * chunks used when reading posts from the relational database.
      * </p>
      *
-     * @param tags     the list of tag names to search for
-     * @param pageable pagination details
-     * @return a {@link Page} of {@link PostElasticsearch} entities matching the specified tags
-     */
-    @Query("""
-    {
-      "bool": {
-        "filter": [
-          {
-            "terms": {
-              "tags": ?0
-            }
-          }
-        ]
-      }
-    }
-    """)
-    Page<PostElasticsearch> findPostsByTags(List<String> tags, Pageable pageable);
-
-    /**
-     * Finds posts that do not contain any of the specified tags.
-     * <p>
-     * This method filters out posts that match any of the provided tag names.
-     * </p>
-     *
-     * @param tags     the list of tag names to exclude
-     * @param pageable pagination details
-     * @return a {@link Page} of {@link PostElasticsearch} entities excluding the specified tags
-     */
-    @Query("""
-    {
-      "bool": {
-        "must_not": [
-          {
-            "terms": {
-              "tags": ?0
-            }
-          }
-        ]
-      }
-    }
-    """)
-    Page<PostElasticsearch> findPostsExcludingTags(List<String> tags, Pageable pageable);
-
-    /**
-     * Finds posts that do not have any tags.
-     * <p>
-     * This method filters posts that do not have a "tags" field in Elasticsearch.
-     * </p>
-     *
-     * @param pageable pagination details
-     * @return a {@link Page} of {@link PostElasticsearch} entities without tags
+     * @param fromExclusive the lower post ID bound, exclusive
+     * @param toInclusive   the upper post ID bound, inclusive
+     * @param pageable      the maximum number of documents to return
+     * @return a {@link List} of {@link PostElasticsearch} entities in the range
      */
-    @Query("""
-    {
-      "bool": {
-        "must_not": [
-          {
-            "exists": {
-              "field": "tags"
-            }
-          }
-        ]
-      }
-    }
-    """)
-    Page<PostElasticsearch> findPostsWithoutTags(Pageable pageable);
+    @Query("{ \"range\": { \"postId\": { \"gt\": ?0, \"lte\": ?1 } } }")
+    List<PostElasticsearch> findByPostIdRange(Long fromExclusive, Long toInclusive, Pageable pageable);
 }
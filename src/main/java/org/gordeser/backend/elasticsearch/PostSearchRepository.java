@@ -0,0 +1,152 @@
+/**
+ * This package contains Elasticsearch repository interfaces for the photo service application.
+ * <p>
+ * These repositories handle communication with Elasticsearch, allowing the application
+ * to perform complex search operations and index data for faster retrieval.
+ * </p>
+ */
+package org.gordeser.backend.elasticsearch;
+
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import lombok.RequiredArgsConstructor;
+import org.gordeser.backend.dto.RankedPostIds;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for keyword and recency search with keyset pagination in Elasticsearch.
+ * <p>
+ * Keyword search runs the same title and description match as
+ * {@link PostElasticsearchRepository#findByTitleOrDescriptionContaining}, but sorts the hits by
+ * score and then by descending post ID. Recency search filters by tag and creation time and
+ * sorts by descending creation time and post ID. Both page with {@code search_after} instead of
+ * an offset, do not track total hits and only fetch the post IDs from the index.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostSearchRepository {
+
+    /**
+     * Share of the keyword terms a title or description must match.
+     */
+    private static final String MINIMUM_SHOULD_MATCH = "75%";
+
+    /**
+     * Format of the {@code createdAt} field, as declared on {@link PostElasticsearch}.
+     */
+    private static final DateTimeFormatter CREATED_AT_FORMAT =
+            DateTimeFormatter.ofPattern(DateFormat.date_hour_minute_second_millis.getPattern());
+
+    /**
+     * Operations used to run native Elasticsearch queries.
+     */
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    /**
+     * Searches posts by keyword and returns the post IDs following the given sort values.
+     *
+     * @param keyword     the keyword to search for in titles and descriptions
+     * @param searchAfter the sort values of the last hit of the previous page, or {@code null} for the first page
+     * @param size        the maximum number of post IDs to return
+     * @return the ranked post IDs of the page with the sort values of its last hit
+     */
+    public RankedPostIds searchAfter(final String keyword, final List<Object> searchAfter, final int size) {
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .should(match("title", keyword))
+                        .should(match("description", keyword))
+                        .minimumShouldMatch("1")))
+                .withSort(s -> s.score(score -> score.order(SortOrder.Desc)))
+                .withSort(s -> s.field(field -> field.field("postId").order(SortOrder.Desc)))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"postId"}, null))
+                .withTrackTotalHits(false)
+                .withPageable(PageRequest.of(0, size));
+        return search(builder, searchAfter);
+    }
+
+    /**
+     * Returns the IDs of the newest posts, optionally restricted to a tag and a creation time,
+     * following the given sort values.
+     *
+     * @param tag         the tag name the posts must carry, or {@code null} for all posts
+     * @param since       the earliest creation time to include, or {@code null} for no lower bound
+     * @param searchAfter the sort values of the last hit of the previous page, or {@code null} for the first page
+     * @param size        the maximum number of post IDs to return
+     * @return the post IDs of the page, newest first, with the sort values of its last hit
+     */
+    public RankedPostIds newestAfter(final String tag, final LocalDateTime since,
+                                     final List<Object> searchAfter, final int size) {
+        List<Query> filters = new ArrayList<>();
+        if (tag != null) {
+            filters.add(Query.of(q -> q.term(t -> t.field("tags").value(tag))));
+        }
+        if (since != null) {
+            filters.add(Query.of(q -> q.range(r -> r
+                    .field("createdAt")
+                    .gte(JsonData.of(CREATED_AT_FORMAT.format(since))))));
+        }
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.filter(filters)))
+                .withSort(s -> s.field(field -> field.field("createdAt").order(SortOrder.Desc)))
+                .withSort(s -> s.field(field -> field.field("postId").order(SortOrder.Desc)))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"postId"}, null))
+                .withTrackTotalHits(false)
+                .withPageable(PageRequest.of(0, size));
+        return search(builder, searchAfter);
+    }
+
+    /**
+     * Runs a query after the given sort values and collects the post IDs of its hits.
+     *
+     * @param builder     the query without its search position
+     * @param searchAfter the sort values of the last hit of the previous page, or {@code null} for the first page
+     * @return the post IDs of the hits with the sort values of the last one
+     */
+    private RankedPostIds search(final NativeQueryBuilder builder, final List<Object> searchAfter) {
+        if (searchAfter != null) {
+            builder.withSearchAfter(searchAfter);
+        }
+
+        SearchHits<PostElasticsearch> hits = elasticsearchOperations.search(builder.build(), PostElasticsearch.class);
+        List<Long> postIds = new ArrayList<>();
+        List<Object> lastSortValues = List.of();
+        for (SearchHit<PostElasticsearch> hit : hits.getSearchHits()) {
+            postIds.add(hit.getContent().getPostId());
+            lastSortValues = hit.getSortValues();
+        }
+        return new RankedPostIds(postIds, hits.getTotalHits(), lastSortValues);
+    }
+
+    /**
+     * Builds a match query on one text field.
+     *
+     * @param field   the field to match
+     * @param keyword the keyword to match
+     * @return the match query
+     */
+    private static Query match(final String field, final String keyword) {
+        return Query.of(q -> q.match(m -> m
+                .field(field)
+                .query(keyword)
+                .minimumShouldMatch(MINIMUM_SHOULD_MATCH)));
+    }
+}
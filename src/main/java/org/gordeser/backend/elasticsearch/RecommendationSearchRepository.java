@@ -0,0 +1,155 @@
+/**
+ * This package contains Elasticsearch repository interfaces for the photo service application.
+ * <p>
+ * These repositories handle communication with Elasticsearch, allowing the application
+ * to perform complex search operations and index data for faster retrieval.
+ * </p>
+ */
+package org.gordeser.backend.elasticsearch;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import lombok.RequiredArgsConstructor;
+import org.gordeser.backend.dto.RankedPostIds;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for ranking the recommendation feed in Elasticsearch.
+ * <p>
+ * The whole feed is one {@code function_score} query over all posts: posts with a preferred
+ * tag score {@value #PREFERRED_WEIGHT}, posts with an associated tag score
+ * {@value #ASSOCIATED_WEIGHT} and all other posts, including untagged ones, score 1. Hits are
+ * sorted by score and then by descending post ID, which makes the order total and allows
+ * paging with {@code search_after}. Only the post IDs are fetched from the index.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecommendationSearchRepository {
+
+    /**
+     * Score of posts carrying at least one preferred tag.
+     */
+    private static final double PREFERRED_WEIGHT = 3.0;
+
+    /**
+     * Score of posts carrying at least one associated tag.
+     */
+    private static final double ASSOCIATED_WEIGHT = 2.0;
+
+    /**
+     * Operations used to run native Elasticsearch queries.
+     */
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    /**
+     * Ranks the feed and returns one offset-based page of post IDs.
+     *
+     * @param preferredTags  the preferred tag names of the user
+     * @param associatedTags the tag names associated with the preferred ones
+     * @param pageable       the page to return; its sort is ignored
+     * @return the ranked post IDs of the page
+     */
+    public RankedPostIds rank(final List<String> preferredTags, final List<String> associatedTags,
+                              final Pageable pageable) {
+        NativeQuery query = rankingQuery(preferredTags, associatedTags)
+                .withPageable(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .build();
+        return search(query);
+    }
+
+    /**
+     * Ranks the feed and returns the post IDs following the given sort values.
+     *
+     * @param preferredTags  the preferred tag names of the user
+     * @param associatedTags the tag names associated with the preferred ones
+     * @param searchAfter    the sort values of the last hit of the previous page, or {@code null} for the first page
+     * @param size           the maximum number of post IDs to return
+     * @return the ranked post IDs of the page
+     */
+    public RankedPostIds rankAfter(final List<String> preferredTags, final List<String> associatedTags,
+                                   final List<Object> searchAfter, final int size) {
+        NativeQueryBuilder builder = rankingQuery(preferredTags, associatedTags)
+                .withPageable(PageRequest.of(0, size));
+        if (searchAfter != null) {
+            builder.withSearchAfter(searchAfter);
+        }
+        return search(builder.build());
+    }
+
+    /**
+     * Builds the scored feed query with its tie-breaking sort.
+     *
+     * @param preferredTags  the preferred tag names of the user
+     * @param associatedTags the tag names associated with the preferred ones
+     * @return a query builder without pagination
+     */
+    private NativeQueryBuilder rankingQuery(final List<String> preferredTags, final List<String> associatedTags) {
+        List<FunctionScore> functions = new ArrayList<>();
+        if (!preferredTags.isEmpty()) {
+            functions.add(tagFunction(preferredTags, PREFERRED_WEIGHT));
+        }
+        if (!associatedTags.isEmpty()) {
+            functions.add(tagFunction(associatedTags, ASSOCIATED_WEIGHT));
+        }
+
+        return NativeQuery.builder()
+                .withQuery(q -> q.functionScore(fs -> fs
+                        .query(all -> all.matchAll(m -> m))
+                        .functions(functions)
+                        .scoreMode(FunctionScoreMode.Max)
+                        .boostMode(FunctionBoostMode.Replace)))
+                .withSort(s -> s.score(score -> score.order(SortOrder.Desc)))
+                .withSort(s -> s.field(field -> field.field("postId").order(SortOrder.Desc)))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"postId"}, null))
+                .withTrackTotalHits(true);
+    }
+
+    /**
+     * Builds a scoring function matching posts with any of the given tags.
+     *
+     * @param tags   the tag names to match
+     * @param weight the score of matching posts
+     * @return the scoring function
+     */
+    private static FunctionScore tagFunction(final List<String> tags, final double weight) {
+        List<FieldValue> values = tags.stream().map(FieldValue::of).toList();
+        Query filter = Query.of(q -> q.terms(t -> t.field("tags").terms(v -> v.value(values))));
+        return FunctionScore.of(f -> f.filter(filter).weight(weight));
+    }
+
+    /**
+     * Runs the query and collects the post IDs of its hits.
+     *
+     * @param query the query to run
+     * @return the ranked post IDs with the total hit count and the last sort values
+     */
+    private RankedPostIds search(final NativeQuery query) {
+        SearchHits<PostElasticsearch> hits = elasticsearchOperations.search(query, PostElasticsearch.class);
+        List<Long> postIds = new ArrayList<>();
+        List<Object> lastSortValues = List.of();
+        for (SearchHit<PostElasticsearch> hit : hits.getSearchHits()) {
+            postIds.add(hit.getContent().getPostId());
+            lastSortValues = hit.getSortValues();
+        }
+        return new RankedPostIds(postIds, hits.getTotalHits(), lastSortValues);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * This package contains Elasticsearch repository interfaces for the photo service application.
+ * <p>
+ * These repositories handle communication with Elasticsearch, allowing the application
+ * to perform complex search operations and index data for faster retrieval.
+ * </p>
+ */
+package org.gordeser.backend.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.json.JsonData;
+import lombok.RequiredArgsConstructor;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository for changing a tag in all search documents with one background task.
+ * <p>
+ * The documents are selected by a term query on the tag and rewritten by a painless script in
+ * Elasticsearch, so no document is fetched into the application. The {@code update_by_query}
+ * request returns as soon as Elasticsearch has started the task, and the caller polls the task
+ * for its result. Documents changed concurrently by the search outbox are skipped instead of
+ * failing the task; the outbox writes them from the database, which already holds the new tags.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TagIndexRepository {
+
+    /**
+     * Script removing a tag from a document and adding the replacement tag if one is given.
+     */
+    private static final String REPLACE_TAG_SCRIPT = "ctx._source.tags.removeIf(t -> t == params.from);"
+            + " if (params.containsKey('to') && !ctx._source.tags.contains(params.to)) {"
+            + " ctx._source.tags.add(params.to); }";
+
+    /**
+     * Client used to start and poll the update tasks.
+     */
+    private final ElasticsearchClient elasticsearchClient;
+
+    /**
+     * Operations used to resolve the index of the search documents.
+     */
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    /**
+     * Starts removing a tag from all documents carrying it.
+     *
+     * @param tag the tag name to remove
+     * @return the ID of the Elasticsearch task
+     */
+    public String startRemoveTag(final String tag) {
+        return startReplaceTag(tag, null);
+    }
+
+    /**
+     * Starts replacing a tag in all documents carrying it.
+     *
+     * @param from the tag name to remove
+     * @param to   the tag name to add, or {@code null} to only remove the tag
+     * @return the ID of the Elasticsearch task
+     */
+    public String startReplaceTag(final String from, final String to) {
+        Map<String, JsonData> params = new HashMap<>();
+        params.put("from", JsonData.of(from));
+        if (to != null) {
+            params.put("to", JsonData.of(to));
+        }
+        String index = elasticsearchOperations.getIndexCoordinatesFor(PostElasticsearch.class).getIndexName();
+        try {
+            return elasticsearchClient.updateByQuery(r -> r
+                            .index(index)
+                            .query(q -> q.term(t -> t.field("tags").value(from)))
+                            .script(s -> s.inline(i -> i.source(REPLACE_TAG_SCRIPT).params(params)))
+                            .conflicts(Conflicts.Proceed)
+                            .waitForCompletion(false))
+                    .task();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrieves the result of a task started by this repository.
+     *
+     * @param taskId the ID of the Elasticsearch task
+     * @return the number of updated documents, or empty while the task is still running
+     * @throws IllegalStateException if the task failed
+     */
+    public Optional<Long> findUpdatedDocuments(final String taskId) {
+        GetTasksResponse response;
+        try {
+            response = elasticsearchClient.tasks().get(g -> g.taskId(taskId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!response.completed()) {
+            return Optional.empty();
+        }
+        if (response.error() != null) {
+            throw new IllegalStateException("Task " + taskId + " failed: " + response.error().reason());
+        }
+        if (response.response() == null) {
+            throw new IllegalStateException("Task " + taskId + " finished without a result");
+        }
+        if (!response.response().failures().isEmpty()) {
+            throw new IllegalStateException("Task " + taskId + " failed to update "
+                    + response.response().failures().size() + " documents");
+        }
+        return Optional.of(response.response().updated());
+    }
+}
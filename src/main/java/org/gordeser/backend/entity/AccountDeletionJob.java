@@ -0,0 +1,138 @@
+/**
+ * This package contains entity classes for the photo service application.
+ * <p>
+ * These entities represent the core data models used within the application, including users, posts, tags, and other
+ * related entities. They are mapped to database tables and are used for persistence.
+ * </p>
+ */
+package org.gordeser.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a background job that deletes a user account and everything it owns.
+ * <p>
+ * The job deletes the posts of the user with their tag links, folder links, comments and
+ * images, then the comments the user wrote elsewhere, the folders of the user and finally the
+ * account itself. Every chunk of rows is deleted in its own transaction together with the
+ * progress counters of the job, so an interrupted job resumes with the rows that are left.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "account_deletion_job", indexes = {
+        @Index(name = "account_deletion_job_status_available_at_idx", columnList = "status, available_at"),
+        @Index(name = "account_deletion_job_user_idx", columnList = "user_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountDeletionJob {
+
+    /**
+     * The progress of a job.
+     */
+    public enum Status {
+        /** Rows of the account are left to delete. */
+        PENDING,
+        /** The account and everything it owned are deleted. */
+        DONE,
+        /** Chunks failed too many times in a row; the rows left are kept and the deletion may be requested again. */
+        FAILED
+    }
+
+    /**
+     * The unique identifier for the job.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_deletion_job_id_seq")
+    @SequenceGenerator(name = "account_deletion_job_id_seq", sequenceName = "account_deletion_job_id_seq",
+            allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the deleted user.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The username of the deleted user, which identifies the comments they wrote.
+     */
+    @Column(name = "username", nullable = false, length = 30)
+    private String username;
+
+    /**
+     * The progress of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * The number of posts the user owned when the job was submitted.
+     */
+    @Column(name = "total_posts", nullable = false)
+    private long totalPosts;
+
+    /**
+     * The number of deleted posts.
+     */
+    @Builder.Default
+    @Column(name = "deleted_posts", nullable = false)
+    private long deletedPosts = 0;
+
+    /**
+     * The number of deleted comments, on the posts of the user and written by the user.
+     */
+    @Builder.Default
+    @Column(name = "deleted_comments", nullable = false)
+    private long deletedComments = 0;
+
+    /**
+     * The number of deleted folders.
+     */
+    @Builder.Default
+    @Column(name = "deleted_folders", nullable = false)
+    private long deletedFolders = 0;
+
+    /**
+     * The number of failed chunks since the last successful one.
+     */
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    /**
+     * The earliest time at which the next chunk may run.
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    /**
+     * The time at which the job was submitted.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The time at which the account was deleted or the job failed.
+     */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * The error message of the last failed chunk.
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
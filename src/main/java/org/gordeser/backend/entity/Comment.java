@@ -17,7 +17,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Data
-@Table(name = "comment")
+@Table(name = "comment", indexes = {
+        @Index(name = "comment_post_date_idx", columnList = "post_id, date, id"),
+        @Index(name = "comment_author_username_idx", columnList = "author_username, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -27,7 +30,8 @@ public class Comment implements Serializable {
      * The unique identifier for the comment.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_id_seq")
+    @SequenceGenerator(name = "comment_id_seq", sequenceName = "comment_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -40,7 +44,7 @@ public class Comment implements Serializable {
     /**
      * The post to which the comment belongs.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     @JsonBackReference
     @JsonIgnore
@@ -49,11 +53,12 @@ public class Comment implements Serializable {
     /**
      * The username of the comment's author.
      */
+    @Column(name = "author_username")
     private String authorUsername;
 
     /**
      * The date and time when the comment was created.
      */
-    @Column(name = "date")
+    @Column(name = "date", nullable = false)
     private LocalDateTime date;
 }
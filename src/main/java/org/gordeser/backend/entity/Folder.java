@@ -27,6 +27,13 @@ import java.util.List;
  * @since 1.0
  */
 @Entity
+@NamedEntityGraph(name = Folder.POSTS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("patron"),
+        @NamedAttributeNode(value = "posts", subgraph = "post")
+}, subgraphs = @NamedSubgraph(name = "post", attributeNodes = {
+        @NamedAttributeNode("image"),
+        @NamedAttributeNode("patron")
+}))
 @Table(name = "folder")
 @Data
 @AllArgsConstructor
@@ -37,11 +44,15 @@ public class Folder implements Serializable {
     @Serial
     private static final long serialVersionUID = 2405172041950251804L;
 
+    /** Entity graph of a folder view: the patron and the posts with their images and patrons. */
+    public static final String POSTS_GRAPH = "Folder.posts";
+
     /**
      * The unique identifier for the folder.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "folder_id_seq")
+    @SequenceGenerator(name = "folder_id_seq", sequenceName = "folder_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -60,11 +71,12 @@ public class Folder implements Serializable {
     /**
      * The patron (user) associated with the folder.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinTable(
             name = "patron_folder",
             joinColumns = @JoinColumn(name = "folder_id"),
-            inverseJoinColumns = @JoinColumn(name = "patron_id")
+            inverseJoinColumns = @JoinColumn(name = "patron_id"),
+            indexes = @Index(name = "patron_folder_patron_idx", columnList = "patron_id, folder_id")
     )
     private User patron;
 
@@ -75,7 +87,8 @@ public class Folder implements Serializable {
     @JoinTable(
             name = "folder_post",
             joinColumns = @JoinColumn(name = "folder_id"),
-            inverseJoinColumns = @JoinColumn(name = "post_id")
+            inverseJoinColumns = @JoinColumn(name = "post_id"),
+            indexes = @Index(name = "folder_post_post_idx", columnList = "post_id")
     )
     @JsonManagedReference
     private List<Post> posts;
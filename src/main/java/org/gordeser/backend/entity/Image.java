@@ -9,6 +9,7 @@ package org.gordeser.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,7 +27,11 @@ import java.io.Serializable;
  * @since 1.0
  */
 @Entity
-@Table(name = "image")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "image", indexes = {
+        @Index(name = "image_digest_idx", columnList = "digest"),
+        @Index(name = "image_storage_key_idx", columnList = "storage_key")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -40,7 +45,8 @@ public class Image implements Serializable {
      * The unique identifier for the image.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_id_seq")
+    @SequenceGenerator(name = "image_id_seq", sequenceName = "image_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -49,13 +55,57 @@ public class Image implements Serializable {
      */
     private String file;
 
+    /**
+     * The hex-encoded SHA-256 digest of the image bytes.
+     * <p>
+     * Images with the same digest share one stored object.
+     * </p>
+     */
+    @JsonIgnore
+    @Column(name = "digest", length = 64)
+    private String digest;
+
+    /**
+     * The key of the stored object in the bucket.
+     */
+    @JsonIgnore
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    /**
+     * The URL of the thumbnail variant, or {@code null} while it is being generated.
+     * <p>
+     * Holds the URL of the original if the image cannot be decoded.
+     * </p>
+     */
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    /**
+     * The URL of the feed-sized variant, or {@code null} while it is being generated.
+     * <p>
+     * Holds the URL of the original if the image cannot be decoded.
+     * </p>
+     */
+    @Column(name = "feed_url")
+    private String feedUrl;
+
+    /**
+     * The URL of the full-sized variant, or {@code null} while it is being generated.
+     * <p>
+     * Holds the URL of the original if the image cannot be decoded.
+     * </p>
+     */
+    @Column(name = "full_url")
+    private String fullUrl;
+
     /**
      * The post associated with the image.
      * <p>
      * This is a bidirectional one-to-one mapping where the post refers back to the image.
      * </p>
      */
-    @OneToOne(mappedBy = "image")
+    @OneToOne(mappedBy = "image", fetch = FetchType.LAZY)
     @JsonBackReference
     @JsonIgnore
     private Post post;
@@ -3,9 +3,11 @@ package org.gordeser.backend.entity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.GenerationType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,7 +22,7 @@ import java.time.LocalDateTime;
  * This token is associated with a user and has an expiration time.
  */
 @Entity
-@Table(name = "passwordResetToken")
+@Table(name = "passwordResetToken", indexes = @Index(name = "password_reset_token_user_idx", columnList = "user_id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -36,7 +38,8 @@ public class PasswordResetToken {
      * Unique identifier for the token entity.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_token_id_seq")
+    @SequenceGenerator(name = "password_reset_token_id_seq", sequenceName = "password_reset_token_id_seq", allocationSize = 50)
     private Long id;
 
     /**
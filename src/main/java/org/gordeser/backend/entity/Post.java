@@ -9,14 +9,19 @@ package org.gordeser.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,11 +31,32 @@ import java.util.List;
  * This entity represents a post in the database, including its title, description,
  * associated tags, image, folders, and the patron (user) who created it.
  * </p>
+ * <p>
+ * All associations are lazy. Queries that return posts to clients load them with the
+ * {@value #CARD_GRAPH} entity graph; the remaining collections are batch-fetched.
+ * </p>
+ * <p>
+ * Deleted posts are only marked with {@link #deletedAt} and hidden from every query, load and
+ * collection of posts; the purger removes them with their links, comments and images later.
+ * </p>
  *
  * @since 1.0
  */
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = {
+        @Index(name = "post_created_at_id_idx", columnList = "created_at DESC, id DESC")
+})
+@SQLRestriction("deleted_at is null")
+@NamedEntityGraph(name = Post.CARD_GRAPH, attributeNodes = {
+        @NamedAttributeNode("image"),
+        @NamedAttributeNode("patron"),
+        @NamedAttributeNode("tags")
+})
+@NamedEntityGraph(name = Post.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("image"),
+        @NamedAttributeNode("patron")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -40,12 +66,19 @@ public class Post implements Serializable {
     @Serial
     private static final long serialVersionUID = 2405172041950251806L;
 
+    /** Entity graph of a post rendered as a card or detail: image, patron and tags. */
+    public static final String CARD_GRAPH = "Post.card";
+
+    /** Entity graph of a post in a paged list: image and patron, tags are batch-fetched. */
+    public static final String SUMMARY_GRAPH = "Post.summary";
+
     /**
      * The unique identifier for the post.
      */
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_id_seq")
+    @SequenceGenerator(name = "post_id_seq", sequenceName = "post_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -63,11 +96,12 @@ public class Post implements Serializable {
     /**
      * The list of tags associated with the post.
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
     @JoinTable(
             name = "post_tag",
             joinColumns = @JoinColumn(name = "post_id"),
-            inverseJoinColumns = @JoinColumn(name = "tag_id")
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "post_tag_tag_post_idx", columnList = "tag_id, post_id")
     )
     @JsonManagedReference
     private List<Tag> tags = new ArrayList<>();
@@ -84,7 +118,7 @@ public class Post implements Serializable {
     /**
      * The image associated with the post.
      */
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "image_id")
     private Image image;
 
@@ -99,15 +133,44 @@ public class Post implements Serializable {
     /**
      * The patron (user) who created the post.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinTable(
             name = "post_patron",
             joinColumns = @JoinColumn(name = "post_id"),
-            inverseJoinColumns = @JoinColumn(name = "patron_id")
+            inverseJoinColumns = @JoinColumn(name = "patron_id"),
+            indexes = @Index(name = "post_patron_patron_post_idx", columnList = "patron_id, post_id")
     )
     @JsonManagedReference
     private User patron;
 
+    /**
+     * The time the post was created, set once on insert.
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The number of comments on the post.
+     * <p>
+     * Maintained only by atomic increments in the database when comments are added or removed,
+     * so saving a stale post never overwrites it.
+     * </p>
+     */
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private Integer commentCount = 0;
+
+    /**
+     * The time the post was deleted, or {@code null} while it is visible.
+     * <p>
+     * Set only by the soft delete in the database, so saving a stale post never restores it.
+     * </p>
+     */
+    @JsonIgnore
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     /**
      * Returns a string representation of the post.
      *
@@ -0,0 +1,92 @@
+/**
+ * This package contains entity classes for the photo service application.
+ * <p>
+ * These entities represent the core data models used within the application, including users, posts, tags, and other
+ * related entities. They are mapped to database tables and are used for persistence.
+ * </p>
+ */
+package org.gordeser.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a pending change of the search index.
+ * <p>
+ * Outbox events are written in the same transaction as the post change they describe
+ * and are drained asynchronously into Elasticsearch, so a post write never waits on
+ * the search engine and no committed change is lost when it is unavailable.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "search_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SearchOutboxEvent {
+
+    /**
+     * The kind of change to apply to the search index.
+     */
+    public enum Operation {
+        /** The post was created or updated and its document must be (re)indexed. */
+        INDEX,
+        /** The post was deleted and its document must be removed. */
+        DELETE
+    }
+
+    /**
+     * The unique identifier for the event.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "search_outbox_id_seq")
+    @SequenceGenerator(name = "search_outbox_id_seq", sequenceName = "search_outbox_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the post the event refers to.
+     */
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    /**
+     * The change to apply to the search index.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 16)
+    private Operation operation;
+
+    /**
+     * The number of failed dispatch attempts.
+     */
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    /**
+     * The earliest time at which the event may be dispatched.
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    /**
+     * The time at which the event was recorded.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The error message of the last failed dispatch attempt.
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,47 @@
+/**
+ * This package contains entity classes for the photo service application.
+ * <p>
+ * These entities represent the core data models used within the application, including users, posts, tags, and other
+ * related entities. They are mapped to database tables and are used for persistence.
+ * </p>
+ */
+package org.gordeser.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a stored object that no image used when its last image was purged.
+ * <p>
+ * The object is only deleted once the grace period has passed and no image uses its key again,
+ * because an upload may reuse the key of a stored object and save its image much later.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "storage_object_deletion", indexes = {
+        @Index(name = "storage_object_deletion_due_at_idx", columnList = "due_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageObjectDeletion {
+
+    /**
+     * The key of the stored object in the bucket.
+     */
+    @Id
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    /**
+     * The earliest time at which the object may be deleted.
+     */
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+}
@@ -8,6 +8,7 @@
 package org.gordeser.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,6 +30,7 @@ import java.util.Objects;
  * @since 1.0
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "tag")
 @Data
 @AllArgsConstructor
@@ -43,7 +45,8 @@ public class Tag implements Serializable {
      * The unique identifier for the tag.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_id_seq")
+    @SequenceGenerator(name = "tag_id_seq", sequenceName = "tag_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -63,7 +66,7 @@ public class Tag implements Serializable {
     /**
      * The list of users who prefer this tag.
      */
-    @ManyToMany(mappedBy = "preferredTags", fetch = FetchType.EAGER)
+    @ManyToMany(mappedBy = "preferredTags")
     @JsonIgnore
     private List<User> users = new ArrayList<>();
 
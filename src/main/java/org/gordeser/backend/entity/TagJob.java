@@ -0,0 +1,166 @@
+/**
+ * This package contains entity classes for the photo service application.
+ * <p>
+ * These entities represent the core data models used within the application, including users, posts, tags, and other
+ * related entities. They are mapped to database tables and are used for persistence.
+ * </p>
+ */
+package org.gordeser.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a background job that deletes, renames or merges a tag.
+ * <p>
+ * A job first rewrites the {@code post_tag} and {@code user_tags} rows of the tag with set-based
+ * statements in one transaction and then updates the {@code tags} field of all affected search
+ * documents with one {@code update_by_query} task, whose ID is recorded so the task is polled
+ * rather than waited for. Its status shows which of the two steps is done, so a job interrupted
+ * by a restart or a search outage resumes where it stopped.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Entity
+@Table(name = "tag_job", indexes = @Index(name = "tag_job_status_available_at_idx",
+        columnList = "status, available_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TagJob {
+
+    /**
+     * The change a job applies to a tag.
+     */
+    public enum Operation {
+        /** The tag is removed from all posts and users and deleted. */
+        DELETE,
+        /** The tag gets a new name. */
+        RENAME,
+        /** The posts and users of the tag are moved to the target tag and the tag is deleted. */
+        MERGE
+    }
+
+    /**
+     * The progress of a job.
+     */
+    public enum Status {
+        /** The database has not been changed yet. */
+        PENDING,
+        /** The database has been changed; the search documents have not been updated yet. */
+        INDEXING,
+        /** Both the database and the search documents have been changed. */
+        DONE,
+        /** The job cannot be applied; see the last error. */
+        FAILED
+    }
+
+    /**
+     * The unique identifier for the job.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_job_id_seq")
+    @SequenceGenerator(name = "tag_job_id_seq", sequenceName = "tag_job_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The change the job applies.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 16)
+    private Operation operation;
+
+    /**
+     * The ID of the tag the job changes.
+     */
+    @Column(name = "tag_id", nullable = false)
+    private Long tagId;
+
+    /**
+     * The name of the tag, as stored in the search documents.
+     * <p>
+     * Recorded on submission and replaced by the current name when the database step runs.
+     * </p>
+     */
+    @Column(name = "tag_name", nullable = false, length = 30)
+    private String tagName;
+
+    /**
+     * The ID of the tag the posts and users are merged into, for merge jobs.
+     */
+    @Column(name = "target_tag_id")
+    private Long targetTagId;
+
+    /**
+     * The new name of the tag for rename jobs, or the name of the target tag for merge jobs.
+     * <p>
+     * For merge jobs, the current name of the target tag replaces it when the database step runs.
+     * </p>
+     */
+    @Column(name = "target_name", length = 30)
+    private String targetName;
+
+    /**
+     * The progress of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * The number of post links of the tag that were removed or moved.
+     */
+    @Column(name = "affected_posts")
+    private Long affectedPosts;
+
+    /**
+     * The number of search documents that were updated.
+     */
+    @Column(name = "updated_documents")
+    private Long updatedDocuments;
+
+    /**
+     * The ID of the Elasticsearch task updating the search documents, while it runs.
+     */
+    @Column(name = "index_task_id", length = 64)
+    private String indexTaskId;
+
+    /**
+     * The number of failed attempts to update the search documents.
+     */
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    /**
+     * The earliest time at which the next step of the job may run.
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    /**
+     * The time at which the job was submitted.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The time at which the job finished or failed.
+     */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * The error message of the last failed step.
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -9,10 +9,12 @@ package org.gordeser.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -30,17 +32,23 @@ import java.util.List;
  * @since 1.0
  */
 @Entity
+@NamedEntityGraph(name = User.PREFERRED_TAGS_GRAPH, attributeNodes = @NamedAttributeNode("preferredTags"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "patron")
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class User implements UserDetails {
 
+    /** Entity graph of an authenticated user: the preferred tags are read by most requests. */
+    public static final String PREFERRED_TAGS_GRAPH = "User.preferredTags";
+
     /**
      * The unique identifier for the user.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patron_id_seq")
+    @SequenceGenerator(name = "patron_id_seq", sequenceName = "patron_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -70,6 +78,18 @@ public class User implements UserDetails {
     @JsonIgnore
     private String password;
 
+    /**
+     * The version of the tokens issued to the user.
+     * <p>
+     * Every token carries the version it was issued with. Incrementing it revokes all tokens
+     * issued before, for example when the password changes.
+     * </p>
+     */
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    @JsonIgnore
+    private Integer tokenVersion = 0;
+
     /**
      * The list of folders associated with the user.
      */
@@ -81,17 +101,18 @@ public class User implements UserDetails {
     /**
      * The list of preferred tags associated with the user.
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @ManyToMany(cascade = CascadeType.PERSIST)
     @JoinTable(
             name = "user_tags", joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "tag_id")
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "user_tags_tag_user_idx", columnList = "tag_id, user_id")
     )
     private List<Tag> preferredTags;
 
     /**
      * The list of posts created by the user.
      */
-    @OneToMany(mappedBy = "patron", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "patron")
     @JsonBackReference
     @JsonIgnore
     private transient List<Post> posts = new ArrayList<>();
@@ -0,0 +1,25 @@
+/**
+ * This package contains application events of the photo service application.
+ * <p>
+ * These events decouple background processing from the request that triggered it.
+ * </p>
+ */
+package org.gordeser.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when the original of a new image has been stored.
+ *
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class ImageUploadedEvent {
+
+    /**
+     * The ID of the uploaded image.
+     */
+    private final Long imageId;
+}
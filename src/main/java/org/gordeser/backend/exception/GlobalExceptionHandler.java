@@ -1,5 +1,7 @@
 package org.gordeser.backend.exception;
 
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -40,6 +42,31 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    /**
+     * Handles work rejected by a full executor, such as a streaming response beyond the capacity.
+     *
+     * @param ex the exception to handle
+     * @return a response entity with the error message and HTTP 503 status
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseBody
+    public ResponseEntity<String> handleTaskRejectedException(final TaskRejectedException ex) {
+        return new ResponseEntity<>("Server is busy, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles request parameters that violate their constraints, such as a page size out of range.
+     *
+     * @param ex the exception to handle
+     * @return a response entity with the error message and HTTP 400 status
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ResponseEntity<String> handleConstraintViolationException(final ConstraintViolationException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles exceptions related to database access errors.
      *
@@ -105,6 +132,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles invalid pagination cursor exception.
+     *
+     * @param ex the exception to handle
+     * @return a response entity with the error message and HTTP 400 status
+     */
+    @ExceptionHandler(InvalidCursor.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ResponseEntity<String> handleInvalidCursorException(final InvalidCursor ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles invalid bulk ingestion request exception.
+     *
+     * @param ex the exception to handle
+     * @return a response entity with the error message and HTTP 400 status
+     */
+    @ExceptionHandler(InvalidManifest.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ResponseEntity<String> handleInvalidManifestException(final InvalidManifest ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles generic exceptions related to security.
      *
@@ -120,6 +173,7 @@ public class GlobalExceptionHandler {
             case "AccessDeniedException" -> handleAccessDeniedException(exception);
             case "SignatureException" -> handleSignatureException(exception);
             case "ExpiredJwtException" -> handleExpiredJwtException(exception);
+            case "CredentialsExpiredException" -> handleRevokedJwtException(exception);
             default -> handleUnknownException(exception);
         };
     }
@@ -209,6 +263,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetail, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Handles JWT tokens revoked by a newer token version of their user.
+     *
+     * @param exception the exception to handle
+     * @return a response entity with problem details and HTTP 401 status
+     */
+    private ResponseEntity<ProblemDetail> handleRevokedJwtException(final Exception exception) {
+        ProblemDetail errorDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatusCode.valueOf(401), exception.getMessage()
+        );
+        errorDetail.setProperty(DESCRIPTION_ERROR_KEY, "The JWT token has been revoked");
+        return new ResponseEntity<>(errorDetail, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handles unknown exceptions that do not match any predefined exception type.
      *
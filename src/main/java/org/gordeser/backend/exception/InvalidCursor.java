@@ -0,0 +1,30 @@
+/**
+ * This package contains custom exception classes for the photo service application.
+ * <p>
+ * These exceptions are used to handle specific error cases within the application, providing
+ * meaningful feedback to the user when something goes wrong.
+ * </p>
+ */
+package org.gordeser.backend.exception;
+
+/**
+ * Exception class to indicate that a pagination cursor could not be decoded.
+ * <p>
+ * This exception is thrown when a client sends a cursor that was not issued by the application
+ * or does not belong to the requested endpoint.
+ * </p>
+ *
+ * @since 1.0
+ */
+public class InvalidCursor extends Exception implements CustomException {
+
+    /**
+     * Returns the message indicating that the cursor is invalid.
+     *
+     * @return the message "Invalid cursor"
+     */
+    @Override
+    public String getMessage() {
+        return "Invalid cursor";
+    }
+}
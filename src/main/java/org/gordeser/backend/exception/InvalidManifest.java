@@ -0,0 +1,29 @@
+/**
+ * This package contains custom exception classes for the photo service application.
+ * <p>
+ * These exceptions are used to handle specific error cases within the application, providing
+ * meaningful feedback to the user when something goes wrong.
+ * </p>
+ */
+package org.gordeser.backend.exception;
+
+/**
+ * Exception class to indicate that a bulk ingestion request cannot be processed at all.
+ * <p>
+ * This exception is thrown when the manifest is empty or too large, or when the request carries
+ * neither an archive nor files. Problems of single manifest entries are reported per entry instead.
+ * </p>
+ *
+ * @since 1.0
+ */
+public class InvalidManifest extends Exception implements CustomException {
+
+    /**
+     * Constructor for InvalidManifest.
+     *
+     * @param message the reason the request was rejected
+     */
+    public InvalidManifest(final String message) {
+        super(message);
+    }
+}
@@ -22,4 +22,13 @@ public class ServiceUnavailableException extends RuntimeException {
     public ServiceUnavailableException(final String message, final Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Constructs a new ServiceUnavailableException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
 }
@@ -2,10 +2,12 @@ package org.gordeser.backend.facade;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.CursorPage;
 import org.gordeser.backend.dto.FolderDTO;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.entity.Folder;
-import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.repository.FolderRepository;
 import org.gordeser.backend.service.FolderService;
@@ -69,13 +71,34 @@ public class FolderFacade {
 
         log.info("Folder created: {}", newFolder);
         userService.addFolderToUser(newFolder.getPatron(), newFolder);
-        postService.addFolderToPosts(newFolder.getPosts(), newFolder);
-        return newFolder;
+        folderService.addPosts(newFolder.getId(), folderDTO.getPostIds());
+        return folderService.getFolderById(newFolder.getId());
+    }
+
+    /**
+     * Retrieves one keyset page of the cards of the posts in a folder, newest first.
+     *
+     * @param folderId the ID of the folder
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page
+     * @param size     the maximum number of cards to return
+     * @return a page of post cards with the cursor of the next page
+     * @throws NotFound      if the folder is not found
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    public CursorPage<PostCard> getPostsAfter(final Long folderId, final String cursor, final int size)
+            throws NotFound, InvalidCursor {
+        if (!folderRepository.existsById(folderId)) {
+            throw new NotFound();
+        }
+        return postService.readCardsInFolderAfter(folderId, cursor, size);
     }
 
     /**
      * Converts a FolderDTO object into
      * a Folder entity and saves it in the repository.
+     * <p>
+     * The posts are not set here; they are linked afterwards by ID.
+     * </p>
      *
      * @param folderDTO the folder DTO
      * @param user      the user who created the folder
@@ -87,13 +110,17 @@ public class FolderFacade {
         folder.setTitle(folderDTO.getTitle());
         folder.setDescription(folderDTO.getDescription());
         folder.setPatron(user);
-        folder.setPosts(postService.getPostsById(folderDTO.getPostIds()));
+        folder.setPosts(new ArrayList<>());
         log.info("Folder created from DTO: {}", folder);
         return folderRepository.save(folder);
     }
 
     /**
      * Updates an existing folder with new details.
+     * <p>
+     * The posts of the folder are replaced by the posts of the DTO as ID sets, so only the
+     * changed links are written and no post is loaded.
+     * </p>
      *
      * @param folderId  the ID of the folder to be updated
      * @param folderDTO the updated folder details
@@ -104,75 +131,51 @@ public class FolderFacade {
     @Transactional
     public Folder updateFolder(
             final Long folderId, final FolderDTO folderDTO) throws NotFound {
-        Folder oldFolder = folderService.getFolderById(folderId);
-        oldFolder.setTitle(folderDTO.getTitle());
-        oldFolder.setDescription(folderDTO.getDescription());
-        updatePostsInFolder(folderDTO.getPostIds(), oldFolder);
-        log.info("Folder updated: {}", oldFolder);
-        return folderService.update(folderId, oldFolder);
+        folderService.updateDetails(folderId, folderDTO.getTitle(), folderDTO.getDescription());
+        folderService.replacePosts(folderId, folderDTO.getPostIds());
+        return folderService.getFolderById(folderId);
     }
 
     /**
-     * Updates the posts associated with
-     * a folder by adding new posts and removing old ones.
+     * Adds posts to a folder.
      *
-     * @param postIds the list of new post IDs
-     * @param folder  the folder to update
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to add
+     * @return the number of added posts
+     * @throws NotFound if the folder is not found
      */
-    private void updatePostsInFolder(
-            final List<Long> postIds, final Folder folder) {
-        List<Post> newPosts = postService.getPostsById(postIds);
-        if (newPosts.isEmpty()) {
-            deleteAllPostsInFolder(folder);
-            return;
-        }
-
-        List<Post> oldPosts = new ArrayList<>(folder.getPosts());
-        for (Post post : oldPosts) {
-            if (!newPosts.contains(post)) {
-                postService.deleteFolderFromPost(folder, post);
-                folder.getPosts().remove(post);
-            } else {
-                newPosts.remove(post);
-            }
+    @Transactional
+    public int addPosts(final Long folderId, final List<Long> postIds) throws NotFound {
+        if (!folderRepository.existsById(folderId)) {
+            throw new NotFound();
         }
-
-        folderService.addPostsToFolder(folder, newPosts);
-        postService.addFolderToPosts(newPosts, folder);
+        return folderService.addPosts(folderId, postIds);
     }
 
     /**
-     * Removes all posts associated with a folder.
+     * Removes posts from a folder.
      *
-     * @param folder the folder from which to remove all posts
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to remove
+     * @return the number of removed posts
+     * @throws NotFound if the folder is not found
      */
-    private void deleteAllPostsInFolder(final Folder folder) {
-        List<Post> posts = folder.getPosts();
-        postService.deleteFolderFromPosts(folder, posts);
-        folder.setPosts(null);
+    @Transactional
+    public int removePosts(final Long folderId, final List<Long> postIds) throws NotFound {
+        if (!folderRepository.existsById(folderId)) {
+            throw new NotFound();
+        }
+        return folderService.removePosts(folderId, postIds);
     }
 
     /**
-     * Deletes a folder by its ID and
-     * removes all associations with posts and users.
+     * Deletes a folder by its ID together with its links to posts and its patron.
      *
      * @param folderId the ID of the folder to delete
      * @throws NotFound if the folder is not found
      * or there is an issue during deletion
      */
     public void deleteById(final Long folderId) throws NotFound {
-        Folder folderToDelete = folderService.getFolderById(folderId);
-
-        postService.deleteFolderFromPosts(
-                folderToDelete,
-                folderToDelete.getPosts()
-        );
-
-        userService.deleteFolderFromUser(
-                folderToDelete.getPatron(),
-                folderToDelete
-        );
-
         folderService.deleteById(folderId);
     }
 
@@ -14,7 +14,6 @@ import org.gordeser.backend.service.ImageService;
 import org.gordeser.backend.service.PostService;
 import org.gordeser.backend.service.TagService;
 import org.gordeser.backend.service.UserService;
-import org.gordeser.backend.service.FolderService;
 import org.gordeser.backend.service.JwtService;
 import org.springframework.stereotype.Service;
 
@@ -44,9 +43,6 @@ public class PostFacade {
     /** Service for managing image-related operations. */
     private final ImageService imageService;
 
-    /** Service for managing folder-related operations. */
-    private final FolderService folderService;
-
     /** Service for managing JWT authentication and user retrieval. */
     private final JwtService jwtService;
 
@@ -215,53 +211,24 @@ public class PostFacade {
 
     /**
      * Deletes a post by its ID.
+     * <p>
+     * The post is only marked as deleted, which hides it at once; the purger removes it with its
+     * links, comments and image in the background.
+     * </p>
      *
      * @param postId the ID of the post to delete
      * @throws NotFound if the post is not found
-     * @throws Forbidden if the post is not found
-     * or the user is not authorized to delete it
+     * @throws Forbidden if the user is not authorized to delete it
      */
     public void deletePostById(final Long postId) throws NotFound, Forbidden {
         User user = jwtService.getUserByToken();
 
-        Post postToDelete = postService.getPostById(postId);
-
-        if (postToDelete == null) {
-            throw new NotFound();
-        }
-
-        String patronUsername = postToDelete.getPatron().getUsername();
-
-        if (!patronUsername.equals(user.getUsername())) {
-            throw new Forbidden();
-        }
-
-        folderService.deletePostFromFolders(
-                postToDelete.getFolders(),
-                postToDelete
-        );
-        userService.deletePostFromUser(postToDelete.getPatron(), postToDelete);
-        tagService.deletePostFromTags(postToDelete.getTags(), postToDelete);
-        postService.deleteById(postId);
-    }
-
-    /**
-     * Deletes tags from a list of user posts.
-     *
-     * @param userPosts the list of posts to delete tags from
-     */
-    public void deleteTagsFromPosts(final List<Post> userPosts) {
-        if (userPosts == null || userPosts.isEmpty()) {
-            log.info("No posts to delete tags");
+        if (postService.markDeleted(postId, user.getId())) {
             return;
         }
-        userPosts.forEach(post -> {
-            if (post.getTags() == null || post.getTags().isEmpty()) {
-                return;
-            }
-            post.getTags().clear();
-            tagService.deletePostFromTags(post.getTags(), post);
-        });
-        postService.saveAll(userPosts);
+        if (!postService.existsById(postId)) {
+            throw new NotFound();
+        }
+        throw new Forbidden();
     }
 }
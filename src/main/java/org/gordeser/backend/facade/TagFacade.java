@@ -1,18 +1,20 @@
 package org.gordeser.backend.facade;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
+import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
-import org.gordeser.backend.service.PostService;
+import org.gordeser.backend.service.TagJobService;
 import org.gordeser.backend.service.TagService;
 import org.springframework.stereotype.Service;
 
 /**
  * Facade for managing tags in the application.
  * This class provides an interface for handling operations related to tags,
- * including deleting tags and their associations with posts.
+ * including deleting, renaming and merging tags together with their associations.
+ * These changes are submitted as background tag jobs.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,27 +24,61 @@ public class TagFacade {
     /** Service for managing tag-related operations. */
     private final TagService tagService;
 
-    /** Service for managing post-related operations. */
-    private final PostService postService;
+    /** Service for submitting tag jobs. */
+    private final TagJobService tagJobService;
 
     /**
-     * Deletes a tag by its ID.
-     * This method first retrieves the tag from the database.
-     * If the tag is found, it removes all associations
-     * of the tag with its related posts before deleting the tag.
+     * Submits the deletion of a tag by its ID.
+     * The job removes the tag from all posts and users and from the search documents.
      *
      * @param tagId the ID of the tag to delete
+     * @return the submitted job
      * @throws NotFound if the tag is not found
-     * or any error occurs during deletion
      */
-    @Transactional
-    public void deleteById(final Long tagId) throws NotFound {
+    public TagJob deleteById(final Long tagId) throws NotFound {
         Tag tagToDelete = tagService.getTagById(tagId);
 
         if (tagToDelete == null) {
             throw new NotFound();
         }
-        postService.deleteTagsFromPost(tagToDelete, tagToDelete.getPosts());
-        tagService.deleteById(tagId);
+        return tagJobService.submitDelete(tagToDelete);
+    }
+
+    /**
+     * Submits the renaming of a tag.
+     * Renaming a tag to its current name submits a job that finishes without changing anything.
+     *
+     * @param tagId the ID of the tag to rename
+     * @param name  the new name of the tag
+     * @return the submitted job
+     * @throws NotFound      if the tag is not found
+     * @throws AlreadyExists if another tag already has the name
+     */
+    public TagJob rename(final Long tagId, final String name) throws NotFound, AlreadyExists {
+        Tag tagToRename = tagService.getTagById(tagId);
+
+        if (!name.equals(tagToRename.getName()) && tagService.existsByName(name)) {
+            throw new AlreadyExists("Tag name already exists: " + name);
+        }
+        return tagJobService.submitRename(tagToRename, name);
+    }
+
+    /**
+     * Submits the merge of a tag into another one.
+     * The job moves the posts and users of the tag to the target tag and deletes the tag.
+     *
+     * @param tagId       the ID of the tag to merge
+     * @param targetTagId the ID of the tag to merge into
+     * @return the submitted job
+     * @throws NotFound      if either tag is not found
+     * @throws AlreadyExists if the tag is merged into itself
+     */
+    public TagJob merge(final Long tagId, final Long targetTagId) throws NotFound, AlreadyExists {
+        if (tagId.equals(targetTagId)) {
+            throw new AlreadyExists("A tag cannot be merged into itself");
+        }
+        Tag tagToMerge = tagService.getTagById(tagId);
+        Tag target = tagService.getTagById(targetTagId);
+        return tagJobService.submitMerge(tagToMerge, target);
     }
 }
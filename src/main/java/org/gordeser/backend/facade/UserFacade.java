@@ -2,9 +2,10 @@ package org.gordeser.backend.facade;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.AccountDeletionJob;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.service.AccountDeletionService;
 import org.gordeser.backend.service.TagService;
 import org.gordeser.backend.service.UserService;
 import org.springframework.stereotype.Service;
@@ -31,27 +32,34 @@ public class UserFacade {
     /** Service for managing tag-related operations. */
     private final TagService tagService;
 
-    /** Facade for managing post-related operations. */
-    private final PostFacade postFacade;
+    /** Service for deleting user accounts in the background. */
+    private final AccountDeletionService accountDeletionService;
 
     /**
      * Deletes a user by their ID.
-     * This method removes the user's associations with preferred tags,
-     * deletes their posts, and finally deletes the user from the database.
+     * This method locks the user out and submits a job that deletes
+     * their posts, comments and folders and finally the user itself.
      *
      * @param userToDelete the user to delete
-     * @throws Exception if an error occurs during deletion
+     * @return the job deleting the user
+     * @throws NotFound if the user no longer exists
      */
-    @Transactional
-    public void deleteUserById(final User userToDelete) throws NotFound {
+    public AccountDeletionJob deleteUserById(final User userToDelete) throws NotFound {
         log.info("Deleting user: {}", userToDelete);
-        List<Tag> userTags = userToDelete.getPreferredTags();
-        tagService.deleteUserFromTags(userTags, userToDelete);
-        userService.deletePreferedTags(userToDelete);
-        List<Post> userPosts = userToDelete.getPosts();
-        postFacade.deleteTagsFromPosts(userPosts);
-        userService.deleteById(userToDelete.getId());
-        log.info("User deleted: {}", userToDelete);
+        AccountDeletionJob job = accountDeletionService.submit(userToDelete.getId());
+        log.info("User deletion submitted: {}", userToDelete);
+        return job;
+    }
+
+    /**
+     * Retrieves the latest deletion job of a user.
+     *
+     * @param userId the ID of the user
+     * @return the job deleting the user
+     * @throws NotFound if the user never requested the deletion of their account
+     */
+    public AccountDeletionJob getDeletionJob(final Long userId) throws NotFound {
+        return accountDeletionService.getJobByUserId(userId);
     }
 
     /**
@@ -8,11 +8,19 @@
 package org.gordeser.backend.mapper;
 
 import lombok.experimental.UtilityClass;
+import org.gordeser.backend.dto.PostIndexView;
+import org.gordeser.backend.dto.PostTagView;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.PostElasticsearch;
 import org.gordeser.backend.entity.Tag;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 /**
  * Mapper class for converting between {@link Post} and {@link PostElasticsearch} entities.
@@ -38,10 +46,12 @@ public class PostMapper {
         }
 
         return PostElasticsearch.builder()
+                .id(documentId(post.getId()))
                 .postId(post.getId())
                 .title(post.getTitle())
                 .description(post.getDescription())
                 .tags(mapTags(post.getTags()))
+                .createdAt(indexedTime(post.getCreatedAt()))
                 .build();
     }
 
@@ -59,4 +69,84 @@ public class PostMapper {
                 .map(Tag::getName)
                 .toList();
     }
+
+    /**
+     * Builds {@link PostElasticsearch} entities from post projections and their tag rows.
+     *
+     * @param posts the indexable post columns
+     * @param tags  the tag rows of the same posts
+     * @return the corresponding {@link PostElasticsearch} entities, in the order of {@code posts}
+     */
+    public static List<PostElasticsearch> toElasticsearchEntities(final List<PostIndexView> posts,
+                                                                  final List<PostTagView> tags) {
+        Map<Long, List<String>> tagsByPost = tags.stream()
+                .collect(Collectors.groupingBy(
+                        PostTagView::getPostId,
+                        Collectors.mapping(PostTagView::getTagName, Collectors.toList())
+                ));
+
+        return posts.stream()
+                .map(post -> PostElasticsearch.builder()
+                        .id(documentId(post.getId()))
+                        .postId(post.getId())
+                        .title(post.getTitle())
+                        .description(post.getDescription())
+                        .tags(tagsByPost.getOrDefault(post.getId(), List.of()))
+                        .createdAt(indexedTime(post.getCreatedAt()))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Truncates a timestamp to the millisecond precision stored in the index.
+     * <p>
+     * Documents built from the database then equal the documents read back from the index, so
+     * their checksums match.
+     * </p>
+     *
+     * @param time the timestamp, possibly with microseconds
+     * @return the timestamp truncated to milliseconds, or {@code null} if the input is {@code null}
+     */
+    public static LocalDateTime indexedTime(final LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Returns the Elasticsearch document ID used for the post with the given ID.
+     * <p>
+     * Documents are keyed by the relational post ID so that re-indexing a post
+     * overwrites its document instead of creating a duplicate.
+     * </p>
+     *
+     * @param postId the ID of the post in the relational database
+     * @return the document ID, or {@code null} if the post has not been persisted yet
+     */
+    public static String documentId(final Long postId) {
+        return postId == null ? null : String.valueOf(postId);
+    }
+
+    /**
+     * Computes a checksum over the searchable content of a document.
+     * <p>
+     * The checksum covers the title, the description, the tag names (in sorted order) and the
+     * creation time, so two documents describing the same post content always produce the same value.
+     * </p>
+     *
+     * @param document the document to checksum
+     * @return the CRC32 checksum of the document content
+     */
+    public static long contentChecksum(final PostElasticsearch document) {
+        List<String> tags = document.getTags() == null ? List.of() : document.getTags().stream()
+                .sorted()
+                .toList();
+        String content = String.join("\n",
+                String.valueOf(document.getTitle()),
+                String.valueOf(document.getDescription()),
+                String.join(",", tags),
+                String.valueOf(document.getCreatedAt()));
+
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
 }
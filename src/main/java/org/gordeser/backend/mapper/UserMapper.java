@@ -4,6 +4,8 @@ import lombok.experimental.UtilityClass;
 import org.gordeser.backend.dto.UserProfileDTO;
 import org.gordeser.backend.entity.User;
 
+import java.util.ArrayList;
+
 /**
  * Utility class for converting a {@link User} entity to a {@link UserProfileDTO}.
  */
@@ -21,7 +23,7 @@ public class UserMapper {
         dto.setId(user.getId());
         dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
-        dto.setPosts(user.getPosts());
+        dto.setPosts(new ArrayList<>());
 
         return dto;
     }
@@ -50,6 +50,9 @@ public enum LogMessages {
     /** Indicates successful deletion of a folder by its ID. */
     FOLDER_DELETE_SUCCESS("Successfully deleted folder with ID: {}"),
 
+    /** Indicates how many posts were added to and removed from a folder. */
+    FOLDER_POSTS_CHANGED("Added {} and removed {} posts in folder with ID: {}"),
+
     /** Indicates that a user was not found by the specified ID. */
     USER_NOT_FOUND("User not found for ID: {}"),
 
@@ -59,9 +62,6 @@ public enum LogMessages {
     /** Indicates that folders have been retrieved for a specific patron. */
     FOLDERS_RETRIEVED("Retrieved {} folders for patron with ID: {}"),
 
-    /** Indicates that a post was deleted from folders. */
-    POST_DELETED_FROM_FOLDERS("Post deleted from folders: {}"),
-
     /** Retrieving folders for a patron using a JWT token. */
     FOLDERS_RETRIEVE_BY_TOKEN("Retrieving folders for the patron using JWT token."),
 
@@ -101,6 +101,12 @@ public enum LogMessages {
     /** Attempting to create a new image from a provided file. */
     IMAGE_CREATION_ATTEMPT("Creating a new image from the provided file: {}"),
 
+    /** Indicates that an uploaded image reuses an already stored object. */
+    IMAGE_DEDUPLICATED("Image with digest {} is already stored, reusing {}"),
+
+    /** Indicates that an uploaded image gets a fresh key because its usual key is waiting for deletion. */
+    IMAGE_KEY_PENDING_DELETION("Stored object of digest {} is waiting for deletion, uploading to {}"),
+
     /** Indicates successful creation of an image. */
     IMAGE_CREATED_SUCCESS("Successfully created image with ID: {}"),
 
@@ -128,39 +134,9 @@ public enum LogMessages {
     /** Indicates update failure due to a non-existent post. */
     POST_UPDATE_FAILED("Update failed: Post not found with ID: {}"),
 
-    /** Attempting to delete a post by its ID. */
-    POST_DELETE_ATTEMPT("Attempting to delete post with ID: {}"),
-
-    /** Indicates deletion failure due to a non-existent post or Elasticsearch entry. */
-    POST_DELETE_FAILED("Deletion failed: Post or Elasticsearch entry not found for ID: {}"),
-
-    /** Indicates successful deletion of a post and its Elasticsearch entry. */
-    POST_DELETE_SUCCESS("Successfully deleted post and its Elasticsearch entry with ID: {}"),
-
     /** Indicates that posts have been found. */
     POSTS_FOUND("Posts found: {}"),
 
-    /** Indicates that a folder was added to posts. */
-    FOLDER_ADDED_TO_POSTS("Folder added to posts: {}"),
-
-    /** Attempting to delete a folder from multiple posts. */
-    FOLDER_DELETE_FROM_POSTS_ATTEMPT("Attempting to delete folder: {} from {} posts"),
-
-    /** Indicates that a folder was removed from a specific post. */
-    FOLDER_REMOVED_FROM_POST("Folder {} removed from post: {}"),
-
-    /** Indicates that a folder was not found in a specific post. */
-    FOLDER_NOT_FOUND_IN_POST("Folder {} not found in post: {}"),
-
-    /** Indicates successful update of posts after deleting a folder. */
-    POSTS_UPDATE_SUCCESS("Successfully updated posts after deleting folder: {}"),
-
-    /** Attempting to delete a folder from a specific post. */
-    FOLDER_DELETE_ATTEMPT_FROM_POST("Attempting to delete folder: {} from post: {}"),
-
-    /** Indicates successful deletion of a folder from a specific post. */
-    FOLDER_DELETE_SUCCESS_FROM_POST("Successfully removed folder {} from post: {}"),
-
     /** Indicates that a tag was removed from posts. */
     TAG_REMOVED_FROM_POSTS("Tag removed from posts: {}"),
 
@@ -227,9 +203,6 @@ public enum LogMessages {
     /** Indicates successful creation of multiple tags. */
     TAGS_CREATION_SUCCESS("Successfully saved tags, total saved: {}"),
 
-    /** Attempting to remove a user from tags. */
-    USER_DELETE_FROM_TAGS_ATTEMPT("Delete user from tags: {}"),
-
     /** Indicates that a user was added to tags. */
     USER_ADDED_TO_TAG("User added to tags: {}"),
 
@@ -305,9 +278,6 @@ public enum LogMessages {
     /** Indicates that a post already exists for the user ID. */
     USER_POST_ALREADY_EXISTS("Post already exists for user ID: {}"),
 
-    /** Attempting to delete a post from a user by ID. */
-    USER_DELETE_POST_ATTEMPT("Delete post from User ID: {}"),
-
     /** Attempting to add a folder to a user by ID. */
     USER_ADD_FOLDER_ATTEMPT("Attempting to add folder to user ID: {}"),
 
@@ -317,17 +287,140 @@ public enum LogMessages {
     /** Indicates that a folder already exists for the user ID. */
     USER_FOLDER_ALREADY_EXISTS("Folder already exists for user ID: {}"),
 
-    /** Attempting to delete a folder from a user by ID. */
-    USER_DELETE_FOLDER_ATTEMPT("Delete folder from User ID: {}"),
-
-    /** Attempting to delete all tags from a user by ID. */
-    USER_DELETE_TAGS_ATTEMPT("Delete all tags from User ID: {}"),
-
     /** Indicates failure to add tags to a user due to null tags. */
     TAGS_NOT_FOUND_OR_NULL("Tags not found or null"),
 
     /** Indicates that a tag was added to a user. */
-    TAG_ADDED_TO_USER("Tag added to user: {}");
+    TAG_ADDED_TO_USER("Tag added to user: {}"),
+
+    /** Indicates that a full Elasticsearch reindex has started. */
+    REINDEX_STARTED("Starting full Elasticsearch reindex in chunks of {} posts"),
+
+    /** Indicates the progress of a running Elasticsearch reindex. */
+    REINDEX_PROGRESS("Reindexed {} posts so far (last post ID: {}, {} posts/s)"),
+
+    /** Indicates that a full Elasticsearch reindex has finished. */
+    REINDEX_FINISHED("Finished Elasticsearch reindex: {} posts in {} s ({} posts/s)"),
+
+    /** Indicates that an Elasticsearch reconciliation run has started. */
+    RECONCILE_STARTED("Starting Elasticsearch drift reconciliation"),
+
+    /** Indicates that documents of a post ID range were repaired. */
+    RECONCILE_RANGE_REPAIRED("Repaired post IDs ({}, {}]: {} re-indexed, {} deleted"),
+
+    /** Indicates that more documents than the configured limit exist in a post ID range. */
+    RECONCILE_RANGE_TRUNCATED("Too many documents for post IDs ({}, {}], the rest is repaired on the next run"),
+
+    /** Indicates that an Elasticsearch reconciliation run has finished. */
+    RECONCILE_FINISHED("Finished Elasticsearch drift reconciliation: {} documents repaired"),
+
+    /** Indicates that a batch of search outbox events was applied to Elasticsearch. */
+    OUTBOX_BATCH_DISPATCHED("Dispatched {} search outbox events"),
+
+    /** Indicates that a batch of search outbox events failed and was rescheduled. */
+    OUTBOX_BATCH_FAILED("Failed to dispatch {} search outbox events, retrying later: {}"),
+
+    /** Reports the statistics of the association cache. */
+    ASSOCIATION_CACHE_STATS("Association cache: {} entries, {} hits, {} misses, hit rate {}, {} evictions"),
+
+    /** Reports the statistics of the verified-token cache. */
+    JWT_CACHE_STATS("JWT cache: {} entries, {} hits, {} misses, hit rate {}, {} evictions"),
+
+    /** Indicates that the association service circuit opened after failures. */
+    ASSOCIATION_CIRCUIT_OPENED("Association service circuit opened after failure: {}"),
+
+    /** Indicates that the association service circuit closed after a successful call. */
+    ASSOCIATION_CIRCUIT_CLOSED("Association service circuit closed, service recovered"),
+
+    /** Indicates that recommendations are served from preferred tags only. */
+    RECOMMENDATION_DEGRADED("Association service unavailable, serving feed from preferred tags only: {}"),
+
+    /** Indicates that the variants of an image were generated. */
+    IMAGE_VARIANTS_CREATED("Generated variants of image {} in {} ms"),
+
+    /** Indicates that the original of an image could not be decoded. */
+    IMAGE_VARIANTS_UNSUPPORTED("Image {} has an unsupported format, no variants generated"),
+
+    /** Indicates that the variant executor was full and the variants of an image were left to the retry sweep. */
+    IMAGE_VARIANTS_DEFERRED("Variant executor is full, variants of image {} are left to the retry sweep"),
+
+    /** Indicates that an image has too many pixels to be decoded for variant generation. */
+    IMAGE_VARIANTS_TOO_LARGE("Image {} is {}x{} pixels, too large to generate variants"),
+
+    /** Indicates that generating the variants of an image failed. */
+    IMAGE_VARIANTS_FAILED("Failed to generate variants of image {}"),
+
+    /** Indicates that a bulk ingestion started. */
+    BULK_INGEST_STARTED("Bulk ingestion of {} posts started for user {}"),
+
+    /** Indicates that an entry of a bulk ingestion failed. */
+    BULK_INGEST_ITEM_FAILED("Bulk ingestion entry {} ({}) failed: {}"),
+
+    /** Indicates that the upload of a bulk ingested image could not be submitted in time. */
+    BULK_INGEST_UPLOAD_REJECTED("Upload of bulk ingested image {} rejected, the upload executor is full"),
+
+    /** Indicates that a chunk of a bulk ingestion could not be saved. */
+    BULK_INGEST_CHUNK_FAILED("Failed to save a chunk of {} bulk ingested posts, saving them one by one"),
+
+    /** Indicates that the stored objects of unsaved bulk ingested posts could not be handed to the purger. */
+    BULK_INGEST_DISCARD_FAILED("Failed to schedule the deletion of {} stored objects of unsaved bulk ingested posts"),
+
+    /** Indicates that a bulk ingestion finished. */
+    BULK_INGEST_FINISHED("Bulk ingestion for user {} finished: {} created, {} failed in {} ms"),
+
+    /** Indicates that a tag job was submitted. */
+    TAG_JOB_SUBMITTED("Tag job {} submitted: {} of tag {}"),
+
+    /** Indicates that the database step of a tag job finished. */
+    TAG_JOB_DATABASE_DONE("Tag job {} applied {} of tag {} to the database, {} post links changed"),
+
+    /** Indicates that the index task of a tag job was started. */
+    TAG_JOB_INDEX_STARTED("Tag job {} started index task {}"),
+
+    /** Indicates that a tag job finished. */
+    TAG_JOB_DONE("Tag job {} finished, {} search documents updated"),
+
+    /** Indicates that the index step of a tag job failed and was rescheduled. */
+    TAG_JOB_INDEX_FAILED("Failed to update the search documents of tag job {}, retrying later: {}"),
+
+    /** Indicates that a tag job cannot be applied. */
+    TAG_JOB_FAILED("Tag job {} failed: {}"),
+
+    /** Indicates that a tag job was not found. */
+    TAG_JOB_NOT_FOUND("Tag job not found for ID: {}"),
+
+    /** Indicates that an account deletion job was submitted. */
+    ACCOUNT_DELETION_SUBMITTED("Account deletion job {} submitted for user {} with {} posts"),
+
+    /** Indicates that an account deletion job deleted a chunk of rows. */
+    ACCOUNT_DELETION_CHUNK("Account deletion job {} deleted {} {}"),
+
+    /** Indicates that an account deletion job deleted the account. */
+    ACCOUNT_DELETION_DONE("Account deletion job {} deleted user {}"),
+
+    /** Indicates that rows were added to an account while it was being deleted. */
+    ACCOUNT_DELETION_ROWS_LEFT("Account deletion job {} found rows added during the deletion, deleting them first"),
+
+    /** Indicates that a chunk of an account deletion job failed and was rescheduled. */
+    ACCOUNT_DELETION_FAILED("Account deletion job {} failed, retrying later: {}"),
+
+    /** Indicates that an account deletion job failed too many times and was given up. */
+    ACCOUNT_DELETION_GAVE_UP("Account deletion job {} failed {} times in a row, giving up: {}"),
+
+    /** Indicates that no account deletion job was found for a user. */
+    ACCOUNT_DELETION_NOT_FOUND("Account deletion job not found for user ID: {}"),
+
+    /** Indicates that a post was marked as deleted. */
+    POST_MARKED_DELETED("Post {} marked as deleted"),
+
+    /** Indicates that a batch of deleted posts was purged. */
+    POST_PURGED("Purged {} deleted posts with {} comments, {} stored objects are due for deletion later"),
+
+    /** Indicates that unused stored objects were deleted after their grace period. */
+    STORAGE_OBJECTS_DELETED("Deleted {} unused stored objects of {} storage keys"),
+
+    /** Indicates that purging deleted posts failed and is retried on the next run. */
+    POST_PURGE_FAILED("Purging deleted posts failed, retrying later: {}");
 
     /**
      * Template message to logging.
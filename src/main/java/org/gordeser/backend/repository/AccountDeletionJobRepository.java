@@ -0,0 +1,47 @@
+package org.gordeser.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.gordeser.backend.entity.AccountDeletionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for accessing account deletion jobs.
+ */
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, Long> {
+
+    /**
+     * Locks and returns the oldest pending jobs whose next chunk is due.
+     * <p>
+     * Rows locked by another worker are skipped, so several application instances can run
+     * jobs concurrently without deleting the same chunk twice.
+     * </p>
+     *
+     * @param status   the status of pending jobs
+     * @param now      the current time; only jobs available at or before it are returned
+     * @param pageable the maximum number of jobs to return
+     * @return a list of due jobs in submission order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select j from AccountDeletionJob j where j.status = :status and j.availableAt <= :now order by j.id")
+    List<AccountDeletionJob> findDue(AccountDeletionJob.Status status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Finds the latest deletion job of a user.
+     *
+     * @param userId the ID of the user
+     * @return an Optional containing the latest job if found, empty otherwise
+     */
+    Optional<AccountDeletionJob> findFirstByUserIdOrderByIdDesc(Long userId);
+}
@@ -1,13 +1,72 @@
 package org.gordeser.backend.repository;
 
 import org.gordeser.backend.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for managing comments in the database.
  * Provides methods for CRUD operations and custom queries.
  */
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    /**
+     * Retrieves the first comments of a post, oldest first; a deleted post has none.
+     * <p>
+     * Reads a range of the {@code (post_id, date, id)} index and checks the post by its primary key.
+     * </p>
+     *
+     * @param postId   the ID of the post
+     * @param pageable the page size; only the page size is used
+     * @return the comments of the page
+     */
+    @Query("select c from Comment c join c.post p where p.id = :postId and p.deletedAt is null "
+            + "order by c.date, c.id")
+    List<Comment> findFirstByPostId(Long postId, Pageable pageable);
+
+    /**
+     * Retrieves the comments of a post following the last comment of the previous page, oldest first;
+     * a deleted post has none.
+     * <p>
+     * The row comparison on {@code (date, id)} continues the index range scan right after the
+     * previous page, so every page costs the same however many comments the post has.
+     * </p>
+     *
+     * @param postId   the ID of the post
+     * @param date     the date of the last comment of the previous page
+     * @param id       the ID of the last comment of the previous page
+     * @param pageable the page size; only the page size is used
+     * @return the comments of the page
+     */
+    @Query("select c from Comment c join c.post p where p.id = :postId and p.deletedAt is null "
+            + "and (c.date, c.id) > (:date, :id) order by c.date, c.id")
+    List<Comment> findByPostIdAfter(Long postId, LocalDateTime date, Long id, Pageable pageable);
+
+    /**
+     * Retrieves the IDs of the first comments written by a user in ID order.
+     *
+     * @param authorUsername the username of the author
+     * @param pageable       the page size; only the page size is used
+     * @return the comment IDs of the page
+     */
+    @Query("select c.id from Comment c where c.authorUsername = :authorUsername order by c.id")
+    List<Long> findIdsByAuthorUsername(String authorUsername, Pageable pageable);
+
+    /**
+     * Deletes the comments of the posts with the given IDs without loading them.
+     *
+     * @param postIds the post IDs
+     * @return the number of deleted comments
+     */
+    @Modifying
+    @Query(value = "delete from comment where post_id in :postIds", nativeQuery = true)
+    int deleteByPostIds(Collection<Long> postIds);
 }
@@ -1,12 +1,20 @@
 package org.gordeser.backend.repository;
 
+import jakarta.persistence.QueryHint;
 import org.gordeser.backend.entity.Folder;
 import org.gordeser.backend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing folder-related data in the database.
@@ -16,6 +24,25 @@ import java.util.Optional;
 @Repository
 public interface FolderRepository extends JpaRepository<Folder, Long> {
 
+    /**
+     * Retrieves all folders with their patrons and posts.
+     *
+     * @return a list of all folders
+     */
+    @Override
+    @EntityGraph(Folder.POSTS_GRAPH)
+    List<Folder> findAll();
+
+    /**
+     * Retrieves a folder with its patron and posts.
+     *
+     * @param id the ID of the folder
+     * @return an Optional containing the folder if found, empty otherwise
+     */
+    @Override
+    @EntityGraph(Folder.POSTS_GRAPH)
+    Optional<Folder> findById(Long id);
+
     /**
      * Finds a folder by its patron and title.
      *
@@ -31,5 +58,111 @@ public interface FolderRepository extends JpaRepository<Folder, Long> {
      * @param patron the user who owns the folders
      * @return a list of folders belonging to the user
      */
+    @EntityGraph(Folder.POSTS_GRAPH)
     List<Folder> findAllByPatron(User patron);
+
+    /**
+     * Streams all folders in ID order through a database cursor.
+     * <p>
+     * Associations are not joined, so that every row is one folder; they are batch-fetched by
+     * the consumer. The stream must be consumed inside a transaction and closed.
+     * </p>
+     *
+     * @return a stream of all folders
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select f from Folder f order by f.id")
+    Stream<Folder> streamAll();
+
+    /**
+     * Retrieves the IDs of the first folders of a patron in ID order.
+     *
+     * @param patronId the ID of the patron
+     * @param pageable the page size; only the page size is used
+     * @return the folder IDs of the page
+     */
+    @Query("select f.id from Folder f where f.patron.id = :patronId order by f.id")
+    List<Long> findIdsByPatronId(Long patronId, Pageable pageable);
+
+    /**
+     * Changes the title and description of a folder without loading it.
+     *
+     * @param id          the ID of the folder
+     * @param title       the new title
+     * @param description the new description
+     * @return the number of updated folders, zero if the folder is not found
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Folder f set f.title = :title, f.description = :description where f.id = :id")
+    int updateDetails(Long id, String title, String description);
+
+    /**
+     * Retrieves the IDs of the posts in a folder.
+     *
+     * @param folderId the ID of the folder
+     * @return the post IDs
+     */
+    @Query(value = "select post_id from folder_post where folder_id = :folderId", nativeQuery = true)
+    List<Long> findPostIdsByFolderId(Long folderId);
+
+    /**
+     * Adds the given posts to a folder, skipping posts already in it and posts that do not exist or are deleted.
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the post IDs
+     * @return the number of inserted links
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into folder_post (folder_id, post_id) "
+            + "select :folderId, p.id from post p where p.id in :postIds and p.deleted_at is null "
+            + "and not exists (select 1 from folder_post fp where fp.folder_id = :folderId and fp.post_id = p.id)",
+            nativeQuery = true)
+    int insertPostLinks(Long folderId, Collection<Long> postIds);
+
+    /**
+     * Removes the given posts from a folder.
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the post IDs
+     * @return the number of removed links
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from folder_post where folder_id = :folderId and post_id in :postIds", nativeQuery = true)
+    int deletePostLinks(Long folderId, Collection<Long> postIds);
+
+    /**
+     * Removes all posts from the folders with the given IDs.
+     *
+     * @param ids the folder IDs
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from folder_post where folder_id in :ids", nativeQuery = true)
+    int deletePostLinks(Collection<Long> ids);
+
+    /**
+     * Removes the patron links of the folders with the given IDs.
+     *
+     * @param ids the folder IDs
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from patron_folder where folder_id in :ids", nativeQuery = true)
+    int deletePatronLinks(Collection<Long> ids);
+
+    /**
+     * Deletes the folders with the given IDs without loading them.
+     * <p>
+     * Their links must be deleted first.
+     * </p>
+     *
+     * @param ids the folder IDs
+     * @return the number of deleted folders
+     */
+    @Modifying
+    @Query(value = "delete from folder where id in :ids", nativeQuery = true)
+    int deleteWithoutLinks(Collection<Long> ids);
 }
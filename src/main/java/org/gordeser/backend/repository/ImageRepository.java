@@ -1,12 +1,55 @@
 package org.gordeser.backend.repository;
 
 import org.gordeser.backend.entity.Image;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for accessing image-related data in the database.
  */
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
+
+    /**
+     * Finds an image whose bytes have the given digest.
+     *
+     * @param digest the hex-encoded SHA-256 digest of the image bytes
+     * @return an {@link Optional} containing an image with the digest, if any
+     */
+    Optional<Image> findFirstByDigest(String digest);
+
+    /**
+     * Retrieves the storage keys of the images with the given IDs.
+     *
+     * @param ids the image IDs
+     * @return the distinct storage keys of the images
+     */
+    @Query("select distinct i.storageKey from Image i where i.id in :ids and i.storageKey is not null")
+    List<String> findStorageKeysByIds(Collection<Long> ids);
+
+    /**
+     * Retrieves which of the given storage keys are still used by an image.
+     *
+     * @param storageKeys the storage keys to check
+     * @return the distinct storage keys that are still used
+     */
+    @Query("select distinct i.storageKey from Image i where i.storageKey in :storageKeys")
+    List<String> findUsedStorageKeys(Collection<String> storageKeys);
+
+    /**
+     * Retrieves the IDs of stored images that have no variants yet, in ID order.
+     *
+     * @param afterId  the ID after which to start
+     * @param pageable the maximum number of IDs to return
+     * @return the IDs of the images without variants
+     */
+    @Query("select i.id from Image i where i.fullUrl is null and i.storageKey is not null and i.id > :afterId "
+            + "order by i.id")
+    List<Long> findIdsWithoutVariants(long afterId, Pageable pageable);
 }
@@ -2,6 +2,8 @@ package org.gordeser.backend.repository;
 
 import org.gordeser.backend.entity.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -20,4 +22,14 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
      * @return an {@link Optional} containing the found token, or empty if no token is found.
      */
     Optional<PasswordResetToken> findByToken(String token);
+
+    /**
+     * Deletes all password reset tokens of a user.
+     *
+     * @param userId the ID of the user
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query("delete from PasswordResetToken t where t.user.id = :userId")
+    int deleteByUserId(Long userId);
 }
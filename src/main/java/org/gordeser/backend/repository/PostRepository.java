@@ -8,15 +8,26 @@
  */
 package org.gordeser.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.PostIndexView;
+import org.gordeser.backend.dto.PostTagView;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.Tag;
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing post-related data in the database.
@@ -24,18 +35,55 @@ import java.util.List;
  * This interface provides methods to perform CRUD operations and custom queries
  * for retrieving posts based on tags, keywords, and patron-specific filters.
  * </p>
+ * <p>
+ * Finders that return posts to clients apply an entity graph of {@link Post}, so a page of
+ * posts is loaded with a constant number of statements instead of one per association.
+ * </p>
  *
  * @since 1.0
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+    /**
+     * Retrieves all posts with their images, patrons and tags.
+     *
+     * @return a {@link List} of all {@link Post} entities
+     */
+    @Override
+    @EntityGraph(Post.CARD_GRAPH)
+    List<Post> findAll();
+
+    /**
+     * Retrieves a post with its image, patron and tags.
+     *
+     * @param id the ID of the post
+     * @return an {@link Optional} containing the post if found
+     */
+    @Override
+    @EntityGraph(Post.CARD_GRAPH)
+    Optional<Post> findById(Long id);
+
+    /**
+     * Retrieves the posts with the given IDs with their images, patrons and tags.
+     *
+     * @param ids the IDs of the posts
+     * @return a {@link List} of the found {@link Post} entities, in no particular order
+     */
+    @Override
+    @EntityGraph(Post.CARD_GRAPH)
+    List<Post> findAllById(Iterable<Long> ids);
+
     /**
      * Retrieves all posts with pagination.
+     * <p>
+     * Images and patrons are joined; tags are batch-fetched so the page limit stays in SQL.
+     * </p>
      *
      * @param pageable pagination information
      * @return a {@link Page} of {@link Post} entities
      */
+    @EntityGraph(Post.SUMMARY_GRAPH)
     Page<Post> findAll(Pageable pageable);
 
     /**
@@ -71,33 +119,297 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * @param keywords a list of keywords to search for
      * @return a {@link List} of {@link Post} entities matching the search keywords
      */
+    @EntityGraph(Post.SUMMARY_GRAPH)
     @Query("select distinct p from Post p join "
             + "p.tags t where lower(t.name) in (:keywords)")
     List<Post> searchByKeywords(List<String> keywords);
 
     /**
-     * Retrieves all posts by a specific patron.
+     * Retrieves the cards of the posts with the given IDs, without their tags.
+     *
+     * @param ids the IDs of the posts
+     * @return the {@link PostCard}s of the found posts, in no particular order
+     */
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p left join p.image i left join p.patron u where p.id in :ids")
+    List<PostCard> findCardsByIds(Collection<Long> ids);
+
+    /**
+     * Retrieves the cards of all posts by a specific patron, newest first, without their tags.
+     *
+     * @param patronId the ID of the patron
+     * @return the {@link PostCard}s of the posts created by the specified patron
+     */
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p join p.patron u left join p.image i where u.id = :patronId order by p.id desc")
+    List<PostCard> findCardsByPatronId(Long patronId);
+
+    /**
+     * Streams the cards of all posts in ID order, without their tags.
+     * <p>
+     * Rows are read through a database cursor in batches of the fetch size; the stream must be
+     * consumed inside a transaction and closed.
+     * </p>
+     *
+     * @return a {@link Stream} of {@link PostCard}s
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p left join p.image i left join p.patron u order by p.id")
+    Stream<PostCard> streamCards();
+
+    /**
+     * Streams the cards of all posts by a specific patron, newest first, without their tags.
+     *
+     * @param patronId the ID of the patron
+     * @return a {@link Stream} of the {@link PostCard}s of the posts created by the patron
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p join p.patron u left join p.image i where u.id = :patronId order by p.id desc")
+    Stream<PostCard> streamCardsByPatronId(Long patronId);
+
+    /**
+     * Retrieves one page of post cards, newest first, without their tags.
+     *
+     * @param pageable pagination information
+     * @return a {@link Page} of {@link PostCard}s
+     */
+    @Query(value = "select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p left join p.image i left join p.patron u order by p.createdAt desc, p.id desc",
+            countQuery = "select count(p) from Post p")
+    Page<PostCard> findCards(Pageable pageable);
+
+    /**
+     * Retrieves the cards of the newest posts created since a given time, without their tags.
      * <p>
-     * This method retrieves all posts created by a patron with the specified ID.
+     * First keyset page of the recency feed: a range scan of the {@code (created_at, id)} index,
+     * with no count query.
      * </p>
      *
+     * @param since    the earliest creation time to include
+     * @param pageable the page size; only the page size is used
+     * @return the {@link PostCard}s of the page, newest first
+     */
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p left join p.image i left join p.patron u "
+            + "where p.createdAt >= :since order by p.createdAt desc, p.id desc")
+    List<PostCard> findNewestCards(LocalDateTime since, Pageable pageable);
+
+    /**
+     * Retrieves the cards of the posts created since a given time that precede the last card of
+     * the previous page, newest first, without their tags.
+     * <p>
+     * Next keyset page of the recency feed: the row comparison on {@code (created_at, id)}
+     * continues the index range scan right after the previous page, so every page costs the same.
+     * </p>
+     *
+     * @param since     the earliest creation time to include
+     * @param createdAt the creation time of the last post of the previous page
+     * @param id        the ID of the last post of the previous page
+     * @param pageable  the page size; only the page size is used
+     * @return the {@link PostCard}s of the page, newest first
+     */
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p left join p.image i left join p.patron u "
+            + "where p.createdAt >= :since and (p.createdAt, p.id) < (:createdAt, :id) "
+            + "order by p.createdAt desc, p.id desc")
+    List<PostCard> findNewestCardsBefore(LocalDateTime since, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    /**
+     * Retrieves the cards of the posts of a patron preceding a post ID, newest first, without their tags.
+     *
      * @param patronId the ID of the patron
-     * @return a {@link List} of {@link Post} entities created by the specified patron
+     * @param beforeId the ID of the last post of the previous page, exclusive
+     * @param pageable the page size; only the page size is used
+     * @return the {@link PostCard}s of the page
      */
-    @Query("select distinct p from Post p join "
-            + "p.patron u where u.id = :patronId")
-    List<Post> findAllByPatronId(Long patronId);
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Post p join p.patron u left join p.image i "
+            + "where u.id = :patronId and p.id < :beforeId order by p.id desc")
+    List<PostCard> findCardsByPatronIdBefore(Long patronId, Long beforeId, Pageable pageable);
 
     /**
-     * Retrieves posts by their IDs with pagination.
+     * Retrieves the cards of the posts of a folder preceding a post ID, newest first, without their tags.
+     *
+     * @param folderId the ID of the folder
+     * @param beforeId the ID of the last post of the previous page, exclusive
+     * @param pageable the page size; only the page size is used
+     * @return the {@link PostCard}s of the page
+     */
+    @Query("select new org.gordeser.backend.dto.PostCard("
+            + "p.id, p.title, coalesce(i.feedUrl, i.file), u.username, p.createdAt, p.commentCount) "
+            + "from Folder f join f.posts p left join p.image i left join p.patron u "
+            + "where f.id = :folderId and p.id < :beforeId order by p.id desc")
+    List<PostCard> findCardsInFolderBefore(Long folderId, Long beforeId, Pageable pageable);
+
+    /**
+     * Retrieves the next chunk of posts for indexing using keyset pagination.
      * <p>
-     * This method retrieves posts where the post IDs match the specified list.
+     * Rows are read in ascending ID order starting after {@code afterId}, so each chunk
+     * is an index range scan regardless of how far the caller has progressed.
      * </p>
      *
-     * @param ids      a list of post IDs to retrieve
-     * @param pageable pagination information
-     * @return a {@link Page} of {@link Post} entities matching the given IDs
+     * @param afterId  the last post ID of the previous chunk, exclusive
+     * @param pageable the chunk size; only the page size is used
+     * @return a {@link List} of {@link PostIndexView} projections ordered by ID
+     */
+    @Query("select p.id as id, p.title as title, p.description as description, p.createdAt as createdAt "
+            + "from Post p where p.id > :afterId order by p.id")
+    List<PostIndexView> findIndexChunk(Long afterId, Pageable pageable);
+
+    /**
+     * Retrieves the indexable columns of the posts with the given IDs.
+     *
+     * @param ids the post IDs to load
+     * @return a {@link List} of {@link PostIndexView} projections
+     */
+    @Query("select p.id as id, p.title as title, p.description as description, p.createdAt as createdAt "
+            + "from Post p where p.id in :ids")
+    List<PostIndexView> findIndexViewsByIds(Collection<Long> ids);
+
+    /**
+     * Atomically adds to the comment count of a post.
+     *
+     * @param postId the ID of the post
+     * @param delta  the number of added comments, negative for removed ones
+     * @return the number of updated posts, {@code 0} if the post does not exist
+     */
+    @Modifying
+    @Query("update Post p set p.commentCount = p.commentCount + :delta where p.id = :postId")
+    int addToCommentCount(Long postId, int delta);
+
+    /**
+     * Retrieves the tag names of the posts with the given IDs.
+     *
+     * @param ids the post IDs whose tags are loaded
+     * @return a {@link List} of {@link PostTagView} rows, one per post and tag pair
+     */
+    @Query("select p.id as postId, t.name as tagName from Post p join p.tags t where p.id in :ids")
+    List<PostTagView> findTagNamesByPostIds(Collection<Long> ids);
+
+    /**
+     * Retrieves the IDs of the first posts of a patron in ID order, including deleted ones.
+     *
+     * @param patronId the ID of the patron
+     * @param pageable the page size; only the page size is used
+     * @return the post IDs of the page
+     */
+    @Query(value = "select post_id from post_patron where patron_id = :patronId order by post_id",
+            nativeQuery = true)
+    List<Long> findIdsByPatronId(Long patronId, Pageable pageable);
+
+    /**
+     * Counts the posts of a patron, including deleted ones.
+     *
+     * @param patronId the ID of the patron
+     * @return the number of posts of the patron
+     */
+    @Query(value = "select count(*) from post_patron where patron_id = :patronId", nativeQuery = true)
+    long countByPatronId(Long patronId);
+
+    /**
+     * Retrieves the IDs of the images of the posts with the given IDs, including deleted ones.
+     *
+     * @param ids the post IDs
+     * @return the image IDs of the posts that have an image
+     */
+    @Query(value = "select image_id from post where id in :ids and image_id is not null", nativeQuery = true)
+    List<Long> findImageIdsByIds(Collection<Long> ids);
+
+    /**
+     * Marks a post of a patron as deleted, which hides it from all reads.
+     *
+     * @param id        the ID of the post
+     * @param patronId  the ID of the patron who must own the post
+     * @param deletedAt the time of the deletion
+     * @return {@code 1} if the post was marked, {@code 0} if it does not exist, is already deleted
+     *         or belongs to another patron
+     */
+    @Modifying
+    @Query(value = "update post set deleted_at = :deletedAt where id = :id and deleted_at is null "
+            + "and exists (select 1 from post_patron pp where pp.post_id = :id and pp.patron_id = :patronId)",
+            nativeQuery = true)
+    int markDeleted(Long id, Long patronId, LocalDateTime deletedAt);
+
+    /**
+     * Retrieves the IDs of the first deleted posts in ID order.
+     *
+     * @param pageable the page size; only the page size is used
+     * @return the IDs of deleted posts waiting to be purged
+     */
+    @Query(value = "select id from post where deleted_at is not null order by id", nativeQuery = true)
+    List<Long> findDeletedIds(Pageable pageable);
+
+    /**
+     * Subtracts the given comments from the comment counts of their posts.
+     * <p>
+     * Must run before the comments are deleted.
+     * </p>
+     *
+     * @param commentIds the IDs of the comments about to be deleted
+     * @return the number of updated posts
+     */
+    @Modifying
+    @Query(value = "update post set comment_count = comment_count "
+            + "- (select count(*) from comment c where c.post_id = post.id and c.id in :commentIds) "
+            + "where id in (select post_id from comment where id in :commentIds)", nativeQuery = true)
+    int subtractComments(Collection<Long> commentIds);
+
+    /**
+     * Removes the posts with the given IDs from all tags.
+     *
+     * @param ids the post IDs
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from post_tag where post_id in :ids", nativeQuery = true)
+    int deleteTagLinks(Collection<Long> ids);
+
+    /**
+     * Removes the posts with the given IDs from all folders.
+     *
+     * @param ids the post IDs
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from folder_post where post_id in :ids", nativeQuery = true)
+    int deleteFolderLinks(Collection<Long> ids);
+
+    /**
+     * Removes the patron links of the posts with the given IDs.
+     *
+     * @param ids the post IDs
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from post_patron where post_id in :ids", nativeQuery = true)
+    int deletePatronLinks(Collection<Long> ids);
+
+    /**
+     * Deletes the posts with the given IDs without loading them.
+     * <p>
+     * Their links and comments must be deleted first.
+     * </p>
+     *
+     * @param ids the post IDs
+     * @return the number of deleted posts
      */
-    @Query("select p from Post p where p.id in :ids")
-    Page<Post> findAllByIds(List<Long> ids, Pageable pageable);
+    @Modifying
+    @Query(value = "delete from post where id in :ids", nativeQuery = true)
+    int deleteWithoutLinks(Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package org.gordeser.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.gordeser.backend.entity.SearchOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for accessing the search index outbox.
+ */
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEvent, Long> {
+
+    /**
+     * Locks and returns the oldest events that are due for dispatch.
+     * <p>
+     * Rows locked by another dispatcher are skipped, so several application instances
+     * can drain the outbox concurrently without processing the same event twice.
+     * </p>
+     *
+     * @param now      the current time; only events available at or before it are returned
+     * @param pageable the maximum number of events to return
+     * @return a list of due events in insertion order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from SearchOutboxEvent e where e.availableAt <= :now order by e.id")
+    List<SearchOutboxEvent> findDue(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package org.gordeser.backend.repository;
+
+import org.gordeser.backend.entity.StorageObjectDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for accessing the stored objects waiting for deletion.
+ */
+@Repository
+public interface StorageObjectDeletionRepository extends JpaRepository<StorageObjectDeletion, String> {
+
+    /**
+     * Retrieves the keys of the objects whose grace period has passed.
+     *
+     * @param now      the current time; only objects due at or before it are returned
+     * @param pageable the maximum number of keys to return
+     * @return the storage keys, the longest due first
+     */
+    @Query("select d.storageKey from StorageObjectDeletion d where d.dueAt <= :now order by d.dueAt")
+    List<String> findDueKeys(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,45 @@
+package org.gordeser.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.gordeser.backend.entity.TagJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for accessing tag jobs.
+ */
+@Repository
+public interface TagJobRepository extends JpaRepository<TagJob, Long> {
+
+    /**
+     * Locks and returns the oldest unfinished jobs whose next step is due.
+     * <p>
+     * Rows locked by another worker are skipped, so several application instances can run
+     * jobs concurrently without running the same step twice. A job waits while an earlier job
+     * touching its tag or merge target is unfinished, so the jobs of a tag run one at a time in
+     * submission order.
+     * </p>
+     *
+     * @param statuses the statuses of unfinished jobs
+     * @param now      the current time; only jobs available at or before it are returned
+     * @param pageable the maximum number of jobs to return
+     * @return a list of due jobs in submission order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select j from TagJob j where j.status in :statuses and j.availableAt <= :now "
+            + "and not exists (select e.id from TagJob e where e.id < j.id and e.status in :statuses "
+            + "and (e.tagId = j.tagId or e.tagId = j.targetTagId "
+            + "or e.targetTagId = j.tagId or e.targetTagId = j.targetTagId)) "
+            + "order by j.id")
+    List<TagJob> findDue(Collection<TagJob.Status> statuses, LocalDateTime now, Pageable pageable);
+}
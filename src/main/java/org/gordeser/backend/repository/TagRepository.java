@@ -1,10 +1,15 @@
 package org.gordeser.backend.repository;
 
+import jakarta.persistence.QueryHint;
 import org.gordeser.backend.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing tag-related data in the database.
@@ -19,4 +24,97 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
      * @return an Optional containing the tag if found, empty otherwise
      */
     Optional<Object> findByName(String name);
+
+    /**
+     * Retrieves the current name of a tag without loading it.
+     *
+     * @param id the ID of the tag
+     * @return the name of the tag, or empty if the tag is gone
+     */
+    @Query("select t.name from Tag t where t.id = :id")
+    Optional<String> findNameById(Long id);
+
+    /**
+     * Streams all tags in ID order through a database cursor.
+     * <p>
+     * The tags are loaded read-only; the stream must be consumed inside a transaction and closed.
+     * </p>
+     *
+     * @return a stream of all tags
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select t from Tag t order by t.id")
+    Stream<Tag> streamAll();
+
+    /**
+     * Renames a tag.
+     *
+     * @param tagId the ID of the tag
+     * @param name  the new name
+     * @return the number of renamed tags
+     */
+    @Modifying
+    @Query("update Tag t set t.name = :name where t.id = :tagId")
+    int rename(Long tagId, String name);
+
+    /**
+     * Links the target tag to every post of the source tag that does not carry it yet.
+     *
+     * @param sourceId the ID of the tag whose posts are copied
+     * @param targetId the ID of the tag to link to the posts
+     * @return the number of inserted links
+     */
+    @Modifying
+    @Query(value = "insert into post_tag (post_id, tag_id) "
+            + "select s.post_id, :targetId from post_tag s where s.tag_id = :sourceId "
+            + "and not exists (select 1 from post_tag t where t.post_id = s.post_id and t.tag_id = :targetId)",
+            nativeQuery = true)
+    int copyPostLinks(Long sourceId, Long targetId);
+
+    /**
+     * Links the target tag to every user preferring the source tag who does not prefer it yet.
+     *
+     * @param sourceId the ID of the tag whose users are copied
+     * @param targetId the ID of the tag to link to the users
+     * @return the number of inserted links
+     */
+    @Modifying
+    @Query(value = "insert into user_tags (user_id, tag_id) "
+            + "select s.user_id, :targetId from user_tags s where s.tag_id = :sourceId "
+            + "and not exists (select 1 from user_tags t where t.user_id = s.user_id and t.tag_id = :targetId)",
+            nativeQuery = true)
+    int copyUserLinks(Long sourceId, Long targetId);
+
+    /**
+     * Removes a tag from all posts.
+     *
+     * @param tagId the ID of the tag
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from post_tag where tag_id = :tagId", nativeQuery = true)
+    int deletePostLinks(Long tagId);
+
+    /**
+     * Removes a tag from the preferred tags of all users.
+     *
+     * @param tagId the ID of the tag
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from user_tags where tag_id = :tagId", nativeQuery = true)
+    int deleteUserLinks(Long tagId);
+
+    /**
+     * Deletes a tag without loading it or its associations.
+     *
+     * @param tagId the ID of the tag
+     * @return the number of deleted tags
+     */
+    @Modifying
+    @Query("delete from Tag t where t.id = :tagId")
+    int deleteWithoutLinks(Long tagId);
 }
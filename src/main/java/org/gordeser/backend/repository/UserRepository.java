@@ -1,7 +1,10 @@
 package org.gordeser.backend.repository;
 
 import org.gordeser.backend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,13 +16,58 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Finds a user by username.
+     * Finds a user by username together with their preferred tags.
+     * <p>
+     * This is the lookup behind login, and the authenticated user is used outside of
+     * the persistence context, so the preferred tags are loaded eagerly here.
+     * </p>
      *
      * @param username the username of the user to find
      * @return an Optional containing the user if found, empty otherwise
      */
+    @EntityGraph(User.PREFERRED_TAGS_GRAPH)
     Optional<User> findByUsername(String username);
 
+    /**
+     * Finds a user by ID together with their preferred tags.
+     * <p>
+     * This loads the user of an authenticated request, which is used outside of the persistence
+     * context, so the preferred tags are loaded eagerly here.
+     * </p>
+     *
+     * @param id the ID of the user to find
+     * @return an Optional containing the user if found, empty otherwise
+     */
+    @EntityGraph(User.PREFERRED_TAGS_GRAPH)
+    Optional<User> findWithPreferredTagsById(Long id);
+
+    /**
+     * Retrieves the token version of a user whose account may still change anything.
+     * <p>
+     * Reads the user by its primary key and the pending deletion jobs of the user by the
+     * {@code user_id} index, without loading the user.
+     * </p>
+     *
+     * @param id the ID of the user
+     * @return the token version, or empty if the user is gone or their account is being deleted
+     */
+    @Query("select u.tokenVersion from User u where u.id = :id and not exists (select j.id from AccountDeletionJob j "
+            + "where j.userId = u.id and j.status = org.gordeser.backend.entity.AccountDeletionJob.Status.PENDING)")
+    Optional<Integer> findActiveTokenVersion(Long id);
+
+    /**
+     * Locks the row of a user until the end of the transaction.
+     * <p>
+     * Rows referencing the user cannot be inserted while the lock is held, and rows inserted
+     * before are committed by the time the lock is granted.
+     * </p>
+     *
+     * @param id the ID of the user
+     * @return the ID of the user, or empty if the user is gone
+     */
+    @Query(value = "select id from patron where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(Long id);
+
     /**
      * Finds a user by email.
      *
@@ -27,4 +75,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return an Optional containing the user if found, empty otherwise
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Removes all preferred tags of a user.
+     *
+     * @param id the ID of the user
+     * @return the number of removed links
+     */
+    @Modifying
+    @Query(value = "delete from user_tags where user_id = :id", nativeQuery = true)
+    int deleteTagLinks(Long id);
+
+    /**
+     * Deletes a user without loading it.
+     * <p>
+     * The posts, folders, preferred tags and password reset tokens of the user must be deleted first.
+     * </p>
+     *
+     * @param id the ID of the user
+     * @return the number of deleted users
+     */
+    @Modifying
+    @Query(value = "delete from patron where id = :id", nativeQuery = true)
+    int deleteWithoutLinks(Long id);
 }
@@ -0,0 +1,331 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.entity.AccountDeletionJob;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.AccountDeletionJobRepository;
+import org.gordeser.backend.repository.CommentRepository;
+import org.gordeser.backend.repository.FolderRepository;
+import org.gordeser.backend.repository.PasswordResetTokenRepository;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.gordeser.backend.util.RetryBackoff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class for submitting and running account deletion jobs.
+ * <p>
+ * Deleting an account touches every post, comment and folder of the user, so the request only
+ * locks the account and records an {@link AccountDeletionJob}; the rows are deleted in the
+ * background. Every run deletes one chunk of rows with set-based statements in its own
+ * transaction holding the job row, and the next chunk is always taken from the rows that are
+ * left, so a failed or interrupted job resumes where it stopped. Failed chunks are retried with
+ * an exponential backoff. After the configured number of failures in a row the job fails: the
+ * account is no longer treated as being deleted and its deletion may be requested again.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountDeletionService {
+
+    /**
+     * Repository for accessing account deletion jobs.
+     */
+    private final AccountDeletionJobRepository accountDeletionJobRepository;
+
+    /**
+     * Repository for deleting the user.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Repository for finding the posts of the user and adjusting comment counts.
+     */
+    private final PostRepository postRepository;
+
+    /**
+     * Repository for deleting comments on and by the user.
+     */
+    private final CommentRepository commentRepository;
+
+    /**
+     * Repository for deleting the folders of the user.
+     */
+    private final FolderRepository folderRepository;
+
+    /**
+     * Repository for deleting the password reset tokens of the user.
+     */
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+
+    /**
+     * Service for removing the posts of the user with their links, comments, images and documents.
+     */
+    private final PostPurgeService postPurgeService;
+
+    /**
+     * Template used to run every chunk in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether the scheduled worker is enabled.
+     */
+    @Value("${account.deletion.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * The maximum number of posts, comments or folders deleted in one chunk.
+     */
+    @Value("${account.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Delay before the first retry of a failed chunk in milliseconds.
+     */
+    @Value("${account.deletion.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    /**
+     * Upper bound of the retry delay in milliseconds.
+     */
+    @Value("${account.deletion.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    /**
+     * Number of failed chunks in a row after which a job fails.
+     */
+    @Value("${account.deletion.max-attempts:10}")
+    private int maxAttempts;
+
+    /**
+     * Locks a user out and records a job that deletes their account.
+     * <p>
+     * The password is cleared so the user cannot log in again and the token version is bumped.
+     * While the job is pending every token of the account is rejected for requests that may change
+     * anything, see {@link JwtService#checkActive}; the tokens still identify the user when polling
+     * the job. Writes that were already running may still add rows, so the last chunk sweeps them
+     * again. Submitting again while a job is pending returns that job; after a failed job a new one is submitted.
+     * </p>
+     *
+     * @param userId the ID of the user to delete
+     * @return the submitted or pending job
+     * @throws NotFound if the user is not found
+     */
+    @Transactional
+    public AccountDeletionJob submit(final Long userId) throws NotFound {
+        AccountDeletionJob pending = accountDeletionJobRepository.findFirstByUserIdOrderByIdDesc(userId)
+                .filter(job -> job.getStatus() == AccountDeletionJob.Status.PENDING)
+                .orElse(null);
+        if (pending != null) {
+            return pending;
+        }
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            log.warn(LogMessages.USER_NOT_FOUND.getMessage(), userId);
+            throw new NotFound();
+        }
+        user.setPassword(null);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountDeletionJob job = accountDeletionJobRepository.save(AccountDeletionJob.builder()
+                .userId(userId)
+                .username(user.getUsername())
+                .status(AccountDeletionJob.Status.PENDING)
+                .totalPosts(postRepository.countByPatronId(userId))
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+        log.info(LogMessages.ACCOUNT_DELETION_SUBMITTED.getMessage(), job.getId(), userId, job.getTotalPosts());
+        return job;
+    }
+
+    /**
+     * Retrieves the latest deletion job of a user.
+     *
+     * @param userId the ID of the user
+     * @return the job
+     * @throws NotFound if the user never requested the deletion of their account
+     */
+    public AccountDeletionJob getJobByUserId(final Long userId) throws NotFound {
+        AccountDeletionJob job = accountDeletionJobRepository.findFirstByUserIdOrderByIdDesc(userId).orElse(null);
+        if (job == null) {
+            log.warn(LogMessages.ACCOUNT_DELETION_NOT_FOUND.getMessage(), userId);
+            throw new NotFound();
+        }
+        return job;
+    }
+
+    /**
+     * Periodically runs due chunks until none are left.
+     */
+    @Scheduled(fixedDelayString = "${account.deletion.poll-interval:PT1S}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        boolean ran;
+        do {
+            ran = runNext();
+        } while (ran);
+    }
+
+    /**
+     * Deletes the next chunk of the oldest due job in its own transaction.
+     * <p>
+     * If the chunk fails, its transaction is rolled back and the job is rescheduled in a new one.
+     * </p>
+     *
+     * @return whether a chunk was run, whether it succeeded or was rescheduled
+     */
+    public boolean runNext() {
+        Long[] jobId = new Long[1];
+        try {
+            Boolean ran = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<AccountDeletionJob> jobs = accountDeletionJobRepository.findDue(
+                        AccountDeletionJob.Status.PENDING, now, PageRequest.of(0, 1));
+                if (jobs.isEmpty()) {
+                    return false;
+                }
+                AccountDeletionJob job = jobs.get(0);
+                jobId[0] = job.getId();
+                deleteChunk(job, now);
+                job.setAttempts(0);
+                accountDeletionJobRepository.save(job);
+                return true;
+            });
+            return Boolean.TRUE.equals(ran);
+        } catch (RuntimeException e) {
+            if (jobId[0] == null) {
+                throw e;
+            }
+            reschedule(jobId[0], e);
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the next chunk of rows of the account, or the account itself once nothing else is left.
+     * <p>
+     * Posts go first, deleted or not, and are purged together with their links, comments, images
+     * and stored objects, then the comments the user wrote on other posts, then the folders of the user.
+     * </p>
+     * <p>
+     * Before the user is deleted its row is locked, which waits for writes of the user still in
+     * flight and blocks new ones, and the posts, comments and folders are checked again. Rows added
+     * in the meantime are deleted by the next chunks instead of failing the foreign keys.
+     * </p>
+     *
+     * @param job the job
+     * @param now the time the chunk was taken
+     */
+    private void deleteChunk(final AccountDeletionJob job, final LocalDateTime now) {
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+
+        if (deleteRowsChunk(job, chunk)) {
+            return;
+        }
+
+        userRepository.lockById(job.getUserId());
+        if (deleteRowsChunk(job, chunk)) {
+            log.info(LogMessages.ACCOUNT_DELETION_ROWS_LEFT.getMessage(), job.getId());
+            return;
+        }
+
+        passwordResetTokenRepository.deleteByUserId(job.getUserId());
+        userRepository.deleteTagLinks(job.getUserId());
+        userRepository.deleteWithoutLinks(job.getUserId());
+        job.setStatus(AccountDeletionJob.Status.DONE);
+        job.setFinishedAt(now);
+        log.info(LogMessages.ACCOUNT_DELETION_DONE.getMessage(), job.getId(), job.getUserId());
+    }
+
+    /**
+     * Deletes the next chunk of posts, comments or folders of the account.
+     *
+     * @param job   the job
+     * @param chunk the chunk size
+     * @return whether anything was left to delete
+     */
+    private boolean deleteRowsChunk(final AccountDeletionJob job, final PageRequest chunk) {
+        List<Long> postIds = postRepository.findIdsByPatronId(job.getUserId(), chunk);
+        if (!postIds.isEmpty()) {
+            int comments = postPurgeService.purge(postIds);
+            job.setDeletedPosts(job.getDeletedPosts() + postIds.size());
+            job.setDeletedComments(job.getDeletedComments() + comments);
+            log.info(LogMessages.ACCOUNT_DELETION_CHUNK.getMessage(), job.getId(), postIds.size(), "posts");
+            return true;
+        }
+
+        List<Long> commentIds = commentRepository.findIdsByAuthorUsername(job.getUsername(), chunk);
+        if (!commentIds.isEmpty()) {
+            postRepository.subtractComments(commentIds);
+            commentRepository.deleteAllByIdInBatch(commentIds);
+            job.setDeletedComments(job.getDeletedComments() + commentIds.size());
+            log.info(LogMessages.ACCOUNT_DELETION_CHUNK.getMessage(), job.getId(), commentIds.size(), "comments");
+            return true;
+        }
+
+        List<Long> folderIds = folderRepository.findIdsByPatronId(job.getUserId(), chunk);
+        if (!folderIds.isEmpty()) {
+            folderRepository.deletePostLinks(folderIds);
+            folderRepository.deletePatronLinks(folderIds);
+            folderRepository.deleteWithoutLinks(folderIds);
+            job.setDeletedFolders(job.getDeletedFolders() + folderIds.size());
+            log.info(LogMessages.ACCOUNT_DELETION_CHUNK.getMessage(), job.getId(), folderIds.size(), "folders");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a failed chunk and delays the next one, or fails the job once its chunks have failed
+     * the configured number of times in a row.
+     *
+     * @param jobId the ID of the job
+     * @param error the failure
+     */
+    private void reschedule(final Long jobId, final RuntimeException error) {
+        transactionTemplate.executeWithoutResult(status -> accountDeletionJobRepository.findById(jobId)
+                .ifPresent(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setAttempts(job.getAttempts() + 1);
+                    job.setLastError(RetryBackoff.lastError(error));
+                    if (job.getAttempts() >= maxAttempts) {
+                        job.setStatus(AccountDeletionJob.Status.FAILED);
+                        job.setFinishedAt(now);
+                        log.error(LogMessages.ACCOUNT_DELETION_GAVE_UP.getMessage(), jobId, job.getAttempts(),
+                                error.getMessage());
+                    } else {
+                        job.setAvailableAt(RetryBackoff.nextAttemptAt(now, job.getAttempts(),
+                                baseBackoffMs, maxBackoffMs));
+                        log.warn(LogMessages.ACCOUNT_DELETION_FAILED.getMessage(), jobId, error.getMessage());
+                    }
+                    accountDeletionJobRepository.save(job);
+                }));
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.exception.ServiceUnavailableException;
+import org.gordeser.backend.messages.ExceptionMessages;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service class for retrieving tag associations through a bounded in-process cache.
+ * <p>
+ * Feed requests ask for the associations of the same preferred-tag sets over and over, so the
+ * responses of {@link AssociationServiceClient} are cached by the normalized, sorted tag list.
+ * Entries expire after a fixed time and the least used ones are evicted once the cache is full.
+ * Concurrent misses on the same key wait for a single call to the association service.
+ * </p>
+ * <p>
+ * Calls to the association service go through a {@link CircuitBreaker}. While it is open,
+ * misses fail fast with a {@link ServiceUnavailableException} instead of waiting for timeouts.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class AssociationService {
+
+    /**
+     * Client for the python association service.
+     */
+    private final AssociationServiceClient associationServiceClient;
+
+    /**
+     * Cache of association responses keyed by the normalized tag list.
+     */
+    private final LoadingCache<List<String>, List<String>> cache;
+
+    /**
+     * Circuit breaker guarding the calls to the association service.
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Constructor for AssociationService.
+     *
+     * @param associationServiceClient the client for the association service
+     * @param ttl                      how long a response is served from the cache
+     * @param maximumSize              the maximum number of cached tag sets
+     * @param failureThreshold         number of consecutive failures that opens the circuit
+     * @param openDuration             how long the circuit stays open before a trial call
+     */
+    public AssociationService(final AssociationServiceClient associationServiceClient,
+                              @Value("${association-service.cache.ttl:PT10M}") final Duration ttl,
+                              @Value("${association-service.cache.maximum-size:10000}") final long maximumSize,
+                              @Value("${association-service.circuit-breaker.failure-threshold:5}")
+                              final int failureThreshold,
+                              @Value("${association-service.circuit-breaker.open-duration:PT30S}")
+                              final Duration openDuration) {
+        this.associationServiceClient = associationServiceClient;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration, Clock.systemUTC());
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * Retrieves the tags associated with the given tags.
+     *
+     * @param tags the tag names to retrieve associations for
+     * @return the associated tag names
+     * @throws ServiceUnavailableException if the circuit is open and the tags are not cached
+     */
+    public List<String> getAssociations(final List<String> tags) {
+        return cache.get(normalize(tags));
+    }
+
+    /**
+     * Returns the hit, miss and load statistics of the cache.
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Periodically logs the cache statistics.
+     */
+    @Scheduled(
+            initialDelayString = "${association-service.cache.stats-interval:PT5M}",
+            fixedDelayString = "${association-service.cache.stats-interval:PT5M}"
+    )
+    public void logStats() {
+        CacheStats stats = cache.stats();
+        log.info(LogMessages.ASSOCIATION_CACHE_STATS.getMessage(), cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), String.format("%.2f", stats.hitRate()),
+                stats.evictionCount());
+    }
+
+    /**
+     * Returns the state of the circuit breaker.
+     *
+     * @return the current circuit state
+     */
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Loads the associations of a normalized tag list from the association service.
+     *
+     * @param tags the normalized tag names
+     * @return the associated tag names, empty if the service returned no body
+     * @throws ServiceUnavailableException if the circuit is open
+     */
+    private List<String> load(final List<String> tags) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new ServiceUnavailableException(ExceptionMessages.SERVICE_UNAVAIABLE.getMessage());
+        }
+
+        List<String> associations;
+        try {
+            associations = associationServiceClient.getAssociations(tags);
+        } catch (RuntimeException e) {
+            if (circuitBreaker.recordFailure()) {
+                log.warn(LogMessages.ASSOCIATION_CIRCUIT_OPENED.getMessage(), e.getMessage());
+            }
+            throw e;
+        }
+
+        if (circuitBreaker.recordSuccess()) {
+            log.info(LogMessages.ASSOCIATION_CIRCUIT_CLOSED.getMessage());
+        }
+        return associations == null ? List.of() : List.copyOf(associations);
+    }
+
+    /**
+     * Normalizes a tag list into a cache key.
+     *
+     * @param tags the tag names
+     * @return the trimmed, non-blank, distinct tag names in natural order
+     */
+    private static List<String> normalize(final List<String> tags) {
+        return tags.stream()
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
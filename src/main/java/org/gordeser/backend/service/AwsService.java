@@ -2,30 +2,268 @@ package org.gordeser.backend.service;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import lombok.RequiredArgsConstructor;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.gordeser.backend.configuration.AwsConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Uploads files to S3.
+ * <p>
+ * Files up to one part size are stored with a single PUT. Larger files are streamed with the
+ * multipart upload API: parts are read into buffers from a shared, bounded pool and uploaded in
+ * parallel, so neither the request thread nor the heap holds the whole file. A failed multipart
+ * upload is aborted so no orphaned parts are left in the bucket.
+ * </p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AwsService {
+    /**
+     * The maximum number of keys of one multi-object delete request.
+     */
+    private static final int MAX_DELETE_KEYS = 1000;
+
     private final AmazonS3 s3client;
 
     private final AwsConfig awsConfig;
 
+    private final ExecutorService uploadExecutor;
+
+    /**
+     * Limits the number of part buffers in use across all uploads.
+     */
+    private final Semaphore bufferPermits;
+
+    /**
+     * Part buffers returned by finished parts, reused by later ones.
+     */
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    public AwsService(final AmazonS3 s3client, final AwsConfig awsConfig,
+                      @Qualifier("s3UploadExecutor") final ExecutorService uploadExecutor) {
+        this.s3client = s3client;
+        this.awsConfig = awsConfig;
+        this.uploadExecutor = uploadExecutor;
+        this.bufferPermits = new Semaphore(awsConfig.getBufferCount());
+    }
+
     public String uploadFile(String keyName, Long contentLength, String contentType, InputStream value) throws AmazonClientException {
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(contentLength);
-        metadata.setContentType(contentType);
+        if (contentLength != null && contentLength <= partSize()) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(contentLength);
+            metadata.setContentType(contentType);
 
-        s3client.putObject(awsConfig.getBucketName(), keyName, value, metadata);
+            s3client.putObject(awsConfig.getBucketName(), keyName, value, metadata);
+        } else {
+            uploadMultipart(keyName, contentType, value);
+        }
         log.info("File uploaded to bucket: {}", keyName);
 
+        return getObjectUrl(keyName);
+    }
+
+    /**
+     * Opens an object of the bucket for reading; the caller must close the stream.
+     *
+     * @param keyName the object key
+     * @return the object content
+     */
+    public InputStream downloadFile(String keyName) throws AmazonClientException {
+        return s3client.getObject(awsConfig.getBucketName(), keyName).getObjectContent();
+    }
+
+    /**
+     * Deletes objects from the bucket, up to 1000 keys per request. Missing keys are ignored.
+     *
+     * @param keyNames the object keys
+     */
+    public void deleteFiles(Collection<String> keyNames) throws AmazonClientException {
+        List<KeyVersion> keys = keyNames.stream().map(KeyVersion::new).toList();
+        for (int from = 0; from < keys.size(); from += MAX_DELETE_KEYS) {
+            List<KeyVersion> batch = keys.subList(from, Math.min(from + MAX_DELETE_KEYS, keys.size()));
+            s3client.deleteObjects(new DeleteObjectsRequest(awsConfig.getBucketName()).withKeys(batch).withQuiet(true));
+        }
+        log.info("Files deleted from bucket: {}", keys.size());
+    }
+
+    /**
+     * Returns the public URL of an object in the bucket.
+     *
+     * @param keyName the object key
+     * @return the object URL, path-style when a custom endpoint is configured
+     */
+    public String getObjectUrl(String keyName) {
+        if (StringUtils.hasText(awsConfig.getEndpoint())) {
+            return String.format("%s/%s/%s", awsConfig.getEndpoint(), awsConfig.getBucketName(), keyName);
+        }
         return String.format("https://%s.s3.%s.amazonaws.com/%s", awsConfig.getBucketName(), awsConfig.getRegion(), keyName);
     }
+
+    private void uploadMultipart(String keyName, String contentType, InputStream value) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        String uploadId = s3client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(awsConfig.getBucketName(), keyName, metadata)).getUploadId();
+
+        List<Future<PartETag>> parts = new ArrayList<>();
+        List<PartBuffer> partBuffers = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            boolean lastPart = false;
+            while (!lastPart) {
+                checkFailedParts(parts);
+                byte[] buffer = acquireBuffer();
+                int read;
+                try {
+                    read = readFully(value, buffer);
+                } catch (IOException | RuntimeException e) {
+                    releaseBuffer(buffer);
+                    throw e;
+                }
+                lastPart = read < buffer.length;
+                if (read == 0 && partNumber > 1) {
+                    releaseBuffer(buffer);
+                    break;
+                }
+                PartBuffer partBuffer = new PartBuffer(buffer);
+                partBuffers.add(partBuffer);
+                parts.add(submitPart(keyName, uploadId, partNumber++, partBuffer, read));
+            }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            s3client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(awsConfig.getBucketName(), keyName, uploadId, partETags));
+            log.info("Multipart upload of {} finished in {} parts", keyName, partETags.size());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            cancelParts(parts, partBuffers);
+            s3client.abortMultipartUpload(new AbortMultipartUploadRequest(awsConfig.getBucketName(), keyName, uploadId));
+            log.error("Multipart upload of {} aborted", keyName, e);
+            throw new AmazonClientException("Multipart upload of " + keyName + " failed", e);
+        }
+    }
+
+    private Future<PartETag> submitPart(String keyName, String uploadId, int partNumber, PartBuffer buffer,
+                                        int length) {
+        return uploadExecutor.submit(() -> {
+            if (!buffer.claim()) {
+                throw new CancellationException("Part " + partNumber + " of " + keyName + " was cancelled");
+            }
+            try {
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(awsConfig.getBucketName())
+                        .withKey(keyName)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withPartSize(length)
+                        .withInputStream(new ByteArrayInputStream(buffer.bytes, 0, length));
+                return s3client.uploadPart(request).getPartETag();
+            } finally {
+                releaseBuffer(buffer.bytes);
+            }
+        });
+    }
+
+    /**
+     * Cancels the parts of a failed upload and returns the buffers of the parts that never started.
+     * <p>
+     * A part that started releases its buffer itself when it ends, so only the buffers claimed here are released.
+     * </p>
+     */
+    private void cancelParts(List<Future<PartETag>> parts, List<PartBuffer> partBuffers) {
+        parts.forEach(part -> part.cancel(true));
+        for (PartBuffer buffer : partBuffers) {
+            if (buffer.claim()) {
+                releaseBuffer(buffer.bytes);
+            }
+        }
+    }
+
+    /**
+     * Fails fast if a part that has already finished failed.
+     */
+    private void checkFailedParts(List<Future<PartETag>> parts) throws ExecutionException, InterruptedException {
+        for (Future<PartETag> part : parts) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    /**
+     * Takes a part buffer from the pool, waiting while all buffers are in use.
+     */
+    private byte[] acquireBuffer() throws InterruptedException {
+        bufferPermits.acquire();
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[partSize()];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    private int partSize() {
+        return (int) awsConfig.getPartSize().toBytes();
+    }
+
+    /**
+     * A part buffer owned by whichever claims it first: the part task when it starts, or the abort path when
+     * the part is cancelled before it started. The owner returns the buffer to the pool.
+     */
+    private static final class PartBuffer {
+        private final byte[] bytes;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PartBuffer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static int readFully(InputStream value, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = value.read(buffer, total, buffer.length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
 }
@@ -0,0 +1,635 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.BulkIngestResult;
+import org.gordeser.backend.dto.BulkItemStatus;
+import org.gordeser.backend.dto.BulkPostItem;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.InvalidManifest;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Service class for creating many posts from one request.
+ * <p>
+ * A bulk ingestion takes a manifest of posts and their images, either as the entries of a zip
+ * archive or as the files of a multipart request. The images are uploaded in parallel on a
+ * bounded executor while the request thread keeps a fixed window of uploads in flight and
+ * collects them in manifest order. Uploaded posts are saved in chunks, each in one transaction
+ * with batched inserts of the posts, their images and tag links and of their search outbox events.
+ * </p>
+ * <p>
+ * Entries fail on their own: an entry whose image is missing, too large or fails to upload, whose
+ * title or description is too long, or that references an unknown tag, is reported as failed while
+ * the rest of the batch is created. If a chunk cannot be saved, its posts are saved one by one, and
+ * the stored objects of entries that still fail are handed to the purger.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class BulkIngestService {
+
+    /**
+     * Content type used for images whose type cannot be derived from their name.
+     */
+    private static final String DEFAULT_CONTENT_TYPE = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+    /**
+     * Maximum length of a post title, the size of the {@code title} column.
+     */
+    private static final int MAX_TITLE_LENGTH = 40;
+
+    /**
+     * Maximum length of a post description, the size of the {@code description} column.
+     */
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    /**
+     * Pause between two attempts to submit an upload to a full executor, in milliseconds.
+     */
+    private static final long SUBMIT_RETRY_DELAY_MS = 50;
+
+    /**
+     * Service uploading images to AWS S3.
+     */
+    private final ImageService imageService;
+
+    /**
+     * Repository for saving the ingested posts.
+     */
+    private final PostRepository postRepository;
+
+    /**
+     * Repository for checking the tags referenced by the manifest.
+     */
+    private final TagRepository tagRepository;
+
+    /**
+     * Repository checking and providing a reference to the ingesting user.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Service for recording the indexing of the ingested posts in the search outbox.
+     */
+    private final SearchOutboxService searchOutboxService;
+
+    /**
+     * Service deleting the stored objects of entries that could not be saved.
+     */
+    private final PostPurgeService postPurgeService;
+
+    /**
+     * Template running each chunk of posts in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Executor uploading the images.
+     */
+    private final Executor uploadExecutor;
+
+    /**
+     * Maximum number of manifest entries of one request.
+     */
+    private final int maxItems;
+
+    /**
+     * Maximum number of uploads started but not yet collected.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Number of posts saved in one transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * How long an upload is retried while the upload executor is full.
+     */
+    private final Duration submitTimeout;
+
+    /**
+     * Constructor for BulkIngestService.
+     *
+     * @param imageService        the service uploading images
+     * @param postRepository      the repository for posts
+     * @param tagRepository       the repository for tags
+     * @param userRepository      the repository for users
+     * @param searchOutboxService the service recording search index changes
+     * @param postPurgeService    the service deleting unused stored objects
+     * @param transactionManager  the transaction manager of the database
+     * @param uploadExecutor      the executor uploading the images
+     * @param maxItems            the maximum number of manifest entries of one request
+     * @param maxInFlight         the maximum number of uploads in flight
+     * @param batchSize           the number of posts saved in one transaction
+     * @param submitTimeout       how long an upload is retried while the executor is full
+     */
+    public BulkIngestService(final ImageService imageService,
+                             final PostRepository postRepository,
+                             final TagRepository tagRepository,
+                             final UserRepository userRepository,
+                             final SearchOutboxService searchOutboxService,
+                             final PostPurgeService postPurgeService,
+                             final PlatformTransactionManager transactionManager,
+                             @Qualifier("bulkIngestExecutor") final Executor uploadExecutor,
+                             @Value("${ingest.max-items:50000}") final int maxItems,
+                             @Value("${ingest.max-in-flight:32}") final int maxInFlight,
+                             @Value("${ingest.batch-size:100}") final int batchSize,
+                             @Value("${ingest.submit-timeout:PT30S}") final Duration submitTimeout) {
+        this.imageService = imageService;
+        this.postRepository = postRepository;
+        this.tagRepository = tagRepository;
+        this.userRepository = userRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.postPurgeService = postPurgeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadExecutor = uploadExecutor;
+        this.maxItems = maxItems;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.submitTimeout = submitTimeout;
+    }
+
+    /**
+     * Creates the posts of a manifest from the entries of a zip archive.
+     * <p>
+     * The archive is stored in a temporary file for the duration of the ingestion so that its
+     * entries can be read concurrently and by name.
+     * </p>
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param manifest the posts to create, naming archive entries by path
+     * @param archive  the zip archive holding the images
+     * @return the outcome of every manifest entry
+     * @throws InvalidManifest if the manifest is empty or too large, or the archive is not a zip
+     * @throws IOException      if the archive cannot be stored in a temporary file
+     */
+    public BulkIngestResult ingestArchive(final Long userId, final List<BulkPostItem> manifest,
+                                          final MultipartFile archive) throws InvalidManifest, IOException {
+        checkManifest(manifest);
+
+        File archiveFile = Files.createTempFile("bulk-ingest-", ".zip").toFile();
+        try {
+            archive.transferTo(archiveFile);
+            try (ZipFile zipFile = openZip(archiveFile)) {
+                Map<String, Source> sources = new HashMap<>();
+                zipFile.stream()
+                        .filter(entry -> !entry.isDirectory())
+                        .forEach(entry -> sources.put(entry.getName(), fromZipEntry(zipFile, entry)));
+                return ingest(userId, manifest, sources);
+            }
+        } finally {
+            Files.deleteIfExists(archiveFile.toPath());
+        }
+    }
+
+    /**
+     * Creates the posts of a manifest from the files of a multipart request.
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param manifest the posts to create, naming files by their original file name
+     * @param files    the uploaded images
+     * @return the outcome of every manifest entry
+     * @throws InvalidManifest if the manifest is empty or too large
+     */
+    public BulkIngestResult ingestFiles(final Long userId, final List<BulkPostItem> manifest,
+                                        final Collection<MultipartFile> files) throws InvalidManifest {
+        checkManifest(manifest);
+
+        Map<String, Source> sources = new HashMap<>();
+        for (MultipartFile file : files) {
+            if (!file.isEmpty() && StringUtils.hasText(file.getOriginalFilename())) {
+                sources.put(file.getOriginalFilename(),
+                        new Source(file.getOriginalFilename(), file.getContentType(), file.getSize(), file));
+            }
+        }
+        return ingest(userId, manifest, sources);
+    }
+
+    /**
+     * Uploads the images of the manifest through the upload window and saves the posts in chunks.
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param manifest the posts to create
+     * @param sources  the images of the request by name
+     * @return the outcome of every manifest entry
+     */
+    private BulkIngestResult ingest(final Long userId, final List<BulkPostItem> manifest,
+                                    final Map<String, Source> sources) {
+        log.info(LogMessages.BULK_INGEST_STARTED.getMessage(), manifest.size(), userId);
+        long start = System.currentTimeMillis();
+
+        BulkItemStatus[] statuses = new BulkItemStatus[manifest.size()];
+        Set<Long> knownTagIds = knownTagIds(manifest);
+        Deque<Upload> inFlight = new ArrayDeque<>();
+        List<Upload> chunk = new ArrayList<>(batchSize);
+
+        for (int index = 0; index < manifest.size(); index++) {
+            BulkPostItem item = manifest.get(index);
+            String error = validate(item, sources, knownTagIds);
+            if (error != null) {
+                statuses[index] = failed(index, item, error);
+                continue;
+            }
+
+            Source source = sources.get(item.getFile());
+            CompletableFuture<Image> image = startUpload(source, userId, inFlight, chunk, statuses);
+            if (image == null) {
+                statuses[index] = failed(index, item, "Upload capacity exhausted, retry later");
+                continue;
+            }
+            inFlight.addLast(new Upload(index, item, image));
+
+            if (inFlight.size() >= maxInFlight) {
+                collectNext(userId, inFlight, chunk, statuses);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            collectNext(userId, inFlight, chunk, statuses);
+        }
+        if (!chunk.isEmpty()) {
+            save(userId, chunk, statuses);
+        }
+
+        List<BulkItemStatus> items = List.of(statuses);
+        int created = (int) items.stream()
+                .filter(status -> status.getStatus() == BulkItemStatus.Status.CREATED)
+                .count();
+        log.info(LogMessages.BULK_INGEST_FINISHED.getMessage(), userId, created, items.size() - created,
+                System.currentTimeMillis() - start);
+        return new BulkIngestResult(created, items.size() - created, items);
+    }
+
+    /**
+     * Submits the upload of an image, retrying while the upload executor is full.
+     * <p>
+     * While the request has uploads in flight it waits for the oldest one before retrying, so a
+     * full executor throttles the request on its own work. Otherwise it pauses between retries
+     * until the submit timeout has passed.
+     * </p>
+     *
+     * @param source   the image to upload
+     * @param userId   the ID of the user creating the posts
+     * @param inFlight the uploads of the request in submission order
+     * @param chunk    the uploads waiting to be saved
+     * @param statuses the outcome of every manifest entry
+     * @return the pending upload, or {@code null} if it could not be submitted in time
+     */
+    private CompletableFuture<Image> startUpload(final Source source, final Long userId, final Deque<Upload> inFlight,
+                                                 final List<Upload> chunk, final BulkItemStatus[] statuses) {
+        long deadline = System.nanoTime() + submitTimeout.toNanos();
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(() -> imageService.uploadImage(
+                        source.name(), source.contentType(), source.size(), source.content()), uploadExecutor);
+            } catch (RejectedExecutionException e) {
+                if (!inFlight.isEmpty()) {
+                    collectNext(userId, inFlight, chunk, statuses);
+                } else if (System.nanoTime() >= deadline || !pause()) {
+                    log.warn(LogMessages.BULK_INGEST_UPLOAD_REJECTED.getMessage(), source.name());
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the oldest upload in flight and saves the chunk once it is full.
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param inFlight the uploads of the request in submission order
+     * @param chunk    the uploads waiting to be saved
+     * @param statuses the outcome of every manifest entry
+     */
+    private void collectNext(final Long userId, final Deque<Upload> inFlight, final List<Upload> chunk,
+                             final BulkItemStatus[] statuses) {
+        collect(inFlight.removeFirst(), chunk, statuses);
+        if (chunk.size() >= batchSize) {
+            save(userId, chunk, statuses);
+        }
+    }
+
+    /**
+     * Waits before retrying a rejected upload.
+     *
+     * @return whether the wait finished, {@code false} if the thread was interrupted
+     */
+    private static boolean pause() {
+        try {
+            Thread.sleep(SUBMIT_RETRY_DELAY_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits for an upload and adds it to the chunk, or records its failure.
+     *
+     * @param upload   the upload to wait for
+     * @param chunk    the uploads waiting to be saved
+     * @param statuses the outcome of every manifest entry
+     */
+    private void collect(final Upload upload, final List<Upload> chunk, final BulkItemStatus[] statuses) {
+        try {
+            upload.image().join();
+            chunk.add(upload);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            statuses[upload.index()] = failed(upload.index(), upload.item(), cause.getMessage());
+        }
+    }
+
+    /**
+     * Saves the posts of a chunk of uploads and clears the chunk.
+     * <p>
+     * The chunk is saved in one transaction. If that fails, its posts are saved one per
+     * transaction, so one bad entry does not fail the others. Entries that still fail are
+     * reported as failed and their stored objects are handed to the purger, which deletes them
+     * unless another image uses them.
+     * </p>
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param chunk    the uploads to save
+     * @param statuses the outcome of every manifest entry
+     */
+    private void save(final Long userId, final List<Upload> chunk, final BulkItemStatus[] statuses) {
+        try {
+            saveInTransaction(userId, chunk, statuses);
+        } catch (RuntimeException e) {
+            log.error(LogMessages.BULK_INGEST_CHUNK_FAILED.getMessage(), chunk.size(), e);
+            List<String> orphanedKeys = new ArrayList<>();
+            for (Upload upload : chunk) {
+                try {
+                    if (chunk.size() == 1) {
+                        throw e;
+                    }
+                    saveInTransaction(userId, List.of(upload), statuses);
+                } catch (RuntimeException itemError) {
+                    statuses[upload.index()] = failed(upload.index(), upload.item(), itemError.getMessage());
+                    orphanedKeys.add(upload.image().join().getStorageKey());
+                }
+            }
+            discard(orphanedKeys);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Saves the posts of uploads in one transaction and records them as created.
+     * <p>
+     * Fails if the account of the user is being deleted by now, so an ingestion cannot outlive
+     * its account.
+     * </p>
+     *
+     * @param userId   the ID of the user creating the posts
+     * @param uploads  the uploads to save
+     * @param statuses the outcome of every manifest entry
+     */
+    private void saveInTransaction(final Long userId, final List<Upload> uploads, final BulkItemStatus[] statuses) {
+        List<Post> posts = transactionTemplate.execute(status -> {
+            if (userRepository.findActiveTokenVersion(userId).isEmpty()) {
+                throw new IllegalStateException("Account is being deleted");
+            }
+            User patron = userRepository.getReferenceById(userId);
+            List<Post> newPosts = new ArrayList<>(uploads.size());
+            for (Upload upload : uploads) {
+                newPosts.add(toPost(upload, patron));
+            }
+            List<Post> savedPosts = postRepository.saveAll(newPosts);
+            for (Post post : savedPosts) {
+                searchOutboxService.enqueueIndex(post.getId());
+                imageService.publishUploaded(post.getImage());
+            }
+            return savedPosts;
+        });
+        for (int i = 0; i < uploads.size(); i++) {
+            Upload upload = uploads.get(i);
+            statuses[upload.index()] = BulkItemStatus.created(upload.index(), upload.item().getFile(),
+                    Objects.requireNonNull(posts).get(i).getId());
+        }
+    }
+
+    /**
+     * Hands the stored objects of entries that could not be saved to the purger.
+     *
+     * @param storageKeys the storage keys of the unsaved images
+     */
+    private void discard(final List<String> storageKeys) {
+        try {
+            postPurgeService.scheduleObjectDeletion(storageKeys);
+        } catch (RuntimeException e) {
+            log.error(LogMessages.BULK_INGEST_DISCARD_FAILED.getMessage(), storageKeys.size(), e);
+        }
+    }
+
+    /**
+     * Builds the post of an upload with references to its patron and tags.
+     *
+     * @param upload the finished upload
+     * @param patron a reference to the user creating the post
+     * @return the unsaved post
+     */
+    private Post toPost(final Upload upload, final User patron) {
+        BulkPostItem item = upload.item();
+        Post post = new Post();
+        post.setTitle(item.getTitle());
+        post.setDescription(item.getDescription());
+        post.setPatron(patron);
+        Image image = upload.image().join();
+        // A failed transaction leaves the ID it assigned, which would make the new image look detached.
+        image.setId(null);
+        post.setImage(image);
+        if (item.getTagsId() != null) {
+            List<Tag> tags = new ArrayList<>();
+            item.getTagsId().stream().distinct().forEach(tagId -> tags.add(tagRepository.getReferenceById(tagId)));
+            post.setTags(tags);
+        }
+        return post;
+    }
+
+    /**
+     * Checks an entry against the request before its image is uploaded.
+     *
+     * @param item        the manifest entry
+     * @param sources     the images of the request by name
+     * @param knownTagIds the IDs of the referenced tags that exist
+     * @return the reason the entry fails, or {@code null} if it can be uploaded
+     */
+    private static String validate(final BulkPostItem item, final Map<String, Source> sources,
+                                   final Set<Long> knownTagIds) {
+        if (item == null || !StringUtils.hasText(item.getFile())) {
+            return "No file given";
+        }
+        if (!StringUtils.hasText(item.getTitle())) {
+            return "Title is required";
+        }
+        if (item.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "Title is longer than " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (item.getDescription() != null && item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        Source source = sources.get(item.getFile());
+        if (source == null) {
+            return "File not found in the request";
+        }
+        if (source.size() == 0) {
+            return "File is empty";
+        }
+        if (item.getTagsId() != null) {
+            for (Long tagId : item.getTagsId()) {
+                if (!knownTagIds.contains(tagId)) {
+                    return "Tag not found: " + tagId;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the IDs of all tags referenced by the manifest that exist, with one query.
+     *
+     * @param manifest the posts to create
+     * @return the IDs of the existing referenced tags
+     */
+    private Set<Long> knownTagIds(final List<BulkPostItem> manifest) {
+        Set<Long> tagIds = new HashSet<>();
+        manifest.stream()
+                .filter(item -> item != null && item.getTagsId() != null)
+                .forEach(item -> item.getTagsId().stream().filter(Objects::nonNull).forEach(tagIds::add));
+        if (tagIds.isEmpty()) {
+            return tagIds;
+        }
+
+        Set<Long> knownTagIds = new HashSet<>();
+        tagRepository.findAllById(tagIds).forEach(tag -> knownTagIds.add(tag.getId()));
+        return knownTagIds;
+    }
+
+    /**
+     * Rejects manifests that are empty or exceed the configured number of entries.
+     *
+     * @param manifest the posts to create
+     * @throws InvalidManifest if the manifest is empty or too large
+     */
+    private void checkManifest(final List<BulkPostItem> manifest) throws InvalidManifest {
+        if (manifest == null || manifest.isEmpty()) {
+            throw new InvalidManifest("Manifest is empty");
+        }
+        if (manifest.size() > maxItems) {
+            throw new InvalidManifest("Manifest has more than " + maxItems + " entries");
+        }
+    }
+
+    /**
+     * Opens a zip archive.
+     *
+     * @param archiveFile the archive file
+     * @return the opened archive
+     * @throws InvalidManifest if the file is not a zip archive
+     */
+    private static ZipFile openZip(final File archiveFile) throws InvalidManifest {
+        try {
+            return new ZipFile(archiveFile);
+        } catch (IOException e) {
+            throw new InvalidManifest("Archive is not a zip file");
+        }
+    }
+
+    /**
+     * Describes an entry of a zip archive as an image source.
+     *
+     * @param zipFile the opened archive
+     * @param entry   the archive entry
+     * @return the image source reading the entry
+     */
+    private static Source fromZipEntry(final ZipFile zipFile, final ZipEntry entry) {
+        String contentType = MediaTypeFactory.getMediaType(entry.getName())
+                .map(MediaType::toString)
+                .orElse(DEFAULT_CONTENT_TYPE);
+        return new Source(entry.getName(), contentType, entry.getSize(), () -> zipFile.getInputStream(entry));
+    }
+
+    /**
+     * Records the failure of a manifest entry.
+     *
+     * @param index the position of the entry in the manifest
+     * @param item  the manifest entry
+     * @param error the reason the entry failed
+     * @return the status of the entry
+     */
+    private static BulkItemStatus failed(final int index, final BulkPostItem item, final String error) {
+        String file = item == null ? null : item.getFile();
+        log.warn(LogMessages.BULK_INGEST_ITEM_FAILED.getMessage(), index, file, error);
+        return BulkItemStatus.failed(index, file, error);
+    }
+
+    /**
+     * An image of the request.
+     *
+     * @param name        the file name or archive path of the image
+     * @param contentType the content type of the image
+     * @param size        the size of the image in bytes
+     * @param content     the source of the image bytes
+     */
+    private record Source(String name, String contentType, long size, InputStreamSource content) {
+    }
+
+    /**
+     * An upload started for a manifest entry.
+     *
+     * @param index the position of the entry in the manifest
+     * @param item  the manifest entry
+     * @param image the uploaded, unsaved image
+     */
+    private record Upload(int index, BulkPostItem item, CompletableFuture<Image> image) {
+    }
+}
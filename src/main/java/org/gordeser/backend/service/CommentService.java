@@ -2,11 +2,16 @@ package org.gordeser.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.CursorPage;
 import org.gordeser.backend.entity.Comment;
 import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.repository.CommentRepository;
 import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.util.CursorCodec;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +41,10 @@ public class CommentService {
 
     /**
      * Creates a new comment.
+     * <p>
+     * The comment is inserted next to a reference to the post and the comment count of the post
+     * is incremented in place, so neither the post nor its existing comments are loaded.
+     * </p>
      *
      * @param postId the ID of the post to which the comment is being added
      * @param text the content of the comment
@@ -47,10 +56,12 @@ public class CommentService {
     public Comment create(final Long postId, final String text, final String authorUsername) throws NotFound {
         log.info("Creating a new comment for author: {}", authorUsername);
 
-        Post post = postRepository.findById(postId).orElseThrow(NotFound::new);
+        if (postRepository.addToCommentCount(postId, 1) == 0) {
+            throw new NotFound();
+        }
 
         Comment newComment = Comment.builder()
-                .post(post)
+                .post(postRepository.getReferenceById(postId))
                 .text(text)
                 .authorUsername(authorUsername)
                 .date(LocalDateTime.now())
@@ -58,9 +69,6 @@ public class CommentService {
 
         commentRepository.save(newComment);
 
-        post.getComments().add(newComment);
-        postRepository.save(post);
-
         log.info("Comment created successfully with ID: {}", newComment.getId());
         return newComment;
     }
@@ -79,20 +87,54 @@ public class CommentService {
     }
 
     /**
-     * Retrieves all comments for a specific post.
+     * Deletes a comment of a post and decrements the comment count of the post in place.
+     *
+     * @param comment the comment to delete
+     * @param postId  the ID of the post the comment belongs to
+     */
+    @Transactional
+    public void deleteFromPost(final Comment comment, final Long postId) {
+        log.info("Deleting comment with ID: {}", comment.getId());
+
+        commentRepository.delete(comment);
+        postRepository.addToCommentCount(postId, -1);
+
+        log.info("Comment with ID: {} deleted successfully", comment.getId());
+    }
+
+    /**
+     * Retrieves one page of the comments of a post, oldest first, using keyset pagination.
      *
      * @param postId the ID of the post to retrieve comments for
-     * @return a list of {@link Comment} objects associated with the specified post
-     * @throws NotFound if the post with the given ID does not exist
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of comments to return
+     * @return the comments of the page with the cursor of the next page
+     * @throws NotFound      if the post with the given ID does not exist
+     * @throws InvalidCursor if the cursor is malformed
      */
-    public List<Comment> getByPostId(final Long postId) throws NotFound {
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getByPostId(final Long postId, final String cursor, final int size)
+            throws NotFound, InvalidCursor {
         log.info("Retrieving comments for post with ID: {}", postId);
 
-        Post post = postRepository.findById(postId).orElseThrow(NotFound::new);
-        List<Comment> comments = post.getComments();
+        Pageable limit = PageRequest.of(0, size);
+        List<Comment> comments;
+        if (cursor == null) {
+            comments = commentRepository.findFirstByPostId(postId, limit);
+        } else {
+            List<String> values = CursorCodec.decode(cursor, 2);
+            comments = commentRepository.findByPostIdAfter(postId, CursorCodec.parseDateTime(values.get(0)),
+                    CursorCodec.parseLong(values.get(1)), limit);
+        }
+
+        if (comments.isEmpty() && !postRepository.existsById(postId)) {
+            throw new NotFound();
+        }
 
         log.info("Found {} comments for post with ID: {}", comments.size(), postId);
-        return comments;
+        Comment last = comments.isEmpty() ? null : comments.get(comments.size() - 1);
+        String nextCursor = comments.size() < size ? null : CursorCodec.encode(List.of(last.getDate(), last.getId()));
+        return new CursorPage<>(comments, nextCursor);
     }
 
     /**
@@ -0,0 +1,196 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.mapper.PostMapper;
+import org.gordeser.backend.messages.LogMessages;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for repairing drift between the relational database and the {@code feed} index.
+ * <p>
+ * The reconciler walks the posts in keyset-paginated ID chunks, loads the documents of the
+ * same ID range from Elasticsearch and compares them by post ID and content checksum. Only
+ * missing, stale, duplicated or orphaned documents are written back, so a run never turns
+ * into a full reindex. Each chunk costs one database read, one Elasticsearch search and at
+ * most one bulk write and one bulk delete.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ElasticsearchReconciliationService {
+
+    /**
+     * Service used to load post chunks in their indexed form.
+     */
+    private final ElasticsearchSyncService syncService;
+
+    /**
+     * Repository for managing posts in Elasticsearch.
+     */
+    private final PostElasticsearchRepository elasticsearchRepository;
+
+    /**
+     * Whether the periodic reconciliation is enabled.
+     */
+    @Value("${elasticsearch.reconcile.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of documents fetched from Elasticsearch for one chunk.
+     */
+    @Value("${elasticsearch.reconcile.max-documents-per-chunk:2000}")
+    private int maxDocumentsPerChunk;
+
+    /**
+     * Pause between two chunks in milliseconds, bounding the load a run puts on both stores.
+     */
+    @Value("${elasticsearch.reconcile.chunk-pause-ms:100}")
+    private long chunkPauseMs;
+
+    /**
+     * Periodically reconciles the {@code feed} index with the relational database.
+     */
+    @Scheduled(
+            initialDelayString = "${elasticsearch.reconcile.initial-delay:PT5M}",
+            fixedDelayString = "${elasticsearch.reconcile.interval:PT30M}"
+    )
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Runs one full reconciliation pass over all posts.
+     *
+     * @return the number of documents that were re-indexed or deleted
+     */
+    public long reconcile() {
+        log.info(LogMessages.RECONCILE_STARTED.getMessage());
+
+        long repaired = 0;
+        long lastId = 0;
+        List<PostElasticsearch> chunk = syncService.loadChunk(lastId);
+
+        while (true) {
+            List<PostElasticsearch> next = List.of();
+            long upperBound;
+            if (chunk.isEmpty()) {
+                upperBound = Long.MAX_VALUE;
+            } else {
+                upperBound = chunk.get(chunk.size() - 1).getPostId();
+                next = syncService.loadChunk(upperBound);
+                if (next.isEmpty()) {
+                    upperBound = Long.MAX_VALUE;
+                }
+            }
+
+            repaired += reconcileRange(lastId, upperBound, chunk);
+            if (upperBound == Long.MAX_VALUE) {
+                break;
+            }
+
+            lastId = upperBound;
+            chunk = next;
+            pause();
+        }
+
+        log.info(LogMessages.RECONCILE_FINISHED.getMessage(), repaired);
+        return repaired;
+    }
+
+    /**
+     * Reconciles the documents of one post ID range.
+     *
+     * @param fromExclusive the lower post ID bound, exclusive
+     * @param toInclusive   the upper post ID bound, inclusive
+     * @param expected      the documents built from the database for this range
+     * @return the number of documents that were re-indexed or deleted
+     */
+    private long reconcileRange(final long fromExclusive, final long toInclusive,
+                                final List<PostElasticsearch> expected) {
+        List<PostElasticsearch> actual = elasticsearchRepository.findByPostIdRange(
+                fromExclusive, toInclusive, PageRequest.of(0, maxDocumentsPerChunk));
+        if (actual.size() >= maxDocumentsPerChunk) {
+            log.warn(LogMessages.RECONCILE_RANGE_TRUNCATED.getMessage(), fromExclusive, toInclusive);
+        }
+
+        Map<Long, List<PostElasticsearch>> actualByPost = actual.stream()
+                .collect(Collectors.groupingBy(PostElasticsearch::getPostId));
+        Map<Long, PostElasticsearch> expectedByPost = new HashMap<>();
+        expected.forEach(document -> expectedByPost.put(document.getPostId(), document));
+
+        List<PostElasticsearch> toIndex = new ArrayList<>();
+        List<String> toDelete = new ArrayList<>();
+
+        for (PostElasticsearch document : expected) {
+            List<PostElasticsearch> indexed = actualByPost.getOrDefault(document.getPostId(), List.of());
+            boolean upToDate = false;
+            for (PostElasticsearch candidate : indexed) {
+                if (candidate.getId().equals(document.getId())
+                        && PostMapper.contentChecksum(candidate) == PostMapper.contentChecksum(document)) {
+                    upToDate = true;
+                } else if (!candidate.getId().equals(document.getId())) {
+                    toDelete.add(candidate.getId());
+                }
+            }
+            if (!upToDate) {
+                toIndex.add(document);
+            }
+        }
+
+        actualByPost.forEach((postId, documents) -> {
+            if (!expectedByPost.containsKey(postId)) {
+                documents.forEach(document -> toDelete.add(document.getId()));
+            }
+        });
+
+        if (!toIndex.isEmpty()) {
+            elasticsearchRepository.saveAll(toIndex);
+        }
+        if (!toDelete.isEmpty()) {
+            elasticsearchRepository.deleteAllById(toDelete);
+        }
+        if (!toIndex.isEmpty() || !toDelete.isEmpty()) {
+            log.info(LogMessages.RECONCILE_RANGE_REPAIRED.getMessage(),
+                    fromExclusive, toInclusive, toIndex.size(), toDelete.size());
+        }
+        return (long) toIndex.size() + toDelete.size();
+    }
+
+    /**
+     * Sleeps between two chunks to keep the reconciliation from saturating either store.
+     */
+    private void pause() {
+        if (chunkPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
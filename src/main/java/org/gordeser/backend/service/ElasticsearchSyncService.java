@@ -8,20 +8,28 @@
 package org.gordeser.backend.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.PostIndexView;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
-import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.PostElasticsearch;
 import org.gordeser.backend.mapper.PostMapper;
+import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class for synchronizing posts between the relational database and Elasticsearch.
  * <p>
  * This service ensures that all posts stored in the relational database are indexed
- * in Elasticsearch for efficient search operations.
+ * in Elasticsearch for efficient search operations. Posts are read in keyset-paginated
+ * chunks and each chunk is sent as a single bulk request, so memory use does not grow
+ * with the number of posts.
  * </p>
  *
  * @since 1.0
@@ -30,6 +38,11 @@ import java.util.List;
 @Slf4j
 public class ElasticsearchSyncService {
 
+    /**
+     * Number of nanoseconds in one second, used for throughput reporting.
+     */
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
     /**
      * Repository for managing posts in the relational database.
      */
@@ -40,6 +53,18 @@ public class ElasticsearchSyncService {
      */
     private final PostElasticsearchRepository elasticsearchRepository;
 
+    /**
+     * Number of posts read from the database and sent to Elasticsearch per bulk request.
+     */
+    @Value("${elasticsearch.sync.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Whether a full reindex is forced on startup even if the index already contains documents.
+     */
+    @Value("${elasticsearch.sync.full-reindex:false}")
+    private boolean fullReindex;
+
     /**
      * Constructs an instance of {@link ElasticsearchSyncService}.
      *
@@ -55,22 +80,104 @@ public class ElasticsearchSyncService {
     /**
      * Synchronizes posts from the relational database to Elasticsearch.
      * <p>
-     * If Elasticsearch does not contain any posts, this method retrieves all posts
-     * from the database, maps them to Elasticsearch-compatible entities using
-     * {@link PostMapper}, and saves them in Elasticsearch. If Elasticsearch already
-     * contains posts, the synchronization is skipped.
+     * If Elasticsearch does not contain any posts, or a full reindex is requested through
+     * the {@code elasticsearch.sync.full-reindex} property, all posts are re-indexed with
+     * {@link #reindexAll()}. Otherwise the synchronization is skipped.
      * </p>
      */
     public void syncPosts() {
-        if (elasticsearchRepository.count() == 0) {
-            List<Post> posts = postRepository.findAll();
-            List<PostElasticsearch> elasticPosts = posts.stream()
-                    .map(PostMapper::toElasticsearchEntity)
-                    .toList();
-            elasticsearchRepository.saveAll(elasticPosts);
-            log.warn("Elasticsearch posts saved: {}", elasticsearchRepository.count());
+        if (fullReindex || elasticsearchRepository.count() == 0) {
+            reindexAll();
         } else {
             log.info("Elasticsearch posts are already synchronized.");
         }
     }
+
+    /**
+     * Re-indexes every post of the relational database in Elasticsearch.
+     * <p>
+     * Posts are read in ascending ID order, {@code elasticsearch.sync.chunk-size} rows at a
+     * time, mapped to {@link PostElasticsearch} documents and written with one bulk request
+     * per chunk. Documents are keyed by post ID, so existing documents are overwritten.
+     * Progress and throughput are logged after every chunk.
+     * </p>
+     *
+     * @return the number of indexed posts
+     */
+    public long reindexAll() {
+        log.info(LogMessages.REINDEX_STARTED.getMessage(), chunkSize);
+
+        long startedAt = System.nanoTime();
+        long indexed = 0;
+        long lastId = 0;
+
+        List<PostElasticsearch> chunk = loadChunk(lastId);
+        while (!chunk.isEmpty()) {
+            elasticsearchRepository.saveAll(chunk);
+            indexed += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getPostId();
+            log.info(LogMessages.REINDEX_PROGRESS.getMessage(), indexed, lastId, throughput(indexed, startedAt));
+            chunk = loadChunk(lastId);
+        }
+
+        log.info(LogMessages.REINDEX_FINISHED.getMessage(), indexed,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt), throughput(indexed, startedAt));
+        return indexed;
+    }
+
+    /**
+     * Loads and maps the next chunk of posts after the given post ID.
+     *
+     * @param afterId the last post ID of the previous chunk, exclusive
+     * @return the documents of the chunk ordered by post ID, or an empty list when no posts remain
+     */
+    public List<PostElasticsearch> loadChunk(final long afterId) {
+        Pageable limit = PageRequest.of(0, chunkSize);
+        List<PostIndexView> posts = postRepository.findIndexChunk(afterId, limit);
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        return toDocuments(posts);
+    }
+
+    /**
+     * Loads and maps the posts with the given IDs.
+     * <p>
+     * IDs of posts that no longer exist are silently skipped.
+     * </p>
+     *
+     * @param postIds the IDs of the posts to load
+     * @return the documents of the existing posts
+     */
+    public List<PostElasticsearch> loadDocuments(final Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        return toDocuments(postRepository.findIndexViewsByIds(postIds));
+    }
+
+    /**
+     * Maps post projections to documents, loading their tags with a single query.
+     *
+     * @param posts the post projections to map
+     * @return the mapped documents
+     */
+    private List<PostElasticsearch> toDocuments(final List<PostIndexView> posts) {
+        List<Long> ids = posts.stream()
+                .map(PostIndexView::getId)
+                .toList();
+        return PostMapper.toElasticsearchEntities(posts, postRepository.findTagNamesByPostIds(ids));
+    }
+
+    /**
+     * Computes the indexing throughput since the given start time.
+     *
+     * @param indexed   the number of documents indexed so far
+     * @param startedAt the {@link System#nanoTime()} value at the start of the run
+     * @return the throughput in documents per second
+     */
+    private static long throughput(final long indexed, final long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / NANOS_PER_SECOND;
+        return seconds > 0 ? Math.round(indexed / seconds) : indexed;
+    }
 }
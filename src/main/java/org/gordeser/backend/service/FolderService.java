@@ -1,18 +1,27 @@
 package org.gordeser.backend.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gordeser.backend.entity.Folder;
-import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.FolderRepository;
 import org.gordeser.backend.repository.UserRepository;
+import org.gordeser.backend.util.StreamChunks;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing folders.
@@ -38,6 +47,25 @@ public class FolderService {
      */
     private final JwtService jwtService;
 
+    /**
+     * The entity manager, cleared between streamed chunks.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Number of streamed folders kept in the persistence context at a time.
+     * <p>
+     * The posts of a chunk are batch-fetched while its folders are written, so the chunk is
+     * kept smaller than for flat entities.
+     * </p>
+     */
+    private static final int STREAM_CHUNK_SIZE = 100;
+
+    /**
+     * Maximum number of post IDs bound to one link statement.
+     */
+    private static final int LINK_CHUNK_SIZE = 1000;
+
 
     /**
      * Retrieves all folders from the database.
@@ -48,6 +76,25 @@ public class FolderService {
         return repository.findAll();
     }
 
+    /**
+     * Streams all folders in ID order.
+     * <p>
+     * Folders are read through a database cursor and the persistence context is cleared after
+     * every chunk, so memory use does not depend on the number of folders.
+     * </p>
+     *
+     * @param consumer the consumer of every folder
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(final Consumer<Folder> consumer) {
+        try (Stream<Folder> folders = repository.streamAll()) {
+            StreamChunks.forEachChunk(folders, STREAM_CHUNK_SIZE, chunk -> {
+                chunk.forEach(consumer);
+                entityManager.clear();
+            });
+        }
+    }
+
     /**
      * Retrieves a folder by its ID.
      *
@@ -111,32 +158,120 @@ public class FolderService {
 
     /**
      * Deletes a folder by its ID.
+     * <p>
+     * The folder and its links are deleted with set-based statements, without loading its posts.
+     * </p>
      *
      * @param folderId the ID of the folder to delete
      * @throws NotFound if the folder is not found
      */
+    @Transactional
     public void deleteById(final Long folderId) throws NotFound {
         log.info(LogMessages.FOLDER_DELETE_ATTEMPT.getMessage(), folderId);
 
-        Folder folderToDelete = repository.findById(folderId).orElse(null);
-        if (folderToDelete == null) {
+        if (!repository.existsById(folderId)) {
             log.warn(LogMessages.FOLDER_NOT_FOUND.getMessage(), folderId);
             throw new NotFound();
         }
 
-        repository.delete(folderToDelete);
+        List<Long> ids = List.of(folderId);
+        repository.deletePostLinks(ids);
+        repository.deletePatronLinks(ids);
+        repository.deleteWithoutLinks(ids);
         log.info(LogMessages.FOLDER_DELETE_SUCCESS.getMessage(), folderId);
     }
 
+    /**
+     * Changes the title and description of a folder.
+     *
+     * @param folderId    the ID of the folder
+     * @param title       the new title
+     * @param description the new description
+     * @throws NotFound if the folder is not found
+     */
+    @Transactional
+    public void updateDetails(final Long folderId, final String title, final String description) throws NotFound {
+        log.info(LogMessages.FOLDER_UPDATE_ATTEMPT.getMessage(), folderId);
+
+        if (repository.updateDetails(folderId, title, description) == 0) {
+            log.warn(LogMessages.FOLDER_NOT_FOUND.getMessage(), folderId);
+            throw new NotFound();
+        }
+
+        log.info(LogMessages.FOLDER_UPDATE_SUCCESS.getMessage(), folderId);
+    }
 
     /**
      * Adds posts to a folder.
+     * <p>
+     * Only the missing links are inserted; posts already in the folder and unknown or deleted
+     * posts are skipped.
+     * </p>
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to add
+     * @return the number of added posts
+     */
+    @Transactional
+    public int addPosts(final Long folderId, final Collection<Long> postIds) {
+        int added = changeLinks(postIds, chunk -> repository.insertPostLinks(folderId, chunk));
+        log.info(LogMessages.FOLDER_POSTS_CHANGED.getMessage(), added, 0, folderId);
+        return added;
+    }
+
+    /**
+     * Removes posts from a folder.
      *
-     * @param folder   the folder to add posts to
-     * @param newPosts the posts to add to the folder
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts to remove
+     * @return the number of removed posts
      */
-    public void addPostsToFolder(final Folder folder, final List<Post> newPosts) {
-        folder.getPosts().addAll(newPosts);
+    @Transactional
+    public int removePosts(final Long folderId, final Collection<Long> postIds) {
+        int removed = changeLinks(postIds, chunk -> repository.deletePostLinks(folderId, chunk));
+        log.info(LogMessages.FOLDER_POSTS_CHANGED.getMessage(), 0, removed, folderId);
+        return removed;
+    }
+
+    /**
+     * Replaces the posts of a folder.
+     * <p>
+     * The current post IDs are diffed against the new ones as sets, then only the removed links
+     * are deleted and only the missing ones inserted, so the statements depend on the size of the
+     * change and no post is loaded.
+     * </p>
+     *
+     * @param folderId the ID of the folder
+     * @param postIds  the IDs of the posts the folder should contain
+     */
+    @Transactional
+    public void replacePosts(final Long folderId, final Collection<Long> postIds) {
+        Set<Long> current = new HashSet<>(repository.findPostIdsByFolderId(folderId));
+        Set<Long> wanted = postIds == null ? Set.of() : new LinkedHashSet<>(postIds);
+
+        List<Long> toRemove = current.stream().filter(id -> !wanted.contains(id)).toList();
+        List<Long> toAdd = wanted.stream().filter(id -> !current.contains(id)).toList();
+
+        int removed = changeLinks(toRemove, chunk -> repository.deletePostLinks(folderId, chunk));
+        int added = changeLinks(toAdd, chunk -> repository.insertPostLinks(folderId, chunk));
+        log.info(LogMessages.FOLDER_POSTS_CHANGED.getMessage(), added, removed, folderId);
+    }
+
+    /**
+     * Runs a set-based link statement over the given post IDs, a bounded chunk at a time.
+     *
+     * @param postIds   the post IDs, may be {@code null}
+     * @param statement the statement for one chunk, returning the number of changed links
+     * @return the total number of changed links
+     */
+    private static int changeLinks(final Collection<Long> postIds, final ToIntFunction<List<Long>> statement) {
+        if (postIds == null || postIds.isEmpty()) {
+            return 0;
+        }
+        int[] changed = new int[1];
+        StreamChunks.forEachChunk(postIds.stream().distinct(), LINK_CHUNK_SIZE,
+                chunk -> changed[0] += statement.applyAsInt(chunk));
+        return changed[0];
     }
 
     /**
@@ -162,18 +297,6 @@ public class FolderService {
     }
 
 
-    /**
-     * Deletes a post from multiple folders.
-     *
-     * @param folders the folders to delete the post from
-     * @param post    the post to delete
-     */
-    public void deletePostFromFolders(final List<Folder> folders, final Post post) {
-        folders.forEach(folder -> folder.getPosts().remove(post));
-        log.info(LogMessages.POST_DELETED_FROM_FOLDERS.getMessage(), post);
-        repository.saveAll(folders);
-    }
-
     /**
      * Retrieves folders by the ID of the patron from the JWT token.
      *
@@ -5,19 +5,29 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.gordeser.backend.entity.Image;
 import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.event.ImageUploadedEvent;
 import org.gordeser.backend.exception.EmptyFile;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.ImageRepository;
+import org.gordeser.backend.repository.StorageObjectDeletionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.UUID;
 
 /**
  * Service class for managing images.
@@ -33,6 +43,16 @@ import java.util.Objects;
 @Slf4j
 public class ImageService {
 
+    /**
+     * Prefix of the object keys of uploaded images.
+     */
+    private static final String IMAGE_KEY_PREFIX = "images/";
+
+    /**
+     * Size of the buffer used when hashing uploads.
+     */
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Repository for managing image entities in the database.
      */
@@ -43,6 +63,22 @@ public class ImageService {
      */
     private final AwsService awsService;
 
+    /**
+     * Repository for the stored objects waiting for deletion.
+     */
+    private final StorageObjectDeletionRepository storageObjectDeletionRepository;
+
+    /**
+     * Publisher used to hand new images to the variant pipeline.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Maximum size of one image.
+     */
+    @Value("${image.max-size:10MB}")
+    private DataSize maxImageSize;
+
     /**
      * Retrieves all images from the database.
      *
@@ -74,32 +110,137 @@ public class ImageService {
 
     /**
      * Creates a new image by uploading it to AWS S3.
+     * <p>
+     * The object key is derived from the SHA-256 digest of the bytes. If an image with the same
+     * digest is already stored, its object and variants are reused and nothing is uploaded.
+     * Variants of new images are generated in the background after the upload.
+     * </p>
      *
      * @param file the file to upload and create an image from
      * @return the created {@link Image} entity
      * @throws EmptyFile if an error occurs during file upload or the file is empty
      */
-    @SneakyThrows(IOException.class)
     public Image createImage(MultipartFile file) throws EmptyFile {
         if (file.isEmpty()) {
             log.error(LogMessages.FILE_EMPTY_ERROR.getMessage());
             throw new EmptyFile();
         }
 
-        String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        String contentType = file.getContentType();
-        Long fileSize = file.getSize();
-        InputStream inputStream = file.getInputStream();
+        Image savedImage = imageRepository.save(
+                uploadImage(file.getOriginalFilename(), file.getContentType(), file.getSize(), file));
+        log.info(LogMessages.IMAGE_CREATED_SUCCESS.getMessage(), savedImage.getId());
+
+        publishUploaded(savedImage);
+        return savedImage;
+    }
+
+    /**
+     * Uploads the bytes of an image to AWS S3 and returns the image without saving it.
+     * <p>
+     * The object key is derived from the SHA-256 digest of the bytes. If an image with the same
+     * digest is already stored, its object and variants are reused and nothing is uploaded.
+     * Callers that save the image must then call {@link #publishUploaded(Image)}.
+     * </p>
+     * <p>
+     * A key that is waiting for deletion is never uploaded to again, since the purger may be deleting
+     * it right now; the bytes get a fresh key instead. A key scheduled only after this check is not due
+     * before the grace period has passed, and by then the saved image keeps it.
+     * </p>
+     *
+     * @param filename    the client file name, used only for its extension
+     * @param contentType the content type of the image
+     * @param size        the size of the image in bytes
+     * @param source      the source of the image bytes; it is read twice
+     * @return the unsaved {@link Image} entity
+     * @throws MaxUploadSizeExceededException if the image is larger than the configured maximum
+     */
+    @SneakyThrows(IOException.class)
+    public Image uploadImage(final String filename, final String contentType, final long size,
+                             final InputStreamSource source) {
+        if (size > maxImageSize.toBytes()) {
+            throw new MaxUploadSizeExceededException(maxImageSize.toBytes());
+        }
 
-        log.info(LogMessages.IMAGE_CREATION_ATTEMPT.getMessage(), file.getOriginalFilename());
-        String uploadedFileUrl = awsService.uploadFile(fileName, fileSize, contentType, inputStream);
+        log.info(LogMessages.IMAGE_CREATION_ATTEMPT.getMessage(), filename);
 
+        String digest = digest(source);
         Image image = new Image();
-        image.setFile(uploadedFileUrl);
-        Image savedImage = imageRepository.save(image);
-        log.info(LogMessages.IMAGE_CREATED_SUCCESS.getMessage(), savedImage.getId());
+        image.setDigest(digest);
 
-        return savedImage;
+        Image existing = imageRepository.findFirstByDigest(digest).orElse(null);
+        if (existing != null) {
+            log.info(LogMessages.IMAGE_DEDUPLICATED.getMessage(), digest, existing.getStorageKey());
+            image.setFile(existing.getFile());
+            image.setStorageKey(existing.getStorageKey());
+            image.setThumbnailUrl(existing.getThumbnailUrl());
+            image.setFeedUrl(existing.getFeedUrl());
+            image.setFullUrl(existing.getFullUrl());
+        } else {
+            String storageKey = storageKey(digest, filename);
+            if (storageObjectDeletionRepository.existsById(storageKey)) {
+                storageKey = storageKey(digest + "-" + UUID.randomUUID(), filename);
+                log.info(LogMessages.IMAGE_KEY_PENDING_DELETION.getMessage(), digest, storageKey);
+            }
+            try (InputStream inputStream = source.getInputStream()) {
+                image.setFile(awsService.uploadFile(storageKey, size, contentType, inputStream));
+            }
+            image.setStorageKey(storageKey);
+        }
+        return image;
+    }
+
+    /**
+     * Hands a saved image to the variant pipeline unless it reuses the variants of another image.
+     * <p>
+     * Inside a transaction the variants are generated after the commit.
+     * </p>
+     *
+     * @param image the saved image
+     */
+    public void publishUploaded(final Image image) {
+        if (image.getFullUrl() == null) {
+            eventPublisher.publishEvent(new ImageUploadedEvent(image.getId()));
+        }
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 digest of an image.
+     *
+     * @param source the source of the image bytes
+     * @return the digest of the bytes
+     * @throws IOException if the bytes cannot be read
+     */
+    private static String digest(final InputStreamSource source) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+        try (InputStream inputStream = source.getInputStream()) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    /**
+     * Builds the content-addressed object key of an image.
+     *
+     * @param digest           the digest of the image bytes, optionally followed by a unique suffix
+     * @param originalFilename the client file name, used only for its extension
+     * @return the object key, e.g. {@code images/<digest>.jpg}
+     */
+    private static String storageKey(final String digest, final String originalFilename) {
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        if (!StringUtils.hasText(extension)) {
+            return IMAGE_KEY_PREFIX + digest;
+        }
+        return IMAGE_KEY_PREFIX + digest + "." + extension.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -0,0 +1,328 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.event.ImageUploadedEvent;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.ImageRepository;
+import org.gordeser.backend.util.ImageResizer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class for generating downscaled variants of uploaded images.
+ * <p>
+ * After an image has been stored its original is decoded once and re-encoded as a thumbnail,
+ * a feed-sized and a full-sized JPEG. The variants are stored next to the original and their
+ * URLs are saved on the {@link Image}. The dimensions are read from the image header first,
+ * and images with more pixels than configured are skipped without being decoded, so a small
+ * file declaring huge dimensions cannot exhaust the heap. Generation runs on the {@code imageVariantExecutor}
+ * after the upload transaction commits, so uploads do not wait for it.
+ * </p>
+ * <p>
+ * Images without variants form a durable queue: when the executor is full an image is left
+ * as it is, and a periodic sweep over the images without variants submits it again. An image
+ * that cannot be decoded gets the URL of its original as variants, so it leaves the queue.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    /**
+     * Content type of the generated variants.
+     */
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    /**
+     * Object name of the full-sized variant under the variant prefix.
+     */
+    private static final String FULL_VARIANT = "full.jpg";
+
+    /**
+     * Object name of the feed-sized variant under the variant prefix.
+     */
+    private static final String FEED_VARIANT = "feed.jpg";
+
+    /**
+     * Object name of the thumbnail variant under the variant prefix.
+     */
+    private static final String THUMBNAIL_VARIANT = "thumb.jpg";
+
+    /**
+     * Repository for managing image entities in the database.
+     */
+    private final ImageRepository imageRepository;
+
+    /**
+     * AWS service for reading originals and storing variants.
+     */
+    private final AwsService awsService;
+
+    /**
+     * Executor generating the variants in the background.
+     */
+    private final TaskExecutor imageVariantExecutor;
+
+    /**
+     * IDs of the images submitted to the executor whose generation has not finished.
+     */
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * ID of the last image submitted by the retry sweep, which starts over once it reaches the end.
+     */
+    private long sweepCursor;
+
+    /**
+     * Whether variants are generated for new uploads.
+     */
+    @Value("${image.variants.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Longer side of the thumbnail variant in pixels.
+     */
+    @Value("${image.variants.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    /**
+     * Longer side of the feed variant in pixels.
+     */
+    @Value("${image.variants.feed-size:1080}")
+    private int feedSize;
+
+    /**
+     * Longer side of the full variant in pixels.
+     */
+    @Value("${image.variants.full-size:2048}")
+    private int fullSize;
+
+    /**
+     * Maximum number of pixels of an original that is decoded.
+     */
+    @Value("${image.variants.max-pixels:50000000}")
+    private long maxPixels;
+
+    /**
+     * JPEG quality of the variants between 0 and 1.
+     */
+    @Value("${image.variants.quality:0.82}")
+    private float quality;
+
+    /**
+     * Maximum number of images the retry sweep submits per run.
+     */
+    @Value("${image.variants.retry-batch-size:100}")
+    private int retryBatchSize;
+
+    /**
+     * Constructs the variant service.
+     *
+     * @param imageRepository      the repository for images
+     * @param awsService           the service reading originals and storing variants
+     * @param imageVariantExecutor the executor generating the variants
+     */
+    public ImageVariantService(final ImageRepository imageRepository, final AwsService awsService,
+                               @Qualifier("imageVariantExecutor") final TaskExecutor imageVariantExecutor) {
+        this.imageRepository = imageRepository;
+        this.awsService = awsService;
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+
+    /**
+     * Generates the variants of a newly uploaded image in the background.
+     *
+     * @param event the upload event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploaded(final ImageUploadedEvent event) {
+        if (enabled) {
+            submit(event.getImageId());
+        }
+    }
+
+    /**
+     * Periodically submits images without variants that were rejected by a full executor or
+     * whose generation failed.
+     */
+    @Scheduled(fixedDelayString = "${image.variants.retry-interval:PT1M}")
+    public void retryPending() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> imageIds = imageRepository.findIdsWithoutVariants(sweepCursor, PageRequest.of(0, retryBatchSize));
+        for (Long imageId : imageIds) {
+            if (!submit(imageId)) {
+                return;
+            }
+            sweepCursor = imageId;
+        }
+        if (imageIds.size() < retryBatchSize) {
+            sweepCursor = 0;
+        }
+    }
+
+    /**
+     * Hands an image to the executor unless it is already waiting there.
+     *
+     * @param imageId the ID of the image
+     * @return {@code false} if the executor is full, {@code true} otherwise
+     */
+    private boolean submit(final Long imageId) {
+        if (!submitted.add(imageId)) {
+            return true;
+        }
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    generateVariants(imageId);
+                } catch (IOException | RuntimeException e) {
+                    log.error(LogMessages.IMAGE_VARIANTS_FAILED.getMessage(), imageId, e);
+                } finally {
+                    submitted.remove(imageId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            submitted.remove(imageId);
+            log.warn(LogMessages.IMAGE_VARIANTS_DEFERRED.getMessage(), imageId);
+            return false;
+        }
+    }
+
+    /**
+     * Generates and stores the variants of an image and saves their URLs.
+     *
+     * @param imageId the ID of the image
+     * @return {@code true} if the variants were generated, {@code false} if the image is gone, too large or cannot
+     *         be decoded; an image that cannot be decoded gets the URL of its original as variants
+     * @throws IOException if the original cannot be read or a variant cannot be encoded
+     */
+    public boolean generateVariants(final Long imageId) throws IOException {
+        Image image = imageRepository.findById(imageId).orElse(null);
+        if (image == null || image.getStorageKey() == null) {
+            return false;
+        }
+
+        long started = System.currentTimeMillis();
+        BufferedImage original;
+        try (InputStream content = awsService.downloadFile(image.getStorageKey());
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            original = decode(imageId, input);
+        }
+        if (original == null) {
+            image.setFullUrl(image.getFile());
+            image.setFeedUrl(image.getFile());
+            image.setThumbnailUrl(image.getFile());
+            imageRepository.save(image);
+            return false;
+        }
+
+        // Each variant is scaled from the next larger one, so the original is decoded only once.
+        BufferedImage full = ImageResizer.fit(original, fullSize);
+        BufferedImage feed = ImageResizer.fit(full, feedSize);
+        BufferedImage thumbnail = ImageResizer.fit(feed, thumbnailSize);
+
+        String prefix = variantPrefix(image.getStorageKey());
+        image.setFullUrl(store(prefix + FULL_VARIANT, full));
+        image.setFeedUrl(store(prefix + FEED_VARIANT, feed));
+        image.setThumbnailUrl(store(prefix + THUMBNAIL_VARIANT, thumbnail));
+        imageRepository.save(image);
+
+        log.info(LogMessages.IMAGE_VARIANTS_CREATED.getMessage(), imageId, System.currentTimeMillis() - started);
+        return true;
+    }
+
+    /**
+     * Decodes an original after checking the dimensions in its header.
+     *
+     * @param imageId the ID of the image
+     * @param input   the content of the original
+     * @return the decoded original, or {@code null} if its format is unsupported or it has too many pixels
+     * @throws IOException if the original cannot be read
+     */
+    private BufferedImage decode(final Long imageId, final ImageInputStream input) throws IOException {
+        Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+        if (readers == null || !readers.hasNext()) {
+            log.warn(LogMessages.IMAGE_VARIANTS_UNSUPPORTED.getMessage(), imageId);
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxPixels) {
+                log.warn(LogMessages.IMAGE_VARIANTS_TOO_LARGE.getMessage(), imageId, width, height);
+                return null;
+            }
+            return reader.read(0);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Encodes and uploads one variant.
+     *
+     * @param key     the object key of the variant
+     * @param variant the variant image
+     * @return the URL of the stored variant
+     * @throws IOException if the variant cannot be encoded
+     */
+    private String store(final String key, final BufferedImage variant) throws IOException {
+        byte[] bytes = ImageResizer.toJpeg(variant, quality);
+        return awsService.uploadFile(key, (long) bytes.length, VARIANT_CONTENT_TYPE, new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Returns the object keys of the variants stored for an original.
+     *
+     * @param storageKey the object key of the original
+     * @return the object keys of the full-sized, feed-sized and thumbnail variants
+     */
+    public static List<String> variantKeys(final String storageKey) {
+        String prefix = variantPrefix(storageKey);
+        return List.of(prefix + FULL_VARIANT, prefix + FEED_VARIANT, prefix + THUMBNAIL_VARIANT);
+    }
+
+    /**
+     * Returns the key prefix under which the variants of an image are stored.
+     *
+     * @param storageKey the object key of the original
+     * @return the key prefix, derived from the content digest when available
+     */
+    private static String variantPrefix(final String storageKey) {
+        int extension = storageKey.lastIndexOf('.');
+        String base = extension > storageKey.lastIndexOf('/') ? storageKey.substring(0, extension) : storageKey;
+        return base + "/";
+    }
+}
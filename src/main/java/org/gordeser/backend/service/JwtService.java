@@ -1,20 +1,36 @@
 package org.gordeser.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.AuthenticatedUser;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,22 +38,48 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service class for handling JSON Web Tokens (JWT).
+ * <p>
+ * The signing key and the parser are built once from the configured secret. Verified tokens are
+ * kept in a bounded cache keyed by the SHA-256 hash of the token, holding the parsed claims until
+ * the token expires, so a client sending the same token again costs one hash and one lookup
+ * instead of a signature check. Tokens that fail verification are never cached.
+ * </p>
  *
  * @since 1.0
  */
 @Service
+@Slf4j
 public class JwtService {
     /**
-     * Secret key used to sign and verify JWT tokens.
+     * Claim holding the ID of the user.
      */
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim holding the token version of the user when the token was issued.
+     */
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    /**
+     * Key used to sign and verify JWT tokens, decoded once from the configured secret.
+     */
+    private final Key signInKey;
+
+    /**
+     * Parser verifying tokens against {@link #signInKey}; it is immutable and thread-safe.
+     */
+    private final JwtParser parser;
 
     /**
      * Expiration time for the JWT token.
      */
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+
+    /**
+     * Claims of verified tokens keyed by the hash of the token, each expiring with its token.
+     * The cached claims are shared between requests and must not be modified.
+     */
+    private final Cache<String, Claims> verifiedTokens;
 
     /**
      * Repository for retrieving user details from the database.
@@ -47,32 +89,97 @@ public class JwtService {
     /**
      * Constructs an instance of {@link JwtService}.
      *
-     * @param userRepository           the repository for accessing users in the database
+     * @param userRepository the repository for accessing users in the database
+     * @param secretKey      the base64-encoded secret used to sign and verify tokens
+     * @param jwtExpiration  the expiration time of issued tokens in milliseconds
+     * @param cacheSize      the maximum number of verified tokens kept in the cache
      */
-    public JwtService(final UserRepository userRepository) {
+    public JwtService(final UserRepository userRepository,
+                      @Value("${security.jwt.secret-key}") final String secretKey,
+                      @Value("${security.jwt.expiration-time}") final long jwtExpiration,
+                      @Value("${security.jwt.cache.maximum-size:10000}") final long cacheSize) {
         this.userRepository = userRepository;
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
     }
 
 
     /**
-     * Retrieves the current user from the JWT token.
+     * Returns the principal of the current request, as asserted by its JWT token.
+     * <p>
+     * The token of a request that may change anything has already been checked with
+     * {@link #checkActive(AuthenticatedUser)} when the request was authenticated.
+     * </p>
+     *
+     * @return the authenticated user of the current request
+     */
+    public AuthenticatedUser getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    /**
+     * Checks that the token of a principal may still change anything.
+     * <p>
+     * A token is revoked when the token version of its user was bumped, e.g. by a password change,
+     * and every token of an account is locked while the account is being deleted, including
+     * tokens issued after the deletion was requested.
+     * </p>
+     *
+     * @param principal the principal asserted by the token
+     * @throws CredentialsExpiredException if the user is gone, the token was revoked or the account is locked
+     */
+    public void checkActive(final AuthenticatedUser principal) {
+        Integer tokenVersion = userRepository.findActiveTokenVersion(principal.getId()).orElse(null);
+        if (tokenVersion == null || tokenVersion != principal.getTokenVersion()) {
+            throw new CredentialsExpiredException("Token has been revoked");
+        }
+    }
+
+    /**
+     * Loads the current user entity, with its preferred tags, for the principal of the JWT token.
      *
      * @return the current user
-     * @throws NotFound if the user is not found
+     * @throws NotFound                   if the user is not found
+     * @throws CredentialsExpiredException if the token was revoked by a newer token version
      */
     public User getUserByToken() throws NotFound {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
+        AuthenticatedUser principal = getAuthenticatedUser();
 
-        User user = userRepository.findByUsername(currentUsername).orElse(null);
+        User user = userRepository.findWithPreferredTagsById(principal.getId()).orElse(null);
 
         if (user == null) {
             throw new NotFound();
         }
+        if (user.getTokenVersion() != principal.getTokenVersion()) {
+            throw new CredentialsExpiredException("Token has been revoked");
+        }
 
         return user;
     }
 
+    /**
+     * Builds the principal asserted by the claims of a verified JWT token.
+     *
+     * @param claims the claims of the verified token
+     * @return the authenticated user, or empty if the token carries no user ID
+     */
+    public Optional<AuthenticatedUser> toPrincipal(final Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        if (userId == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        return Optional.of(new AuthenticatedUser(userId.longValue(), claims.getSubject(),
+                tokenVersion == null ? 0 : tokenVersion.intValue()));
+    }
+
     /**
      * Extracts the username from the JWT token.
      *
@@ -83,6 +190,43 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Verifies the JWT token and returns its claims.
+     * <p>
+     * Claims of a token verified before are served from the cache until the token expires.
+     * </p>
+     *
+     * @param token the JWT token
+     * @return the claims contained in the token; they must not be modified
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(final String token) {
+        return verifiedTokens.get(hash(token), key -> parser.parseClaimsJws(token).getBody());
+    }
+
+    /**
+     * Returns the hit, miss and eviction statistics of the verified-token cache.
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return verifiedTokens.stats();
+    }
+
+    /**
+     * Periodically logs the statistics of the verified-token cache.
+     */
+    @Scheduled(
+            initialDelayString = "${security.jwt.cache.stats-interval:PT5M}",
+            fixedDelayString = "${security.jwt.cache.stats-interval:PT5M}"
+    )
+    public void logStats() {
+        CacheStats stats = verifiedTokens.stats();
+        log.info(LogMessages.JWT_CACHE_STATS.getMessage(), verifiedTokens.estimatedSize(),
+                stats.hitCount(), stats.missCount(), String.format("%.2f", stats.hitRate()),
+                stats.evictionCount());
+    }
+
     /**
      * Extracts a specific claim from the JWT token.
      *
@@ -103,7 +247,12 @@ public class JwtService {
      * @return the generated JWT token
      */
     public String generateToken(final UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     /**
@@ -148,7 +297,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -160,28 +309,28 @@ public class JwtService {
      * @return true if the token is valid, false otherwise
      */
     public boolean isTokenValid(final String token, final UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
     /**
-     * Checks if the JWT token has expired.
+     * Validates if the claims of a verified JWT token are still valid for the specified user.
      *
-     * @param token the JWT token
-     * @return true if the token has expired, false otherwise
+     * @param claims      the claims of the verified token
+     * @param userDetails the user details to compare with the token
+     * @return true if the token is valid, false otherwise
      */
-    private boolean isTokenExpired(final String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(final Claims claims, final UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
     /**
-     * Extracts the expiration date from the JWT token.
+     * Checks if the JWT token has expired.
      *
-     * @param token the JWT token
-     * @return the expiration date of the token
+     * @param claims the claims of the token
+     * @return true if the token has expired, false otherwise
      */
-    private Date extractExpiration(final String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean isTokenExpired(final Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
@@ -191,21 +340,75 @@ public class JwtService {
      * @return the claims contained in the token
      */
     private Claims extractAllClaims(final String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
     }
 
     /**
-     * Retrieves the signing key for JWT token generation and validation.
+     * Hashes a token into a cache key, so the cache does not hold the tokens themselves.
      *
-     * @return the key used to sign and verify JWT tokens
+     * @param token the JWT token
+     * @return the base64-encoded SHA-256 hash of the token
      */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(final String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expires a cache entry when its token expires.
+     */
+    private static final class UntilTokenExpires implements Expiry<String, Claims> {
+
+        /**
+         * Computes the remaining lifetime of a newly verified token.
+         *
+         * @param key         the token hash
+         * @param claims      the claims of the token
+         * @param currentTime the current time of the cache in nanoseconds
+         * @return the nanoseconds until the token expires
+         */
+        @Override
+        public long expireAfterCreate(final String key, final Claims claims, final long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remaining = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        /**
+         * Keeps the expiration of a token when its entry is replaced.
+         *
+         * @param key              the token hash
+         * @param claims           the claims of the token
+         * @param currentTime      the current time of the cache in nanoseconds
+         * @param currentDuration  the remaining lifetime of the entry in nanoseconds
+         * @return the unchanged remaining lifetime
+         */
+        @Override
+        public long expireAfterUpdate(final String key, final Claims claims, final long currentTime,
+                                      final long currentDuration) {
+            return currentDuration;
+        }
+
+        /**
+         * Keeps the expiration of a token when its entry is read.
+         *
+         * @param key              the token hash
+         * @param claims           the claims of the token
+         * @param currentTime      the current time of the cache in nanoseconds
+         * @param currentDuration  the remaining lifetime of the entry in nanoseconds
+         * @return the unchanged remaining lifetime
+         */
+        @Override
+        public long expireAfterRead(final String key, final Claims claims, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
     }
 }
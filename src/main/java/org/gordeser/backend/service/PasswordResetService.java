@@ -97,7 +97,8 @@ public class PasswordResetService {
 
 
     /**
-     * Resets the user's password if the provided token is valid and the new passwords match.
+     * Resets the user's password if the provided token is valid and the new passwords match,
+     * revoking the JWT tokens issued to the user before.
      *
      * @param token           the password reset token.
      * @param password        the new password.
@@ -141,6 +142,7 @@ public class PasswordResetService {
         log.info("Password reset validation successful for User ID: {}. Updating password.", user.getId());
 
         user.setPassword(passwordEncoder.encode(password));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         passwordResetToken.setIsUsed(Boolean.TRUE);
 
         userRepository.save(user);
@@ -0,0 +1,251 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.entity.StorageObjectDeletion;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.CommentRepository;
+import org.gordeser.backend.repository.ImageRepository;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.StorageObjectDeletionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service class for purging deleted posts.
+ * <p>
+ * Deleting a post only marks it, which hides it from every read at once. The purger then removes
+ * marked posts in batches, each in its own transaction: their tag, folder and patron links, their
+ * comments and their images with set-based statements and their search documents through the search
+ * outbox. A failed batch is rolled back and retried on the next run, since the marked posts are still there.
+ * </p>
+ * <p>
+ * Stored objects that no image uses any more are only recorded in a batch. They are deleted after a
+ * grace period, outside any transaction, once a second check shows that still no image uses them:
+ * an upload may reuse a stored object of the same content and save its image much later. Uploads
+ * never write to a key that is waiting for deletion, so an object is not replaced while it is deleted.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostPurgeService {
+
+    /**
+     * Repository for deleting posts and their links.
+     */
+    private final PostRepository postRepository;
+
+    /**
+     * Repository for deleting the comments of purged posts.
+     */
+    private final CommentRepository commentRepository;
+
+    /**
+     * Repository for deleting the images of purged posts.
+     */
+    private final ImageRepository imageRepository;
+
+    /**
+     * Service for removing purged posts from the search index.
+     */
+    private final SearchOutboxService searchOutboxService;
+
+    /**
+     * AWS service for deleting stored objects.
+     */
+    private final AwsService awsService;
+
+    /**
+     * Repository for the stored objects waiting for deletion.
+     */
+    private final StorageObjectDeletionRepository storageObjectDeletionRepository;
+
+    /**
+     * Template used to run every batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether the scheduled purger is enabled.
+     */
+    @Value("${post.purge.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * The maximum number of posts purged in one transaction.
+     */
+    @Value("${post.purge.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * How long an unused stored object is kept before it is deleted.
+     */
+    @Value("${post.purge.object-grace-period:PT1H}")
+    private Duration objectGracePeriod;
+
+    /**
+     * Periodically purges deleted posts, then deletes the unused stored objects that are due,
+     * until none are left or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${post.purge.poll-interval:PT10S}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int purged;
+            do {
+                purged = purgeNext();
+            } while (purged == batchSize);
+            int deleted;
+            do {
+                deleted = deleteDueObjects();
+            } while (deleted == batchSize);
+        } catch (RuntimeException e) {
+            log.warn(LogMessages.POST_PURGE_FAILED.getMessage(), e.getMessage());
+        }
+    }
+
+    /**
+     * Purges the next batch of deleted posts in its own transaction.
+     *
+     * @return the number of purged posts
+     */
+    public int purgeNext() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> postIds = postRepository.findDeletedIds(PageRequest.of(0, batchSize));
+            if (!postIds.isEmpty()) {
+                purge(postIds);
+            }
+            return postIds.size();
+        });
+        return purged == null ? 0 : purged;
+    }
+
+    /**
+     * Removes posts, whether marked as deleted or not, with everything that belongs to them.
+     * <p>
+     * Runs in the caller's transaction. Stored objects that no remaining image uses are recorded
+     * for deletion by {@link #deleteDueObjects()}, so a rollback keeps them as well.
+     * </p>
+     *
+     * @param postIds the IDs of the posts, not empty
+     * @return the number of deleted comments
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int purge(final List<Long> postIds) {
+        List<Long> imageIds = postRepository.findImageIdsByIds(postIds);
+        List<String> storageKeys = imageIds.isEmpty() ? List.of() : imageRepository.findStorageKeysByIds(imageIds);
+
+        postRepository.deleteTagLinks(postIds);
+        postRepository.deleteFolderLinks(postIds);
+        int comments = commentRepository.deleteByPostIds(postIds);
+        postRepository.deletePatronLinks(postIds);
+        postRepository.deleteWithoutLinks(postIds);
+        imageRepository.deleteAllByIdInBatch(imageIds);
+        postIds.forEach(searchOutboxService::enqueueDelete);
+        int objects = scheduleUnusedObjects(storageKeys);
+
+        log.info(LogMessages.POST_PURGED.getMessage(), postIds.size(), comments, objects);
+        return comments;
+    }
+
+    /**
+     * Schedules stored objects that no saved image uses, such as the uploads of posts that could
+     * not be created, for deletion once the grace period has passed.
+     *
+     * @param storageKeys the storage keys that may be unused
+     * @return the number of storage keys scheduled
+     */
+    @Transactional
+    public int scheduleObjectDeletion(final Collection<String> storageKeys) {
+        return scheduleUnusedObjects(new ArrayList<>(new LinkedHashSet<>(storageKeys)));
+    }
+
+    /**
+     * Deletes the next batch of unused stored objects whose grace period has passed.
+     * <p>
+     * The keys are checked again first, and those an image uses by now are kept. The objects are
+     * deleted after that transaction has committed and their records only once the deletion
+     * succeeded, so a failure leaves them to the next run.
+     * </p>
+     *
+     * @return the number of due storage keys handled
+     */
+    public int deleteDueObjects() {
+        List<String> dueKeys = transactionTemplate.execute(status -> {
+            List<String> keys = storageObjectDeletionRepository.findDueKeys(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (keys.isEmpty()) {
+                return keys;
+            }
+            List<String> used = imageRepository.findUsedStorageKeys(keys);
+            storageObjectDeletionRepository.deleteAllByIdInBatch(used);
+            Set<String> unused = new LinkedHashSet<>(keys);
+            used.forEach(unused::remove);
+            return new ArrayList<>(unused);
+        });
+        if (dueKeys == null || dueKeys.isEmpty()) {
+            return 0;
+        }
+
+        List<String> objects = new ArrayList<>();
+        for (String storageKey : dueKeys) {
+            objects.add(storageKey);
+            objects.addAll(ImageVariantService.variantKeys(storageKey));
+        }
+        awsService.deleteFiles(objects);
+        transactionTemplate.executeWithoutResult(status ->
+                storageObjectDeletionRepository.deleteAllByIdInBatch(dueKeys));
+
+        log.info(LogMessages.STORAGE_OBJECTS_DELETED.getMessage(), objects.size(), dueKeys.size());
+        return dueKeys.size();
+    }
+
+    /**
+     * Records the given keys that no remaining image uses for deletion after the grace period.
+     * <p>
+     * Images with the same content share one stored object, so a key is only recorded once its
+     * last image is gone.
+     * </p>
+     *
+     * @param storageKeys the storage keys of the deleted images
+     * @return the number of recorded keys
+     */
+    private int scheduleUnusedObjects(final List<String> storageKeys) {
+        if (storageKeys.isEmpty()) {
+            return 0;
+        }
+        Set<String> unused = new LinkedHashSet<>(storageKeys);
+        imageRepository.findUsedStorageKeys(storageKeys).forEach(unused::remove);
+
+        LocalDateTime dueAt = LocalDateTime.now().plus(objectGracePeriod);
+        storageObjectDeletionRepository.saveAll(unused.stream()
+                .map(storageKey -> new StorageObjectDeletion(storageKey, dueAt))
+                .toList());
+        return unused.size();
+    }
+}
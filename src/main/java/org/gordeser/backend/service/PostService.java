@@ -2,27 +2,39 @@ package org.gordeser.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.AuthenticatedUser;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.RankedPostIds;
 import org.gordeser.backend.entity.*;
 import org.gordeser.backend.entity.Comment;
-import org.gordeser.backend.entity.Folder;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.PostElasticsearch;
-import org.gordeser.backend.entity.Tag;
-import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.UnauthorizedActionException;
-import org.gordeser.backend.mapper.PostMapper;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.elasticsearch.PostSearchRepository;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.util.CursorCodec;
+import org.gordeser.backend.util.StreamChunks;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing posts.
@@ -39,6 +51,16 @@ import java.util.Objects;
 @Slf4j
 public class PostService {
 
+    /**
+     * Number of streamed post cards whose tags are loaded with one query.
+     */
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    /**
+     * Lower creation time bound of the recency feed when none is requested.
+     */
+    private static final LocalDateTime NO_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     /**
      * Repository for accessing and managing Post entities in the database.
      */
@@ -48,6 +70,17 @@ public class PostService {
      * Repository for accessing and managing Post entities in Elasticsearch.
      */
     private final PostElasticsearchRepository postElasticsearchRepository;
+
+    /**
+     * Repository for keyword search with keyset pagination in Elasticsearch.
+     */
+    private final PostSearchRepository postSearchRepository;
+
+    /**
+     * Service for recording search index changes in the outbox.
+     */
+    private final SearchOutboxService searchOutboxService;
+
     /**
      * Service for handling operations related to comments.
      */
@@ -79,67 +112,73 @@ public class PostService {
     }
 
     /**
-     * Creates a new post and saves it to the database and Elasticsearch.
+     * Creates a new post and records its indexing in the search outbox.
      *
      * @param post the post to create
      * @return the created post
      */
+    @Transactional
     public Post createPost(final Post post) {
         log.info(LogMessages.POST_CREATION_ATTEMPT.getMessage(), post);
         Post newPost = postRepository.save(post);
-        PostElasticsearch postElasticsearch = PostMapper.toElasticsearchEntity(post);
-        postElasticsearchRepository.save(postElasticsearch);
+        searchOutboxService.enqueueIndex(newPost.getId());
         return newPost;
     }
 
     /**
-     * Updates an existing post.
+     * Updates an existing post and records its re-indexing in the search outbox.
      *
      * @param postId the ID of the post to update
      * @param post   the updated post
      * @return the updated post
      * @throws NotFound if the post to update is not found
      */
+    @Transactional
     public Post update(final Long postId, final Post post) throws NotFound {
         Post postToUpdate = postRepository.findById(postId).orElse(null);
-        PostElasticsearch postElasticsearch = postElasticsearchRepository.findByPostId(postId).orElse(null);
 
-        if (postToUpdate == null || !Objects.equals(postToUpdate.getId(), post.getId()) || postElasticsearch == null) {
+        if (postToUpdate == null || !Objects.equals(postToUpdate.getId(), post.getId())) {
             log.warn(LogMessages.POST_UPDATE_FAILED.getMessage(), postId);
             throw new NotFound();
         }
 
         log.info(LogMessages.POST_UPDATE_ATTEMPT.getMessage(), post);
 
-        postElasticsearch.setTitle(post.getTitle());
-        postElasticsearch.setDescription(post.getDescription());
-        postElasticsearch.setTags(PostMapper.mapTags(post.getTags()));
-
-        postElasticsearchRepository.save(postElasticsearch);
-        return postRepository.save(post);
+        post.setCreatedAt(postToUpdate.getCreatedAt());
+        Post updatedPost = postRepository.save(post);
+        searchOutboxService.enqueueIndex(postId);
+        return updatedPost;
     }
 
     /**
-     * Deletes a post by its ID from the database and Elasticsearch.
+     * Marks a post of a patron as deleted with a single update, hiding it from all reads.
+     * <p>
+     * The post, its links, comments, image and search document are removed later by the
+     * {@link PostPurgeService}.
+     * </p>
      *
-     * @param postId the ID of the post to delete
-     * @throws NotFound if the post to delete is not found
+     * @param postId   the ID of the post to delete
+     * @param patronId the ID of the patron who must own the post
+     * @return {@code true} if the post was marked, {@code false} if it does not exist or belongs to
+     *         another patron
      */
-    public void deleteById(final Long postId) throws NotFound {
-        log.info(LogMessages.POST_DELETE_ATTEMPT.getMessage(), postId);
-
-        Post postToDelete = postRepository.findById(postId).orElse(null);
-        PostElasticsearch postElasticsearch = postElasticsearchRepository.findByPostId(postId).orElse(null);
-
-        if (postToDelete == null || postElasticsearch == null) {
-            log.warn(LogMessages.POST_DELETE_FAILED.getMessage(), postId);
-            throw new NotFound();
+    @Transactional
+    public boolean markDeleted(final Long postId, final Long patronId) {
+        boolean marked = postRepository.markDeleted(postId, patronId, LocalDateTime.now()) == 1;
+        if (marked) {
+            log.info(LogMessages.POST_MARKED_DELETED.getMessage(), postId);
         }
+        return marked;
+    }
 
-        postElasticsearchRepository.delete(postElasticsearch);
-        postRepository.delete(postToDelete);
-
-        log.info(LogMessages.POST_DELETE_SUCCESS.getMessage(), postId);
+    /**
+     * Checks whether a visible post exists.
+     *
+     * @param postId the ID of the post
+     * @return {@code true} if the post exists and is not deleted
+     */
+    public boolean existsById(final Long postId) {
+        return postRepository.existsById(postId);
     }
 
     /**
@@ -155,75 +194,146 @@ public class PostService {
     }
 
     /**
-     * Adds a folder to multiple posts.
+     * Retrieves the cards of the posts of a patron, newest first.
      *
-     * @param posts     a list of posts to which the folder will be added
-     * @param newFolder the folder to add to the posts
+     * @param patronId the ID of the patron whose posts are to be retrieved
+     * @return a list of post cards belonging to the specified patron
      */
-    public void addFolderToPosts(final List<Post> posts, final Folder newFolder) {
-        posts.forEach(post -> post.getFolders().add(newFolder));
-        postRepository.saveAll(posts);
-        log.info(LogMessages.FOLDER_ADDED_TO_POSTS.getMessage(), newFolder);
+    @Transactional(readOnly = true)
+    public List<PostCard> getPostsByPatronId(final Long patronId) {
+        return withTags(postRepository.findCardsByPatronId(patronId));
     }
 
     /**
-     * Deletes a folder from multiple posts.
+     * Streams the cards of all posts in ID order.
+     * <p>
+     * Cards are read through a database cursor and passed on chunk by chunk, so memory use does
+     * not depend on the number of posts.
+     * </p>
      *
-     * @param folder the folder to remove from the posts
-     * @param posts  a list of posts from which the folder will be removed
+     * @param consumer the consumer of every card
      */
-    public void deleteFolderFromPosts(final Folder folder, final List<Post> posts) {
-        log.info(LogMessages.FOLDER_DELETE_FROM_POSTS_ATTEMPT.getMessage(), folder.getId(), posts.size());
-
-        posts.forEach(post -> {
-            if (post.getFolders().remove(folder)) {
-                log.info(LogMessages.FOLDER_REMOVED_FROM_POST.getMessage(), folder.getId(), post.getId());
-            } else {
-                log.warn(LogMessages.FOLDER_NOT_FOUND_IN_POST.getMessage(), folder.getId(), post.getId());
-            }
-        });
+    @Transactional(readOnly = true)
+    public void streamCards(final Consumer<PostCard> consumer) {
+        try (Stream<PostCard> cards = postRepository.streamCards()) {
+            StreamChunks.forEachChunk(cards, STREAM_CHUNK_SIZE, chunk -> withTags(chunk).forEach(consumer));
+        }
+    }
 
-        postRepository.saveAll(posts);
-        log.info(LogMessages.POSTS_UPDATE_SUCCESS.getMessage(), folder.getId());
+    /**
+     * Streams the cards of the posts of a patron, newest first.
+     *
+     * @param patronId the ID of the patron whose posts are to be streamed
+     * @param consumer the consumer of every card
+     */
+    @Transactional(readOnly = true)
+    public void streamCardsByPatronId(final Long patronId, final Consumer<PostCard> consumer) {
+        try (Stream<PostCard> cards = postRepository.streamCardsByPatronId(patronId)) {
+            StreamChunks.forEachChunk(cards, STREAM_CHUNK_SIZE, chunk -> withTags(chunk).forEach(consumer));
+        }
     }
 
     /**
-     * Deletes a folder from a single post.
+     * Retrieves one page of post cards.
      *
-     * @param folder the folder to remove from the post
-     * @param post   the post from which the folder will be removed
+     * @param pageable the pagination information
+     * @return a page of post cards
      */
-    public void deleteFolderFromPost(final Folder folder, final Post post) {
-        log.info(LogMessages.FOLDER_DELETE_ATTEMPT_FROM_POST.getMessage(), folder.getId(), post.getId());
+    @Transactional(readOnly = true)
+    public Page<PostCard> readCards(final Pageable pageable) {
+        Page<PostCard> cards = postRepository.findCards(pageable);
+        withTags(cards.getContent());
+        return cards;
+    }
 
-        if (post.getFolders().remove(folder)) {
-            postRepository.save(post);
-            log.info(LogMessages.FOLDER_DELETE_SUCCESS_FROM_POST.getMessage(), folder.getId(), post.getId());
+    /**
+     * Retrieves one keyset page of the newest post cards, optionally created since a given time.
+     * <p>
+     * Pages are read from the {@code (created_at, id)} index in the database.
+     * </p>
+     *
+     * @param since  the earliest creation time to include, or {@code null} for all posts
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of cards to return
+     * @return a page of post cards, newest first, with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostCard> readNewestCardsAfter(final LocalDateTime since, final String cursor, final int size)
+            throws InvalidCursor {
+        LocalDateTime lowerBound = since == null ? NO_LOWER_BOUND : since;
+        Pageable limit = PageRequest.of(0, size);
+
+        List<PostCard> cards;
+        if (cursor == null) {
+            cards = postRepository.findNewestCards(lowerBound, limit);
         } else {
-            log.warn(LogMessages.FOLDER_NOT_FOUND_IN_POST.getMessage(), folder.getId(), post.getId());
+            List<String> values = CursorCodec.decode(cursor, 2);
+            cards = postRepository.findNewestCardsBefore(lowerBound, CursorCodec.parseDateTime(values.get(0)),
+                    CursorCodec.parseLong(values.get(1)), limit);
         }
+        return cursorPage(cards, size, card -> List.of(card.getCreatedAt(), card.getId()));
     }
 
     /**
-     * Deletes a tag from multiple posts.
+     * Retrieves one keyset page of the newest post cards carrying a tag, optionally created since a given time.
+     * <p>
+     * Pages are read from Elasticsearch, sorted on the {@code createdAt} doc values of the
+     * documents with the tag, and the cards are then loaded by ID.
+     * </p>
      *
-     * @param tag   the tag to remove from the posts
-     * @param posts a list of posts from which the tag will be removed
+     * @param tag    the tag name the posts must carry
+     * @param since  the earliest creation time to include, or {@code null} for all posts
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of cards to return
+     * @return a page of post cards, newest first, with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
      */
-    public void deleteTagsFromPost(final Tag tag, final List<Post> posts) {
-        posts.forEach(post -> post.getTags().remove(tag));
-        postRepository.saveAll(posts);
-        log.info(LogMessages.TAG_REMOVED_FROM_POSTS.getMessage(), tag);
+    @Transactional(readOnly = true)
+    public CursorPage<PostCard> readNewestCardsByTagAfter(final String tag, final LocalDateTime since,
+                                                          final String cursor, final int size) throws InvalidCursor {
+        List<Object> searchAfter = null;
+        if (cursor != null) {
+            List<String> values = CursorCodec.decode(cursor, 2);
+            searchAfter = List.of(CursorCodec.parseLong(values.get(0)), CursorCodec.parseLong(values.get(1)));
+        }
+
+        RankedPostIds newest = postSearchRepository.newestAfter(tag, since, searchAfter, size);
+
+        String nextCursor = newest.getPostIds().size() < size ? null : CursorCodec.encode(newest.getLastSortValues());
+        return new CursorPage<>(readCardsByIdsInOrder(newest.getPostIds()), nextCursor);
     }
 
     /**
-     * Retrieves posts by the patron's ID.
+     * Retrieves one keyset page of the cards of the posts of a patron, newest first.
      *
      * @param patronId the ID of the patron whose posts are to be retrieved
-     * @return a list of posts belonging to the specified patron
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page
+     * @param size     the maximum number of cards to return
+     * @return a page of post cards with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostCard> readCardsByPatronIdAfter(final Long patronId, final String cursor, final int size)
+            throws InvalidCursor {
+        return cursorPage(postRepository.findCardsByPatronIdBefore(
+                patronId, beforeId(cursor), PageRequest.of(0, size)), size, card -> List.of(card.getId()));
+    }
+
+    /**
+     * Retrieves one keyset page of the cards of the posts in a folder, newest first.
+     *
+     * @param folderId the ID of the folder whose posts are to be retrieved
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page
+     * @param size     the maximum number of cards to return
+     * @return a page of post cards with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
      */
-    public List<Post> getPostsByPatronId(final Long patronId) {
-        return postRepository.findAllByPatronId(patronId);
+    @Transactional(readOnly = true)
+    public CursorPage<PostCard> readCardsInFolderAfter(final Long folderId, final String cursor, final int size)
+            throws InvalidCursor {
+        return cursorPage(postRepository.findCardsInFolderBefore(
+                folderId, beforeId(cursor), PageRequest.of(0, size)), size, card -> List.of(card.getId()));
     }
 
     /**
@@ -240,10 +350,10 @@ public class PostService {
      *
      * @param keyword  the search keyword
      * @param pageable the pagination information
-     * @return a page of posts matching the search keyword
+     * @return a page of post cards matching the search keyword
      */
-    @Transactional
-    public Page<Post> search(final String keyword, final Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<PostCard> search(final String keyword, final Pageable pageable) {
         log.info(LogMessages.POST_SEARCH_ATTEMPT.getMessage(), keyword);
 
         Page<PostElasticsearch> posts =
@@ -251,14 +361,44 @@ public class PostService {
 
         if (posts.isEmpty()) {
             log.warn(LogMessages.POST_SEARCH_NO_RESULTS.getMessage(), keyword);
-            return Page.empty(pageable);
+            return new PageImpl<>(List.of(), pageable, posts.getTotalElements());
         }
 
         List<Long> ids = new ArrayList<>();
         posts.forEach(post -> ids.add(post.getPostId()));
 
         log.info(LogMessages.POST_SEARCH_RESULTS_FOUND.getMessage(), posts.getTotalElements());
-        return postRepository.findAllByIds(ids, pageable);
+        return new PageImpl<>(readCardsByIdsInOrder(ids), pageable, posts.getTotalElements());
+    }
+
+    /**
+     * Searches for posts containing the specified keyword using keyset pagination.
+     * <p>
+     * Unlike {@link #search(String, Pageable)} the page position is carried by the cursor and no
+     * total is counted, so deep pages cost the same as the first one.
+     * </p>
+     *
+     * @param keyword the search keyword
+     * @param cursor  the cursor returned with the previous page, or {@code null} for the first page
+     * @param size    the maximum number of cards to return
+     * @return a page of post cards matching the keyword with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostCard> searchAfter(final String keyword, final String cursor, final int size)
+            throws InvalidCursor {
+        log.info(LogMessages.POST_SEARCH_ATTEMPT.getMessage(), keyword);
+
+        List<Object> searchAfter = null;
+        if (cursor != null) {
+            List<String> values = CursorCodec.decode(cursor, 2);
+            searchAfter = List.of(CursorCodec.parseDouble(values.get(0)), CursorCodec.parseLong(values.get(1)));
+        }
+
+        RankedPostIds ranked = postSearchRepository.searchAfter(keyword, searchAfter, size);
+
+        String nextCursor = ranked.getPostIds().size() < size ? null : CursorCodec.encode(ranked.getLastSortValues());
+        return new CursorPage<>(readCardsByIdsInOrder(ranked.getPostIds()), nextCursor);
     }
 
     /**
@@ -266,26 +406,19 @@ public class PostService {
      *
      * @param commentId the ID of the comment to be deleted
      * @param postId the ID of the post from which the comment is to be deleted
-     * @param currentUser the {@link User} who is attempting to delete the comment
+     * @param currentUser the {@link AuthenticatedUser} who is attempting to delete the comment
      * @throws NotFound if the post or comment with the given ID is not found
      * @throws UnauthorizedActionException if the current user is not authorized to delete the comment
      */
     public void deleteCommentFromPost(final Long commentId,
                                       final Long postId,
-                                      final User currentUser) throws NotFound, UnauthorizedActionException {
-        // Retrieve the post by its ID
-        Post post = getPostById(postId);
-
-        if (post == null) {
-            log.warn("Post with id {} not found.", postId);
-            throw new NotFound();
-        }
-
-        // Retrieve the comment by its ID
+                                      final AuthenticatedUser currentUser)
+            throws NotFound, UnauthorizedActionException {
+        // Retrieve the comment by its ID; the post itself is never loaded
         Comment comment = commentService.getById(commentId);
 
-        if (comment == null) {
-            log.warn("Comment with id {} not found.", commentId);
+        if (!comment.getPost().getId().equals(postId)) {
+            log.warn("Comment with id {} not found in post with id {}", commentId, postId);
             throw new NotFound();
         }
 
@@ -296,26 +429,85 @@ public class PostService {
             throw new UnauthorizedActionException();
         }
 
-        // Attempt to remove the comment from the post
-        if (post.getComments().remove(comment)) {
-            postRepository.save(post);
-            log.info("Comment with id {} successfully deleted from post with id {}",
-                    comment.getId(), post.getId());
-        } else {
-            log.warn("Comment with id {} not found in post with id {}", comment.getId(), post.getId());
+        commentService.deleteFromPost(comment, postId);
+        log.info("Comment with id {} successfully deleted from post with id {}", commentId, postId);
+    }
+
+
+    /**
+     * Retrieves post cards by their IDs in the order of the given IDs.
+     * <p>
+     * Used to hydrate hits ranked by Elasticsearch: all cards are loaded with one query and
+     * returned in rank order. IDs of posts that no longer exist are skipped.
+     * </p>
+     *
+     * @param ids a list of post IDs to retrieve, in the desired order
+     * @return the cards of the posts with the specified IDs, in the same order
+     */
+    @Transactional(readOnly = true)
+    public List<PostCard> readCardsByIdsInOrder(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, PostCard> cardsById = new HashMap<>();
+        postRepository.findCardsByIds(ids).forEach(card -> cardsById.put(card.getId(), card));
+
+        List<PostCard> cards = new ArrayList<>(ids.size());
+        ids.forEach(id -> {
+            PostCard card = cardsById.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        });
+        return withTags(cards);
+    }
+
+    /**
+     * Decodes the cursor of a post ID keyset page.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @return the ID of the last post of the previous page, or {@link Long#MAX_VALUE} for the first page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    private static long beforeId(final String cursor) throws InvalidCursor {
+        if (cursor == null) {
+            return Long.MAX_VALUE;
         }
+        return CursorCodec.parseLong(CursorCodec.decode(cursor, 1).get(0));
     }
 
+    /**
+     * Completes a keyset page with its tags and the cursor of the next page.
+     *
+     * @param cards      the cards of the page, in keyset order
+     * @param size       the requested page size
+     * @param sortValues extracts the keyset sort values of a card
+     * @return the page; its cursor is {@code null} if the page is not full
+     */
+    private CursorPage<PostCard> cursorPage(final List<PostCard> cards, final int size,
+                                            final Function<PostCard, List<?>> sortValues) {
+        String nextCursor = cards.size() < size
+                ? null
+                : CursorCodec.encode(sortValues.apply(cards.get(cards.size() - 1)));
+        return new CursorPage<>(withTags(cards), nextCursor);
+    }
 
     /**
-     * Retrieves posts by their IDs with pagination.
+     * Fills in the tag names of post cards with one query.
      *
-     * @param ids      a list of post IDs to retrieve
-     * @param pageable the pagination information
-     * @return a page of posts with the specified IDs
+     * @param cards the cards to complete
+     * @return the same cards
      */
-    @Transactional
-    public Page<Post> readAllByIds(final List<Long> ids, final Pageable pageable) {
-        return postRepository.findAllByIds(ids, pageable);
+    private List<PostCard> withTags(final List<PostCard> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+
+        Map<Long, PostCard> cardsById = new HashMap<>();
+        cards.forEach(card -> cardsById.put(card.getId(), card));
+        postRepository.findTagNamesByPostIds(cardsById.keySet())
+                .forEach(row -> cardsById.get(row.getPostId()).getTags().add(row.getTagName()));
+        return cards;
     }
 }
@@ -2,23 +2,21 @@ package org.gordeser.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.gordeser.backend.client.AssociationServiceClient;
-import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
-import org.gordeser.backend.entity.Post;
-import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.RankedPostIds;
+import org.gordeser.backend.elasticsearch.RecommendationSearchRepository;
 import org.gordeser.backend.entity.Tag;
 import org.gordeser.backend.entity.User;
-import org.gordeser.backend.exception.ServiceUnavailableException;
-import org.gordeser.backend.messages.ExceptionMessages;
-import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.exception.InvalidCursor;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.util.CursorCodec;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Service class for managing post recommendations.
@@ -30,91 +28,134 @@ import java.util.stream.Stream;
 @Slf4j
 public class RecommendationService {
     /**
-     * Repository for managing Post entities in the database.
+     * Repository for ranking the recommendation feed in Elasticsearch.
      */
-    private final PostRepository postRepository;
-    /**
-     * Repository for managing Post elastic search entities in the database.
-     */
-    private final PostElasticsearchRepository postElasticsearchRepository;
+    private final RecommendationSearchRepository recommendationSearchRepository;
     /**
      * Service for post entity.
      */
     private final PostService postService;
     /**
-     * client for python association service.
+     * Service for cached tag associations.
      */
-    private final AssociationServiceClient associationServiceClient;
+    private final AssociationService associationService;
 
     /**
      * Retrieves recommended posts for the given user.
+     * <p>
+     * The page is ranked by a single Elasticsearch query, see {@link RecommendationSearchRepository}.
+     * </p>
      *
      * @param currentUser the current user for whom to retrieve recommendations
      * @param pageable    pagination information
-     * @return a page of recommended posts
+     * @return a page of recommended post cards
      */
-    public Page<Post> recommendedPosts(
+    public Page<PostCard> recommendedPosts(
             final User currentUser, final Pageable pageable
-    ) throws ServiceUnavailableException {
-        List<Tag> preferredTags = currentUser.getPreferredTags();
+    ) {
+        List<String> tagNames = preferredTagNames(currentUser);
+
+        if (tagNames.isEmpty()) {
+            return this.getGuestPosts(pageable);
+        }
 
-        if (preferredTags.isEmpty()) {
+        RankedPostIds ranked = recommendationSearchRepository.rank(tagNames, associatedTags(tagNames), pageable);
+
+        if (ranked.getTotalHits() == 0) {
             return this.getGuestPosts(pageable);
         }
 
-        List<String> tagNames = preferredTags.stream()
+        List<PostCard> posts = postService.readCardsByIdsInOrder(ranked.getPostIds());
+        return new PageImpl<>(posts, pageable, ranked.getTotalHits());
+    }
+
+    /**
+     * Retrieves recommended posts for the given user using keyset pagination.
+     * <p>
+     * Unlike {@link #recommendedPosts(User, Pageable)} the page position is carried by the
+     * cursor, so deep pages cost the same as the first one and stay stable while posts are added.
+     * </p>
+     *
+     * @param currentUser the current user for whom to retrieve recommendations
+     * @param cursor      the cursor returned with the previous page, or {@code null} for the first page
+     * @param size        the maximum number of posts to return
+     * @return a page of recommended post cards with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    public CursorPage<PostCard> recommendedPostsAfter(
+            final User currentUser, final String cursor, final int size
+    ) throws InvalidCursor {
+        List<Object> searchAfter = null;
+        if (cursor != null) {
+            List<String> values = CursorCodec.decode(cursor, 2);
+            searchAfter = List.of(CursorCodec.parseDouble(values.get(0)), CursorCodec.parseLong(values.get(1)));
+        }
+
+        List<String> tagNames = preferredTagNames(currentUser);
+        List<String> associatedTags = tagNames.isEmpty() ? List.of() : associatedTags(tagNames);
+
+        RankedPostIds ranked = recommendationSearchRepository.rankAfter(tagNames, associatedTags, searchAfter, size);
+
+        String nextCursor = ranked.getPostIds().size() < size ? null : CursorCodec.encode(ranked.getLastSortValues());
+        return new CursorPage<>(postService.readCardsByIdsInOrder(ranked.getPostIds()), nextCursor);
+    }
+
+    /**
+     * Returns the names of the preferred tags of the user.
+     *
+     * @param currentUser the user
+     * @return the preferred tag names
+     */
+    private List<String> preferredTagNames(final User currentUser) {
+        return currentUser.getPreferredTags().stream()
                 .map(Tag::getName)
                 .toList();
+    }
 
+    /**
+     * Retrieves the tags associated with the preferred ones, excluding the preferred tags themselves.
+     * <p>
+     * If the association service is unavailable the feed degrades to the preferred tags alone
+     * instead of failing the request.
+     * </p>
+     *
+     * @param tagNames the preferred tag names
+     * @return the associated tag names, empty while the association service is unavailable
+     */
+    private List<String> associatedTags(final List<String> tagNames) {
         List<String> recommendedTags;
         try {
-            recommendedTags = associationServiceClient.getAssociations(tagNames);
+            recommendedTags = associationService.getAssociations(tagNames);
         } catch (Exception ex) {
-            throw new ServiceUnavailableException(ExceptionMessages.SERVICE_UNAVAIABLE.getMessage(), ex);
+            log.warn(LogMessages.RECOMMENDATION_DEGRADED.getMessage(), ex.getMessage());
+            return List.of();
         }
 
-        List<String> combinedTags = Stream.concat(tagNames.stream(), recommendedTags.stream())
+        return recommendedTags.stream()
+                .filter(tag -> !tagNames.contains(tag))
                 .distinct()
                 .toList();
-
-        Page<PostElasticsearch> postsWithTags = postElasticsearchRepository.findPostsByTags(combinedTags, pageable);
-        Page<PostElasticsearch> postsExcludingTags =
-                postElasticsearchRepository.findPostsExcludingTags(combinedTags, pageable);
-        Page<PostElasticsearch> postsWithoutTags = postElasticsearchRepository.findPostsWithoutTags(pageable);
-
-        List<PostElasticsearch> combinedPosts = Stream.concat(
-                        Stream.concat(
-                                postsWithTags.getContent().stream(),
-                                postsExcludingTags.getContent().stream()
-                        ),
-                        postsWithoutTags.getContent().stream()
-                )
-                .distinct()
-                .toList();
-
-        if (combinedPosts.isEmpty()) {
-            return this.getGuestPosts(pageable);
-        }
-
-        List<Long> postIds = combinedPosts.stream()
-                .map(PostElasticsearch::getPostId)
-                .toList();
-
-        return postService.readAllByIds(postIds, pageable);
     }
 
-
     /**
-     * Retrieves guest posts for users who are not logged in.
+     * Retrieves guest posts for users who are not logged in, newest first.
      *
      * @param pageable pagination information
-     * @return a page of guest posts
+     * @return a page of guest post cards
      */
-    public Page<Post> getGuestPosts(final Pageable pageable) {
-        Page<Post> posts = postRepository.findAll(pageable);
-
-        List<Post> guestPosts = new ArrayList<>(posts.getContent());
+    public Page<PostCard> getGuestPosts(final Pageable pageable) {
+        return postService.readCards(pageable);
+    }
 
-        return new PageImpl<>(guestPosts, pageable, posts.getTotalElements());
+    /**
+     * Retrieves guest posts using keyset pagination, newest first.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the maximum number of posts to return
+     * @return a page of guest post cards with the cursor of the next page
+     * @throws InvalidCursor if the cursor is malformed
+     */
+    public CursorPage<PostCard> getGuestPostsAfter(final String cursor, final int size) throws InvalidCursor {
+        return postService.readNewestCardsAfter(null, cursor, size);
     }
 }
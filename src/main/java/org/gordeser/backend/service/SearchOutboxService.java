@@ -0,0 +1,228 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.entity.SearchOutboxEvent;
+import org.gordeser.backend.mapper.PostMapper;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.SearchOutboxRepository;
+import org.gordeser.backend.util.RetryBackoff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service class for propagating post changes to Elasticsearch through the search outbox.
+ * <p>
+ * Post writes only record an outbox event in their own transaction. A scheduled dispatcher
+ * drains the due events in batches, collapses several events of the same post into the latest
+ * one and applies them with one bulk index and one bulk delete request. Failed batches stay in
+ * the outbox and are retried with an exponential backoff, so an Elasticsearch outage delays
+ * indexing but never fails a user request or loses a change.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchOutboxService {
+
+    /**
+     * Repository for accessing the search outbox.
+     */
+    private final SearchOutboxRepository outboxRepository;
+
+    /**
+     * Repository for managing posts in Elasticsearch.
+     */
+    private final PostElasticsearchRepository elasticsearchRepository;
+
+    /**
+     * Service used to load posts in their indexed form.
+     */
+    private final ElasticsearchSyncService syncService;
+
+    /**
+     * Template used to run every dispatched batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether the scheduled dispatcher is enabled.
+     */
+    @Value("${search.outbox.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of outbox events dispatched in one batch.
+     */
+    @Value("${search.outbox.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Delay before the first retry of a failed batch in milliseconds.
+     */
+    @Value("${search.outbox.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    /**
+     * Upper bound of the retry delay in milliseconds.
+     */
+    @Value("${search.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    /**
+     * Records that a post must be (re)indexed.
+     * <p>
+     * Must be called inside the transaction that writes the post.
+     * </p>
+     *
+     * @param postId the ID of the created or updated post
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueIndex(final Long postId) {
+        enqueue(postId, SearchOutboxEvent.Operation.INDEX);
+    }
+
+    /**
+     * Records that the document of a post must be removed from the index.
+     * <p>
+     * Must be called inside the transaction that deletes the post.
+     * </p>
+     *
+     * @param postId the ID of the deleted post
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueDelete(final Long postId) {
+        enqueue(postId, SearchOutboxEvent.Operation.DELETE);
+    }
+
+    /**
+     * Periodically drains the outbox until no due events are left.
+     */
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval:PT1S}")
+    public void scheduledDispatch() {
+        if (!enabled) {
+            return;
+        }
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched >= batchSize);
+    }
+
+    /**
+     * Dispatches one batch of due outbox events in its own transaction.
+     *
+     * @return the number of events taken from the outbox, whether they succeeded or were rescheduled
+     */
+    public int dispatchBatch() {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<SearchOutboxEvent> events = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                apply(events);
+                outboxRepository.deleteAllInBatch(events);
+                log.debug(LogMessages.OUTBOX_BATCH_DISPATCHED.getMessage(), events.size());
+            } catch (RuntimeException e) {
+                reschedule(events, now, e);
+            }
+            return events.size();
+        });
+        return dispatched == null ? 0 : dispatched;
+    }
+
+    /**
+     * Applies the latest event of every post in the batch to Elasticsearch.
+     *
+     * @param events the outbox events, ordered by their ID
+     */
+    private void apply(final List<SearchOutboxEvent> events) {
+        Map<Long, SearchOutboxEvent.Operation> latest = new LinkedHashMap<>();
+        events.forEach(event -> latest.put(event.getPostId(), event.getOperation()));
+
+        Set<Long> toIndex = new HashSet<>();
+        Set<Long> toDelete = new TreeSet<>();
+        latest.forEach((postId, operation) -> {
+            if (operation == SearchOutboxEvent.Operation.INDEX) {
+                toIndex.add(postId);
+            } else {
+                toDelete.add(postId);
+            }
+        });
+
+        List<PostElasticsearch> documents = syncService.loadDocuments(toIndex);
+        documents.forEach(document -> toIndex.remove(document.getPostId()));
+        // Posts deleted after their index event was recorded have nothing left to index.
+        toDelete.addAll(toIndex);
+
+        if (!documents.isEmpty()) {
+            elasticsearchRepository.saveAll(documents);
+        }
+        if (!toDelete.isEmpty()) {
+            List<String> documentIds = new ArrayList<>();
+            toDelete.forEach(postId -> documentIds.add(PostMapper.documentId(postId)));
+            elasticsearchRepository.deleteAllById(documentIds);
+        }
+    }
+
+    /**
+     * Keeps the events of a failed batch in the outbox and postpones their next attempt.
+     *
+     * @param events the events of the failed batch
+     * @param now    the time the batch was taken
+     * @param error  the error that failed the batch
+     */
+    private void reschedule(final List<SearchOutboxEvent> events, final LocalDateTime now,
+                            final RuntimeException error) {
+        events.forEach(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setAvailableAt(RetryBackoff.nextAttemptAt(now, event.getAttempts(), baseBackoffMs, maxBackoffMs));
+            event.setLastError(RetryBackoff.lastError(error));
+        });
+        outboxRepository.saveAll(events);
+        log.warn(LogMessages.OUTBOX_BATCH_FAILED.getMessage(), events.size(), error.getMessage());
+    }
+
+    /**
+     * Records an outbox event that is due immediately.
+     *
+     * @param postId    the ID of the post
+     * @param operation the change to apply to the index
+     */
+    private void enqueue(final Long postId, final SearchOutboxEvent.Operation operation) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(SearchOutboxEvent.builder()
+                .postId(postId)
+                .operation(operation)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,366 @@
+/**
+ * This package contains service classes for the photo service application.
+ * <p>
+ * These services handle the business logic and serve as intermediaries between
+ * controllers and repositories.
+ * </p>
+ */
+package org.gordeser.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.elasticsearch.TagIndexRepository;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
+import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.messages.LogMessages;
+import org.gordeser.backend.repository.TagJobRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.util.RetryBackoff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service class for submitting and running tag jobs.
+ * <p>
+ * Deleting, renaming and merging a tag touches every post and user carrying it, so these
+ * changes are recorded as {@link TagJob}s and run in the background. A job runs in two steps:
+ * the database step rewrites the join tables with set-based statements in a transaction holding
+ * the job row and never loads posts or users, the index step updates the search documents with
+ * one {@code update_by_query} task. The task is started and then polled on later runs outside of
+ * any transaction, so no database connection or row lock is held while Elasticsearch works; the
+ * job is leased to the worker meanwhile. A failed index step is retried with an exponential
+ * backoff; the database step is not repeated. After the configured number of attempts the job fails,
+ * so the jobs queued behind it can run. The jobs of a tag run one at a time, and each
+ * resolves the names it needs when its database step runs, so it sees the tag as the earlier
+ * jobs left it.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TagJobService {
+
+    /**
+     * Statuses of jobs that still have a step to run.
+     */
+    private static final List<TagJob.Status> UNFINISHED = List.of(TagJob.Status.PENDING, TagJob.Status.INDEXING);
+
+    /**
+     * Repository for accessing tag jobs.
+     */
+    private final TagJobRepository tagJobRepository;
+
+    /**
+     * Repository for rewriting tags and their join tables.
+     */
+    private final TagRepository tagRepository;
+
+    /**
+     * Repository for changing tags in the search documents.
+     */
+    private final TagIndexRepository tagIndexRepository;
+
+    /**
+     * Template used to run every job step in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether the scheduled worker is enabled.
+     */
+    @Value("${tag.jobs.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Time other workers keep off a job whose index step is running.
+     */
+    @Value("${tag.jobs.index-lease:PT5M}")
+    private Duration indexLease;
+
+    /**
+     * Delay between two polls of a running index task.
+     */
+    @Value("${tag.jobs.task-poll-interval:PT5S}")
+    private Duration taskPollInterval;
+
+    /**
+     * Delay before the first retry of a failed index step in milliseconds.
+     */
+    @Value("${tag.jobs.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    /**
+     * Upper bound of the retry delay in milliseconds.
+     */
+    @Value("${tag.jobs.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    /**
+     * Number of failed index steps after which a job fails.
+     */
+    @Value("${tag.jobs.max-attempts:10}")
+    private int maxAttempts;
+
+    /**
+     * Records a job that deletes a tag.
+     *
+     * @param tag the tag to delete
+     * @return the submitted job
+     */
+    @Transactional
+    public TagJob submitDelete(final Tag tag) {
+        return submit(TagJob.Operation.DELETE, tag, null, null);
+    }
+
+    /**
+     * Records a job that renames a tag.
+     *
+     * @param tag  the tag to rename
+     * @param name the new name
+     * @return the submitted job
+     */
+    @Transactional
+    public TagJob submitRename(final Tag tag, final String name) {
+        return submit(TagJob.Operation.RENAME, tag, null, name);
+    }
+
+    /**
+     * Records a job that merges a tag into another one.
+     *
+     * @param tag    the tag to merge and delete
+     * @param target the tag that takes over the posts and users
+     * @return the submitted job
+     */
+    @Transactional
+    public TagJob submitMerge(final Tag tag, final Tag target) {
+        return submit(TagJob.Operation.MERGE, tag, target.getId(), target.getName());
+    }
+
+    /**
+     * Retrieves a job by its ID.
+     *
+     * @param jobId the ID of the job
+     * @return the job
+     * @throws NotFound if the job is not found
+     */
+    public TagJob getJobById(final Long jobId) throws NotFound {
+        TagJob job = tagJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            log.warn(LogMessages.TAG_JOB_NOT_FOUND.getMessage(), jobId);
+            throw new NotFound();
+        }
+        return job;
+    }
+
+    /**
+     * Periodically runs due job steps until none are left.
+     */
+    @Scheduled(fixedDelayString = "${tag.jobs.poll-interval:PT1S}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        boolean ran;
+        do {
+            ran = runNext();
+        } while (ran);
+    }
+
+    /**
+     * Runs the next step of the oldest due job.
+     * <p>
+     * The job is taken in its own transaction, which also runs the database step of a pending job.
+     * A job that has reached the index step is leased and its index step is then run outside of
+     * the transaction.
+     * </p>
+     *
+     * @return whether a step was run, whether it succeeded or was rescheduled
+     */
+    public boolean runNext() {
+        LocalDateTime now = LocalDateTime.now();
+        TagJob job = transactionTemplate.execute(status -> {
+            List<TagJob> jobs = tagJobRepository.findDue(UNFINISHED, now, PageRequest.of(0, 1));
+            if (jobs.isEmpty()) {
+                return null;
+            }
+            TagJob dueJob = jobs.get(0);
+            if (dueJob.getStatus() == TagJob.Status.PENDING) {
+                applyToDatabase(dueJob, now);
+            }
+            if (dueJob.getStatus() == TagJob.Status.INDEXING) {
+                dueJob.setAvailableAt(now.plus(indexLease));
+            }
+            return tagJobRepository.save(dueJob);
+        });
+        if (job == null) {
+            return false;
+        }
+        if (job.getStatus() == TagJob.Status.INDEXING) {
+            applyToIndex(job, now);
+            transactionTemplate.executeWithoutResult(status -> tagJobRepository.save(job));
+        }
+        return true;
+    }
+
+    /**
+     * Rewrites the tag and its join table rows and moves the job to the index step.
+     * <p>
+     * The current names of the tag and the merge target are recorded on the job for the index step.
+     * Renames to a name taken in the meantime and jobs whose tag or merge target was deleted in the
+     * meantime fail without changing anything. A rename to the current name finishes at once.
+     * </p>
+     *
+     * @param job the job
+     * @param now the time the step was taken
+     */
+    private void applyToDatabase(final TagJob job, final LocalDateTime now) {
+        Long tagId = job.getTagId();
+        Optional<String> tagName = tagRepository.findNameById(tagId);
+        if (tagName.isEmpty()) {
+            if (job.getOperation() != TagJob.Operation.DELETE) {
+                fail(job, now, "Tag not found: " + tagId);
+                return;
+            }
+            // Deleted by another job; its documents may still carry the name.
+            job.setAffectedPosts(0L);
+        } else {
+            job.setTagName(tagName.get());
+            switch (job.getOperation()) {
+                case DELETE -> {
+                    job.setAffectedPosts((long) tagRepository.deletePostLinks(tagId));
+                    tagRepository.deleteUserLinks(tagId);
+                    tagRepository.deleteWithoutLinks(tagId);
+                }
+                case RENAME -> {
+                    if (job.getTargetName().equals(tagName.get())) {
+                        job.setAffectedPosts(0L);
+                        job.setUpdatedDocuments(0L);
+                        job.setStatus(TagJob.Status.DONE);
+                        job.setFinishedAt(now);
+                        log.info(LogMessages.TAG_JOB_DONE.getMessage(), job.getId(), 0L);
+                        return;
+                    }
+                    if (tagRepository.findByName(job.getTargetName()).isPresent()) {
+                        fail(job, now, "Tag name already exists: " + job.getTargetName());
+                        return;
+                    }
+                    tagRepository.rename(tagId, job.getTargetName());
+                }
+                case MERGE -> {
+                    Optional<String> targetName = tagRepository.findNameById(job.getTargetTagId());
+                    if (targetName.isEmpty()) {
+                        fail(job, now, "Target tag not found: " + job.getTargetTagId());
+                        return;
+                    }
+                    job.setTargetName(targetName.get());
+                    tagRepository.copyPostLinks(tagId, job.getTargetTagId());
+                    tagRepository.copyUserLinks(tagId, job.getTargetTagId());
+                    job.setAffectedPosts((long) tagRepository.deletePostLinks(tagId));
+                    tagRepository.deleteUserLinks(tagId);
+                    tagRepository.deleteWithoutLinks(tagId);
+                }
+            }
+        }
+        job.setStatus(TagJob.Status.INDEXING);
+        job.setAvailableAt(now);
+        log.info(LogMessages.TAG_JOB_DATABASE_DONE.getMessage(), job.getId(), job.getOperation(),
+                job.getTagName(), job.getAffectedPosts());
+    }
+
+    /**
+     * Starts the index task of a job, or polls the running one and finishes the job once it is done.
+     * <p>
+     * A failed or lost task is rescheduled with a backoff and started again, until the job has
+     * failed the configured number of times.
+     * </p>
+     *
+     * @param job the leased job
+     * @param now the time the step was taken
+     */
+    private void applyToIndex(final TagJob job, final LocalDateTime now) {
+        try {
+            if (job.getIndexTaskId() == null) {
+                String taskId = job.getOperation() == TagJob.Operation.DELETE
+                        ? tagIndexRepository.startRemoveTag(job.getTagName())
+                        : tagIndexRepository.startReplaceTag(job.getTagName(), job.getTargetName());
+                job.setIndexTaskId(taskId);
+                job.setAvailableAt(now.plus(taskPollInterval));
+                log.info(LogMessages.TAG_JOB_INDEX_STARTED.getMessage(), job.getId(), taskId);
+                return;
+            }
+            Optional<Long> updated = tagIndexRepository.findUpdatedDocuments(job.getIndexTaskId());
+            if (updated.isEmpty()) {
+                job.setAvailableAt(now.plus(taskPollInterval));
+                return;
+            }
+            job.setIndexTaskId(null);
+            job.setUpdatedDocuments(updated.get());
+            job.setStatus(TagJob.Status.DONE);
+            job.setFinishedAt(now);
+            log.info(LogMessages.TAG_JOB_DONE.getMessage(), job.getId(), updated.get());
+        } catch (RuntimeException e) {
+            job.setIndexTaskId(null);
+            job.setAttempts(job.getAttempts() + 1);
+            if (job.getAttempts() >= maxAttempts) {
+                fail(job, now, RetryBackoff.truncate(
+                        "Index step failed " + job.getAttempts() + " times: " + e.getMessage()));
+                return;
+            }
+            job.setAvailableAt(RetryBackoff.nextAttemptAt(now, job.getAttempts(), baseBackoffMs, maxBackoffMs));
+            job.setLastError(RetryBackoff.lastError(e));
+            log.warn(LogMessages.TAG_JOB_INDEX_FAILED.getMessage(), job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Marks a job as failed.
+     *
+     * @param job    the job
+     * @param now    the time the step was taken
+     * @param reason the reason the job cannot be applied
+     */
+    private void fail(final TagJob job, final LocalDateTime now, final String reason) {
+        job.setStatus(TagJob.Status.FAILED);
+        job.setFinishedAt(now);
+        job.setLastError(reason);
+        log.warn(LogMessages.TAG_JOB_FAILED.getMessage(), job.getId(), reason);
+    }
+
+    /**
+     * Records a job that is due immediately.
+     *
+     * @param operation  the change to apply
+     * @param tag        the tag to change
+     * @param targetId   the ID of the merge target, or {@code null}
+     * @param targetName the new name or the name of the merge target, or {@code null}
+     * @return the submitted job
+     */
+    private TagJob submit(final TagJob.Operation operation, final Tag tag, final Long targetId,
+                          final String targetName) {
+        LocalDateTime now = LocalDateTime.now();
+        TagJob job = tagJobRepository.save(TagJob.builder()
+                .operation(operation)
+                .tagId(tag.getId())
+                .tagName(tag.getName())
+                .targetTagId(targetId)
+                .targetName(targetName)
+                .status(TagJob.Status.PENDING)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+        log.info(LogMessages.TAG_JOB_SUBMITTED.getMessage(), job.getId(), operation, tag.getName());
+        return job;
+    }
+}
@@ -1,5 +1,6 @@
 package org.gordeser.backend.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gordeser.backend.entity.Post;
@@ -9,9 +10,13 @@ import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.messages.LogMessages;
 import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.util.StreamChunks;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing tag-related operations.
@@ -27,6 +32,16 @@ public class TagService {
      */
     private final TagRepository tagRepository;
 
+    /**
+     * The entity manager, cleared between streamed chunks.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Number of streamed tags kept in the persistence context at a time.
+     */
+    private static final int STREAM_CHUNK_SIZE = 1000;
+
     /**
      * Retrieves all tags.
      *
@@ -39,6 +54,25 @@ public class TagService {
         return tags;
     }
 
+    /**
+     * Streams all tags in ID order.
+     * <p>
+     * Tags are read through a database cursor and the persistence context is cleared after
+     * every chunk, so memory use does not depend on the number of tags.
+     * </p>
+     *
+     * @param consumer the consumer of every tag
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(final Consumer<Tag> consumer) {
+        try (Stream<Tag> tags = tagRepository.streamAll()) {
+            StreamChunks.forEachChunk(tags, STREAM_CHUNK_SIZE, chunk -> {
+                chunk.forEach(consumer);
+                entityManager.clear();
+            });
+        }
+    }
+
     /**
      * Retrieves a tag by ID.
      *
@@ -57,6 +91,16 @@ public class TagService {
         return tag;
     }
 
+    /**
+     * Checks whether a tag with the given name exists.
+     *
+     * @param name the tag name
+     * @return whether a tag has the name
+     */
+    public boolean existsByName(final String name) {
+        return tagRepository.findByName(name).isPresent();
+    }
+
     /**
      * Creates a new tag.
      *
@@ -167,26 +211,6 @@ public class TagService {
         return savedTags;
     }
 
-    /**
-     * Removes a user from the specified list of preferred tags.
-     *
-     * @param preferredTags the list of tags to remove the user from
-     * @param userToDelete the user to remove from the tags
-     */
-    public void deleteUserFromTags(final List<Tag> preferredTags, final User userToDelete) {
-        log.info(LogMessages.USER_DELETE_FROM_TAGS_ATTEMPT.getMessage(), preferredTags);
-        if (preferredTags == null || preferredTags.isEmpty()) {
-            log.error(LogMessages.TAGS_NOT_FOUND_OR_NULL.getMessage());
-            return;
-        }
-        for (Tag tag : preferredTags) {
-            if (tag != null) {
-                tag.getUsers().remove(userToDelete);
-            }
-        }
-        tagRepository.saveAll(preferredTags);
-    }
-
     /**
      * Associates a user with multiple tags.
      *
@@ -2,6 +2,7 @@ package org.gordeser.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.dto.UserProfileDTO;
 import org.gordeser.backend.entity.Folder;
 import org.gordeser.backend.entity.Post;
@@ -87,7 +88,7 @@ public class UserService {
             throw new NotFound();
         }
         log.info(LogMessages.USER_FETCH_BY_ID_SUCCESS.getMessage(), userId);
-        List<Post> userPosts = postService.getPostsByPatronId(userId);
+        List<PostCard> userPosts = postService.getPostsByPatronId(userId);
         UserProfileDTO result = UserMapper.toUserProfileDTO(user);
         result.setPosts(userPosts);
         return result;
@@ -157,7 +158,7 @@ public class UserService {
         return currentUser;
     }
     /**
-     * Updates the password of the current user.
+     * Updates the password of the current user and revokes the tokens issued before.
      *
      * @param currentUser      the user whose password needs to be updated.
      * @param currentPassword  the current password of the user for validation.
@@ -189,6 +190,7 @@ public class UserService {
         log.info("Password validation successful for user ID: {}. Proceeding with password update.",
                 currentUser.getId());
         currentUser.setPassword(passwordEncoder.encode(newPassword));
+        currentUser.setTokenVersion(currentUser.getTokenVersion() + 1);
         userRepository.save(currentUser);
         log.info("Password successfully updated for user ID: {}", currentUser.getId());
 
@@ -254,18 +256,6 @@ public class UserService {
         }
     }
 
-    /**
-     * Deletes a post from a user's list of posts.
-     *
-     * @param patron the user to delete the post from
-     * @param post   the post to delete
-     */
-    public void deletePostFromUser(final User patron, final Post post) {
-        log.info(LogMessages.USER_DELETE_POST_ATTEMPT.getMessage(), patron.getId());
-        patron.getPosts().remove(post);
-        userRepository.save(patron);
-    }
-
     /**
      * Adds a folder to a user's list of folders.
      *
@@ -283,29 +273,6 @@ public class UserService {
         }
     }
 
-    /**
-     * Deletes a folder from a user's list of folders.
-     *
-     * @param patron         the user to delete the folder from
-     * @param folderToDelete the folder to delete
-     */
-    public void deleteFolderFromUser(final User patron, final Folder folderToDelete) {
-        log.info(LogMessages.USER_DELETE_FOLDER_ATTEMPT.getMessage(), patron.getId());
-        patron.getFolders().remove(folderToDelete);
-        userRepository.save(patron);
-    }
-
-    /**
-     * Deletes all preferred tags from a user.
-     *
-     * @param userToDelete the user to delete tags from
-     */
-    public void deletePreferedTags(final User userToDelete) {
-        log.info(LogMessages.USER_DELETE_TAGS_ATTEMPT.getMessage(), userToDelete.getId());
-        userToDelete.getPreferredTags().clear();
-        userRepository.save(userToDelete);
-    }
-
     /**
      * Adds tags to a user's list of preferred tags.
      *
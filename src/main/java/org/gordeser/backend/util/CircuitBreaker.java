@@ -0,0 +1,148 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Minimal circuit breaker guarding calls to a remote service.
+ * <p>
+ * The breaker opens after a number of consecutive failures and then rejects calls without
+ * touching the service. Once the open period has elapsed a single trial call is let through:
+ * its success closes the breaker again, its failure re-opens it for another period.
+ * </p>
+ *
+ * @since 1.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of the breaker.
+     */
+    public enum State {
+        /** Calls pass through and failures are counted. */
+        CLOSED,
+        /** Calls are rejected until the open period has elapsed. */
+        OPEN,
+        /** A single trial call is in flight; other calls are rejected. */
+        HALF_OPEN
+    }
+
+    /**
+     * Number of consecutive failures that opens the breaker.
+     */
+    private final int failureThreshold;
+
+    /**
+     * How long the breaker stays open before a trial call is allowed.
+     */
+    private final Duration openDuration;
+
+    /**
+     * Clock used to measure the open period.
+     */
+    private final Clock clock;
+
+    /**
+     * The current state.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * The number of consecutive failures while closed.
+     */
+    private int consecutiveFailures;
+
+    /**
+     * The time at which the breaker was last opened.
+     */
+    private Instant openedAt;
+
+    /**
+     * Constructor for CircuitBreaker.
+     *
+     * @param failureThreshold number of consecutive failures that opens the breaker
+     * @param openDuration     how long the breaker stays open before a trial call is allowed
+     * @param clock            clock used to measure the open period
+     */
+    public CircuitBreaker(final int failureThreshold, final Duration openDuration, final Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Decides whether a call may be made now.
+     *
+     * @return {@code true} if the call may proceed and its outcome must be recorded
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @return {@code true} if the call closed a previously open breaker
+     */
+    public synchronized boolean recordSuccess() {
+        boolean recovered = state != State.CLOSED;
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        return recovered;
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @return {@code true} if the failure opened the breaker
+     */
+    public synchronized boolean recordFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return true;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return the state of the breaker
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Opens the breaker for one open period.
+     */
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.instant();
+        consecutiveFailures = 0;
+    }
+}
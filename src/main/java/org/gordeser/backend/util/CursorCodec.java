@@ -0,0 +1,124 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import org.gordeser.backend.exception.InvalidCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Utility class for encoding keyset pagination cursors.
+ * <p>
+ * A cursor carries the sort values of the last item of a page, so the next page can continue
+ * right after it without an offset. Cursors are opaque URL-safe strings to the clients.
+ * </p>
+ *
+ * @since 1.0
+ */
+public final class CursorCodec {
+
+    /**
+     * Separator between the encoded sort values.
+     */
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the sort values of the last item of a page into a cursor.
+     *
+     * @param values the sort values, in sort order
+     * @return the opaque cursor
+     */
+    public static String encode(final List<?> values) {
+        StringBuilder raw = new StringBuilder();
+        for (Object value : values) {
+            if (!raw.isEmpty()) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back into its sort values.
+     *
+     * @param cursor the opaque cursor
+     * @param size   the number of sort values the cursor must carry
+     * @return the sort values as strings, in sort order
+     * @throws InvalidCursor if the cursor is malformed or carries a different number of values
+     */
+    public static List<String> decode(final String cursor, final int size) throws InvalidCursor {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursor();
+        }
+        List<String> values = List.of(raw.split("\\" + SEPARATOR, -1));
+        if (values.size() != size) {
+            throw new InvalidCursor();
+        }
+        return values;
+    }
+
+    /**
+     * Parses a decoded sort value as a long.
+     *
+     * @param value the decoded value
+     * @return the parsed value
+     * @throws InvalidCursor if the value is not a long
+     */
+    public static long parseLong(final String value) throws InvalidCursor {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursor();
+        }
+    }
+
+    /**
+     * Parses a decoded sort value as an ISO-8601 local date-time.
+     *
+     * @param value the decoded value
+     * @return the parsed value
+     * @throws InvalidCursor if the value is not a date-time
+     */
+    public static LocalDateTime parseDateTime(final String value) throws InvalidCursor {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursor();
+        }
+    }
+
+    /**
+     * Parses a decoded sort value as a double.
+     *
+     * @param value the decoded value
+     * @return the parsed value
+     * @throws InvalidCursor if the value is not a double
+     */
+    public static double parseDouble(final String value) throws InvalidCursor {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursor();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Utility class for downscaling images and encoding them as JPEG.
+ *
+ * @since 1.0
+ */
+public final class ImageResizer {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ImageResizer() {
+    }
+
+    /**
+     * Downscales an image so that its longer side is at most the given size.
+     * <p>
+     * The image is halved step by step before the final resize, which keeps bilinear
+     * interpolation sharp for large reductions. Images that already fit are only converted
+     * to RGB; they are never upscaled.
+     * </p>
+     *
+     * @param source  the image to downscale
+     * @param maxSide the maximum length of the longer side in pixels
+     * @return an RGB image fitting into {@code maxSide}
+     */
+    public static BufferedImage fit(final BufferedImage source, final int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    /**
+     * Encodes an image as JPEG.
+     *
+     * @param image   the image to encode
+     * @param quality the JPEG quality between 0 and 1
+     * @return the encoded bytes
+     * @throws IOException if the image cannot be encoded
+     */
+    public static byte[] toJpeg(final BufferedImage image, final float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Draws an image into a new RGB image of the given size.
+     *
+     * @param source the image to draw
+     * @param width  the target width
+     * @param height the target height
+     * @return the resized RGB image
+     */
+    private static BufferedImage draw(final BufferedImage source, final int width, final int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Component for streaming records to clients as newline-delimited JSON.
+ * <p>
+ * Each record is serialized on its own line and written to the response as soon as it is
+ * produced, so neither the result set nor the response body is ever held in memory and the
+ * first records reach the client before the last ones are read from the database.
+ * </p>
+ *
+ * @since 1.0
+ */
+@Component
+public class NdjsonWriter {
+
+    /**
+     * Writer used for the records.
+     * <p>
+     * Records are separated by explicit line breaks instead of Jackson's root value separator,
+     * and flushing is left to the output buffer instead of happening after every record.
+     * </p>
+     */
+    private final ObjectWriter writer;
+
+    /**
+     * Constructor for NdjsonWriter.
+     *
+     * @param objectMapper the application object mapper
+     */
+    public NdjsonWriter(final ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+    }
+
+    /**
+     * Builds a streaming {@code application/x-ndjson} response.
+     *
+     * @param producer passes every record of the response to the given consumer, in order
+     * @param <T>      the type of the records
+     * @return the response writing the records while they are produced
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(final Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                producer.accept(record -> write(generator, record));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Writes one record followed by a line break.
+     *
+     * @param generator the generator of the response
+     * @param record    the record to write
+     */
+    private void write(final JsonGenerator generator, final Object record) {
+        try {
+            writer.writeValue(generator, record);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Utility class for rescheduling failed background work.
+ * <p>
+ * The search outbox, the tag jobs and the account deletion jobs retry failed work after a delay
+ * that doubles per failed attempt up to a maximum, and record the last error in a
+ * {@code last_error} column of {@value #MAX_ERROR_LENGTH} characters.
+ * </p>
+ *
+ * @since 1.0
+ */
+public final class RetryBackoff {
+
+    /**
+     * The size of the {@code last_error} columns.
+     */
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RetryBackoff() {
+    }
+
+    /**
+     * Computes the time of the next attempt after the given number of failed attempts.
+     *
+     * @param now           the time of the failed attempt
+     * @param attempts      the number of failed attempts, at least one
+     * @param baseBackoffMs the delay after the first failed attempt in milliseconds
+     * @param maxBackoffMs  the upper bound of the delay in milliseconds
+     * @return the time of the next attempt
+     */
+    public static LocalDateTime nextAttemptAt(final LocalDateTime now, final int attempts,
+                                              final long baseBackoffMs, final long maxBackoffMs) {
+        return now.plusNanos(backoffMs(attempts, baseBackoffMs, maxBackoffMs) * 1_000_000L);
+    }
+
+    /**
+     * Computes the retry delay after the given number of failed attempts.
+     *
+     * @param attempts      the number of failed attempts, at least one
+     * @param baseBackoffMs the delay after the first failed attempt in milliseconds
+     * @param maxBackoffMs  the upper bound of the delay in milliseconds
+     * @return the delay in milliseconds, doubling per attempt up to the maximum
+     */
+    public static long backoffMs(final int attempts, final long baseBackoffMs, final long maxBackoffMs) {
+        int exponent = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMs, baseBackoffMs << exponent);
+    }
+
+    /**
+     * Shortens the message of an error to the size of the {@code last_error} columns.
+     *
+     * @param error the error
+     * @return the message, cut to at most {@value #MAX_ERROR_LENGTH} characters
+     */
+    public static String lastError(final Throwable error) {
+        return truncate(String.valueOf(error.getMessage()));
+    }
+
+    /**
+     * Shortens an error message to the size of the {@code last_error} columns.
+     *
+     * @param message the error message
+     * @return the message, cut to at most {@value #MAX_ERROR_LENGTH} characters
+     */
+    public static String truncate(final String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * This package contains utility classes for the photo service application.
+ * <p>
+ * These classes provide auxiliary functionality, such as application event listeners,
+ * synchronization utilities, and other supporting components.
+ * </p>
+ */
+package org.gordeser.backend.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for consuming streamed query results in chunks.
+ * <p>
+ * Lets the consumer of a database cursor complete or release a whole chunk of rows at once,
+ * for example to load their associations with one query or to clear the persistence context,
+ * while never holding more than one chunk in memory.
+ * </p>
+ *
+ * @since 1.0
+ */
+public final class StreamChunks {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StreamChunks() {
+    }
+
+    /**
+     * Consumes a stream in consecutive chunks of at most the given size.
+     *
+     * @param stream    the stream to consume
+     * @param chunkSize the maximum number of items per chunk
+     * @param consumer  the consumer of every chunk, called in stream order
+     * @param <T>       the type of the items
+     */
+    public static <T> void forEachChunk(final Stream<T> stream, final int chunkSize,
+                                        final Consumer<List<T>> consumer) {
+        Iterator<T> iterator = stream.iterator();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+}
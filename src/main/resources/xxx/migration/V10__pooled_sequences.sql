@@ -0,0 +1,17 @@
+-- IDs are allocated in blocks of 50; a sequence value is the top of its block, so the next block starts after max(id).
+ALTER SEQUENCE public.tag_id_seq INCREMENT BY 50;
+SELECT setval('public.tag_id_seq', GREATEST((SELECT max(id) FROM public.tag), 1));
+ALTER SEQUENCE public.patron_id_seq INCREMENT BY 50;
+SELECT setval('public.patron_id_seq', GREATEST((SELECT max(id) FROM public.patron), 1));
+ALTER SEQUENCE public.post_id_seq INCREMENT BY 50;
+SELECT setval('public.post_id_seq', GREATEST((SELECT max(id) FROM public.post), 1));
+ALTER SEQUENCE public.comment_id_seq INCREMENT BY 50;
+SELECT setval('public.comment_id_seq', GREATEST((SELECT max(id) FROM public.comment), 1));
+ALTER SEQUENCE public.folder_id_seq INCREMENT BY 50;
+SELECT setval('public.folder_id_seq', GREATEST((SELECT max(id) FROM public.folder), 1));
+ALTER SEQUENCE public.image_id_seq INCREMENT BY 50;
+SELECT setval('public.image_id_seq', GREATEST((SELECT max(id) FROM public.image), 1));
+ALTER SEQUENCE public.password_reset_token_id_seq INCREMENT BY 50;
+SELECT setval('public.password_reset_token_id_seq', GREATEST((SELECT max(id) FROM public.password_reset_token), 1));
+ALTER SEQUENCE public.search_outbox_id_seq INCREMENT BY 50;
+SELECT setval('public.search_outbox_id_seq', GREATEST((SELECT max(id) FROM public.search_outbox), 1));
@@ -0,0 +1,3 @@
+CREATE SEQUENCE IF NOT EXISTS public.tag_job_id_seq INCREMENT BY 50;
+CREATE TABLE public.tag_job (id BIGINT PRIMARY KEY DEFAULT nextval('public.tag_job_id_seq'), operation VARCHAR(16) NOT NULL, tag_id BIGINT NOT NULL, tag_name VARCHAR(30) NOT NULL, target_tag_id BIGINT, target_name VARCHAR(30), status VARCHAR(16) NOT NULL, affected_posts BIGINT, updated_documents BIGINT, attempts INT NOT NULL DEFAULT 0, available_at TIMESTAMP NOT NULL, created_at TIMESTAMP NOT NULL, finished_at TIMESTAMP, last_error VARCHAR(1000));
+CREATE INDEX tag_job_status_available_at_idx ON public.tag_job (status, available_at);
@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS public.account_deletion_job_id_seq INCREMENT BY 50;
+CREATE TABLE public.account_deletion_job (id BIGINT PRIMARY KEY DEFAULT nextval('public.account_deletion_job_id_seq'), user_id BIGINT NOT NULL, username VARCHAR(30) NOT NULL, status VARCHAR(16) NOT NULL, total_posts BIGINT NOT NULL, deleted_posts BIGINT NOT NULL DEFAULT 0, deleted_comments BIGINT NOT NULL DEFAULT 0, deleted_folders BIGINT NOT NULL DEFAULT 0, attempts INT NOT NULL DEFAULT 0, available_at TIMESTAMP NOT NULL, created_at TIMESTAMP NOT NULL, finished_at TIMESTAMP, last_error VARCHAR(1000));
+CREATE INDEX account_deletion_job_status_available_at_idx ON public.account_deletion_job (status, available_at);
+CREATE INDEX account_deletion_job_user_idx ON public.account_deletion_job (user_id);
+CREATE INDEX IF NOT EXISTS comment_author_username_idx ON public.comment (author_username, id);
+CREATE INDEX IF NOT EXISTS patron_folder_patron_idx ON public.patron_folder (patron_id, folder_id);
+CREATE INDEX IF NOT EXISTS folder_post_post_idx ON public.folder_post (post_id);
@@ -0,0 +1,2 @@
+ALTER TABLE public.post ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS post_deleted_at_idx ON public.post (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,17 @@
+-- The join tables were mapped as bags and may hold duplicate pairs; keep one row of each before adding the keys.
+DELETE FROM public.post_tag a USING public.post_tag b WHERE a.ctid < b.ctid AND a.post_id = b.post_id AND a.tag_id = b.tag_id;
+DELETE FROM public.folder_post a USING public.folder_post b WHERE a.ctid < b.ctid AND a.folder_id = b.folder_id AND a.post_id = b.post_id;
+DELETE FROM public.user_tags a USING public.user_tags b WHERE a.ctid < b.ctid AND a.user_id = b.user_id AND a.tag_id = b.tag_id;
+ALTER TABLE public.post_tag ADD CONSTRAINT post_tag_pkey PRIMARY KEY (post_id, tag_id);
+CREATE INDEX IF NOT EXISTS post_tag_tag_post_idx ON public.post_tag (tag_id, post_id);
+ALTER TABLE public.folder_post ADD CONSTRAINT folder_post_pkey PRIMARY KEY (folder_id, post_id);
+-- The primary key covers the (folder_id, post_id) index.
+DROP INDEX IF EXISTS public.folder_post_folder_post_idx;
+ALTER TABLE public.user_tags ADD CONSTRAINT user_tags_pkey PRIMARY KEY (user_id, tag_id);
+CREATE INDEX IF NOT EXISTS user_tags_tag_user_idx ON public.user_tags (tag_id, user_id);
+CREATE INDEX IF NOT EXISTS password_reset_token_user_idx ON public.password_reset_token (user_id);
+CREATE INDEX IF NOT EXISTS tag_lower_name_idx ON public.tag (lower(name));
+CREATE INDEX IF NOT EXISTS image_storage_key_idx ON public.image (storage_key);
+-- The purger reads deleted posts in ID order, so the partial index is on the ID.
+DROP INDEX IF EXISTS public.post_deleted_at_idx;
+CREATE INDEX IF NOT EXISTS post_deleted_id_idx ON public.post (id) WHERE deleted_at IS NOT NULL;
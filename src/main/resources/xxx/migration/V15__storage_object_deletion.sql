@@ -0,0 +1,2 @@
+CREATE TABLE public.storage_object_deletion (storage_key VARCHAR(255) PRIMARY KEY, due_at TIMESTAMP NOT NULL);
+CREATE INDEX storage_object_deletion_due_at_idx ON public.storage_object_deletion (due_at);
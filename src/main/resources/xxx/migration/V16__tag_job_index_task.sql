@@ -0,0 +1 @@
+ALTER TABLE public.tag_job ADD COLUMN index_task_id VARCHAR(64);
@@ -0,0 +1 @@
+CREATE INDEX image_without_variants_idx ON public.image (id) WHERE full_url IS NULL AND storage_key IS NOT NULL;
@@ -0,0 +1,2 @@
+CREATE TABLE public.search_outbox (id BIGSERIAL PRIMARY KEY, post_id BIGINT NOT NULL, operation VARCHAR(16) NOT NULL, attempts INT NOT NULL DEFAULT 0, available_at TIMESTAMP NOT NULL, created_at TIMESTAMP NOT NULL, last_error VARCHAR(1000));
+CREATE INDEX search_outbox_available_at_idx ON public.search_outbox (available_at, id);
@@ -0,0 +1,3 @@
+ALTER TABLE public.image ADD COLUMN IF NOT EXISTS digest VARCHAR(64);
+ALTER TABLE public.image ADD COLUMN IF NOT EXISTS storage_key VARCHAR(255);
+CREATE INDEX IF NOT EXISTS image_digest_idx ON public.image (digest);
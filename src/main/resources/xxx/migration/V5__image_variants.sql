@@ -0,0 +1,3 @@
+ALTER TABLE public.image ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(255);
+ALTER TABLE public.image ADD COLUMN IF NOT EXISTS feed_url VARCHAR(255);
+ALTER TABLE public.image ADD COLUMN IF NOT EXISTS full_url VARCHAR(255);
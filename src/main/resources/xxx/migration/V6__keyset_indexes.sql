@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS post_patron_patron_post_idx ON public.post_patron (patron_id, post_id);
+CREATE INDEX IF NOT EXISTS folder_post_folder_post_idx ON public.folder_post (folder_id, post_id);
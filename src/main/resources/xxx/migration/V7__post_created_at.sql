@@ -0,0 +1,6 @@
+ALTER TABLE public.post ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+-- Existing posts get increasing timestamps in ID order, so recency order matches insertion order.
+UPDATE public.post SET created_at = now() - make_interval(secs => (SELECT max(id) FROM public.post) - id) WHERE created_at IS NULL;
+ALTER TABLE public.post ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE public.post ALTER COLUMN created_at SET NOT NULL;
+CREATE INDEX IF NOT EXISTS post_created_at_id_idx ON public.post (created_at DESC, id DESC);
@@ -0,0 +1,5 @@
+UPDATE public.comment SET date = now() WHERE date IS NULL;
+ALTER TABLE public.comment ALTER COLUMN date SET NOT NULL;
+CREATE INDEX IF NOT EXISTS comment_post_date_idx ON public.comment (post_id, date, id);
+ALTER TABLE public.post ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+UPDATE public.post p SET comment_count = (SELECT count(*) FROM public.comment c WHERE c.post_id = p.id);
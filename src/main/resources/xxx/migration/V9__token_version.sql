@@ -0,0 +1 @@
+ALTER TABLE public.patron ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
@@ -1,5 +1,6 @@
 package org.gordeser.backend.controller;
 
+import jakarta.validation.ConstraintViolationException;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.dto.FolderDTO;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
@@ -17,7 +18,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -74,4 +77,25 @@ class FolderControllerTest {
         ResponseEntity<?> response = folderController.deleteFolder(1L);
         assertEquals(200, response.getStatusCode().value());
     }
+    @Test
+     void testAddPostsToFolder() throws Exception {
+        when(folderFacade.addPosts(1L, List.of(2L, 3L))).thenReturn(2);
+        ResponseEntity<?> response = folderController.addPostsToFolder(1L, List.of(2L, 3L));
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, response.getBody());
+    }
+    @Test
+     void testRemovePostsFromFolder() throws Exception {
+        when(folderFacade.removePosts(1L, List.of(2L))).thenReturn(1);
+        ResponseEntity<?> response = folderController.removePostsFromFolder(1L, List.of(2L));
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody());
+    }
+
+    @Test
+    void testGetFolderPostsAfterRejectsPageSizeOutOfRange() {
+        assertThrows(ConstraintViolationException.class, () -> folderController.getFolderPostsAfter(1L, null, 0));
+        assertThrows(ConstraintViolationException.class, () -> folderController.getFolderPostsAfter(1L, null, 101));
+        verifyNoInteractions(folderFacade);
+    }
 }
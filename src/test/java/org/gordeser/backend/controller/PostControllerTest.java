@@ -1,47 +1,100 @@
 package org.gordeser.backend.controller;
 
+import jakarta.servlet.MultipartConfigElement;
+import jakarta.validation.ConstraintViolationException;
 import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.configuration.WebMvcConfig;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.dto.PostDTO;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Comment;
 import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.facade.PostFacade;
 import org.gordeser.backend.mock.TestEntities;
+import org.gordeser.backend.repository.UserRepository;
+import org.gordeser.backend.service.BulkIngestService;
+import org.gordeser.backend.service.CommentService;
+import org.gordeser.backend.service.JwtService;
 import org.gordeser.backend.service.PostService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.DispatcherServlet;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class PostControllerTest {
     @Autowired
     private PostController postController;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MultipartConfigElement multipartConfigElement;
+    @Autowired
+    @Qualifier("bulkIngestServletRegistration")
+    private ServletRegistrationBean<DispatcherServlet> bulkIngestServletRegistration;
     @MockBean
     private PostService postService;
     @MockBean
     private PostFacade postFacade;
     @MockBean
+    private CommentService commentService;
+    @MockBean
+    private BulkIngestService bulkIngestService;
+    @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
     private AssociationServiceClient associationServiceClient;
 
+    @Test
+    void testOnlyBulkIngestAcceptsLargeRequests() {
+        MultipartConfigElement bulkConfig = bulkIngestServletRegistration.getMultipartConfig();
+
+        assertEquals(List.of(WebMvcConfig.BULK_INGEST_PATH),
+                List.copyOf(bulkIngestServletRegistration.getUrlMappings()));
+        assertEquals(DataSize.ofGigabytes(1).toBytes(), bulkConfig.getMaxRequestSize());
+        assertEquals(DataSize.ofGigabytes(1).toBytes(), bulkConfig.getMaxFileSize());
+        assertTrue(multipartConfigElement.getMaxRequestSize() <= DataSize.ofMegabytes(10).toBytes());
+        assertTrue(multipartConfigElement.getMaxFileSize() <= DataSize.ofMegabytes(10).toBytes());
+    }
+
     @Test
      void testGetPostById() throws Exception {
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(),  null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(),  null, null, null, null, null, null, null);
         when(postService.getPostById(1L)).thenReturn(post);
         ResponseEntity<?> response = postController.getPostById(1L);
         assertEquals(200, response.getStatusCode().value());
@@ -50,9 +103,9 @@ class PostControllerTest {
     }
     @Test
     void testGetPostsByPatronId(){
-        List<Post> posts = new ArrayList<>(List.of(
-                new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null),
-                new Post(2L, "newPost", "newPost", new ArrayList<>(), null, null, null, null)
+        List<PostCard> posts = new ArrayList<>(List.of(
+                new PostCard(1L, "newPost", null, "john_doe"),
+                new PostCard(2L, "newPost", null, "john_doe")
         ));
         when(postService.getPostsByPatronId(1L)).thenReturn(posts);
         ResponseEntity<?> response = postController.getPostsByPatronId(1L);
@@ -61,7 +114,7 @@ class PostControllerTest {
     }
     @Test
      void testCreatePost() throws Exception {
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null, null, null, null);
         PostDTO postDTO = new PostDTO("newPost", "newPost", new ArrayList<>(), null);
         when(postFacade.createPost(postDTO)).thenReturn(post);
         ResponseEntity<?> response = postController.createPost(postDTO);
@@ -71,7 +124,7 @@ class PostControllerTest {
     }
     @Test
      void testUpdatePost() throws Exception {
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null, null, null, null);
         PostDTO postDTO = new PostDTO("newPost", "newPost", new ArrayList<>(), null);
         when(postFacade.updatePost(1L, postDTO)).thenReturn(post);
         ResponseEntity<?> response = postController.updatePost(1L, postDTO);
@@ -98,7 +151,7 @@ class PostControllerTest {
     }
     @Test
      void testSearchFound(){
-        Post post = new Post(1L, TestEntities.ELASTICLONGDUMMY.getTitle(),  TestEntities.ELASTICLONGDUMMY.getDescription(), null,  null, null, null, null);
+        PostCard post = new PostCard(1L, TestEntities.ELASTICLONGDUMMY.getTitle(), null, "john_doe");
         Pageable pageable = PageRequest.of(0, 5);
         when(postService.search("Life is", pageable)).thenReturn(new PageImpl<>(List.of(post), pageable, 1));
 
@@ -110,8 +163,104 @@ class PostControllerTest {
         Pageable pageable = PageRequest.of(0, 5);
         when(postService.search("Death", pageable)).thenReturn(new PageImpl<>(List.of(), pageable, 1));
 
-        ResponseEntity<Page<Post>> response = postController.getSearchResults("Death", pageable);
+        ResponseEntity<Page<PostCard>> response = postController.getSearchResults("Death", pageable);
         verify(postService, times(1)).search("Death", pageable);
         assert(Objects.requireNonNull(response.getBody()).isEmpty());
     }
+    @Test
+    void testCurrentTokenCanComment() throws Exception {
+        User user = saveUser();
+        String token = jwtService.generateToken(user);
+        when(commentService.create(1L, "text", user.getUsername())).thenReturn(new Comment());
+
+        mockMvc.perform(post("/api/posts/1/comments").param("text", "text")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        verify(commentService, times(1)).create(1L, "text", user.getUsername());
+        userRepository.delete(user);
+    }
+    @Test
+    void testRevokedTokenCannotComment() throws Exception {
+        User user = saveUser();
+        String token = jwtService.generateToken(user);
+        revokeTokens(user);
+
+        mockMvc.perform(post("/api/posts/1/comments").param("text", "text")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        verify(commentService, never()).create(anyLong(), anyString(), anyString());
+        userRepository.delete(user);
+    }
+    @Test
+    void testRevokedTokenCannotDeleteComment() throws Exception {
+        User user = saveUser();
+        String token = jwtService.generateToken(user);
+        revokeTokens(user);
+
+        mockMvc.perform(delete("/api/posts/1/comments/1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        verify(postService, never()).deleteCommentFromPost(anyLong(), anyLong(), any());
+        userRepository.delete(user);
+    }
+    @Test
+    void testRevokedTokenCannotBulkIngest() throws Exception {
+        User user = saveUser();
+        String token = jwtService.generateToken(user);
+        revokeTokens(user);
+        MockMultipartFile manifest = new MockMultipartFile("manifest", "", MediaType.APPLICATION_JSON_VALUE,
+                "[{\"file\":\"a.jpg\",\"title\":\"title\"}]".getBytes());
+        MockMultipartFile file = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1});
+
+        mockMvc.perform(multipart("/api/posts/bulk").file(manifest).file(file)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        verify(bulkIngestService, never()).ingestFiles(anyLong(), anyList(), anyList());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void testCursorEndpointsRejectPageSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/posts/user/1/cursor").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/user/1/cursor").param("size", "101"))
+                .andExpect(status().isBadRequest());
+        assertThrows(ConstraintViolationException.class, () -> postController.getSearchResultsAfter("cat", null, 0));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void testNewestPostsRejectPageSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/posts/newest").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/newest").param("size", "101"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void testCommentsRejectPageSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/posts/1/comments").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/1/comments").param("size", "101"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(commentService);
+    }
+
+    private User saveUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("token_" + suffix);
+        user.setEmail("token_" + suffix + "@example.com");
+        user.setPassword("password123");
+        return userRepository.save(user);
+    }
+
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+    }
 }
@@ -1,11 +1,13 @@
 package org.gordeser.backend.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 
+import jakarta.validation.ConstraintViolationException;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
-import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.service.RecommendationService;
 import org.gordeser.backend.mock.TestEntities;
 import org.junit.jupiter.api.Test;
@@ -32,14 +34,30 @@ class RecommendationControllerTest {
 
     @Test
     void testGetGuestPosts(){
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null,  null, null, null, null),
-                new Post(2L, "user2", "user2@example.com",  null,  null, null, null, null)
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1"),
+                new PostCard(2L, "user2", null, "user2")
         );
         Pageable pageable = TestEntities.PAGEABLE;
         when(recommendationService.getGuestPosts(pageable)).thenReturn(new PageImpl<>(mockPosts, pageable, mockPosts.size()));
 
-        Page<Post> foundPosts = recommendationService.getGuestPosts(pageable);
+        Page<PostCard> foundPosts = recommendationService.getGuestPosts(pageable);
         assertEquals(2, foundPosts.getTotalElements());
     }
+
+    @Test
+    void testRecommendedPostsAfterRejectsPageSizeOutOfRange() {
+        assertThrows(ConstraintViolationException.class,
+                () -> recommendationController.recommendedPostsAfter(null, 0));
+        assertThrows(ConstraintViolationException.class,
+                () -> recommendationController.recommendedPostsAfter(null, 101));
+        verifyNoInteractions(recommendationService);
+    }
+
+    @Test
+    void testGetGuestPostsAfterRejectsPageSizeOutOfRange() {
+        assertThrows(ConstraintViolationException.class, () -> recommendationController.getGuestPostsAfter(null, 0));
+        assertThrows(ConstraintViolationException.class, () -> recommendationController.getGuestPostsAfter(null, 101));
+        verifyNoInteractions(recommendationService);
+    }
 }
\ No newline at end of file
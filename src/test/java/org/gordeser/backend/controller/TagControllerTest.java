@@ -3,6 +3,7 @@ package org.gordeser.backend.controller;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
 import org.gordeser.backend.facade.TagFacade;
 import org.gordeser.backend.service.TagService;
 import org.gordeser.backend.mock.TestEntities;
@@ -11,9 +12,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -43,6 +49,30 @@ class TagControllerTest {
         verify(tagService, times(1)).getTagById(1L);
     }
     @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAllTagsWritesOneTagPerLine() throws Exception {
+        Tag tag1 = TestEntities.getDefaultTag1();
+        tag1.setId(1L);
+        Tag tag2 = TestEntities.getDefaultTag2();
+        tag2.setId(2L);
+        doAnswer(invocation -> {
+            Consumer<Tag> consumer = invocation.getArgument(0);
+            consumer.accept(tag1);
+            consumer.accept(tag2);
+            return null;
+        }).when(tagService).streamAll(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = tagController.streamAllTags();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = body.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"" + tag1.getName() + "\"}", lines[0]);
+        assertEquals("{\"id\":2,\"name\":\"" + tag2.getName() + "\"}", lines[1]);
+    }
+    @Test
     void testCreateTags() {
         Tag tag = TestEntities.getDefaultTag1();
         when(tagService.createTags(List.of(tag))).thenReturn(List.of(tag));
@@ -52,9 +82,11 @@ class TagControllerTest {
     }
     @Test
     void testDeleteTagById() throws Exception {
-        doNothing().when(tagFacade).deleteById(1L);
+        TagJob job = TagJob.builder().id(5L).operation(TagJob.Operation.DELETE).status(TagJob.Status.PENDING).build();
+        when(tagFacade.deleteById(1L)).thenReturn(job);
         ResponseEntity<?> response = tagController.deleteTag(1L);
-        assertEquals(200, response.getStatusCode().value());
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals(job, response.getBody());
         verify(tagFacade, times(1)).deleteById(1L);
     }
 }
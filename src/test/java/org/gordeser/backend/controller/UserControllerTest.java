@@ -1,8 +1,10 @@
 package org.gordeser.backend.controller;
 
 import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.AuthenticatedUser;
 import org.gordeser.backend.dto.UserProfileDTO;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.AccountDeletionJob;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.AlreadyExists;
@@ -48,12 +50,13 @@ class UserControllerTest {
     }
 
     @Test
-    void testGetUserByUsername(){
+    void testGetUserByUsername() throws NotFound {
         User user = TestEntities.getDefaultUser1();
         Authentication authenticationMock = mock(Authentication.class);
         SecurityContext securityContextMock = mock(SecurityContext.class);
         when(securityContextMock.getAuthentication()).thenReturn(authenticationMock);
         when(authenticationMock.getPrincipal()).thenReturn(user);
+        when(jwtService.getUserByToken()).thenReturn(user);
         SecurityContextHolder.setContext(securityContextMock);
 
         ResponseEntity<?> response = userController.getUserByUsername();
@@ -62,12 +65,13 @@ class UserControllerTest {
     }
 
     @Test
-    void testAddTags(){
+    void testAddTags() throws NotFound {
         User user = TestEntities.getDefaultUser1();
         Authentication authenticationMock = mock(Authentication.class);
         SecurityContext securityContextMock = mock(SecurityContext.class);
         when(securityContextMock.getAuthentication()).thenReturn(authenticationMock);
         when(authenticationMock.getPrincipal()).thenReturn(user);
+        when(jwtService.getUserByToken()).thenReturn(user);
         doNothing().when(userFacade).addTagsToUser(user, List.of(1L, 2L));
         SecurityContextHolder.setContext(securityContextMock);
 
@@ -76,13 +80,14 @@ class UserControllerTest {
         assertEquals(response.getBody(), user);
     }
     @Test
-    void testUpdateUser() throws AlreadyExists{
+    void testUpdateUser() throws AlreadyExists, NotFound {
         User user = TestEntities.getDefaultUser1();
         User user1 = TestEntities.getDefaultUser2();
         Authentication authenticationMock = mock(Authentication.class);
         SecurityContext securityContextMock = mock(SecurityContext.class);
         when(securityContextMock.getAuthentication()).thenReturn(authenticationMock);
         when(authenticationMock.getPrincipal()).thenReturn(user);
+        when(jwtService.getUserByToken()).thenReturn(user);
         when(userService.update(user, user1)).thenReturn(user1);
         when(jwtService.generateToken(user1)).thenReturn("");
         SecurityContextHolder.setContext(securityContextMock);
@@ -97,11 +102,24 @@ class UserControllerTest {
         SecurityContext securityContextMock = mock(SecurityContext.class);
         when(securityContextMock.getAuthentication()).thenReturn(authenticationMock);
         when(authenticationMock.getPrincipal()).thenReturn(user);
-        doNothing().when(userFacade).deleteUserById(user);
+        when(jwtService.getUserByToken()).thenReturn(user);
+        AccountDeletionJob job = new AccountDeletionJob();
+        when(userFacade.deleteUserById(user)).thenReturn(job);
         SecurityContextHolder.setContext(securityContextMock);
 
         ResponseEntity<?> response = userController.deleteUser();
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals(job, response.getBody());
+    }
+    @Test
+    void testGetDeletionJob() throws NotFound {
+        AccountDeletionJob job = new AccountDeletionJob();
+        when(jwtService.getAuthenticatedUser()).thenReturn(new AuthenticatedUser(1L, "user", 1));
+        when(userFacade.getDeletionJob(1L)).thenReturn(job);
+
+        ResponseEntity<AccountDeletionJob> response = userController.getDeletionJob();
         assertEquals(200, response.getStatusCode().value());
+        assertEquals(job, response.getBody());
     }
     @Test
     void testGetUserByIdWithPosts() throws NotFound {
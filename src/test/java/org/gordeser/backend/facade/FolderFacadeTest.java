@@ -4,8 +4,8 @@ import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.dto.FolderDTO;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Folder;
-import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.repository.FolderRepository;
 import org.gordeser.backend.service.FolderService;
 import org.gordeser.backend.service.JwtService;
@@ -20,6 +20,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -46,95 +48,62 @@ class FolderFacadeTest {
     //includes test for private method FolderFromDTO()
     void testCreateFolder() throws Exception {
         User user = TestEntities.getDefaultUser1();
-        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>());
-        Folder folder = new Folder();
-        folder.setTitle(folderDTO.getTitle());
-        folder.setDescription(folderDTO.getDescription());
-        folder.setPatron(user);
-        folder.setPosts(List.of());
+        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>(List.of(1L, 2L)));
+        Folder folder = new Folder(1L, "shrek_photos", " ", user, new ArrayList<>());
 
         when(jwtService.getUserByToken()).thenReturn(user);
         when(folderRepository.save(any(Folder.class))).thenReturn(folder);
         doNothing().when(userService).addFolderToUser(any(User.class), any(Folder.class));
-        doNothing().when(postService).addFolderToPosts(List.of(), folder);
-        when(postService.getPostsById(List.of())).thenReturn(List.of());
+        when(folderService.getFolderById(1L)).thenReturn(folder);
 
         Folder createdFolder = folderFacade.createFolder(folderDTO);
         assert(createdFolder.getTitle().equals("shrek_photos"));
         assert(createdFolder.getPatron().equals(user));
         verify(userService, times(1)).addFolderToUser(any(User.class), any(Folder.class));
-        verify(postService, times(1)).addFolderToPosts(List.of(), folder);
+        verify(folderService, times(1)).addPosts(1L, List.of(1L, 2L));
+        verify(postService, never()).getPostsById(anyList());
     }
     @Test
-    void testUpdateFolderNonExistingNewPosts() throws Exception {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
-        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>(List.of(2L)));
+    void testUpdateFolder() throws Exception {
+        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>(List.of(1L, 2L)));
         Folder folder = new Folder(1L, "shrek_photos", " ", null, new ArrayList<>());
-        Folder folderToUpdate = new Folder();
-        folderToUpdate.setId(1L);
-        folderToUpdate.setPatron(null);
-        folderToUpdate.setPosts(new ArrayList<>(List.of(post)));
-
-        // mocking inside updateFolder()
-        when(folderService.getFolderById(1L)).thenReturn(folderToUpdate);
-        when(folderService.update(1L, folderToUpdate)).thenReturn(folderToUpdate);
-        // mocking inside updatePostsInFolder()
-        when(postService.getPostsById(folderDTO.getPostIds())).thenReturn(List.of());
-        // mocking inside deleteAllPostsInFolder()
-        doNothing().when(postService).deleteFolderFromPosts(folderToUpdate, List.of(post));
+        when(folderService.getFolderById(1L)).thenReturn(folder);
 
-        folderToUpdate = folderFacade.updateFolder(1L, folderDTO);
+        Folder updatedFolder = folderFacade.updateFolder(1L, folderDTO);
 
-        assert(folder.getTitle().equals(folderToUpdate.getTitle()));
-        assert(folder.getDescription().equals(folderToUpdate.getDescription()));
-        assert(folderToUpdate.getPosts() == null);
-        verify(postService, times(1)).deleteFolderFromPosts(folderToUpdate, List.of(post));
+        assert(updatedFolder.equals(folder));
+        verify(folderService, times(1)).updateDetails(1L, "shrek_photos", " ");
+        verify(folderService, times(1)).replacePosts(1L, List.of(1L, 2L));
+        verify(postService, never()).getPostsById(anyList());
     }
     @Test
-    void testUpdateFolderExistingNewPosts() throws Exception {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
-        Post newPost = new Post(2L, "full", "empty", null,  null, null, null, null);
-        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>(List.of(1L, 2L)));
-        Folder folder = new Folder(1L, "shrek_photos", " ", null, new ArrayList<>(List.of(post, newPost)));
-        Folder folderToUpdate = new Folder();
-        folderToUpdate.setId(1L);
-        folderToUpdate.setPatron(null);
-        folderToUpdate.setPosts(new ArrayList<>());
+    void testUpdateFolderNotFound() throws Exception {
+        FolderDTO folderDTO = new FolderDTO("shrek_photos", " ", new ArrayList<>(List.of(1L)));
+        doThrow(new NotFound()).when(folderService).updateDetails(1L, "shrek_photos", " ");
 
-        // mocking inside updateFolder()
-        when(folderService.getFolderById(1L)).thenReturn(folderToUpdate);
-        when(folderService.update(1L, folderToUpdate)).thenReturn(folderToUpdate);
-        // mocking inside updatePostsInFolder()
-        when(postService.getPostsById(folderDTO.getPostIds())).thenReturn(List.of(post, newPost));
-        doNothing().when(postService).deleteFolderFromPost(any(Folder.class), any(Post.class));
-        doAnswer(invocation ->{
-            Folder tmpFolder = invocation.getArgument(0);
-            tmpFolder.setPosts(invocation.getArgument(1));
-            return null;
-        }).when(folderService).addPostsToFolder(folderToUpdate, List.of(post, newPost));
-        doNothing().when(postService).addFolderToPosts(List.of(post, newPost), folderToUpdate);
+        assertThrows(NotFound.class, () -> folderFacade.updateFolder(1L, folderDTO));
+        verify(folderService, never()).replacePosts(anyLong(), anyCollection());
+    }
+    @Test
+    void testAddPostsNotFound() {
+        when(folderRepository.existsById(1L)).thenReturn(false);
 
-        folderToUpdate = folderFacade.updateFolder(1L, folderDTO);
+        assertThrows(NotFound.class, () -> folderFacade.addPosts(1L, List.of(1L)));
+        verify(folderService, never()).addPosts(anyLong(), anyCollection());
+    }
+    @Test
+    void testRemovePosts() throws Exception {
+        when(folderRepository.existsById(1L)).thenReturn(true);
+        when(folderService.removePosts(1L, List.of(1L))).thenReturn(1);
 
-        assert(folder.getTitle().equals(folderToUpdate.getTitle()));
-        assert(folder.getDescription().equals(folderToUpdate.getDescription()));
-        assert(folderToUpdate.getPosts().equals(List.of(post, newPost)));
-        verify(postService, times(0)).deleteFolderFromPost(any(Folder.class), any(Post.class));
-        verify(folderService, times(1)).addPostsToFolder(folderToUpdate, List.of(post, newPost));
-        verify(postService, times(1)).addFolderToPosts(List.of(post, newPost), folderToUpdate);
+        assertEquals(1, folderFacade.removePosts(1L, List.of(1L)));
     }
     @Test
     void testDeleteById() throws Exception {
-        Folder folder = new Folder(1L, "shrek_photos", " ", null, new ArrayList<>());
-        when(folderService.getFolderById(1L)).thenReturn(folder);
-        doNothing().when(postService).deleteFolderFromPosts(folder, folder.getPosts());
-        doNothing().when(userService).deleteFolderFromUser(folder.getPatron(), folder);
         doNothing().when(folderService).deleteById(1L);
 
         folderFacade.deleteById(1L);
-        verify(folderService, times(1)).getFolderById(1L);
         verify(folderService, times(1)).deleteById(1L);
-        verify(postService, times(1)).deleteFolderFromPosts(folder, folder.getPosts());
-        verify(userService, times(1)).deleteFolderFromUser(folder.getPatron(), folder);
+        verify(folderService, never()).getFolderById(1L);
     }
 }
@@ -6,6 +6,8 @@ import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.Tag;
 import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.Forbidden;
+import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.service.*;
 import org.gordeser.backend.mock.TestEntities;
 import org.gordeser.backend.service.FolderService;
@@ -53,7 +55,7 @@ class PostFacadeTest {
         User user = TestEntities.getDefaultUser1();
         tag.setId(1L);
         user.setId(1L);
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null, null, null, null);
         PostDTO postDTO = new PostDTO("newPost", "newPost", new ArrayList<>(List.of(1L)), null);
         Post newPost = new Post();
         newPost.setId(1L);
@@ -78,7 +80,7 @@ class PostFacadeTest {
     @Test
     void testUpdatePostNoImageNonExistingNewTags() throws Exception {
         Tag tag = TestEntities.getDefaultTag1();
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null, null, null, null);
         PostDTO postDTO = new PostDTO("wow", "wow", new ArrayList<>(List.of(2L)), null);
 
         when(postService.getPostById(1L)).thenReturn(post);
@@ -97,7 +99,7 @@ class PostFacadeTest {
         Tag newTag = TestEntities.getDefaultTag2();
         tag.setId(1L);
         newTag.setId(2L);
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null);
+        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(List.of(tag)),  null, null, null, null, null, null, null);
         PostDTO postDTO = new PostDTO("wow", "wow", new ArrayList<>(List.of(2L)), null);
 
         when(postService.getPostById(1L)).thenReturn(post);
@@ -119,46 +121,34 @@ class PostFacadeTest {
     @Test
     void testDeleteByIdExisting() throws Exception {
         User user = TestEntities.getDefaultUser1();
-        Post post = new Post(1L, "newPost", "newPost", new ArrayList<>(), null , null, new ArrayList<>(), user);
+        user.setId(1L);
 
         when(jwtService.getUserByToken()).thenReturn(user);
-        when(postService.getPostById(1L)).thenReturn(post);
-        doNothing().when(folderService).deletePostFromFolders(List.of(), post);
-        doNothing().when(userService).deletePostFromUser(user, post);
-        doNothing().when(tagService).deletePostFromTags(List.of(), post);
-        doNothing().when(postService).deleteById(post.getId());
+        when(postService.markDeleted(1L, user.getId())).thenReturn(true);
 
         postFacade.deletePostById(1L);
-        verify(folderService, times(1)).deletePostFromFolders(List.of(), post);
-        verify(userService, times(1)).deletePostFromUser(user, post);
-        verify(tagService, times(1)).deletePostFromTags(List.of(), post);
-        verify(postService, times(1)).deleteById(post.getId());
+        verify(postService, times(1)).markDeleted(1L, user.getId());
     }
     @Test
     void testDeleteByIdNonExisting() throws Exception {
         User user = TestEntities.getDefaultUser1();
+        user.setId(1L);
 
         when(jwtService.getUserByToken()).thenReturn(user);
-        when(postService.getPostById(2L)).thenReturn(null);
+        when(postService.markDeleted(2L, user.getId())).thenReturn(false);
+        when(postService.existsById(2L)).thenReturn(false);
 
-        assertThrows(Exception.class, () -> {
-            postFacade.deletePostById(2L);
-        });
-    }
-    @Test
-    void testDeleteTagsFromPostsSuccessful(){
-        List<Post> posts = new ArrayList<>(List.of(
-                new Post(1L, "newPost", "newPost", new ArrayList<>(), null, null, null, null),
-                new Post(2L, "newPost", "newPost", new ArrayList<>(), null, null, null, null)
-        ));
-        doNothing().when(postService).saveAll(posts);
-
-        postFacade.deleteTagsFromPosts(posts);
-        verify(postService, times(1)).saveAll(posts);
+        assertThrows(NotFound.class, () -> postFacade.deletePostById(2L));
     }
     @Test
-    void testDeleteTagsFromPostsFailed(){
-        postFacade.deleteTagsFromPosts(List.of());
-        verify(postService, times(0)).saveAll(List.of());
+    void testDeleteByIdOfAnotherUser() throws Exception {
+        User user = TestEntities.getDefaultUser1();
+        user.setId(1L);
+
+        when(jwtService.getUserByToken()).thenReturn(user);
+        when(postService.markDeleted(3L, user.getId())).thenReturn(false);
+        when(postService.existsById(3L)).thenReturn(true);
+
+        assertThrows(Forbidden.class, () -> postFacade.deletePostById(3L));
     }
 }
@@ -3,8 +3,10 @@ package org.gordeser.backend.facade;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
+import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
-import org.gordeser.backend.service.PostService;
+import org.gordeser.backend.service.TagJobService;
 import org.gordeser.backend.service.TagService;
 import org.gordeser.backend.mock.TestEntities;
 import org.junit.jupiter.api.Test;
@@ -12,9 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -25,23 +25,46 @@ class TagFacadeTest {
     @MockBean
     private TagService tagService;
     @MockBean
-    private PostService postService;
+    private TagJobService tagJobService;
     @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
     private AssociationServiceClient associationServiceClient;
 
     @Test
-    void testDeleteByIdExisting() throws Exception {
+    void testDeleteByIdSubmitsJob() throws Exception {
+        Tag tag = TestEntities.getDefaultTag1();
+        tag.setId(1L);
+        TagJob job = TagJob.builder().id(5L).operation(TagJob.Operation.DELETE).build();
+        when(tagService.getTagById(1L)).thenReturn(tag);
+        when(tagJobService.submitDelete(tag)).thenReturn(job);
+
+        assertEquals(job, tagFacade.deleteById(1L));
+        verify(tagService, never()).deleteById(anyLong());
+    }
+    @Test
+    void testRenameToExistingNameFails() throws Exception {
         Tag tag = TestEntities.getDefaultTag1();
-        tag.setPosts(new ArrayList<>());
-        when(tagService.getTagById(tag.getId())).thenReturn(tag);
-        doNothing().when(tagService).deleteById(tag.getId());
-        doNothing().when(postService).deleteTagsFromPost(tag, List.of());
+        when(tagService.getTagById(1L)).thenReturn(tag);
+        when(tagService.existsByName("Tech")).thenReturn(true);
 
-        tagFacade.deleteById(tag.getId());
-        verify(postService, times(1)).deleteTagsFromPost(tag, List.of());
-        verify(tagService, atLeastOnce()).deleteById(tag.getId());
+        assertThrows(AlreadyExists.class, () -> tagFacade.rename(1L, "Tech"));
+        verify(tagJobService, never()).submitRename(any(), anyString());
+    }
+    @Test
+    void testRenameToCurrentNameSubmitsJob() throws Exception {
+        Tag tag = TestEntities.getDefaultTag1();
+        TagJob job = TagJob.builder().id(6L).operation(TagJob.Operation.RENAME).build();
+        when(tagService.getTagById(1L)).thenReturn(tag);
+        when(tagService.existsByName(tag.getName())).thenReturn(true);
+        when(tagJobService.submitRename(tag, tag.getName())).thenReturn(job);
+
+        assertEquals(job, tagFacade.rename(1L, tag.getName()));
+    }
+    @Test
+    void testMergeIntoItselfFails() {
+        assertThrows(AlreadyExists.class, () -> tagFacade.merge(1L, 1L));
+        verifyNoInteractions(tagJobService);
     }
     @Test
     void testDeleteByIdNonExisting() throws Exception {
@@ -2,9 +2,11 @@ package org.gordeser.backend.facade;
 
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.AccountDeletionJob;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.mock.TestEntities;
+import org.gordeser.backend.service.AccountDeletionService;
 import org.gordeser.backend.service.TagService;
 import org.gordeser.backend.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -25,7 +28,7 @@ class UserFacadeTest {
     @MockBean
     private TagService tagService;
     @MockBean
-    private PostFacade postFacade;
+    private AccountDeletionService accountDeletionService;
     @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
@@ -34,13 +37,13 @@ class UserFacadeTest {
     @Test
     void testDeleteUserById() throws NotFound {
         User user = TestEntities.getDefaultUser1();
-        doNothing().when(tagService).deleteUserFromTags(null, user);
-        doNothing().when(userService).deletePreferedTags(user);
-        doNothing().when(postFacade).deleteTagsFromPosts(null);
-        doNothing().when(userService).deleteById(user.getId());
+        user.setId(1L);
+        AccountDeletionJob job = new AccountDeletionJob();
+        when(accountDeletionService.submit(user.getId())).thenReturn(job);
 
-        userFacade.deleteUserById(user);
-        verify(userService, times(1)).deleteById(user.getId());
+        assertEquals(job, userFacade.deleteUserById(user));
+        verify(accountDeletionService, times(1)).submit(user.getId());
+        verify(userService, times(0)).deleteById(user.getId());
     }
     @Test
     void testAddTagsToUser(){
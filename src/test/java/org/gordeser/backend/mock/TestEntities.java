@@ -18,8 +18,8 @@ import java.util.ArrayList;
 
 public class TestEntities {
     public static final PostElasticsearch ELASTICLONGDUMMY = new PostElasticsearch("1", "long_description", "Life is either a daring adventure or nothing at all. " +
-                                                                                                "Security is mostly a superstition. It does not exist in nature.", 1L, new ArrayList<>());
-    public static final PostElasticsearch ELASTICSHORTDUMMY = new PostElasticsearch("2", "short_description", "When in Rome, do as the Romans do.", 2L, new ArrayList<>());
+                                                                                                "Security is mostly a superstition. It does not exist in nature.", 1L, new ArrayList<>(), null);
+    public static final PostElasticsearch ELASTICSHORTDUMMY = new PostElasticsearch("2", "short_description", "When in Rome, do as the Romans do.", 2L, new ArrayList<>(), null);
     public static final Pageable PAGEABLE = PageRequest.of(0, 5);
     public static final Comment COMMENT1 = new Comment(1L, "Stop posting shrek photos", null, "john_doe", LocalDateTime.MAX);
     public static final Comment COMMENT2 = new Comment(2L, "I need photos of spider man", null, "john_doe", LocalDateTime.MIN);
@@ -0,0 +1,119 @@
+package org.gordeser.backend.repository;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.Tag;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the SQL statements and the throughput of bulk writes with and without JDBC batching.
+ * Unbatched runs send one statement per row, batched runs one statement per batch of rows.
+ * The throughput of every run is logged; {@link PostgresBulkWriteTest} runs the same writes on PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkWriteTest {
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+    private static final Logger log = LoggerFactory.getLogger(BulkWriteTest.class);
+
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testTagCreationIsBatched() {
+        Run unbatched = run(1, () -> tagRepository.saveAll(tags("unbatched_")));
+        Run batched = run(BATCH_SIZE, () -> tagRepository.saveAll(tags("batched_")));
+        log.info("Tag creation, {}; {}", unbatched, batched);
+
+        assertTrue(unbatched.statements >= ROWS, unbatched.toString());
+        // One insert per batch plus one sequence call per block of allocated IDs.
+        assertTrue(batched.statements <= 2 * ROWS / BATCH_SIZE + 2, batched.toString());
+    }
+
+    @Test
+    void testFolderMembershipIsBatched() {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Post post = new Post();
+            post.setTitle("post " + i);
+            posts.add(post);
+        }
+        posts.forEach(entityManager::persist);
+        entityManager.flush();
+
+        Run unbatched = run(1, () -> entityManager.persist(folder("unbatched", posts)));
+        Run batched = run(BATCH_SIZE, () -> entityManager.persist(folder("batched", posts)));
+        log.info("Folder membership, {}; {}", unbatched, batched);
+
+        assertTrue(unbatched.statements >= ROWS, unbatched.toString());
+        assertTrue(batched.statements <= ROWS / BATCH_SIZE + 2, batched.toString());
+    }
+
+    private Run run(int batchSize, Runnable write) {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        statistics.clear();
+        long start = System.nanoTime();
+        write.run();
+        entityManager.flush();
+        long elapsed = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        session.setJdbcBatchSize(null);
+        return new Run(batchSize, statements, elapsed);
+    }
+
+    private List<Tag> tags(String prefix) {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Tag tag = new Tag();
+            tag.setName(prefix + i);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    private Folder folder(String title, List<Post> posts) {
+        return new Folder(null, title, "", null, new ArrayList<>(posts));
+    }
+
+    private record Run(int batchSize, long statements, long nanos) {
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("batch size %d: %d rows in %d statements, %.0f rows/s, %.0f statements/s",
+                    batchSize, ROWS, statements, ROWS / seconds, statements / seconds);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.gordeser.backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.elasticsearch.PostSearchRepository;
+import org.gordeser.backend.entity.Comment;
+import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.service.CommentService;
+import org.gordeser.backend.service.PostService;
+import org.gordeser.backend.service.SearchOutboxService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements needed to load and render posts and post cards, as the endpoints do.
+ * Every use case must run the same number of statements for a small and a large data set.
+ * Post cards are loaded through {@link PostService}, which completes them with their tags.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PostService.class)
+class FetchPlanTest {
+    private static final int MAX_STATEMENTS = 5;
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private PostSearchRepository postSearchRepository;
+    @MockBean
+    private SearchOutboxService searchOutboxService;
+    @MockBean
+    private CommentService commentService;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private Statistics statistics;
+    private List<Tag> tags;
+    private User smallPatron;
+    private User largePatron;
+    private Folder smallFolder;
+    private Folder largeFolder;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        tags = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Tag tag = new Tag();
+            tag.setName("fetch_tag_" + i);
+            tags.add(entityManager.persist(tag));
+        }
+        smallPatron = patron("small");
+        largePatron = patron("large");
+        smallFolder = folder(smallPatron, posts(smallPatron, 5));
+        largeFolder = folder(largePatron, posts(largePatron, 20));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFeedCardsRunConstantStatements() throws Exception {
+        List<Long> smallIds = postIds(smallPatron);
+        List<Long> largeIds = postIds(largePatron);
+
+        long small = statementsFor(() -> postService.readCardsByIdsInOrder(smallIds));
+        long large = statementsFor(() -> postService.readCardsByIdsInOrder(largeIds));
+
+        assertEquals(small, large);
+        assertEquals(2, large, "cards and their tag names");
+    }
+
+    @Test
+    void testGuestCardsRunConstantStatements() throws Exception {
+        long small = statementsFor(() -> postService.readCards(PageRequest.of(0, 5)).getContent());
+        long large = statementsFor(() -> postService.readCards(PageRequest.of(0, 20)).getContent());
+
+        assertEquals(small, large);
+        assertTrue(large <= 3, "page ran " + large + " statements");
+    }
+
+    @Test
+    void testCardsCarryImageAuthorAndTags() {
+        List<PostCard> cards = postService.getPostsByPatronId(smallPatron.getId());
+
+        assertEquals(5, cards.size());
+        assertEquals("small", cards.get(0).getPatronUsername());
+        assertNotNull(cards.get(0).getImageUrl());
+        assertEquals(2, cards.get(0).getTags().size());
+    }
+
+    @Test
+    void testPostDetailRunsConstantStatements() throws Exception {
+        Long postId = postIds(largePatron).get(0);
+
+        long detail = statementsFor(() -> postRepository.findById(postId).orElseThrow());
+
+        assertTrue(detail <= MAX_STATEMENTS, "post detail ran " + detail + " statements");
+    }
+
+    @Test
+    void testProfilePostsRunConstantStatements() throws Exception {
+        long small = statementsFor(() -> postService.getPostsByPatronId(smallPatron.getId()));
+        long large = statementsFor(() -> postService.getPostsByPatronId(largePatron.getId()));
+
+        assertEquals(small, large);
+        assertEquals(2, large, "cards and their tag names");
+    }
+
+    @Test
+    void testFolderViewRunsConstantStatements() throws Exception {
+        long small = statementsFor(() -> folderRepository.findById(smallFolder.getId()).orElseThrow());
+        long large = statementsFor(() -> folderRepository.findById(largeFolder.getId()).orElseThrow());
+
+        assertEquals(small, large);
+        assertTrue(large <= MAX_STATEMENTS, "folder view ran " + large + " statements");
+    }
+
+    @Test
+    void testAuthenticatedUserCarriesPreferredTags() {
+        User user = userRepository.findByUsername(smallPatron.getUsername()).orElseThrow();
+        entityManager.clear();
+
+        assertEquals(2, user.getPreferredTags().size());
+    }
+
+    private long statementsFor(Supplier<Object> load) throws Exception {
+        entityManager.clear();
+        statistics.clear();
+        // Rendering the result touches every association a client receives.
+        objectMapper.writeValueAsString(load.get());
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    private User patron(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password123");
+        user.setPreferredTags(new ArrayList<>(tags.subList(0, 2)));
+        return entityManager.persist(user);
+    }
+
+    private List<Post> posts(User patron, int count) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Image image = new Image();
+            image.setFile("https://bucket/images/" + patron.getUsername() + i + ".jpg");
+
+            Post post = new Post();
+            post.setTitle("post " + i);
+            post.setDescription("description " + i);
+            post.setPatron(patron);
+            post.setImage(image);
+            post.setTags(new ArrayList<>(List.of(tags.get(i % tags.size()), tags.get((i + 1) % tags.size()))));
+            post.getComments().add(Comment.builder()
+                    .text("comment " + i)
+                    .authorUsername(patron.getUsername())
+                    .date(LocalDateTime.now())
+                    .post(post)
+                    .build());
+            posts.add(entityManager.persist(post));
+        }
+        return posts;
+    }
+
+    private Folder folder(User patron, List<Post> posts) {
+        return entityManager.persist(new Folder(null, patron.getUsername(), "", patron, new ArrayList<>(posts)));
+    }
+
+    private List<Long> postIds(User patron) {
+        return postRepository.findCardsByPatronId(patron.getId()).stream().map(PostCard::getId).toList();
+    }
+}
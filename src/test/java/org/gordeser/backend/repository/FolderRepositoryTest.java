@@ -4,6 +4,7 @@ import jakarta.persistence.EntityManager;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.mock.TestEntities;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -26,6 +30,8 @@ class FolderRepositoryTest {
     @Autowired
     private  FolderRepository folderRepository;
     @Autowired
+    private PostRepository postRepository;
+    @Autowired
     private EntityManager entityManager;
     @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
@@ -93,4 +99,51 @@ class FolderRepositoryTest {
         List<Folder> folders = folderRepository.findAllByPatron(user2);
         assertTrue(folders.isEmpty());
     }
+
+    @Test
+    void testInsertPostLinksSkipsPresentMissingAndDeletedPosts() {
+        User user1 = TestEntities.getDefaultUser1();
+        entityManager.persist(user1);
+        Post present = post("present", user1);
+        Post added = post("added", user1);
+        Post deleted = post("deleted", user1);
+        Folder folder = new Folder(null, "shrek_photos", "", user1, new ArrayList<>(List.of(present)));
+        entityManager.persist(folder);
+        entityManager.flush();
+        postRepository.markDeleted(deleted.getId(), user1.getId(), LocalDateTime.now());
+
+        int inserted = folderRepository.insertPostLinks(folder.getId(),
+                List.of(present.getId(), added.getId(), deleted.getId(), -1L));
+
+        assertEquals(1, inserted);
+        assertEquals(List.of(present.getId(), added.getId()),
+                folderRepository.findPostIdsByFolderId(folder.getId()).stream().sorted().toList());
+    }
+
+    @Test
+    void testDeletePostLinksOnlyTouchesGivenFolder() {
+        User user1 = TestEntities.getDefaultUser1();
+        entityManager.persist(user1);
+        Post first = post("first", user1);
+        Post second = post("second", user1);
+        Folder folder = new Folder(null, "shrek_photos", "", user1, new ArrayList<>(List.of(first, second)));
+        Folder other = new Folder(null, "kek_photos", "", user1, new ArrayList<>(List.of(first)));
+        entityManager.persist(folder);
+        entityManager.persist(other);
+        entityManager.flush();
+
+        int deleted = folderRepository.deletePostLinks(folder.getId(), List.of(first.getId()));
+
+        assertEquals(1, deleted);
+        assertEquals(List.of(second.getId()), folderRepository.findPostIdsByFolderId(folder.getId()));
+        assertEquals(List.of(first.getId()), folderRepository.findPostIdsByFolderId(other.getId()));
+    }
+
+    private Post post(String title, User patron) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setPatron(patron);
+        entityManager.persist(post);
+        return post;
+    }
 }
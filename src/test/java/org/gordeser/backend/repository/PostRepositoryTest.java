@@ -1,7 +1,9 @@
 package org.gordeser.backend.repository;
 
 import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostCard;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Folder;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.Tag;
 import org.gordeser.backend.mock.TestEntities;
@@ -13,10 +15,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class PostRepositoryTest {
@@ -31,8 +35,8 @@ class PostRepositoryTest {
 
     @Test
     void testFindAll() {
-        Post post = new Post(null, "empty", "empty", null,  null, null, null, null);
-        Post post1 = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "empty", "empty", null,  null, null, null, null, null, null, null);
+        Post post1 = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         entityManager.persist(post);
         entityManager.persist(post1);
         entityManager.flush();
@@ -48,8 +52,8 @@ class PostRepositoryTest {
     void testFindByTagsInPositive() {
         Tag tag1 = TestEntities.getDefaultTag1();
         Tag tag2 = TestEntities.getDefaultTag2();
-        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null);
-        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null);
+        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null, null, null, null);
+        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null, null, null, null);
         entityManager.persist(tag1);
         entityManager.persist(tag2);
         entityManager.persist(post);
@@ -66,8 +70,8 @@ class PostRepositoryTest {
     void testFindByTagsInEmpty() {
         Tag tag1 = TestEntities.getDefaultTag1();
         Tag tag2 = TestEntities.getDefaultTag2();
-        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null);
-        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null);
+        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null, null, null, null);
+        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null, null, null, null);
         entityManager.persist(tag1);
         entityManager.persist(tag2);
         entityManager.persist(post);
@@ -83,8 +87,8 @@ class PostRepositoryTest {
         Tag tag1 = TestEntities.getDefaultTag1();
         Tag tag2 = TestEntities.getDefaultTag2();
         Tag tag3 = TestEntities.getDefaultTag3();
-        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null);
-        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null);
+        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null, null, null, null);
+        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null, null, null, null);
         entityManager.persist(tag1);
         entityManager.persist(tag2);
         entityManager.persist(tag3);
@@ -101,9 +105,9 @@ class PostRepositoryTest {
         Tag tag1 = TestEntities.getDefaultTag1();
         Tag tag2 = TestEntities.getDefaultTag2();
         Tag tag3 = TestEntities.getDefaultTag3();
-        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null);
-        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null);
-        Post post2 = new Post(null, "somethingInBetween", "somethingInBetween", List.of(tag3),  null, null, null, null);
+        Post post = new Post(null, "empty", "empty", List.of(tag1, tag2),  null, null, null, null, null, null, null);
+        Post post1 = new Post(null, "full", "full", List.of(tag1),  null, null, null, null, null, null, null);
+        Post post2 = new Post(null, "somethingInBetween", "somethingInBetween", List.of(tag3),  null, null, null, null, null, null, null);
         entityManager.persist(tag1);
         entityManager.persist(tag2);
         entityManager.persist(tag3);
@@ -117,6 +121,64 @@ class PostRepositoryTest {
          assert(postList.equals(List.of(post, post1)));
     }
 
+    @Test
+    void testFindNewestCardsPagesNewestFirst() {
+        Post post = entityManager.persist(new Post(null, "first", "first", null,  null, null, null, null, null, null, null));
+        Post post1 = entityManager.persist(new Post(null, "second", "second", null,  null, null, null, null, null, null, null));
+        Post post2 = entityManager.persist(new Post(null, "third", "third", null,  null, null, null, null, null, null, null));
+        entityManager.flush();
+
+        LocalDateTime since = LocalDateTime.of(1970, 1, 1, 0, 0);
+        List<PostCard> firstPage = postRepository.findNewestCards(since, PageRequest.of(0, 2));
+        PostCard last = firstPage.get(1);
+        List<PostCard> secondPage = postRepository.findNewestCardsBefore(
+                since, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(post2.getId(), post1.getId()), firstPage.stream().map(PostCard::getId).toList());
+        assertEquals(List.of(post.getId()), secondPage.stream().map(PostCard::getId).toList());
+        assertTrue(postRepository.findNewestCards(LocalDateTime.now().plusDays(1), PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    void testCreatedAtIsSetOnInsert() {
+        Post post = entityManager.persist(new Post(null, "first", "first", null,  null, null, null, null, null, null, null));
+        entityManager.flush();
+
+        assertNotNull(post.getCreatedAt());
+    }
+
+    @Test
+    void testFindCardsInFolderBeforeSkipsOtherPosts() {
+        Post post = entityManager.persist(new Post(null, "first", "first", null,  null, null, null, null, null, null, null));
+        entityManager.persist(new Post(null, "outside", "outside", null,  null, null, null, null, null, null, null));
+        Post post1 = entityManager.persist(new Post(null, "second", "second", null,  null, null, null, null, null, null, null));
+        Folder folder = entityManager.persist(new Folder(null, "folder", "", null, List.of(post, post1)));
+        entityManager.flush();
+
+        List<PostCard> firstPage = postRepository.findCardsInFolderBefore(
+                folder.getId(), Long.MAX_VALUE, PageRequest.of(0, 1));
+        List<PostCard> secondPage = postRepository.findCardsInFolderBefore(
+                folder.getId(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertEquals(post1.getId(), firstPage.get(0).getId());
+        assertEquals(List.of(post.getId()), secondPage.stream().map(PostCard::getId).toList());
+        assertEquals(2, postRepository.findCardsInFolderBefore(
+                folder.getId(), Long.MAX_VALUE, PageRequest.of(0, 5)).size());
+    }
+
+    @Test
+    void testAddToCommentCountShowsOnCards() {
+        Post post = entityManager.persist(new Post(null, "first", "first", null,  null, null, null, null, null, null, null));
+        entityManager.flush();
+
+        assertEquals(1, postRepository.addToCommentCount(post.getId(), 1));
+        assertEquals(1, postRepository.addToCommentCount(post.getId(), 1));
+        assertEquals(0, postRepository.addToCommentCount(-1L, 1));
+        entityManager.clear();
+
+        assertEquals(2, postRepository.findCardsByIds(List.of(post.getId())).get(0).getCommentCount());
+    }
+
 
 
 
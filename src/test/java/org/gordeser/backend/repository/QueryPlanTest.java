@@ -0,0 +1,351 @@
+package org.gordeser.backend.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL of every post, folder and tag repository query against a
+ * realistically sized PostgreSQL data set and fails if a plan scans a whole table or sorts.
+ * <p>
+ * The statements are recorded with their bound parameters while the repository method runs and
+ * explained with the same parameters. Queries that read every row by design are listed as full
+ * reads; every other query of the repositories must be checked here. The test is skipped where
+ * Docker is not available.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:xxx/migration,classpath:xxx/query-plan",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+    private static final long PATRON_ID = 1_000_001L;
+    private static final long FOLDER_ID = 1_000_001L;
+    private static final long POST_ID = 1_000_101L;
+    private static final long COMMENT_ID = 1_000_201L;
+    private static final long TAG_ID = 1_000_001L;
+    private static final long OTHER_TAG_ID = 1_000_002L;
+    // Rows that are deleted without their links must not exist, or the foreign keys would fail.
+    private static final long MISSING_ID = -1L;
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private SqlRecorder sqlRecorder;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driverClassName", postgresContainer::getDriverClassName);
+    }
+
+    @Test
+    void testPostRepositoryQueriesUseIndexes() throws Exception {
+        Tag tag = entityManager.find(Tag.class, TAG_ID);
+        List<Long> postIds = List.of(POST_ID, POST_ID + 1);
+        LocalDateTime since = LocalDateTime.now().minusDays(30);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById(Long)", () -> postRepository.findById(POST_ID));
+        queries.put("findAllById(Iterable)", () -> postRepository.findAllById(postIds));
+        queries.put("findByTagsIn(List,Pageable)", () -> postRepository.findByTagsIn(List.of(tag), PAGE));
+        queries.put("searchByKeywords(List)", () -> postRepository.searchByKeywords(List.of(tag.getName())));
+        queries.put("findCardsByIds(Collection)", () -> postRepository.findCardsByIds(postIds));
+        queries.put("findCardsByPatronId(Long)", () -> postRepository.findCardsByPatronId(PATRON_ID));
+        queries.put("streamCardsByPatronId(Long)", () -> {
+            try (Stream<PostCard> cards = postRepository.streamCardsByPatronId(PATRON_ID)) {
+                cards.findFirst();
+            }
+        });
+        queries.put("findNewestCards(LocalDateTime,Pageable)", () -> postRepository.findNewestCards(since, PAGE));
+        queries.put("findNewestCardsBefore(LocalDateTime,LocalDateTime,Long,Pageable)",
+                () -> postRepository.findNewestCardsBefore(since, LocalDateTime.now().minusDays(1), POST_ID, PAGE));
+        queries.put("findCardsByPatronIdBefore(Long,Long,Pageable)",
+                () -> postRepository.findCardsByPatronIdBefore(PATRON_ID, Long.MAX_VALUE, PAGE));
+        queries.put("findCardsInFolderBefore(Long,Long,Pageable)",
+                () -> postRepository.findCardsInFolderBefore(FOLDER_ID, Long.MAX_VALUE, PAGE));
+        queries.put("findIndexChunk(Long,Pageable)",
+                () -> postRepository.findIndexChunk(POST_ID, PageRequest.of(0, 500)));
+        queries.put("findIndexViewsByIds(Collection)", () -> postRepository.findIndexViewsByIds(postIds));
+        queries.put("addToCommentCount(Long,int)", () -> postRepository.addToCommentCount(POST_ID, 1));
+        queries.put("findTagNamesByPostIds(Collection)", () -> postRepository.findTagNamesByPostIds(postIds));
+        queries.put("findIdsByPatronId(Long,Pageable)",
+                () -> postRepository.findIdsByPatronId(PATRON_ID, PageRequest.of(0, 500)));
+        queries.put("countByPatronId(Long)", () -> postRepository.countByPatronId(PATRON_ID));
+        queries.put("findImageIdsByIds(Collection)", () -> postRepository.findImageIdsByIds(postIds));
+        queries.put("markDeleted(Long,Long,LocalDateTime)",
+                () -> postRepository.markDeleted(POST_ID, PATRON_ID, LocalDateTime.now()));
+        queries.put("findDeletedIds(Pageable)", () -> postRepository.findDeletedIds(PageRequest.of(0, 200)));
+        queries.put("subtractComments(Collection)", () -> postRepository.subtractComments(List.of(COMMENT_ID)));
+        queries.put("deleteTagLinks(Collection)", () -> postRepository.deleteTagLinks(postIds));
+        queries.put("deleteFolderLinks(Collection)", () -> postRepository.deleteFolderLinks(postIds));
+        queries.put("deletePatronLinks(Collection)", () -> postRepository.deletePatronLinks(postIds));
+        queries.put("deleteWithoutLinks(Collection)", () -> postRepository.deleteWithoutLinks(List.of(MISSING_ID)));
+
+        // findAll and streamCards read every post, findRandom excludes a few tags from all posts
+        // and findCards counts every post for its page total.
+        assertQueriesUseIndexes(PostRepository.class, queries,
+                Set.of("findAll()", "findAll(Pageable)", "findRandom(Pageable,List)", "streamCards()",
+                        "findCards(Pageable)"));
+    }
+
+    @Test
+    void testFolderRepositoryQueriesUseIndexes() throws Exception {
+        User patron = entityManager.find(User.class, PATRON_ID);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById(Long)", () -> folderRepository.findById(FOLDER_ID));
+        queries.put("findByPatronAndTitle(User,String)",
+                () -> folderRepository.findByPatronAndTitle(patron, "folder " + FOLDER_ID));
+        queries.put("findAllByPatron(User)", () -> folderRepository.findAllByPatron(patron));
+        queries.put("findIdsByPatronId(Long,Pageable)", () -> folderRepository.findIdsByPatronId(PATRON_ID, PAGE));
+        queries.put("updateDetails(Long,String,String)",
+                () -> folderRepository.updateDetails(FOLDER_ID, "renamed", "description"));
+        queries.put("findPostIdsByFolderId(Long)", () -> folderRepository.findPostIdsByFolderId(FOLDER_ID));
+        queries.put("insertPostLinks(Long,Collection)",
+                () -> folderRepository.insertPostLinks(FOLDER_ID, List.of(POST_ID)));
+        queries.put("deletePostLinks(Long,Collection)",
+                () -> folderRepository.deletePostLinks(FOLDER_ID, List.of(FOLDER_ID)));
+        queries.put("deletePostLinks(Collection)", () -> folderRepository.deletePostLinks(List.of(FOLDER_ID)));
+        queries.put("deletePatronLinks(Collection)", () -> folderRepository.deletePatronLinks(List.of(FOLDER_ID)));
+        queries.put("deleteWithoutLinks(Collection)",
+                () -> folderRepository.deleteWithoutLinks(List.of(MISSING_ID)));
+
+        // findAll and streamAll read every folder.
+        assertQueriesUseIndexes(FolderRepository.class, queries, Set.of("findAll()", "streamAll()"));
+    }
+
+    @Test
+    void testTagRepositoryQueriesUseIndexes() throws Exception {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByName(String)", () -> tagRepository.findByName("tag" + TAG_ID));
+        queries.put("findNameById(Long)", () -> tagRepository.findNameById(TAG_ID));
+        queries.put("rename(Long,String)", () -> tagRepository.rename(TAG_ID, "renamed"));
+        queries.put("copyPostLinks(Long,Long)", () -> tagRepository.copyPostLinks(TAG_ID, OTHER_TAG_ID));
+        queries.put("copyUserLinks(Long,Long)", () -> tagRepository.copyUserLinks(TAG_ID, OTHER_TAG_ID));
+        queries.put("deletePostLinks(Long)", () -> tagRepository.deletePostLinks(TAG_ID));
+        queries.put("deleteUserLinks(Long)", () -> tagRepository.deleteUserLinks(TAG_ID));
+        queries.put("deleteWithoutLinks(Long)", () -> tagRepository.deleteWithoutLinks(MISSING_ID));
+
+        // streamAll reads every tag.
+        assertQueriesUseIndexes(TagRepository.class, queries, Set.of("streamAll()"));
+    }
+
+    private void assertQueriesUseIndexes(Class<?> repository, Map<String, Runnable> queries, Set<String> fullReads)
+            throws Exception {
+        Set<String> declared = Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                .map(QueryPlanTest::signature)
+                .collect(Collectors.toSet());
+        Set<String> covered = new HashSet<>(queries.keySet());
+        covered.addAll(fullReads);
+        assertEquals(declared, covered,
+                "every query of " + repository.getSimpleName() + " must be explained or listed as a full read");
+
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            List<RecordedStatement> statements = sqlRecorder.record(query.getValue());
+            assertFalse(statements.isEmpty(), query.getKey() + " ran no statement");
+            for (RecordedStatement statement : statements) {
+                List<String> nodes = planNodes(statement);
+                String message = query.getKey() + " plans " + nodes + " for: " + statement.sql();
+                assertFalse(nodes.contains("Seq Scan"), message);
+                assertTrue(nodes.stream().noneMatch(node -> node.endsWith("Sort")), message);
+            }
+        }
+    }
+
+    private List<String> planNodes(RecordedStatement statement) throws Exception {
+        String plan = new JdbcTemplate(dataSource).query(connection -> {
+            PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql());
+            statement.bind(explain);
+            return explain;
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+        assertNotNull(plan, "no plan for: " + statement.sql());
+
+        List<String> nodes = new ArrayList<>();
+        collectNodes(objectMapper.readTree(plan).get(0).get("Plan"), nodes);
+        return nodes;
+    }
+
+    private static void collectNodes(JsonNode node, List<String> nodes) {
+        nodes.add(node.get("Node Type").asText());
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> collectNodes(child, nodes));
+        }
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    @TestConfiguration
+    static class QueryPlanConfiguration {
+        @Bean
+        static SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+    }
+
+    /**
+     * A prepared statement with the parameters it was executed with.
+     */
+    record RecordedStatement(String sql, List<Object> parameters, List<Integer> nullTypes) {
+        void bind(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < parameters.size(); i++) {
+                if (parameters.get(i) == null) {
+                    statement.setNull(i + 1, nullTypes.get(i));
+                } else {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Wraps the data source so that the prepared statements run while recording are kept with
+     * their bound parameters.
+     */
+    static class SqlRecorder implements BeanPostProcessor {
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        List<RecordedStatement> record(Runnable query) {
+            statements.clear();
+            recording = true;
+            try {
+                query.run();
+            } finally {
+                recording = false;
+            }
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource source ? proxy(DataSource.class, source, this::wrap) : bean;
+        }
+
+        private Object wrap(Method method, Object[] args, Object result) {
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection, this::wrap);
+            }
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return recordingStatement(statement, (String) args[0]);
+            }
+            return result;
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            Map<Integer, Integer> nullTypes = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> result, (method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    nullTypes.put(index, name.equals("setNull") ? (Integer) args[1] : null);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                    nullTypes.clear();
+                } else if (recording && (name.startsWith("execute") || name.equals("addBatch"))) {
+                    statements.add(new RecordedStatement(sql, new ArrayList<>(parameters.values()),
+                            new ArrayList<>(nullTypes.values())));
+                }
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+            return proxy(type, target, wrapper, (method, args) -> { });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper, CallListener listener) {
+            InvocationHandler handler = (self, method, args) -> {
+                listener.beforeCall(method, args);
+                try {
+                    return wrapper.wrap(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private interface ResultWrapper {
+            Object wrap(Method method, Object[] args, Object result);
+        }
+
+        private interface CallListener {
+            void beforeCall(Method method, Object[] args);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.AuthenticatedUser;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.AccountDeletionJob;
+import org.gordeser.backend.entity.Comment;
+import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.entity.PasswordResetToken;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.repository.AccountDeletionJobRepository;
+import org.gordeser.backend.repository.CommentRepository;
+import org.gordeser.backend.repository.FolderRepository;
+import org.gordeser.backend.repository.ImageRepository;
+import org.gordeser.backend.repository.PasswordResetTokenRepository;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"account.deletion.chunk-size=2", "account.deletion.base-backoff-ms=600000",
+        "account.deletion.max-attempts=2"})
+class AccountDeletionServiceTest {
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
+    private AccountDeletionJobRepository accountDeletionJobRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JwtService jwtService;
+    @SpyBean
+    private ImageRepository imageRepository;
+    @MockBean
+    private SearchOutboxService searchOutboxService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private User user;
+    private User other;
+    private Tag tag;
+    private List<Post> posts;
+    private Post otherPost;
+    private Folder otherFolder;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Tag newTag = new Tag();
+        newTag.setName("deletion_" + suffix);
+        tag = tagRepository.save(newTag);
+        user = user("gone_" + suffix, List.of(tag));
+        other = user("stays_" + suffix, List.of());
+
+        posts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            posts.add(post(user, "post " + i));
+        }
+        otherPost = post(other, "other post");
+        comment(posts.get(0), other.getUsername());
+        comment(otherPost, user.getUsername());
+        comment(otherPost, other.getUsername());
+
+        folderRepository.save(new Folder(null, "own", "", user, new ArrayList<>(List.of(posts.get(0), otherPost))));
+        otherFolder = folderRepository.save(new Folder(null, "other", "", other,
+                new ArrayList<>(List.of(posts.get(1), otherPost))));
+        passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .token(UUID.randomUUID().toString())
+                .user(user)
+                .creationDate(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void testSubmitLocksUserOut() throws NotFound {
+        AccountDeletionJob job = accountDeletionService.submit(user.getId());
+
+        assertEquals(AccountDeletionJob.Status.PENDING, job.getStatus());
+        assertEquals(3L, job.getTotalPosts());
+        User lockedOut = userRepository.findById(user.getId()).orElseThrow();
+        assertNull(lockedOut.getPassword());
+        assertEquals(user.getTokenVersion() + 1, (int) lockedOut.getTokenVersion());
+        assertEquals(job.getId(), accountDeletionService.submit(user.getId()).getId());
+        assertEquals(3, postRepository.countByPatronId(user.getId()));
+
+        // Even a token issued after the deletion was requested cannot change anything.
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(),
+                lockedOut.getTokenVersion());
+        assertThrows(CredentialsExpiredException.class, () -> jwtService.checkActive(principal));
+        assertDoesNotThrow(() -> jwtService.checkActive(
+                new AuthenticatedUser(other.getId(), other.getUsername(), other.getTokenVersion())));
+        runAll();
+    }
+
+    @Test
+    void testRowsAddedDuringDeletionAreDeletedBeforeUser() throws NotFound {
+        AccountDeletionJob job = accountDeletionService.submit(user.getId());
+        // Two post chunks and the comment chunk; only the folder of the user is left.
+        for (int i = 0; i < 3; i++) {
+            assertTrue(accountDeletionService.runNext());
+        }
+
+        // A write that was already running when the deletion was requested.
+        Post late = post(user, "late post");
+        comment(otherPost, user.getUsername());
+
+        runAll();
+
+        AccountDeletionJob finished = accountDeletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.Status.DONE, finished.getStatus());
+        assertEquals(0, finished.getAttempts());
+        assertEquals(4L, finished.getDeletedPosts());
+        assertEquals(3L, finished.getDeletedComments());
+        assertFalse(userRepository.existsById(user.getId()));
+        assertFalse(postRepository.existsById(late.getId()));
+        assertTrue(commentRepository.findIdsByAuthorUsername(user.getUsername(), Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void testRunDeletesAccountInChunks() throws NotFound {
+        AccountDeletionJob job = accountDeletionService.submit(user.getId());
+
+        int chunks = runAll();
+
+        // Two post chunks, one comment chunk, one folder chunk and the account itself.
+        assertEquals(5, chunks);
+        AccountDeletionJob finished = accountDeletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.Status.DONE, finished.getStatus());
+        assertEquals(3L, finished.getDeletedPosts());
+        assertEquals(2L, finished.getDeletedComments());
+        assertEquals(1L, finished.getDeletedFolders());
+        assertNotNull(finished.getFinishedAt());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        posts.forEach(post -> assertFalse(postRepository.existsById(post.getId())));
+        posts.forEach(post -> verify(searchOutboxService, times(1)).enqueueDelete(post.getId()));
+        assertEquals(0, imageRepository.findAllById(posts.stream().map(p -> p.getImage().getId()).toList()).size());
+        assertTrue(commentRepository.findIdsByAuthorUsername(user.getUsername(), Pageable.unpaged()).isEmpty());
+        assertEquals(1, (int) postRepository.findById(otherPost.getId()).orElseThrow().getCommentCount());
+        assertEquals(List.of(otherFolder.getId()), folderRepository.findIdsByPatronId(other.getId(), Pageable.unpaged()));
+        assertEquals(List.of(otherPost.getId()), folderRepository.findById(otherFolder.getId()).orElseThrow()
+                .getPosts().stream().map(Post::getId).toList());
+        assertTrue(tagRepository.existsById(tag.getId()));
+        assertTrue(userRepository.existsById(other.getId()));
+        assertEquals(finished, accountDeletionService.getJobByUserId(user.getId()));
+    }
+
+    @Test
+    void testFailedChunkIsRolledBackAndRescheduled() throws NotFound {
+        doThrow(new RuntimeException("database unavailable")).when(imageRepository).deleteAllByIdInBatch(anyList());
+        AccountDeletionJob job = accountDeletionService.submit(user.getId());
+
+        assertTrue(accountDeletionService.runNext());
+        assertFalse(accountDeletionService.runNext());
+
+        AccountDeletionJob rescheduled = accountDeletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.Status.PENDING, rescheduled.getStatus());
+        assertEquals(1, rescheduled.getAttempts());
+        assertEquals(0L, rescheduled.getDeletedPosts());
+        assertEquals("database unavailable", rescheduled.getLastError());
+        assertTrue(rescheduled.getAvailableAt().isAfter(rescheduled.getCreatedAt()));
+        assertEquals(3, postRepository.countByPatronId(user.getId()));
+    }
+
+    @Test
+    void testJobFailsAfterMaxAttempts() throws NotFound {
+        doThrow(new RuntimeException("database unavailable")).when(imageRepository).deleteAllByIdInBatch(anyList());
+        AccountDeletionJob job = accountDeletionService.submit(user.getId());
+        assertTrue(accountDeletionService.runNext());
+
+        // The last attempt is due.
+        AccountDeletionJob retried = accountDeletionJobRepository.findById(job.getId()).orElseThrow();
+        retried.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        accountDeletionJobRepository.save(retried);
+        assertTrue(accountDeletionService.runNext());
+        assertFalse(accountDeletionService.runNext());
+
+        AccountDeletionJob failed = accountDeletionJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.Status.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertEquals("database unavailable", failed.getLastError());
+        assertNotNull(failed.getFinishedAt());
+        assertEquals(3, postRepository.countByPatronId(user.getId()));
+
+        // The account is no longer being deleted, and its deletion can be requested again.
+        User lockedOut = userRepository.findById(user.getId()).orElseThrow();
+        assertDoesNotThrow(() -> jwtService.checkActive(
+                new AuthenticatedUser(user.getId(), user.getUsername(), lockedOut.getTokenVersion())));
+        reset(imageRepository);
+        AccountDeletionJob again = accountDeletionService.submit(user.getId());
+        assertNotEquals(job.getId(), again.getId());
+        assertEquals(AccountDeletionJob.Status.PENDING, again.getStatus());
+        runAll();
+        assertFalse(userRepository.existsById(user.getId()));
+    }
+
+    @Test
+    void testGetJobWithoutDeletion() {
+        assertThrows(NotFound.class, () -> accountDeletionService.getJobByUserId(other.getId()));
+    }
+
+    private int runAll() {
+        int chunks = 0;
+        while (accountDeletionService.runNext()) {
+            assertTrue(++chunks < 20, "job did not finish");
+        }
+        return chunks;
+    }
+
+    private User user(String username, List<Tag> preferredTags) {
+        User newUser = new User();
+        newUser.setUsername(username);
+        newUser.setEmail(username + "@example.com");
+        newUser.setPassword("password123");
+        newUser.setPreferredTags(new ArrayList<>(preferredTags));
+        return userRepository.save(newUser);
+    }
+
+    private Post post(User patron, String title) {
+        Image image = new Image();
+        image.setFile("https://bucket/" + UUID.randomUUID());
+        Post post = new Post();
+        post.setTitle(title);
+        post.setPatron(patron);
+        post.setImage(image);
+        post.setTags(new ArrayList<>(List.of(tag)));
+        return postRepository.save(post);
+    }
+
+    private void comment(Post post, String authorUsername) {
+        commentRepository.save(Comment.builder()
+                .text("comment")
+                .post(post)
+                .authorUsername(authorUsername)
+                .date(LocalDateTime.now())
+                .build());
+        transactionTemplate.executeWithoutResult(status -> postRepository.addToCommentCount(post.getId(), 1));
+    }
+}
@@ -0,0 +1,118 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.exception.ServiceUnavailableException;
+import org.gordeser.backend.util.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class AssociationServiceTest {
+    @Autowired
+    private AssociationService associationService;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+
+    @Test
+    void testGetAssociationsIsCachedByNormalizedTags() {
+        when(associationServiceClient.getAssociations(List.of("beach", "sunset")))
+                .thenReturn(List.of("sea", "summer"));
+        long hits = associationService.stats().hitCount();
+
+        List<String> first = associationService.getAssociations(List.of("sunset", "beach"));
+        List<String> second = associationService.getAssociations(List.of(" beach", "sunset", "sunset "));
+
+        assertEquals(List.of("sea", "summer"), first);
+        assertEquals(first, second);
+        assertEquals(hits + 1, associationService.stats().hitCount());
+        verify(associationServiceClient, times(1)).getAssociations(List.of("beach", "sunset"));
+    }
+
+    @Test
+    void testGetAssociationsWithEmptyResponse() {
+        when(associationServiceClient.getAssociations(List.of("empty"))).thenReturn(null);
+
+        assertEquals(List.of(), associationService.getAssociations(List.of("empty")));
+    }
+
+    @Test
+    void testGetAssociationsFailureIsNotCached() {
+        when(associationServiceClient.getAssociations(List.of("flaky")))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(List.of("stable"));
+
+        assertThrows(IllegalStateException.class, () -> associationService.getAssociations(List.of("flaky")));
+        assertEquals(List.of("stable"), associationService.getAssociations(List.of("flaky")));
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(associationServiceClient.getAssociations(List.of("concurrent"))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of("loaded");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> associationService.getAssociations(List.of("concurrent"))));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("loaded"), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(associationServiceClient, times(1)).getAssociations(List.of("concurrent"));
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailures() {
+        AssociationServiceClient client = mock(AssociationServiceClient.class);
+        AssociationService service = new AssociationService(client, Duration.ofMinutes(10), 100, 2, Duration.ofHours(1));
+        when(client.getAssociations(any(List.class))).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> service.getAssociations(List.of("a")));
+        assertThrows(IllegalStateException.class, () -> service.getAssociations(List.of("b")));
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+        assertThrows(ServiceUnavailableException.class, () -> service.getAssociations(List.of("c")));
+
+        verify(client, times(2)).getAssociations(any(List.class));
+    }
+
+    @Test
+    void testCircuitClosesAfterSuccessfulTrial() {
+        AssociationServiceClient client = mock(AssociationServiceClient.class);
+        AssociationService service = new AssociationService(client, Duration.ofMinutes(10), 100, 1, Duration.ZERO);
+        when(client.getAssociations(List.of("a"))).thenThrow(new IllegalStateException("down"));
+        when(client.getAssociations(List.of("b"))).thenReturn(List.of("c"));
+
+        assertThrows(IllegalStateException.class, () -> service.getAssociations(List.of("a")));
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+
+        assertEquals(List.of("c"), service.getAssociations(List.of("b")));
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+    }
+}
@@ -0,0 +1,155 @@
+package org.gordeser.backend.service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class AwsServiceTest {
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+    private static final int BUFFER_COUNT = 3;
+
+    @Autowired
+    private AwsService awsService;
+    @Autowired
+    @Qualifier("s3UploadExecutor")
+    private ExecutorService uploadExecutor;
+    @MockBean
+    private AmazonS3 s3client;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @Test
+    void testSmallFileIsUploadedWithSinglePut() {
+        InputStream content = new ByteArrayInputStream(new byte[1024]);
+
+        String url = awsService.uploadFile("small.jpg", 1024L, "image/jpeg", content);
+
+        assertEquals("https://test-bucket.s3.us-east-1.amazonaws.com/small.jpg", url);
+        verify(s3client, times(1)).putObject(eq("test-bucket"), eq("small.jpg"), eq(content), any(ObjectMetadata.class));
+        verify(s3client, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testLargeFileIsUploadedInParts() {
+        stubMultipartUpload();
+        when(s3client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber());
+            return result;
+        });
+        long size = 2L * PART_SIZE + 1024;
+
+        awsService.uploadFile("large.jpg", size, "image/jpeg", new ByteArrayInputStream(new byte[(int) size]));
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3client, times(3)).uploadPart(parts.capture());
+        assertEquals(size, parts.getAllValues().stream().mapToLong(UploadPartRequest::getPartSize).sum());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3client, times(1)).completeMultipartUpload(complete.capture());
+        assertEquals("upload-1", complete.getValue().getUploadId());
+        assertEquals(List.of(1, 2, 3), complete.getValue().getPartETags().stream().map(PartETag::getPartNumber).toList());
+        verify(s3client, never()).putObject(any(), any(), any(InputStream.class), any());
+    }
+
+    @Test
+    void testFailedPartAbortsUpload() {
+        stubMultipartUpload();
+        when(s3client.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonClientException("part failed"));
+        long size = 2L * PART_SIZE;
+
+        assertThrows(AmazonClientException.class, () ->
+                awsService.uploadFile("broken.jpg", size, "image/jpeg", new ByteArrayInputStream(new byte[(int) size])));
+
+        verify(s3client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testFailedPartReturnsBuffersOfPartsThatNeverStarted() throws Exception {
+        stubMultipartUpload();
+        CountDownLatch endOfFile = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        // Keeps one of the two upload threads busy, so the third part is still queued when the upload aborts.
+        uploadExecutor.submit(() -> {
+            blocker.await();
+            return null;
+        });
+        when(s3client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            if (request.getPartNumber() == 1) {
+                endOfFile.await();
+                throw new AmazonClientException("part failed");
+            }
+            new CountDownLatch(1).await();
+            return null;
+        });
+        long size = 2L * PART_SIZE + 1024;
+        InputStream content = new ByteArrayInputStream(new byte[(int) size]) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int read = super.read(b, off, len);
+                if (read < 0) {
+                    endOfFile.countDown();
+                }
+                return read;
+            }
+        };
+
+        try {
+            assertThrows(AmazonClientException.class, () ->
+                    awsService.uploadFile("broken.jpg", size, "image/jpeg", content));
+        } finally {
+            blocker.countDown();
+        }
+
+        Semaphore bufferPermits = (Semaphore) ReflectionTestUtils.getField(awsService, "bufferPermits");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bufferPermits.availablePermits() < BUFFER_COUNT && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(BUFFER_COUNT, bufferPermits.availablePermits());
+        verify(s3client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    private void stubMultipartUpload() {
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload-1");
+        when(s3client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+    }
+}
@@ -0,0 +1,210 @@
+package org.gordeser.backend.service;
+
+import com.amazonaws.AmazonClientException;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.BulkIngestResult;
+import org.gordeser.backend.dto.BulkItemStatus;
+import org.gordeser.backend.dto.BulkPostItem;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.InvalidManifest;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"ingest.batch-size=3", "ingest.max-in-flight=2", "ingest.upload-threads=1",
+        "ingest.queue-capacity=0"})
+class BulkIngestServiceTest {
+    @Autowired
+    private BulkIngestService bulkIngestService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @SpyBean
+    private ImageService imageService;
+    @SpyBean
+    private PostPurgeService postPurgeService;
+    @MockBean
+    private AwsService awsService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private User user;
+    private Tag tag;
+
+    @BeforeEach
+    void setUp() {
+        String name = UUID.randomUUID().toString().substring(0, 8);
+        User newUser = new User();
+        newUser.setUsername("bulk_" + name);
+        newUser.setEmail("bulk_" + name + "@example.com");
+        newUser.setPassword("password123");
+        user = userRepository.save(newUser);
+
+        Tag newTag = new Tag();
+        newTag.setName("bulk_tag_" + name);
+        tag = tagRepository.save(newTag);
+
+        when(awsService.uploadFile(anyString(), anyLong(), any(), any(InputStream.class)))
+                .thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+    }
+
+    @Test
+    void testIngestFilesCreatesPostsInChunks() throws Exception {
+        List<BulkPostItem> manifest = new ArrayList<>();
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            manifest.add(new BulkPostItem("photo" + i + ".jpg", "title " + i, "description " + i, List.of(tag.getId())));
+            files.add(image("photo" + i + ".jpg"));
+        }
+
+        BulkIngestResult result = bulkIngestService.ingestFiles(user.getId(), manifest, files);
+
+        assertEquals(7, result.getCreated());
+        assertEquals(0, result.getFailed());
+        List<Long> postIds = result.getItems().stream().map(BulkItemStatus::getPostId).toList();
+        assertEquals(7, postRepository.findTagNamesByPostIds(postIds).size());
+        assertEquals(7, postRepository.findCardsByPatronId(user.getId()).size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i, result.getItems().get(i).getIndex());
+            assertEquals("photo" + i + ".jpg", result.getItems().get(i).getFile());
+        }
+    }
+
+    @Test
+    void testIngestFilesReportsFailedEntries() throws Exception {
+        List<BulkPostItem> manifest = List.of(
+                new BulkPostItem("ok.jpg", "ok", null, List.of(tag.getId())),
+                new BulkPostItem("missing.jpg", "missing", null, null),
+                new BulkPostItem("tagged.jpg", "unknown tag", null, List.of(-1L)),
+                new BulkPostItem("broken.jpg", "upload fails", null, null));
+        List<MultipartFile> files = List.of(image("ok.jpg"), image("tagged.jpg"), image("broken.jpg"));
+        when(awsService.uploadFile(contains("broken"), anyLong(), any(), any(InputStream.class)))
+                .thenThrow(new AmazonClientException("S3 unavailable"));
+
+        BulkIngestResult result = bulkIngestService.ingestFiles(user.getId(), manifest, files);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(BulkItemStatus.Status.CREATED, result.getItems().get(0).getStatus());
+        assertNotNull(result.getItems().get(0).getPostId());
+        assertEquals("File not found in the request", result.getItems().get(1).getError());
+        assertEquals("Tag not found: -1", result.getItems().get(2).getError());
+        assertEquals(BulkItemStatus.Status.FAILED, result.getItems().get(3).getStatus());
+        assertEquals(1, postRepository.findCardsByPatronId(user.getId()).size());
+    }
+
+    @Test
+    void testIngestFilesRetriesUploadsRejectedByFullExecutor() throws Exception {
+        when(awsService.uploadFile(anyString(), anyLong(), any(), any(InputStream.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return "https://bucket/" + invocation.getArgument(0);
+        });
+        List<BulkPostItem> manifest = new ArrayList<>();
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            manifest.add(new BulkPostItem("slow" + i + ".jpg", "slow " + i, null, null));
+            files.add(image("slow" + i + ".jpg"));
+        }
+
+        BulkIngestResult result = bulkIngestService.ingestFiles(user.getId(), manifest, files);
+
+        assertEquals(5, result.getCreated());
+        assertEquals(0, result.getFailed());
+    }
+
+    @Test
+    void testIngestFilesRejectsTooLongTexts() throws Exception {
+        List<BulkPostItem> manifest = List.of(
+                new BulkPostItem("ok.jpg", "ok", "d".repeat(255), null),
+                new BulkPostItem("title.jpg", "t".repeat(41), null, null),
+                new BulkPostItem("description.jpg", "description", "d".repeat(256), null));
+        List<MultipartFile> files = List.of(image("ok.jpg"), image("title.jpg"), image("description.jpg"));
+
+        BulkIngestResult result = bulkIngestService.ingestFiles(user.getId(), manifest, files);
+
+        assertEquals(1, result.getCreated());
+        assertEquals("Title is longer than 40 characters", result.getItems().get(1).getError());
+        assertEquals("Description is longer than 255 characters", result.getItems().get(2).getError());
+        verify(awsService, times(1)).uploadFile(anyString(), anyLong(), any(), any(InputStream.class));
+    }
+
+    @Test
+    void testFailedChunkIsSavedPostByPost() throws Exception {
+        List<BulkPostItem> manifest = List.of(
+                new BulkPostItem("a.jpg", "a", null, null),
+                new BulkPostItem("bad.png", "bad", null, null),
+                new BulkPostItem("c.jpg", "c", null, null));
+        List<MultipartFile> files = List.of(image("a.jpg"), image("bad.png"), image("c.jpg"));
+        doThrow(new IllegalStateException("Broken image"))
+                .when(imageService).publishUploaded(argThat(image -> image.getStorageKey().endsWith(".png")));
+
+        BulkIngestResult result = bulkIngestService.ingestFiles(user.getId(), manifest, files);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(BulkItemStatus.Status.CREATED, result.getItems().get(0).getStatus());
+        assertEquals("Broken image", result.getItems().get(1).getError());
+        assertEquals(BulkItemStatus.Status.CREATED, result.getItems().get(2).getStatus());
+        assertEquals(2, postRepository.findCardsByPatronId(user.getId()).size());
+        verify(postPurgeService, times(1)).scheduleObjectDeletion(argThat(keys ->
+                keys.size() == 1 && keys.iterator().next().endsWith(".png")));
+    }
+
+    @Test
+    void testIngestArchiveReadsEntriesByPath() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : List.of("trip/a.jpg", "trip/b.png")) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write((name + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        MockMultipartFile archive = new MockMultipartFile("archive", "trip.zip", "application/zip", bytes.toByteArray());
+        List<BulkPostItem> manifest = List.of(
+                new BulkPostItem("trip/a.jpg", "a", null, null),
+                new BulkPostItem("trip/b.png", "b", null, null));
+
+        BulkIngestResult result = bulkIngestService.ingestArchive(user.getId(), manifest, archive);
+
+        assertEquals(2, result.getCreated());
+        verify(awsService, times(1)).uploadFile(endsWith(".jpg"), anyLong(), eq("image/jpeg"), any(InputStream.class));
+        verify(awsService, times(1)).uploadFile(endsWith(".png"), anyLong(), eq("image/png"), any(InputStream.class));
+    }
+
+    @Test
+    void testIngestRejectsEmptyManifest() {
+        assertThrows(InvalidManifest.class, () -> bulkIngestService.ingestFiles(user.getId(), List.of(), List.of()));
+    }
+
+    private static MockMultipartFile image(String name) {
+        byte[] content = (name + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        return new MockMultipartFile("files", name, "image/jpeg", content);
+    }
+}
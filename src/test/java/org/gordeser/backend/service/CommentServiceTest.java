@@ -2,8 +2,10 @@ package org.gordeser.backend.service;
 
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.dto.CursorPage;
 import org.gordeser.backend.entity.Comment;
 import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.mock.TestEntities;
 import org.gordeser.backend.repository.CommentRepository;
@@ -12,12 +14,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -37,24 +42,27 @@ class CommentServiceTest {
 
     @Test
     void testCreateSuccessful() throws NotFound {
-        Post post = new Post(1L, "full", "full", null,  new ArrayList<>(), null, null, null);
+        Post post = new Post(1L, "full", "full", null,  new ArrayList<>(), null, null, null, null, null, null);
         String postCommentText = "Stop posting shrek photos";
         String authorName = "john_doe";
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postRepository.addToCommentCount(1L, 1)).thenReturn(1);
+        when(postRepository.getReferenceById(1L)).thenReturn(post);
         when(commentRepository.save(any(Comment.class))).thenReturn(null);
-        when(postRepository.save(post)).thenReturn(null);
 
         Comment createdComment = commentService.create(1L, postCommentText, authorName);
         assertEquals(postCommentText, createdComment.getText());
         assertEquals(authorName, createdComment.getAuthorUsername());
+        assertEquals(post, createdComment.getPost());
+        verify(postRepository, never()).save(any(Post.class));
     }
 
     @Test
     void testCreateFailure(){
         String postCommentText = "Stop posting shrek photos";
         String authorName = "john_doe";
-        when(postRepository.findById(1L)).thenReturn(Optional.empty());
+        when(postRepository.addToCommentCount(1L, 1)).thenReturn(0);
         assertThrows(NotFound.class, () -> commentService.create(1L, postCommentText, authorName));
+        verify(commentRepository, never()).save(any(Comment.class));
     }
 
     @Test
@@ -65,20 +73,48 @@ class CommentServiceTest {
     }
 
     @Test
-    void testGetPostByIdSuccessful() throws NotFound{
-        Post post = new Post(1L, "full", "full", null,  new ArrayList<>(), null, null, null);
-        post.getComments().add(TestEntities.COMMENT1);
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-
-        List<Comment> comments = commentService.getByPostId(1L);
-        assertEquals(1, comments.size());
-        assertEquals(TestEntities.COMMENT1, comments.get(0));
+    void testDeleteFromPostDecrementsCommentCount() {
+        commentService.deleteFromPost(TestEntities.COMMENT1, 1L);
+        verify(commentRepository, times(1)).delete(TestEntities.COMMENT1);
+        verify(postRepository, times(1)).addToCommentCount(1L, -1);
+    }
+
+    @Test
+    void testGetPostByIdSuccessful() throws Exception {
+        when(commentRepository.findFirstByPostId(1L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(TestEntities.COMMENT1));
+
+        CursorPage<Comment> comments = commentService.getByPostId(1L, null, 20);
+        assertEquals(1, comments.getContent().size());
+        assertEquals(TestEntities.COMMENT1, comments.getContent().get(0));
+        assertNull(comments.getNextCursor());
+    }
+
+    @Test
+    void testGetPostByIdContinuesAfterCursor() throws Exception {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Comment first = new Comment(1L, "first", null, "john_doe", date);
+        Comment second = new Comment(2L, "second", null, "john_doe", date);
+        when(commentRepository.findFirstByPostId(1L, PageRequest.of(0, 1))).thenReturn(List.of(first));
+        when(commentRepository.findByPostIdAfter(1L, date, 1L, PageRequest.of(0, 1))).thenReturn(List.of(second));
+
+        CursorPage<Comment> firstPage = commentService.getByPostId(1L, null, 1);
+        CursorPage<Comment> secondPage = commentService.getByPostId(1L, firstPage.getNextCursor(), 1);
+
+        assertEquals(List.of(second), secondPage.getContent());
+        verify(postRepository, never()).findById(1L);
     }
 
     @Test
     void testGetPostByIdFailure(){
-        when(postRepository.findById(1L)).thenReturn(Optional.empty());
-        assertThrows(NotFound.class, () -> commentService.getByPostId(1L));
+        when(commentRepository.findFirstByPostId(1L, PageRequest.of(0, 20))).thenReturn(List.of());
+        when(postRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFound.class, () -> commentService.getByPostId(1L, null, 20));
+    }
+
+    @Test
+    void testGetPostByIdRejectsMalformedCursor() {
+        assertThrows(InvalidCursor.class, () -> commentService.getByPostId(1L, "not a cursor", 20));
     }
 
     @Test
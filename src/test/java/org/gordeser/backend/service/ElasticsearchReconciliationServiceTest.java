@@ -0,0 +1,71 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ElasticsearchReconciliationServiceTest {
+    @Autowired
+    private ElasticsearchReconciliationService reconciliationService;
+    @MockBean
+    private ElasticsearchSyncService syncService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @Test
+    void testReconcileRepairsOnlyDriftedDocuments() {
+        PostElasticsearch upToDate = document("1", 1L, "same");
+        PostElasticsearch stale = document("2", 2L, "new title");
+        PostElasticsearch missing = document("3", 3L, "missing");
+
+        when(syncService.loadChunk(0L)).thenReturn(List.of(upToDate, stale, missing));
+        when(syncService.loadChunk(3L)).thenReturn(List.of());
+        when(postElasticsearchRepository.findByPostIdRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(
+                        document("1", 1L, "same"),
+                        document("2", 2L, "old title"),
+                        document("legacy", 2L, "old title"),
+                        document("9", 9L, "orphan")
+                ));
+
+        long repaired = reconciliationService.reconcile();
+
+        assertEquals(4, repaired);
+        verify(postElasticsearchRepository, times(1)).saveAll(List.of(stale, missing));
+        verify(postElasticsearchRepository, times(1)).deleteAllById(List.of("legacy", "9"));
+    }
+
+    @Test
+    void testReconcileInSyncWritesNothing() {
+        PostElasticsearch document = document("1", 1L, "same");
+        when(syncService.loadChunk(anyLong())).thenReturn(List.of());
+        when(syncService.loadChunk(0L)).thenReturn(List.of(document));
+        when(postElasticsearchRepository.findByPostIdRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(document("1", 1L, "same")));
+
+        long repaired = reconciliationService.reconcile();
+
+        assertEquals(0, repaired);
+        verify(postElasticsearchRepository, never()).saveAll(any());
+        verify(postElasticsearchRepository, never()).deleteAllById(any());
+    }
+
+    private static PostElasticsearch document(final String id, final Long postId, final String title) {
+        return new PostElasticsearch(id, title, "description", postId, List.of("tag1"), null);
+    }
+}
@@ -0,0 +1,84 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostIndexView;
+import org.gordeser.backend.dto.PostTagView;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ElasticsearchSyncServiceTest {
+    @Autowired
+    private ElasticsearchSyncService elasticsearchSyncService;
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        clearInvocations(postRepository, postElasticsearchRepository);
+    }
+
+    @Test
+    void testReindexAllIndexesEveryChunk() {
+        PostIndexView first = view(1L, "first");
+        PostIndexView second = view(2L, "second");
+        when(first.getCreatedAt()).thenReturn(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456789));
+        PostTagView tag = mock(PostTagView.class);
+        when(tag.getPostId()).thenReturn(1L);
+        when(tag.getTagName()).thenReturn("tag1");
+
+        when(postRepository.findIndexChunk(eq(0L), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(postRepository.findIndexChunk(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(postRepository.findTagNamesByPostIds(anyList())).thenReturn(List.of(tag));
+
+        long indexed = elasticsearchSyncService.reindexAll();
+
+        assertEquals(2, indexed);
+        ArgumentCaptor<Iterable<PostElasticsearch>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(postElasticsearchRepository, times(1)).saveAll(captor.capture());
+        List<PostElasticsearch> documents = (List<PostElasticsearch>) captor.getValue();
+        assertEquals("1", documents.get(0).getId());
+        assertEquals(List.of("tag1"), documents.get(0).getTags());
+        assertEquals(List.of(), documents.get(1).getTags());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123000000), documents.get(0).getCreatedAt());
+    }
+
+    @Test
+    void testSyncPostsSkippedWhenIndexNotEmpty() {
+        when(postElasticsearchRepository.count()).thenReturn(1L);
+
+        elasticsearchSyncService.syncPosts();
+
+        verify(postRepository, never()).findIndexChunk(anyLong(), any(Pageable.class));
+        verify(postElasticsearchRepository, never()).saveAll(any());
+    }
+
+    private static PostIndexView view(final Long id, final String title) {
+        PostIndexView view = mock(PostIndexView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTitle()).thenReturn(title);
+        when(view.getDescription()).thenReturn(title);
+        return view;
+    }
+}
@@ -3,7 +3,6 @@ package org.gordeser.backend.service;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Folder;
-import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.User;
 import org.gordeser.backend.exception.AlreadyExists;
 import org.gordeser.backend.exception.NotFound;
@@ -18,6 +17,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -109,36 +109,52 @@ class FolderServiceTest {
     }
     @Test
     void testDeleteById() throws Exception {
-        Folder folder = new Folder(1L, "shrek_photos", "", null, null);
-        when(folderRepository.findById(1L)).thenReturn(Optional.of(folder));
-        doNothing().when(folderRepository).delete(any(Folder.class));
+        when(folderRepository.existsById(1L)).thenReturn(true);
 
         folderService.deleteById(1L);
-        verify(folderRepository, times(1)).findById(1L);
-        verify(folderRepository, times(1)).delete(any(Folder.class));
+        verify(folderRepository, times(1)).deletePostLinks(List.of(1L));
+        verify(folderRepository, times(1)).deletePatronLinks(List.of(1L));
+        verify(folderRepository, times(1)).deleteWithoutLinks(List.of(1L));
+        verify(folderRepository, never()).findById(1L);
     }
     @Test
-     void testAddPostsToFolder(){
-        Folder folder = new Folder(1L, "shrek_photos", "", null, new ArrayList<>());
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null,null,null, new ArrayList<>(List.of(folder)), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(List.of(folder)), null)
-        );
-        folderService.addPostsToFolder(folder, mockPosts);
-        assertEquals(mockPosts, folder.getPosts());
+    void testDeleteByIdNotFound() {
+        when(folderRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFound.class, () -> folderService.deleteById(1L));
+        verify(folderRepository, never()).deleteWithoutLinks(anyCollection());
     }
     @Test
-    void testDeletePostFromFolders(){
-        Post post = new Post(1L, "user1", "user1@example.com", null,  null, null, null, null);
-        List<Folder> mockFolders = List.of(
-                new Folder(1L, "shrek_photos", "", null, new ArrayList<>(List.of(post))),
-                new Folder(2L, "kek_photos", "", null, new ArrayList<>(List.of(post)))
-        );
-        when(folderRepository.saveAll(mockFolders)).thenReturn(null);
+    void testUpdateDetailsNotFound() {
+        when(folderRepository.updateDetails(1L, "shrek_photos", "")).thenReturn(0);
 
-        folderService.deletePostFromFolders(mockFolders, post);
-        assert(mockFolders.stream().allMatch(folder -> folder.getPosts().isEmpty()));
-        verify(folderRepository, times(1)).saveAll(mockFolders);
+        assertThrows(NotFound.class, () -> folderService.updateDetails(1L, "shrek_photos", ""));
+    }
+    @Test
+    void testReplacePostsWritesOnlyTheDifference() {
+        when(folderRepository.findPostIdsByFolderId(1L)).thenReturn(List.of(1L, 2L, 3L));
+
+        folderService.replacePosts(1L, List.of(2L, 3L, 4L, 4L, 5L));
+        verify(folderRepository, times(1)).deletePostLinks(1L, List.of(1L));
+        verify(folderRepository, times(1)).insertPostLinks(1L, List.of(4L, 5L));
+    }
+    @Test
+    void testReplacePostsWithoutChanges() {
+        when(folderRepository.findPostIdsByFolderId(1L)).thenReturn(List.of(1L, 2L));
+
+        folderService.replacePosts(1L, List.of(2L, 1L));
+        verify(folderRepository, never()).deletePostLinks(anyLong(), anyCollection());
+        verify(folderRepository, never()).insertPostLinks(anyLong(), anyCollection());
+    }
+    @Test
+    void testAddPostsInChunks() {
+        List<Long> postIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(folderRepository.insertPostLinks(eq(1L), anyCollection())).thenReturn(1000, 1000, 500);
+
+        assertEquals(2500, folderService.addPosts(1L, postIds));
+        verify(folderRepository, times(1)).insertPostLinks(1L, postIds.subList(0, 1000));
+        verify(folderRepository, times(1)).insertPostLinks(1L, postIds.subList(1000, 2000));
+        verify(folderRepository, times(1)).insertPostLinks(1L, postIds.subList(2000, 2500));
     }
     @Test
     void testGetFoldersByPatron() throws NotFound {
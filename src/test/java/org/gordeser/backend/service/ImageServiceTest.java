@@ -1,8 +1,5 @@
 package org.gordeser.backend.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.Uploader;
-import com.cloudinary.utils.ObjectUtils;
 import org.gordeser.backend.client.AssociationServiceClient;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
 import org.gordeser.backend.entity.Image;
@@ -18,8 +15,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.util.Map;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,7 +32,7 @@ class ImageServiceTest {
     @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
-    private Cloudinary cloudinary;
+    private AwsService awsService;
     @MockBean
     private AssociationServiceClient associationServiceClient;
 
@@ -58,32 +56,38 @@ class ImageServiceTest {
         assertEquals("Not Found", exception.getMessage());
     }
     @Test
-     void testCreateImageSuccessful() throws Exception {
+     void testCreateImageUploadsByDigest() throws Exception {
         MultipartFile multipartFile = TestEntities.createMockMultipartFile();
-        Uploader mockUploader = mock(Uploader.class);
-        Image image = new Image();
-        image.setId(1L);
-        image.setFile(multipartFile.toString());
-        when(cloudinary.uploader()).thenReturn(mockUploader);
-        when(cloudinary.uploader().upload(multipartFile.getBytes(), ObjectUtils.emptyMap())).thenReturn(Map.of("url", multipartFile));
-        when(imageRepository.save(any(Image.class))).thenReturn(image);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(multipartFile.getBytes()));
+        String key = "images/" + digest + ".jpg";
+        when(imageRepository.findFirstByDigest(digest)).thenReturn(Optional.empty());
+        when(awsService.uploadFile(eq(key), eq(multipartFile.getSize()), eq("image/jpeg"), any(InputStream.class)))
+                .thenReturn("https://bucket/" + key);
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
         Image createdImage = imageService.createImage(multipartFile);
 
-        assertFalse(createdImage.getFile().isEmpty());
+        assertEquals("https://bucket/" + key, createdImage.getFile());
+        assertEquals(digest, createdImage.getDigest());
+        assertEquals(key, createdImage.getStorageKey());
         verify(imageRepository, times(1)).save(any(Image.class));
     }
     @Test
-     void testCreateImageFailed() throws Exception {
+     void testCreateImageReusesStoredObject() throws Exception {
         MultipartFile multipartFile = TestEntities.createMockMultipartFile();
-        Uploader mockUploader = mock(Uploader.class);
-        Image image = new Image();
-        image.setId(1L);
-        image.setFile(multipartFile.toString());
-        when(cloudinary.uploader()).thenReturn(mockUploader);
-        when(cloudinary.uploader().upload(multipartFile.getBytes(), ObjectUtils.emptyMap())).thenThrow(IOException.class);
+        Image existing = new Image();
+        existing.setId(1L);
+        existing.setFile("https://bucket/images/existing.jpg");
+        existing.setStorageKey("images/existing.jpg");
+        when(imageRepository.findFirstByDigest(anyString())).thenReturn(Optional.of(existing));
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
         Image createdImage = imageService.createImage(multipartFile);
 
-        assertNull(createdImage);
+        assertEquals(existing.getFile(), createdImage.getFile());
+        assertEquals(existing.getStorageKey(), createdImage.getStorageKey());
+        assertNull(createdImage.getId());
+        verify(awsService, never()).uploadFile(anyString(), anyLong(), anyString(), any(InputStream.class));
     }
     @Test
      void testCreateImageEmptyFile() {
@@ -112,7 +116,7 @@ class ImageServiceTest {
     @Test
      void testAddPostToImages(){
         Image image = new Image();
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
         when(imageRepository.save(any(Image.class))).thenReturn(null);
         imageService.addPostToImages(image, post);
         verify(imageRepository, times(1)).save(any(Image.class));
@@ -120,7 +124,7 @@ class ImageServiceTest {
     @Test
      void testDeletePostFromImage(){
         Image image = new Image();
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
         image.setPost(post);
         doNothing().when(imageRepository).delete(any(Image.class));
         imageService.deletePostFromImage(image, post);
@@ -0,0 +1,123 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.repository.ImageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "image.variants.enabled=true")
+class ImageVariantServiceTest {
+    @Autowired
+    private ImageVariantService imageVariantService;
+    @MockBean
+    private ImageRepository imageRepository;
+    @MockBean
+    private AwsService awsService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @Test
+    void testGenerateVariantsStoresAllSizes() throws Exception {
+        Image image = new Image();
+        image.setId(1L);
+        image.setStorageKey("images/abc.png");
+        when(imageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(awsService.downloadFile("images/abc.png")).thenReturn(png(4000, 3000));
+        when(awsService.uploadFile(anyString(), anyLong(), eq("image/jpeg"), any(InputStream.class)))
+                .thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+
+        assertTrue(imageVariantService.generateVariants(1L));
+
+        verify(awsService, times(1)).downloadFile("images/abc.png");
+        verify(awsService, times(3)).uploadFile(anyString(), anyLong(), eq("image/jpeg"), any(InputStream.class));
+        assertEquals("https://bucket/images/abc/thumb.jpg", image.getThumbnailUrl());
+        assertEquals("https://bucket/images/abc/feed.jpg", image.getFeedUrl());
+        assertEquals("https://bucket/images/abc/full.jpg", image.getFullUrl());
+        verify(imageRepository, times(1)).save(image);
+    }
+
+    @Test
+    void testGenerateVariantsSkipsUnsupportedFormat() throws Exception {
+        Image image = new Image();
+        image.setId(1L);
+        image.setStorageKey("images/abc.txt");
+        image.setFile("https://bucket/images/abc.txt");
+        when(imageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(awsService.downloadFile("images/abc.txt")).thenReturn(new ByteArrayInputStream("text".getBytes()));
+
+        assertFalse(imageVariantService.generateVariants(1L));
+
+        verify(awsService, never()).uploadFile(anyString(), anyLong(), anyString(), any(InputStream.class));
+        assertEquals("https://bucket/images/abc.txt", image.getThumbnailUrl());
+        assertEquals("https://bucket/images/abc.txt", image.getFullUrl());
+        verify(imageRepository, times(1)).save(image);
+    }
+
+    @Test
+    void testGenerateVariantsSkipsImageWithTooManyPixels() throws Exception {
+        Image image = new Image();
+        image.setId(1L);
+        image.setStorageKey("images/abc.png");
+        when(imageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(awsService.downloadFile("images/abc.png")).thenReturn(pngDeclaring(100_000, 100_000));
+
+        assertFalse(imageVariantService.generateVariants(1L));
+
+        verify(awsService, never()).uploadFile(anyString(), anyLong(), anyString(), any(InputStream.class));
+        verify(imageRepository, times(1)).save(image);
+    }
+
+    @Test
+    void testRetryPendingGeneratesVariantsOfImagesWithoutThem() throws Exception {
+        Image image = new Image();
+        image.setId(7L);
+        image.setStorageKey("images/def.png");
+        when(imageRepository.findIdsWithoutVariants(anyLong(), any(Pageable.class))).thenReturn(List.of(7L));
+        when(imageRepository.findById(7L)).thenReturn(Optional.of(image));
+        when(awsService.downloadFile("images/def.png")).thenReturn(png(400, 300));
+        when(awsService.uploadFile(anyString(), anyLong(), eq("image/jpeg"), any(InputStream.class)))
+                .thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+
+        imageVariantService.retryPending();
+
+        verify(imageRepository, timeout(5000).atLeastOnce()).save(image);
+        assertEquals("https://bucket/images/def/full.jpg", image.getFullUrl());
+    }
+
+    private static InputStream pngDeclaring(int width, int height) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", output);
+        ByteBuffer bytes = ByteBuffer.wrap(output.toByteArray());
+        bytes.putInt(16, width).putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 12, 17);
+        bytes.putInt(29, (int) crc.getValue());
+        return new ByteArrayInputStream(bytes.array());
+    }
+
+    private static InputStream png(int width, int height) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+}
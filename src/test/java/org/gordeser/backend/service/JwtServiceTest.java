@@ -0,0 +1,108 @@
+package org.gordeser.backend.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.AuthenticatedUser;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.NotFound;
+import org.gordeser.backend.mock.TestEntities;
+import org.gordeser.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JwtServiceTest {
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testVerifiedTokenIsServedFromCache() {
+        User user = TestEntities.getDefaultUser1();
+        String token = jwtService.generateToken(user);
+        long hits = jwtService.stats().hitCount();
+
+        Claims first = jwtService.verify(token);
+        String username = jwtService.extractUsername(token);
+        boolean valid = jwtService.isTokenValid(token, user);
+
+        assertEquals(user.getUsername(), first.getSubject());
+        assertEquals(user.getUsername(), username);
+        assertTrue(valid);
+        assertEquals(hits + 2, jwtService.stats().hitCount());
+    }
+
+    @Test
+    void testForgedTokenIsRejectedAndNotCached() {
+        String token = jwtService.generateToken(TestEntities.getDefaultUser1());
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(forged));
+        assertThrows(JwtException.class, () -> jwtService.verify(forged));
+    }
+
+    @Test
+    void testTokenOfOtherUserIsNotValid() {
+        String token = jwtService.generateToken(TestEntities.getDefaultUser1());
+
+        assertFalse(jwtService.isTokenValid(token, TestEntities.getDefaultUser2()));
+    }
+
+    @Test
+    void testPrincipalIsBuiltFromClaims() {
+        User user = TestEntities.getDefaultUser1();
+        user.setId(7L);
+        user.setTokenVersion(3);
+
+        AuthenticatedUser principal = jwtService.toPrincipal(jwtService.verify(jwtService.generateToken(user)))
+                .orElseThrow();
+
+        assertEquals(new AuthenticatedUser(7L, "john_doe", 3), principal);
+    }
+
+    @Test
+    void testTokenWithoutUserIdHasNoPrincipal() {
+        String token = jwtService.generateToken(Map.of(), TestEntities.getDefaultUser1());
+
+        assertTrue(jwtService.toPrincipal(jwtService.verify(token)).isEmpty());
+    }
+
+    @Test
+    void testGetUserByTokenRejectsRevokedToken() throws NotFound {
+        User user = userRepository.save(TestEntities.getDefaultUser1());
+        AuthenticatedUser principal = jwtService.toPrincipal(jwtService.verify(jwtService.generateToken(user)))
+                .orElseThrow();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        assertEquals(user.getId(), jwtService.getUserByToken().getId());
+
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        assertThrows(CredentialsExpiredException.class, () -> jwtService.getUserByToken());
+        userRepository.delete(user);
+    }
+}
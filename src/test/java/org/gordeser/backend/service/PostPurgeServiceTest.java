@@ -0,0 +1,249 @@
+package org.gordeser.backend.service;
+
+import com.amazonaws.AmazonClientException;
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.PostTagView;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.Comment;
+import org.gordeser.backend.entity.Folder;
+import org.gordeser.backend.entity.Image;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.StorageObjectDeletion;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.repository.CommentRepository;
+import org.gordeser.backend.repository.FolderRepository;
+import org.gordeser.backend.repository.ImageRepository;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.StorageObjectDeletionRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class PostPurgeServiceTest {
+    @Autowired
+    private PostPurgeService postPurgeService;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private ImageService imageService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private ImageRepository imageRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private StorageObjectDeletionRepository storageObjectDeletionRepository;
+    @MockBean
+    private AwsService awsService;
+    @MockBean
+    private SearchOutboxService searchOutboxService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private String suffix;
+    private User user;
+    private Post own;
+    private Post shared;
+    private Post kept;
+    private Folder folder;
+
+    @BeforeEach
+    void setUp() {
+        storageObjectDeletionRepository.deleteAll();
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        User newUser = new User();
+        newUser.setUsername("purge_" + suffix);
+        newUser.setEmail("purge_" + suffix + "@example.com");
+        newUser.setPassword("password123");
+        user = userRepository.save(newUser);
+
+        Tag tag = new Tag();
+        tag.setName("purge_" + suffix);
+        tag = tagRepository.save(tag);
+
+        own = post("own", "images/" + suffix + ".jpg", tag);
+        shared = post("shared", "images/shared_" + suffix + ".jpg", tag);
+        kept = post("kept", "images/shared_" + suffix + ".jpg", tag);
+        commentRepository.save(Comment.builder()
+                .text("comment")
+                .post(own)
+                .authorUsername(user.getUsername())
+                .date(LocalDateTime.now())
+                .build());
+        folder = folderRepository.save(new Folder(null, "purge", "", user, new ArrayList<>(List.of(own, kept))));
+    }
+
+    @Test
+    void testMarkDeletedHidesPostAtOnce() {
+        assertEquals(1, commentRepository.findFirstByPostId(own.getId(), Pageable.ofSize(20)).size());
+        assertFalse(postService.markDeleted(own.getId(), user.getId() + 1));
+        assertTrue(postService.markDeleted(own.getId(), user.getId()));
+        assertFalse(postService.markDeleted(own.getId(), user.getId()));
+
+        assertFalse(postRepository.existsById(own.getId()));
+        assertTrue(postRepository.findById(own.getId()).isEmpty());
+        assertEquals(List.of(kept.getId(), shared.getId()),
+                postRepository.findCardsByPatronId(user.getId()).stream().map(PostCard::getId).toList());
+        assertEquals(List.of(kept.getId()), folderRepository.findById(folder.getId()).orElseThrow()
+                .getPosts().stream().map(Post::getId).toList());
+        assertTrue(commentRepository.findFirstByPostId(own.getId(), Pageable.ofSize(20)).isEmpty());
+        LocalDateTime before = LocalDateTime.of(2000, 1, 1, 0, 0);
+        assertTrue(commentRepository.findByPostIdAfter(own.getId(), before, 0L, Pageable.ofSize(20)).isEmpty());
+
+        purgeAll();
+    }
+
+    @Test
+    void testPurgeRemovesRowsAndUnusedObjects() {
+        postService.markDeleted(own.getId(), user.getId());
+        postService.markDeleted(shared.getId(), user.getId());
+
+        assertEquals(2, purgeAll());
+
+        assertEquals(1, postRepository.countByPatronId(user.getId()));
+        assertFalse(imageRepository.existsById(own.getImage().getId()));
+        assertFalse(imageRepository.existsById(shared.getImage().getId()));
+        assertTrue(imageRepository.existsById(kept.getImage().getId()));
+        assertTrue(commentRepository.findIdsByAuthorUsername(user.getUsername(), Pageable.unpaged()).isEmpty());
+        List<Long> postIds = List.of(own.getId(), shared.getId(), kept.getId());
+        assertEquals(List.of(kept.getId()),
+                postRepository.findTagNamesByPostIds(postIds).stream().map(PostTagView::getPostId).toList());
+        verify(searchOutboxService, times(1)).enqueueDelete(own.getId());
+        verify(searchOutboxService, times(1)).enqueueDelete(shared.getId());
+
+        String ownKey = own.getImage().getStorageKey();
+        verify(awsService, never()).deleteFiles(anyCollection());
+        assertEquals(List.of(ownKey), storageObjectDeletionRepository.findAll().stream()
+                .map(StorageObjectDeletion::getStorageKey).toList());
+
+        assertEquals(1, postPurgeService.deleteDueObjects());
+        verify(awsService, times(1)).deleteFiles(List.of(ownKey,
+                "images/" + suffix + "/full.jpg", "images/" + suffix + "/feed.jpg", "images/" + suffix + "/thumb.jpg"));
+        assertEquals(0, storageObjectDeletionRepository.count());
+    }
+
+    @Test
+    void testObjectUsedAgainIsNotDeleted() {
+        postService.markDeleted(own.getId(), user.getId());
+        assertEquals(1, purgeAll());
+
+        // An upload that reused the object saves its image only after the purge.
+        Image reused = new Image();
+        reused.setFile(own.getImage().getFile());
+        reused.setStorageKey(own.getImage().getStorageKey());
+        imageRepository.save(reused);
+
+        assertEquals(0, postPurgeService.deleteDueObjects());
+        verify(awsService, never()).deleteFiles(anyCollection());
+        assertEquals(0, storageObjectDeletionRepository.count());
+    }
+
+    @Test
+    void testUploadDuringObjectDeletionGetsFreshKey() throws Exception {
+        byte[] bytes = ("upload " + suffix).getBytes(StandardCharsets.UTF_8);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        String pendingKey = "images/" + digest + ".jpg";
+        storageObjectDeletionRepository.save(new StorageObjectDeletion(pendingKey, LocalDateTime.now()));
+
+        // The same bytes are uploaded again while the purger deletes the pending object.
+        List<Image> uploaded = new ArrayList<>();
+        doAnswer(invocation -> {
+            Image image = imageService.uploadImage("again.jpg", "image/jpeg", bytes.length,
+                    new ByteArrayResource(bytes));
+            uploaded.add(imageRepository.save(image));
+            return null;
+        }).when(awsService).deleteFiles(anyCollection());
+
+        assertEquals(1, postPurgeService.deleteDueObjects());
+
+        String freshKey = uploaded.get(0).getStorageKey();
+        assertNotEquals(pendingKey, freshKey);
+        assertTrue(freshKey.startsWith("images/" + digest + "-"));
+        verify(awsService, times(1)).uploadFile(eq(freshKey), eq((long) bytes.length), eq("image/jpeg"), any());
+        String freshPrefix = freshKey.substring(0, freshKey.length() - ".jpg".length());
+        verify(awsService, times(1)).deleteFiles(argThat((Collection<String> keys) ->
+                keys.contains(pendingKey) && keys.stream().noneMatch(key -> key.startsWith(freshPrefix))));
+        assertEquals(0, storageObjectDeletionRepository.count());
+        assertTrue(imageRepository.existsById(uploaded.get(0).getId()));
+    }
+
+    @Test
+    void testFailedObjectDeletionIsRetried() {
+        doThrow(new AmazonClientException("S3 unavailable")).when(awsService).deleteFiles(anyCollection());
+        postService.markDeleted(own.getId(), user.getId());
+        assertEquals(1, purgeAll());
+
+        assertThrows(AmazonClientException.class, () -> postPurgeService.deleteDueObjects());
+        assertEquals(1, storageObjectDeletionRepository.count());
+
+        reset(awsService);
+        assertEquals(1, postPurgeService.deleteDueObjects());
+        assertEquals(0, storageObjectDeletionRepository.count());
+    }
+
+    @Test
+    void testFailedPurgeIsRolledBack() {
+        doThrow(new IllegalStateException("outbox unavailable")).when(searchOutboxService).enqueueDelete(own.getId());
+        postService.markDeleted(own.getId(), user.getId());
+
+        assertThrows(IllegalStateException.class, () -> postPurgeService.purgeNext());
+        assertEquals(3, postRepository.countByPatronId(user.getId()));
+        assertTrue(imageRepository.existsById(own.getImage().getId()));
+        assertEquals(0, storageObjectDeletionRepository.count());
+
+        reset(searchOutboxService);
+        assertEquals(1, purgeAll());
+        assertEquals(2, postRepository.countByPatronId(user.getId()));
+    }
+
+    private int purgeAll() {
+        int purged = 0;
+        int batch;
+        while ((batch = postPurgeService.purgeNext()) > 0) {
+            purged += batch;
+        }
+        return purged;
+    }
+
+    private Post post(String title, String storageKey, Tag tag) {
+        Image image = new Image();
+        image.setFile("https://bucket/" + storageKey);
+        image.setStorageKey(storageKey);
+        Post post = new Post();
+        post.setTitle(title);
+        post.setPatron(user);
+        post.setImage(image);
+        post.setTags(new ArrayList<>(List.of(tag)));
+        return postRepository.save(post);
+    }
+}
@@ -1,11 +1,13 @@
 package org.gordeser.backend.service;
 
 import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.PostTagView;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
-import org.gordeser.backend.entity.Folder;
 import org.gordeser.backend.entity.Post;
 import org.gordeser.backend.entity.PostElasticsearch;
-import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.exception.InvalidCursor;
 import org.gordeser.backend.exception.NotFound;
 import org.gordeser.backend.repository.PostRepository;
 import org.gordeser.backend.mock.TestEntities;
@@ -18,9 +20,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,10 +40,12 @@ class PostServiceTest {
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
     private AssociationServiceClient associationServiceClient;
+    @MockBean
+    private SearchOutboxService searchOutboxService;
 
     @Test
      void testGetPostById() throws Exception {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
 
         Post foundPost = postService.getPostById(1L);
@@ -50,22 +57,22 @@ class PostServiceTest {
 
     @Test
      void testCreatePost(){
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
         when(postRepository.save(post)).thenReturn(post);
 
         Post savedPost = postService.createPost(post);
 
         assertNotNull(savedPost);
         verify(postRepository, times(1)).save(post);
+        verify(searchOutboxService, times(1)).enqueueIndex(1L);
     }
 
     @Test
      void testUpdatePostPositive() throws Exception {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
-        Post newPost = new Post(1L, "full", "empty", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
+        Post newPost = new Post(1L, "full", "empty", null,  null, null, null, null, null, null, null);
 
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(postElasticsearchRepository.findByPostId(1L)).thenReturn(Optional.of(new PostElasticsearch()));
         when(postRepository.save(any(Post.class))).thenReturn(newPost);
 
         Post updatedPost = postService.update(1L, newPost);
@@ -73,33 +80,23 @@ class PostServiceTest {
         assertNotEquals(updatedPost.getDescription(), post.getDescription());
         verify(postRepository, times(1)).findById(1L);
         verify(postRepository, times(1)).save(newPost);
+        verify(searchOutboxService, times(1)).enqueueIndex(1L);
     }
     @Test
      void testUpdatePostNegative() {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
-        Post newPost = new Post(2L, "full", "empty", null,  null, null, null, null);
+        Post post = new Post(1L, "full", "full", null,  null, null, null, null, null, null, null);
+        Post newPost = new Post(2L, "full", "empty", null,  null, null, null, null, null, null, null);
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(postRepository.save(any(Post.class))).thenReturn(newPost);
         assertThrows(NotFound.class, () -> {
             postService.update(1L, newPost);
         });
     }
-    @Test
-     void testDeleteById() throws Exception {
-        Post post = new Post(1L, "full", "full", null,  null, null, null, null);
-        when(postElasticsearchRepository.findByPostId(1L)).thenReturn(Optional.of(new PostElasticsearch()));
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        doNothing().when(postRepository).delete(post);
-        postService.deleteById(1L);
-        verify(postRepository, times(1)).findById(1L);
-        verify(postRepository, times(1)).delete(post);
-    }
-
     @Test
      void testGetPostsById() {
         List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null,  null, null, null, null),
-                new Post(2L, "user2", "user2@example.com",  null,  null, null, null, null)
+                new Post(1L, "user1", "user1@example.com", null,  null, null, null, null, null, null, null),
+                new Post(2L, "user2", "user2@example.com",  null,  null, null, null, null, null, null, null)
         );
         when(postRepository.findAllById(List.of(1L, 2L))).thenReturn(mockPosts);
         List<Post> posts = postService.getPostsById(List.of(1L, 2L));
@@ -109,74 +106,96 @@ class PostServiceTest {
     }
 
     @Test
-     void testAddFolderToPosts() {
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(), null)
-        );
-        when(postRepository.saveAll(mockPosts)).thenReturn(null);
+     void testSearchSuccessful() {
+        PostElasticsearch postElasticsearch = TestEntities.ELASTICLONGDUMMY;
+        PostCard card = new PostCard(1L, postElasticsearch.getTitle(), "https://bucket/images/1.jpg", "john_doe");
+        Pageable pageable = PageRequest.of(0, 5);
+        when(postElasticsearchRepository.findByTitleOrDescriptionContaining("Life is", pageable)).thenReturn(new PageImpl<>(List.of(postElasticsearch), pageable, 1));
+        when(postRepository.findCardsByIds(List.of(1L))).thenReturn(List.of(card));
+        when(postRepository.findTagNamesByPostIds(Set.of(1L))).thenReturn(List.of(tagView(1L, "tag1")));
 
-        postService.addFolderToPosts(mockPosts, new Folder(null, "shrek_photos", "", null, null));
-        assert(mockPosts.stream().allMatch(post -> post.getFolders().size() == 1));
-        verify(postRepository, times(1)).saveAll(mockPosts);
+        Page<PostCard> foundPost = postService.search("Life is", pageable);
+        assertFalse(foundPost.isEmpty());
+        assertEquals(1L, (long) foundPost.getContent().get(0).getId());
+        assertEquals(List.of("tag1"), foundPost.getContent().get(0).getTags());
     }
 
     @Test
-     void testDeleteFolderFromPosts() {
-        Folder folder = new Folder(null, "shrek_photos", "", null, null);
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(List.of(folder)), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(List.of(folder)), null)
-        );
-        when(postRepository.saveAll(mockPosts)).thenReturn(null);
-        postService.deleteFolderFromPosts(folder, mockPosts);
-        assert(mockPosts.stream().allMatch(post -> post.getFolders().isEmpty()));
-        verify(postRepository, times(1)).saveAll(mockPosts);
+     void testSearchKeepsRankingAndTotal() {
+        Pageable pageable = PageRequest.of(1, 2);
+        PostElasticsearch first = new PostElasticsearch("7", "title", "description", 7L, List.of(), null);
+        PostElasticsearch second = new PostElasticsearch("3", "title", "description", 3L, List.of(), null);
+        PostElasticsearch deleted = new PostElasticsearch("5", "title", "description", 5L, List.of(), null);
+        PostCard post3 = new PostCard(3L, "title", null, "john_doe");
+        PostCard post7 = new PostCard(7L, "title", null, "john_doe");
+        when(postElasticsearchRepository.findByTitleOrDescriptionContaining("title", pageable))
+                .thenReturn(new PageImpl<>(List.of(first, deleted, second), pageable, 12));
+        when(postRepository.findCardsByIds(List.of(7L, 5L, 3L))).thenReturn(List.of(post3, post7));
+
+        Page<PostCard> foundPosts = postService.search("title", pageable);
+
+        assertEquals(List.of(post7, post3), foundPosts.getContent());
+        assertEquals(12, foundPosts.getTotalElements());
+        verify(postRepository, times(1)).findCardsByIds(List.of(7L, 5L, 3L));
     }
 
     @Test
-     void testDeleteFolderFromPost() {
-        Folder folder = new Folder(null, "shrek_photos", "", null, null);
-        Post post = new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(List.of(folder)), null);
-        when(postRepository.save(any(Post.class))).thenReturn(null);
-        postService.deleteFolderFromPost(folder, post);
-        assertTrue(post.getFolders().isEmpty());
-        verify(postRepository, times(1)).save(any(Post.class));
+     void testSearchUnsuccessful(){
+        Pageable pageable = PageRequest.of(0, 5);
+        when(postElasticsearchRepository.findByTitleOrDescriptionContaining("Death is", pageable)).thenReturn(Page.empty());
+
+        Page<PostCard> foundPost = postService.search("Death is", pageable);
+        assertTrue(foundPost.isEmpty());
     }
 
     @Test
-     void testDeleteTagsFromPost() {
-        Tag tag = TestEntities.getDefaultTag1();
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", new ArrayList<>(List.of(tag)), null, null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  new ArrayList<>(List.of(tag)),  null, null, new ArrayList<>(), null)
-        );
-        when(postRepository.saveAll(mockPosts)).thenReturn(null);
-
-        postService.deleteTagsFromPost(tag, mockPosts);
-        assert(mockPosts.stream().allMatch(post -> post.getTags().isEmpty()));
-        verify(postRepository, times(1)).saveAll(mockPosts);
+     void testStreamCardsFillsTagsInOrder() {
+        PostCard first = new PostCard(1L, "first", null, "john_doe");
+        PostCard second = new PostCard(2L, "second", null, "john_doe");
+        when(postRepository.streamCards()).thenReturn(Stream.of(first, second));
+        when(postRepository.findTagNamesByPostIds(Set.of(1L, 2L)))
+                .thenReturn(List.of(tagView(2L, "tag2"), tagView(1L, "tag1")));
+
+        List<PostCard> streamed = new ArrayList<>();
+        postService.streamCards(streamed::add);
+
+        assertEquals(List.of(first, second), streamed);
+        assertEquals(List.of("tag1"), first.getTags());
+        assertEquals(List.of("tag2"), second.getTags());
+        verify(postRepository, times(1)).findTagNamesByPostIds(Set.of(1L, 2L));
     }
 
     @Test
-     void testSearchSuccessful() {
-        PostElasticsearch postElasticsearch = TestEntities.ELASTICLONGDUMMY;
-        Post post = new Post(1L, postElasticsearch.getTitle(),  postElasticsearch.getDescription(), null,  null, null, null, null);
-        Pageable pageable = PageRequest.of(0, 5);
-        when(postElasticsearchRepository.findByTitleOrDescriptionContaining("Life is", pageable)).thenReturn(new PageImpl<>(List.of(postElasticsearch), pageable, 1));
-        when(postRepository.findAllByIds(List.of(1L), pageable)).thenReturn(new PageImpl<>(List.of(post), pageable, 1));
-
-        Page<Post> foundPost = postService.search("Life is", pageable);
-        assertFalse(foundPost.isEmpty());
-        assertEquals(1L, (long) foundPost.getContent().get(0).getId());
+     void testReadNewestCardsAfterContinuesFromCursor() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+        PostCard post9 = new PostCard(9L, "title", null, "john_doe", createdAt.plusHours(1), 0);
+        PostCard post7 = new PostCard(7L, "title", null, "john_doe", createdAt, 0);
+        PostCard post4 = new PostCard(4L, "title", null, "john_doe", createdAt, 0);
+        when(postRepository.findNewestCards(since, PageRequest.of(0, 2))).thenReturn(List.of(post9, post7));
+        when(postRepository.findNewestCardsBefore(since, createdAt, 7L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(post4));
+
+        CursorPage<PostCard> firstPage = postService.readNewestCardsAfter(since, null, 2);
+        CursorPage<PostCard> lastPage = postService.readNewestCardsAfter(since, firstPage.getNextCursor(), 2);
+
+        assertEquals(List.of(post9, post7), firstPage.getContent());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(List.of(post4), lastPage.getContent());
+        assertNull(lastPage.getNextCursor());
+        verify(postRepository, never()).findCards(any());
     }
 
     @Test
-     void testSearchUnsuccessful(){
-        Pageable pageable = PageRequest.of(0, 5);
-        when(postElasticsearchRepository.findByTitleOrDescriptionContaining("Death is", pageable)).thenReturn(Page.empty());
+     void testReadNewestCardsAfterRejectsMalformedCursor() {
+        assertThrows(InvalidCursor.class, () -> postService.readNewestCardsAfter(null, "not a cursor", 2));
+        verify(postRepository, never()).findNewestCardsBefore(any(), any(), any(), any());
+    }
 
-        Page<Post> foundPost = postService.search("Death is", pageable);
-        assertTrue(foundPost.isEmpty());
+    private static PostTagView tagView(Long postId, String tagName) {
+        PostTagView view = mock(PostTagView.class);
+        when(view.getPostId()).thenReturn(postId);
+        when(view.getTagName()).thenReturn(tagName);
+        return view;
     }
 }
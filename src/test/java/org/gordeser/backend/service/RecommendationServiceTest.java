@@ -1,24 +1,28 @@
 package org.gordeser.backend.service;
 
 import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.CursorPage;
+import org.gordeser.backend.dto.PostCard;
+import org.gordeser.backend.dto.RankedPostIds;
 import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
-import org.gordeser.backend.entity.Post;
-import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.elasticsearch.RecommendationSearchRepository;
 import org.gordeser.backend.entity.User;
+import org.gordeser.backend.exception.InvalidCursor;
+import org.gordeser.backend.exception.ServiceUnavailableException;
+import org.gordeser.backend.util.CursorCodec;
 import org.gordeser.backend.mock.TestEntities;
-import org.gordeser.backend.repository.PostRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -28,21 +32,23 @@ class RecommendationServiceTest {
     @MockBean
     private PostService postService;
     @MockBean
-    private PostRepository postRepository;
-    @MockBean
     private PostElasticsearchRepository postElasticsearchRepository;
     @MockBean
     private AssociationServiceClient associationServiceClient;
+    @MockBean
+    private AssociationService associationService;
+    @MockBean
+    private RecommendationSearchRepository recommendationSearchRepository;
 
     @Test
     void testGetGuestPosts(){
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  null, null, null, new ArrayList<>(), null)
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1"),
+                new PostCard(2L, "user2", null, "user2")
         );
-        when(postRepository.findAll(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
+        when(postService.readCards(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
 
-        Page<Post> foundPosts = recommendationService.getGuestPosts(TestEntities.PAGEABLE);
+        Page<PostCard> foundPosts = recommendationService.getGuestPosts(TestEntities.PAGEABLE);
         assertEquals(mockPosts.size(), foundPosts.getTotalElements());
     }
 
@@ -50,58 +56,115 @@ class RecommendationServiceTest {
     void testRecommendedPostsSuccessful(){
         User user = TestEntities.getDefaultUser1();
         user.setPreferredTags(new ArrayList<>(List.of(TestEntities.getDefaultTag1())));
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(), null)
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1"),
+                new PostCard(2L, "user2", null, "user2")
         );
-        List<String> combinedTags = Collections.singletonList(TestEntities.getDefaultTag1().getName());
-        PostElasticsearch postElasticsearch = TestEntities.ELASTICLONGDUMMY;
+        List<String> preferredTags = List.of(TestEntities.getDefaultTag1().getName());
 
-        when(associationServiceClient.getAssociations(any(List.class))).thenReturn(List.of());
-        when(postElasticsearchRepository.findPostsExcludingTags(combinedTags, TestEntities.PAGEABLE))
-                .thenReturn(new PageImpl<>(List.of(postElasticsearch), TestEntities.PAGEABLE, 1));
-        when(postElasticsearchRepository.findPostsWithoutTags(TestEntities.PAGEABLE)).thenReturn(Page.empty());
-        when(postElasticsearchRepository.findPostsByTags(combinedTags, TestEntities.PAGEABLE)).thenReturn(Page.empty());
-        when(postService.readAllByIds(List.of(1L), TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
+        when(associationService.getAssociations(any(List.class))).thenReturn(List.of("associated"));
+        when(recommendationSearchRepository.rank(preferredTags, List.of("associated"), TestEntities.PAGEABLE))
+                .thenReturn(new RankedPostIds(List.of(1L, 2L), 7, List.of(3.0, 1L)));
+        when(postService.readCardsByIdsInOrder(List.of(1L, 2L))).thenReturn(mockPosts);
 
-        Page<Post> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
-        assertEquals(mockPosts.size(), recommendedPosts.getTotalElements());
-        verify(postService, times(1)).readAllByIds(List.of(1L), TestEntities.PAGEABLE);
+        Page<PostCard> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
+        assertEquals(7, recommendedPosts.getTotalElements());
+        assertEquals(mockPosts, recommendedPosts.getContent());
+        verify(recommendationSearchRepository, times(1))
+                .rank(preferredTags, List.of("associated"), TestEntities.PAGEABLE);
+    }
+    @Test
+    void testRecommendedPostsDegradesWhenAssociationsUnavailable(){
+        User user = TestEntities.getDefaultUser1();
+        user.setPreferredTags(new ArrayList<>(List.of(TestEntities.getDefaultTag1())));
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1")
+        );
+        List<String> preferredTags = List.of(TestEntities.getDefaultTag1().getName());
+
+        when(associationService.getAssociations(any(List.class)))
+                .thenThrow(new ServiceUnavailableException("Association Service is unavailable"));
+        when(recommendationSearchRepository.rank(preferredTags, List.of(), TestEntities.PAGEABLE))
+                .thenReturn(new RankedPostIds(List.of(1L), 1, List.of(3.0, 1L)));
+        when(postService.readCardsByIdsInOrder(List.of(1L))).thenReturn(mockPosts);
+
+        Page<PostCard> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
+        assertEquals(mockPosts, recommendedPosts.getContent());
     }
     @Test
     void testRecommendedPostsEmptyPreferred(){
         User user = TestEntities.getDefaultUser1();
         user.setPreferredTags(new ArrayList<>());
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(), null)
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1"),
+                new PostCard(2L, "user2", null, "user2")
         );
 
-        when(postRepository.findAll(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
+        when(postService.readCards(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
 
-        Page<Post> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
+        Page<PostCard> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
         assertEquals(mockPosts.size(), recommendedPosts.getTotalElements());
-        verify(postService, times(0)).readAllByIds(List.of(1L), TestEntities.PAGEABLE);
+        verify(postService, never()).readCardsByIdsInOrder(any(List.class));
     }
     @Test
     void testRecommendedPostsEmptyCombined(){
         User user = TestEntities.getDefaultUser1();
         user.setPreferredTags(new ArrayList<>(List.of(TestEntities.getDefaultTag1())));
         user.setPreferredTags(new ArrayList<>());
-        List<Post> mockPosts = List.of(
-                new Post(1L, "user1", "user1@example.com", null, null,  null, new ArrayList<>(), null),
-                new Post(2L, "user2", "user2@example.com",  null, null,  null, new ArrayList<>(), null)
+        List<PostCard> mockPosts = List.of(
+                new PostCard(1L, "user1", null, "user1"),
+                new PostCard(2L, "user2", null, "user2")
         );
-        List<String> combinedTags = Collections.singletonList(TestEntities.getDefaultTag1().getName());
+        when(associationService.getAssociations(any(List.class))).thenReturn(List.of());
+        when(recommendationSearchRepository.rank(any(List.class), any(List.class), any(Pageable.class)))
+                .thenReturn(new RankedPostIds(List.of(), 0, List.of()));
+        when(postService.readCards(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
 
-        when(associationServiceClient.getAssociations(any(List.class))).thenReturn(List.of());
-        when(postElasticsearchRepository.findPostsExcludingTags(combinedTags, TestEntities.PAGEABLE)).thenReturn(Page.empty());
-        when(postElasticsearchRepository.findPostsWithoutTags(TestEntities.PAGEABLE)).thenReturn(Page.empty());
-        when(postElasticsearchRepository.findPostsByTags(combinedTags, TestEntities.PAGEABLE)).thenReturn(Page.empty());
-        when(postRepository.findAll(TestEntities.PAGEABLE)).thenReturn(new PageImpl<>(mockPosts, TestEntities.PAGEABLE, mockPosts.size()));
-
-        Page<Post> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
+        Page<PostCard> recommendedPosts = recommendationService.recommendedPosts(user, TestEntities.PAGEABLE);
         assertEquals(mockPosts.size(), recommendedPosts.getTotalElements());
-        verify(postService, times(0)).readAllByIds(List.of(1L), TestEntities.PAGEABLE);
+        verify(postService, never()).readCardsByIdsInOrder(any(List.class));
+    }
+
+    @Test
+    void testRecommendedPostsAfterCursor() throws InvalidCursor {
+        User user = TestEntities.getDefaultUser1();
+        user.setPreferredTags(new ArrayList<>(List.of(TestEntities.getDefaultTag1())));
+        List<String> preferredTags = List.of(TestEntities.getDefaultTag1().getName());
+        List<PostCard> mockPosts = List.of(
+                new PostCard(5L, "user1", null, "user1"),
+                new PostCard(4L, "user2", null, "user2")
+        );
+
+        when(associationService.getAssociations(any(List.class))).thenReturn(List.of());
+        when(recommendationSearchRepository.rankAfter(preferredTags, List.of(), List.of(3.0, 6L), 2))
+                .thenReturn(new RankedPostIds(List.of(5L, 4L), 10, List.of(3.0, 4L)));
+        when(postService.readCardsByIdsInOrder(List.of(5L, 4L))).thenReturn(mockPosts);
+
+        CursorPage<PostCard> page = recommendationService.recommendedPostsAfter(user, CursorCodec.encode(List.of(3.0, 6L)), 2);
+
+        assertEquals(mockPosts, page.getContent());
+        assertEquals(CursorCodec.encode(List.of(3.0, 4L)), page.getNextCursor());
+    }
+
+    @Test
+    void testRecommendedPostsAfterLastPage() throws InvalidCursor {
+        User user = TestEntities.getDefaultUser1();
+        user.setPreferredTags(new ArrayList<>());
+        when(recommendationSearchRepository.rankAfter(List.of(), List.of(), null, 2))
+                .thenReturn(new RankedPostIds(List.of(), 0, List.of()));
+
+        CursorPage<PostCard> page = recommendationService.recommendedPostsAfter(user, null, 2);
+
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(associationService, never()).getAssociations(any(List.class));
+    }
+
+    @Test
+    void testRecommendedPostsAfterInvalidCursor() {
+        User user = TestEntities.getDefaultUser1();
+        user.setPreferredTags(new ArrayList<>());
+
+        assertThrows(InvalidCursor.class, () -> recommendationService.recommendedPostsAfter(user, "not a cursor", 2));
     }
 }
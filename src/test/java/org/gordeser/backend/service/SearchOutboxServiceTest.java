@@ -0,0 +1,87 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.entity.PostElasticsearch;
+import org.gordeser.backend.entity.SearchOutboxEvent;
+import org.gordeser.backend.repository.SearchOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class SearchOutboxServiceTest {
+    @Autowired
+    private SearchOutboxService searchOutboxService;
+    @MockBean
+    private SearchOutboxRepository searchOutboxRepository;
+    @MockBean
+    private ElasticsearchSyncService syncService;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    @Test
+    void testDispatchBatchAppliesLatestEventPerPost() {
+        List<SearchOutboxEvent> events = List.of(
+                event(1L, 1L, SearchOutboxEvent.Operation.INDEX),
+                event(2L, 2L, SearchOutboxEvent.Operation.INDEX),
+                event(3L, 1L, SearchOutboxEvent.Operation.DELETE),
+                event(4L, 3L, SearchOutboxEvent.Operation.INDEX)
+        );
+        PostElasticsearch document = new PostElasticsearch("2", "title", "description", 2L, List.of(), null);
+        when(searchOutboxRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(events);
+        when(syncService.loadDocuments(Set.of(2L, 3L))).thenReturn(List.of(document));
+
+        int dispatched = searchOutboxService.dispatchBatch();
+
+        assertEquals(4, dispatched);
+        verify(postElasticsearchRepository, times(1)).saveAll(List.of(document));
+        verify(postElasticsearchRepository, times(1)).deleteAllById(List.of("1", "3"));
+        verify(searchOutboxRepository, times(1)).deleteAllInBatch(events);
+    }
+
+    @Test
+    void testDispatchBatchReschedulesFailedEvents() {
+        SearchOutboxEvent event = event(1L, 1L, SearchOutboxEvent.Operation.DELETE);
+        event.setAttempts(2);
+        LocalDateTime before = LocalDateTime.now();
+        when(searchOutboxRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("Elasticsearch is unavailable"))
+                .when(postElasticsearchRepository).deleteAllById(any());
+
+        int dispatched = searchOutboxService.dispatchBatch();
+
+        assertEquals(1, dispatched);
+        assertEquals(3, event.getAttempts());
+        assertEquals("Elasticsearch is unavailable", event.getLastError());
+        assertTrue(event.getAvailableAt().isAfter(before.plusSeconds(3)));
+        verify(searchOutboxRepository, never()).deleteAllInBatch(any());
+        verify(searchOutboxRepository, times(1)).saveAll(List.of(event));
+    }
+
+    @Test
+    void testDispatchBatchWithEmptyOutbox() {
+        when(searchOutboxRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, searchOutboxService.dispatchBatch());
+        verify(postElasticsearchRepository, never()).saveAll(any());
+    }
+
+    private static SearchOutboxEvent event(final Long id, final Long postId,
+                                           final SearchOutboxEvent.Operation operation) {
+        LocalDateTime now = LocalDateTime.now();
+        return new SearchOutboxEvent(id, postId, operation, 0, now, now, null);
+    }
+}
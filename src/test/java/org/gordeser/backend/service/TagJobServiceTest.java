@@ -0,0 +1,274 @@
+package org.gordeser.backend.service;
+
+import org.gordeser.backend.client.AssociationServiceClient;
+import org.gordeser.backend.dto.PostTagView;
+import org.gordeser.backend.elasticsearch.PostElasticsearchRepository;
+import org.gordeser.backend.elasticsearch.TagIndexRepository;
+import org.gordeser.backend.entity.Post;
+import org.gordeser.backend.entity.Tag;
+import org.gordeser.backend.entity.TagJob;
+import org.gordeser.backend.entity.User;
+import org.gordeser.backend.repository.PostRepository;
+import org.gordeser.backend.repository.TagJobRepository;
+import org.gordeser.backend.repository.TagRepository;
+import org.gordeser.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"tag.jobs.base-backoff-ms=600000", "tag.jobs.max-attempts=3"})
+class TagJobServiceTest {
+    @Autowired
+    private TagJobService tagJobService;
+    @Autowired
+    private TagJobRepository tagJobRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @MockBean
+    private TagIndexRepository tagIndexRepository;
+    @MockBean
+    private PostElasticsearchRepository postElasticsearchRepository;
+    @MockBean
+    private AssociationServiceClient associationServiceClient;
+
+    private Tag source;
+    private Tag target;
+    private Post sourceOnly;
+    private Post both;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        source = tag("src_" + suffix);
+        target = tag("dst_" + suffix);
+        sourceOnly = post("source only", List.of(source));
+        both = post("both", List.of(source, target));
+
+        User newUser = new User();
+        newUser.setUsername("tags_" + suffix);
+        newUser.setEmail("tags_" + suffix + "@example.com");
+        newUser.setPassword("password123");
+        newUser.setPreferredTags(new ArrayList<>(List.of(source)));
+        user = userRepository.save(newUser);
+
+        when(tagIndexRepository.startRemoveTag(anyString())).thenReturn("task-remove");
+        when(tagIndexRepository.startReplaceTag(anyString(), anyString())).thenReturn("task-replace");
+        when(tagIndexRepository.findUpdatedDocuments(anyString())).thenReturn(Optional.of(0L));
+    }
+
+    @Test
+    void testDeleteRemovesLinksAndDocumentsTags() {
+        when(tagIndexRepository.findUpdatedDocuments("task-remove")).thenReturn(Optional.of(2L));
+        TagJob job = tagJobService.submitDelete(source);
+
+        runAll();
+
+        TagJob finished = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.DONE, finished.getStatus());
+        assertEquals(2L, finished.getAffectedPosts());
+        assertEquals(2L, finished.getUpdatedDocuments());
+        assertFalse(tagRepository.existsById(source.getId()));
+        assertEquals(List.of(), tagNames(sourceOnly));
+        assertEquals(List.of(target.getName()), tagNames(both));
+        assertTrue(userRepository.findWithPreferredTagsById(user.getId()).orElseThrow().getPreferredTags().isEmpty());
+        assertNull(finished.getIndexTaskId());
+        verify(tagIndexRepository, times(1)).startRemoveTag(source.getName());
+    }
+
+    @Test
+    void testMergeMovesLinksWithoutDuplicates() {
+        TagJob job = tagJobService.submitMerge(source, target);
+
+        runAll();
+
+        assertEquals(TagJob.Status.DONE, tagJobRepository.findById(job.getId()).orElseThrow().getStatus());
+        assertFalse(tagRepository.existsById(source.getId()));
+        assertEquals(List.of(target.getName()), tagNames(sourceOnly));
+        assertEquals(List.of(target.getName()), tagNames(both));
+        List<Tag> preferred = userRepository.findWithPreferredTagsById(user.getId()).orElseThrow().getPreferredTags();
+        assertEquals(List.of(target.getName()), preferred.stream().map(Tag::getName).toList());
+        verify(tagIndexRepository, times(1)).startReplaceTag(source.getName(), target.getName());
+    }
+
+    @Test
+    void testRenameChangesNameOnly() {
+        String name = "new_" + source.getName();
+        TagJob job = tagJobService.submitRename(source, name);
+
+        runAll();
+
+        assertEquals(TagJob.Status.DONE, tagJobRepository.findById(job.getId()).orElseThrow().getStatus());
+        assertEquals(name, tagRepository.findById(source.getId()).orElseThrow().getName());
+        assertEquals(List.of(name), tagNames(sourceOnly));
+        verify(tagIndexRepository, times(1)).startReplaceTag(source.getName(), name);
+    }
+
+    @Test
+    void testRenameToCurrentNameChangesNothing() {
+        TagJob job = tagJobService.submitRename(source, source.getName());
+
+        runAll();
+
+        TagJob finished = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.DONE, finished.getStatus());
+        assertEquals(0L, finished.getUpdatedDocuments());
+        assertEquals(source.getName(), tagRepository.findById(source.getId()).orElseThrow().getName());
+        assertEquals(List.of(source.getName()), tagNames(sourceOnly));
+        verify(tagIndexRepository, never()).startReplaceTag(anyString(), anyString());
+    }
+
+    @Test
+    void testJobsOfTagRunInOrderWithCurrentNames() {
+        String sourceName = "new_" + source.getName();
+        String targetName = "new_" + target.getName();
+        tagJobService.submitRename(target, targetName);
+        tagJobService.submitRename(source, sourceName);
+        TagJob merge = tagJobService.submitMerge(source, target);
+
+        runAll();
+
+        TagJob finished = tagJobRepository.findById(merge.getId()).orElseThrow();
+        assertEquals(TagJob.Status.DONE, finished.getStatus());
+        assertEquals(sourceName, finished.getTagName());
+        assertEquals(targetName, finished.getTargetName());
+        assertEquals(List.of(targetName), tagNames(sourceOnly));
+        InOrder inOrder = inOrder(tagIndexRepository);
+        inOrder.verify(tagIndexRepository).startReplaceTag(target.getName(), targetName);
+        inOrder.verify(tagIndexRepository).startReplaceTag(source.getName(), sourceName);
+        inOrder.verify(tagIndexRepository).startReplaceTag(sourceName, targetName);
+    }
+
+    @Test
+    void testRenameToTakenNameFails() {
+        TagJob job = tagJobService.submitRename(source, target.getName());
+
+        runAll();
+
+        TagJob failed = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.FAILED, failed.getStatus());
+        assertNotNull(failed.getLastError());
+        assertEquals(source.getName(), tagRepository.findById(source.getId()).orElseThrow().getName());
+        verifyNoInteractions(tagIndexRepository);
+    }
+
+    @Test
+    void testIndexTaskIsPolledUntilItFinishes() {
+        when(tagIndexRepository.findUpdatedDocuments("task-remove"))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(2L));
+        TagJob job = tagJobService.submitDelete(source);
+
+        assertTrue(tagJobService.runNext());
+        TagJob started = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.INDEXING, started.getStatus());
+        assertEquals("task-remove", started.getIndexTaskId());
+
+        runAll();
+
+        TagJob finished = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.DONE, finished.getStatus());
+        assertEquals(2L, finished.getUpdatedDocuments());
+        assertEquals(0, finished.getAttempts());
+        verify(tagIndexRepository, times(1)).startRemoveTag(source.getName());
+        verify(tagIndexRepository, times(3)).findUpdatedDocuments("task-remove");
+    }
+
+    @Test
+    void testFailedIndexTaskIsStartedAgain() {
+        when(tagIndexRepository.findUpdatedDocuments("task-remove"))
+                .thenThrow(new IllegalStateException("Task task-remove failed"));
+        TagJob job = tagJobService.submitDelete(source);
+
+        runAll();
+
+        TagJob rescheduled = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.INDEXING, rescheduled.getStatus());
+        assertEquals(1, rescheduled.getAttempts());
+        assertNull(rescheduled.getIndexTaskId());
+        assertEquals("Task task-remove failed", rescheduled.getLastError());
+    }
+
+    @Test
+    void testFailedIndexStepIsRetriedWithoutRepeatingDatabaseStep() {
+        when(tagIndexRepository.startRemoveTag(source.getName())).thenThrow(new RuntimeException("search unavailable"));
+        TagJob job = tagJobService.submitDelete(source);
+
+        runAll();
+
+        TagJob rescheduled = tagJobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(TagJob.Status.INDEXING, rescheduled.getStatus());
+        assertEquals(1, rescheduled.getAttempts());
+        assertEquals("search unavailable", rescheduled.getLastError());
+        assertTrue(rescheduled.getAvailableAt().isAfter(rescheduled.getCreatedAt()));
+        assertFalse(tagRepository.existsById(source.getId()));
+    }
+
+    @Test
+    void testJobFailsAfterMaxAttemptsAndUnblocksLaterJobs() {
+        when(tagIndexRepository.startReplaceTag(eq(source.getName()), anyString()))
+                .thenThrow(new RuntimeException("mapping error"));
+        TagJob rename = tagJobService.submitRename(source, source.getName() + "_renamed");
+        TagJob delete = tagJobService.submitDelete(source);
+
+        runAll();
+        assertEquals(TagJob.Status.INDEXING, tagJobRepository.findById(rename.getId()).orElseThrow().getStatus());
+        assertEquals(TagJob.Status.PENDING, tagJobRepository.findById(delete.getId()).orElseThrow().getStatus());
+
+        // The last attempt is due.
+        TagJob retried = tagJobRepository.findById(rename.getId()).orElseThrow();
+        retried.setAttempts(2);
+        retried.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        tagJobRepository.save(retried);
+        runAll();
+
+        TagJob failed = tagJobRepository.findById(rename.getId()).orElseThrow();
+        assertEquals(TagJob.Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertEquals("Index step failed 3 times: mapping error", failed.getLastError());
+        assertNotNull(failed.getFinishedAt());
+        assertEquals(TagJob.Status.DONE, tagJobRepository.findById(delete.getId()).orElseThrow().getStatus());
+        assertFalse(tagRepository.existsById(source.getId()));
+    }
+
+    private void runAll() {
+        int steps = 0;
+        while (tagJobService.runNext()) {
+            assertTrue(++steps < 10, "jobs did not finish");
+        }
+    }
+
+    private List<String> tagNames(Post post) {
+        return postRepository.findTagNamesByPostIds(List.of(post.getId())).stream()
+                .map(PostTagView::getTagName)
+                .toList();
+    }
+
+    private Tag tag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return tagRepository.save(tag);
+    }
+
+    private Post post(String title, List<Tag> tags) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setTags(new ArrayList<>(tags));
+        return postRepository.save(post);
+    }
+}
@@ -85,29 +85,6 @@ class TagServiceTest {
         assertEquals(tags1, tags);
     }
     @Test
-    void testDeleteUserFromTagsSuccessful(){
-        User user = TestEntities.getDefaultUser1();
-        List<Tag> tags = new ArrayList<>(List.of(
-                TestEntities.getDefaultTag1(),
-                TestEntities.getDefaultTag2()
-        ));
-        tags.get(0).setUsers(new ArrayList<>(List.of(user)));
-        tags.get(1).setUsers(new ArrayList<>(List.of(user)));
-        when(tagRepository.saveAll(tags)).thenReturn(tags);
-
-        tagService.deleteUserFromTags(tags, user);
-        assertTrue(tags.get(0).getUsers().isEmpty());
-        assertTrue(tags.get(1).getUsers().isEmpty());
-    }
-    @Test
-    void testDeleteUserFromTagsEmptyTags(){
-        User user = TestEntities.getDefaultUser1();
-        List<Tag> tags = new ArrayList<>(List.of());
-        when(tagRepository.saveAll(tags)).thenReturn(tags);
-        tagService.deleteUserFromTags(tags, user);
-        verify(tagRepository, times(0)).saveAll(tags);
-    }
-    @Test
     void testAddUserToTags(){
         User user = TestEntities.getDefaultUser1();
         List<Tag> tags = new ArrayList<>(List.of(
@@ -146,7 +123,7 @@ class TagServiceTest {
         tag1.setPosts(new ArrayList<>());
         Tag tag2 = TestEntities.getDefaultTag2();
         tag2.setPosts(new ArrayList<>());
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         when(tagRepository.saveAll(List.of(tag1, tag2))).thenReturn(null);
 
         tagService.addPostToTags(new ArrayList<>(List.of(tag1, tag2)), post);
@@ -156,7 +133,7 @@ class TagServiceTest {
     }
     @Test
     void testDeletePostFromTags(){
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         Tag tag1 = TestEntities.getDefaultTag1();
         tag1.setPosts(new ArrayList<>(List.of(post)));
         Tag tag2 = TestEntities.getDefaultTag2();
@@ -170,7 +147,7 @@ class TagServiceTest {
     }
     @Test
     void testDeletePostFromTag(){
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         Tag tag1 = TestEntities.getDefaultTag1();
         tag1.setPosts(new ArrayList<>(List.of(post)));
         when(tagRepository.save(any(Tag.class))).thenReturn(null);
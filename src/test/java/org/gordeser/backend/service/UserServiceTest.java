@@ -121,15 +121,6 @@ class UserServiceTest {
         assertThrows(AlreadyExists.class, () -> userService.createUser(user));
     }
     @Test
-    void testDeletePreferedTags() {
-        User user = TestEntities.getDefaultUser1();
-        user.setPreferredTags(new ArrayList<>(List.of(TestEntities.getDefaultTag1())));
-        when(userRepository.save(user)).thenReturn(user);
-
-        userService.deletePreferedTags(user);
-        assertTrue(user.getPreferredTags().isEmpty());
-    }
-    @Test
     void testDeleteByIdExisting()throws NotFound {
         User user = TestEntities.getDefaultUser1();
         user.setId(1L);
@@ -149,7 +140,7 @@ class UserServiceTest {
     @Test
     void testAddPostToUserPositive(){
         User user = TestEntities.getDefaultUser1();
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         user.setPosts(new ArrayList<>());
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -160,7 +151,7 @@ class UserServiceTest {
     @Test
     void testAddPostToUserNegative(){
         User user = TestEntities.getDefaultUser1();
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
+        Post post = new Post(null, "full", "full", null,  null, null, null, null, null, null, null);
         user.setPosts(new ArrayList<>(List.of(post)));
         when(userRepository.save(any(User.class))).thenReturn(user);
 
@@ -169,17 +160,6 @@ class UserServiceTest {
         verify(userRepository, times(0)).save(user);
     }
     @Test
-    void testDeletePostFromUser(){
-        User user = TestEntities.getDefaultUser1();
-        Post post = new Post(null, "full", "full", null,  null, null, null, null);
-        user.setPosts(new ArrayList<>(List.of(post)));
-        when(userRepository.save(any(User.class))).thenReturn(user);
-
-        userService.deletePostFromUser(user, post);
-        assert(user.getPosts().isEmpty());
-        verify(userRepository, times(1)).save(user);
-    }
-    @Test
     void testAddFolderToUserPositive(){
         User user = TestEntities.getDefaultUser1();
         Folder folder = new Folder(null, "shrek_photos", "", user, null);
@@ -202,17 +182,6 @@ class UserServiceTest {
         verify(userRepository, times(0)).save(user);
     }
     @Test
-    void testDeleteFolderFromUser(){
-        User user = TestEntities.getDefaultUser1();
-        Folder folder = new Folder(null, "shrek_photos", "", user, null);
-        user.setFolders(new ArrayList<>(List.of(folder)));
-        when(userRepository.save(any(User.class))).thenReturn(user);
-
-        userService.deleteFolderFromUser(user, folder);
-        assert(user.getFolders().isEmpty());
-        verify(userRepository, times(1)).save(user);
-    }
-    @Test
     void testAddTagsToUser(){
         User user = TestEntities.getDefaultUser1();
         Tag tag1 = TestEntities.getDefaultTag1();
@@ -0,0 +1,34 @@
+-- Realistically sized data set for QueryPlanTest. IDs start at 1000001 to stay clear of the initial data.
+-- 20,000 patrons with one folder and 10 posts each, 2,000 tags, 3 tags and 2 comments per post,
+-- 10 posts per folder, 5 preferred tags per patron and every 200th post deleted.
+INSERT INTO public.patron (id, email, username, password, token_version)
+SELECT id, 'user' || id || '@example.com', 'user' || id, 'password', 0 FROM generate_series(1000001, 1020000) id;
+INSERT INTO public.tag (id, name) SELECT id, 'tag' || id FROM generate_series(1000001, 1002000) id;
+INSERT INTO public.image (id, file, storage_key)
+SELECT id, 'https://bucket/images/' || id || '.jpg', 'images/' || id || '.jpg' FROM generate_series(1000001, 1200000) id;
+INSERT INTO public.post (id, image_id, title, description, created_at, comment_count, deleted_at)
+SELECT id, id, 'post ' || id, 'description of post ' || id, now() - make_interval(mins => (1200000 - id)::int), 2,
+       CASE WHEN id % 200 = 0 THEN now() END
+FROM generate_series(1000001, 1200000) id;
+INSERT INTO public.post_patron (post_id, patron_id)
+SELECT id, 1000001 + (id - 1000001) % 20000 FROM generate_series(1000001, 1200000) id;
+INSERT INTO public.post_tag (post_id, tag_id)
+SELECT id, 1000001 + (id * 7 + j * 611) % 2000 FROM generate_series(1000001, 1200000) id, generate_series(0, 2) j;
+INSERT INTO public.comment (id, text, post_id, author_username, date)
+SELECT id, 'comment ' || id, 1000001 + (id - 1000001) / 2, 'user' || (1000001 + id % 20000),
+       now() - make_interval(mins => (1400000 - id)::int)
+FROM generate_series(1000001, 1400000) id;
+INSERT INTO public.folder (id, title, description)
+SELECT id, 'folder ' || id, 'description of folder ' || id FROM generate_series(1000001, 1020000) id;
+INSERT INTO public.patron_folder (folder_id, patron_id) SELECT id, id FROM generate_series(1000001, 1020000) id;
+INSERT INTO public.folder_post (folder_id, post_id)
+SELECT id, id + (id - 1000001) * 9 + j FROM generate_series(1000001, 1020000) id, generate_series(0, 9) j;
+INSERT INTO public.user_tags (user_id, tag_id)
+SELECT id, 1000001 + (id * 13 + j * 397) % 2000 FROM generate_series(1000001, 1020000) id, generate_series(0, 4) j;
+SELECT setval('public.patron_id_seq', (SELECT max(id) FROM public.patron));
+SELECT setval('public.tag_id_seq', (SELECT max(id) FROM public.tag));
+SELECT setval('public.image_id_seq', (SELECT max(id) FROM public.image));
+SELECT setval('public.post_id_seq', (SELECT max(id) FROM public.post));
+SELECT setval('public.comment_id_seq', (SELECT max(id) FROM public.comment));
+SELECT setval('public.folder_id_seq', (SELECT max(id) FROM public.folder));
+ANALYZE;